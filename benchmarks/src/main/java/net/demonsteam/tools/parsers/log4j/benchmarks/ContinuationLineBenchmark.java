@@ -0,0 +1,60 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import net.demonsteam.tools.parsers.log4j.impl.HeaderDetector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decides if a line starts a new entry or continues the body of the previous one, on the raw bytes as the reader does
+ * and on the decoded line. One operation is one line of the log, body lines included.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContinuationLineBenchmark {
+
+	@Benchmark
+	public boolean isHeaderBytes(final LogCorpus corpus, final LineCursor cursor, final Throughput throughput) {
+		final int line = cursor.nextLine(corpus);
+		throughput.add(corpus.lineEnds[line] - corpus.lineStarts[line] + 1, 1);
+		return HeaderDetector.ANY_LEVEL.isHeader(corpus.data, corpus.lineStarts[line], corpus.lineEnds[line]);
+	}
+
+	@Benchmark
+	public boolean isHeaderDecoded(final LogCorpus corpus, final LineCursor cursor, final Throughput throughput) {
+		final int line = cursor.nextLine(corpus);
+		throughput.add(corpus.lineEnds[line] - corpus.lineStarts[line] + 1, 1);
+		return HeaderDetector.ANY_LEVEL.isHeader(corpus.lines[line]);
+	}
+}
@@ -0,0 +1,89 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.demonsteam.tools.parsers.log4j.impl.LineFilter;
+import net.demonsteam.tools.parsers.log4j.impl.LogLevel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matches the lines against the log levels and the user pattern. The <code>bytes</code> benchmark checks the raw
+ * bytes and decodes only the candidates, like the reader, the <code>decoded</code> benchmark matches the already
+ * decoded line. One operation is one line of the log.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+	@Param({ "error,warn" })
+	public String levels;
+
+	@Param({ ".*", ".*Connection refused.*", "Connection refused to host db[0-9]:.*" })
+	public String pattern;
+
+	private LineFilter filter;
+
+	@Setup
+	public void setUp() {
+		final List<LogLevel> logLevels = new ArrayList<>();
+		for(final String level: this.levels.split(",")) {
+			logLevels.add(LogLevel.valueOf(level.toUpperCase()));
+		}
+		this.filter = new LineFilter(logLevels, this.pattern, StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public boolean bytes(final LogCorpus corpus, final LineCursor cursor, final Throughput throughput) {
+		final int line = cursor.nextLine(corpus);
+		final int start = corpus.lineStarts[line];
+		final int end = corpus.lineEnds[line];
+		throughput.add(end - start + 1, 1);
+		return this.filter.mayMatch(corpus.data, start, end) && this.filter.matches(new String(corpus.data, start, end - start, StandardCharsets.US_ASCII));
+	}
+
+	@Benchmark
+	public boolean decoded(final LogCorpus corpus, final LineCursor cursor, final Throughput throughput) {
+		final int line = cursor.nextLine(corpus);
+		throughput.add(corpus.lineEnds[line] - corpus.lineStarts[line] + 1, 1);
+		return this.filter.matches(corpus.lines[line]);
+	}
+}
@@ -0,0 +1,56 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The position of a thread in the lines of the {@link LogCorpus}, so a benchmark operation handles a single line and
+ * the allocation reported by the GC profiler is the allocation per line
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@State(Scope.Thread)
+public class LineCursor {
+
+	private int line = -1;
+	private int header = -1;
+
+	/**
+	 * @return the index of the next line, starting over after the last one
+	 */
+	public int nextLine(final LogCorpus corpus) {
+		if(++this.line == corpus.lines.length) {
+			this.line = 0;
+		}
+		return this.line;
+	}
+
+	/**
+	 * @return the index of the next line starting an entry, starting over after the last one
+	 */
+	public int nextHeader(final LogCorpus corpus) {
+		if(++this.header == corpus.headerLines.length) {
+			this.header = 0;
+		}
+		return corpus.headerLines[this.header];
+	}
+}
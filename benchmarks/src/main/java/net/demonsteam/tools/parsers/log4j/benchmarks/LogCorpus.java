@@ -0,0 +1,107 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.HeaderDetector;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A synthetic log held in memory and split into lines, shared by the threads of a benchmark. The lines are kept as
+ * ranges of the raw bytes and decoded, so the byte and the character stages of the parser can be measured alike.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@State(Scope.Benchmark)
+public class LogCorpus {
+
+	private static final long SIZE = 16 * 1024 * 1024;
+
+	@Param({ SyntheticLogGenerator.DEFAULT_LEVEL_MIX })
+	public String levelMix;
+
+	@Param({ "10" })
+	public int stackTraceDepth;
+
+	@Param({ "0.9" })
+	public double duplicateRatio;
+
+	byte[] data;
+	int[] lineStarts;
+	int[] lineEnds;
+	String[] lines;
+	/** the indexes of the lines starting an entry */
+	int[] headerLines;
+
+	@Setup
+	public void generate() {
+		this.data = new SyntheticLogGenerator(42, this.levelMix, this.stackTraceDepth, this.duplicateRatio).generate(SIZE);
+		final List<String> decoded = new ArrayList<>();
+		final List<Integer> starts = new ArrayList<>();
+		final List<Integer> headers = new ArrayList<>();
+		int start = 0;
+		for(int i = 0; i < this.data.length; i++) {
+			if(this.data[i] == '\n') {
+				if(HeaderDetector.ANY_LEVEL.isHeader(this.data, start, i)) {
+					headers.add(decoded.size());
+				}
+				starts.add(start);
+				decoded.add(new String(this.data, start, i - start, StandardCharsets.US_ASCII));
+				start = i + 1;
+			}
+		}
+		this.lines = decoded.toArray(new String[decoded.size()]);
+		this.lineStarts = new int[this.lines.length];
+		this.lineEnds = new int[this.lines.length];
+		for(int i = 0; i < this.lines.length; i++) {
+			this.lineStarts[i] = starts.get(i);
+			this.lineEnds[i] = starts.get(i) + this.lines[i].length();
+		}
+		this.headerLines = headers.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @param options the options besides the input, e.g. the log levels
+	 * @return the application arguments for a virtual input file
+	 */
+	public static AppArguments createAppArguments(final String... options) {
+		final String[] args = Arrays.copyOf(options, options.length + 2);
+		args[options.length] = "-i";
+		args[options.length + 1] = new File(System.getProperty("java.io.tmpdir"), "synthetic.log").getAbsolutePath();
+		return new AppArguments(args);
+	}
+
+	/**
+	 * @return the number of lines
+	 */
+	public int size() {
+		return this.lines.length;
+	}
+}
@@ -0,0 +1,134 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import net.demonsteam.tools.parsers.log4j.Log4jParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the parser end to end on a synthetic log file, like the command line does, writing the report to a file. One
+ * operation is one run over the whole file, the bytes and lines counters give the throughput. The console messages of
+ * the parser are discarded while the benchmark runs.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseFileBenchmark {
+
+	@Param({ "64" })
+	public int sizeMb;
+
+	@Param({ "1" })
+	public int threads;
+
+	/** dump: write all error and warn entries, unique: group them, pattern: write only the ones matching a literal */
+	@Param({ "dump", "unique", "pattern" })
+	public String mode;
+
+	private File dir;
+	private File logFile;
+	private long lineCount;
+	private String[] args;
+	private PrintStream console;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.dir = Files.createTempDirectory("log4jparser-benchmark").toFile();
+		this.logFile = new File(this.dir, "synthetic.log");
+		new SyntheticLogGenerator(42, SyntheticLogGenerator.DEFAULT_LEVEL_MIX, 10, 0.9).write(this.logFile, this.sizeMb * 1024L * 1024L);
+		try (Stream<String> lines = Files.lines(this.logFile.toPath())) {
+			this.lineCount = lines.count();
+		}
+		final String output = new File(this.dir, "report.log").getAbsolutePath();
+		final String threadCount = Integer.toString(this.threads);
+		switch(this.mode) {
+			case "dump":
+				this.args = new String[] { "-l", "error,warn", "-t", threadCount, "-i", this.logFile.getAbsolutePath(), "-o", output };
+				break;
+			case "unique":
+				this.args = new String[] { "-l", "error,warn", "-u", "-t", threadCount, "-i", this.logFile.getAbsolutePath(), "-o", output };
+				break;
+			case "pattern":
+				this.args = new String[] { "-l", "error,warn", "-p", ".*Connection refused.*", "-t", threadCount, "-i", this.logFile.getAbsolutePath(), "-o", output };
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown mode: " + this.mode);
+		}
+		this.console = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+
+			@Override
+			public void write(final int b) {
+				// discarded
+			}
+
+			@Override
+			public void write(final byte[] bytes, final int offset, final int length) {
+				// discarded
+			}
+		}));
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.setOut(this.console);
+		for(final File file: this.dir.listFiles()) {
+			file.delete();
+		}
+		this.dir.delete();
+	}
+
+	@Benchmark
+	public void parseFile(final Throughput throughput) {
+		new Log4jParser(this.args);
+		throughput.add(this.logFile.length(), this.lineCount);
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteReport() {
+		new File(this.dir, "report.log").delete();
+	}
+}
@@ -0,0 +1,226 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.demonsteam.tools.parsers.log4j.impl.LogLevel;
+
+/**
+ * Writes a synthetic log4j log in the default format of the parser (<code>dd.MM.yyyy HH:mm:ss.SSSS *LEVEL* ...</code>).
+ * The output depends only on the arguments, the same seed always gives the same log, so benchmark runs are comparable.
+ * <p>
+ * The levels are drawn from a weighted mix, the entries of the levels <code>FATAL</code> and <code>ERROR</code> carry
+ * a stack trace of the given depth and the given share of the entries repeats the message and body of an earlier one.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class SyntheticLogGenerator {
+
+	public static final String DEFAULT_LEVEL_MIX = "FATAL:1,ERROR:4,WARN:10,INFO:60,DEBUG:20,TRACE:5";
+
+	private static final int DUPLICATE_POOL_SIZE = 4096;
+	private static final LocalDateTime START = LocalDateTime.of(2019, 1, 1, 0, 0);
+	private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+	private static final String[] MESSAGES = {
+	        "User %d logged in from 10.0.%d.%d",
+	        "Timeout after %d ms waiting for the response of node-%d",
+	        "Connection refused to host db%d:%d",
+	        "Request /api/v1/orders/%d processed in %d ms",
+	        "Cache miss for key session:%d:%d",
+	        "NullPointerException in handler %d of pipeline %d",
+	        "Job %d finished with %d processed items" };
+	private static final String[] EXCEPTIONS = {
+	        "java.lang.IllegalStateException: Illegal state of order %d",
+	        "java.net.ConnectException: Connection refused to host db%d",
+	        "java.lang.NullPointerException: value %d is null" };
+
+	private final long seed;
+	private final LogLevel[] levels;
+	private final int[] cumulativeWeights;
+	private final int stackTraceDepth;
+	private final double duplicateRatio;
+
+	/**
+	 * @param seed the seed of the random values
+	 * @param levelMix the weights of the levels, e.g. <code>ERROR:5,INFO:95</code>
+	 * @param stackTraceDepth the number of <code>at</code> lines of the stack trace of an error entry, 0 for none
+	 * @param duplicateRatio the share of the entries repeating an earlier one, between 0 and 1
+	 * @throws IllegalArgumentException if the level mix is invalid
+	 */
+	public SyntheticLogGenerator(final long seed, final String levelMix, final int stackTraceDepth, final double duplicateRatio) {
+		this.seed = seed;
+		final String[] parts = levelMix.split(",");
+		this.levels = new LogLevel[parts.length];
+		this.cumulativeWeights = new int[parts.length];
+		int total = 0;
+		for(int i = 0; i < parts.length; i++) {
+			final String[] levelAndWeight = parts[i].trim().split(":");
+			if(levelAndWeight.length != 2) {
+				throw new IllegalArgumentException("Invalid level weight: " + parts[i]);
+			}
+			this.levels[i] = LogLevel.valueOf(levelAndWeight[0].trim().toUpperCase());
+			total += Integer.parseInt(levelAndWeight[1].trim());
+			this.cumulativeWeights[i] = total;
+		}
+		if(total <= 0) {
+			throw new IllegalArgumentException("The level mix has no weight: " + levelMix);
+		}
+		this.stackTraceDepth = stackTraceDepth;
+		this.duplicateRatio = duplicateRatio;
+	}
+
+	/**
+	 * @param size the minimum number of bytes to generate, the last entry is always complete
+	 * @return the log
+	 */
+	public byte[] generate(final long size) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, size + 4096));
+		try {
+			write(out, size);
+		} catch(final IOException e) {
+			throw new IllegalStateException(e); // not thrown by a byte array stream
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param file the file to write
+	 * @param size the minimum number of bytes to generate, the last entry is always complete
+	 * @throws IOException if the file can't be written
+	 */
+	public void write(final File file, final long size) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024)) {
+			write(out, size);
+		}
+	}
+
+	/**
+	 * @param out the output, not closed
+	 * @param size the minimum number of bytes to generate, the last entry is always complete
+	 * @return the number of bytes written
+	 * @throws IOException if the output fails
+	 */
+	public long write(final OutputStream out, final long size) throws IOException {
+		final Random random = new Random(this.seed);
+		final List<String> pool = new ArrayList<>();
+		final StringBuilder entry = new StringBuilder(1024);
+		long written = 0;
+		long millis = 0;
+		long second = -1;
+		String secondPrefix = null;
+		long sequence = 0;
+		while(written < size) {
+			millis += random.nextInt(4);
+			if(millis / 1000 != second) {
+				second = millis / 1000;
+				secondPrefix = START.plusSeconds(second).format(SECOND_FORMAT);
+			}
+			entry.setLength(0);
+			entry.append(secondPrefix).append('.');
+			appendPadded(entry, millis % 1000);
+			entry.append(' ');
+			if(!pool.isEmpty() && random.nextDouble() < this.duplicateRatio) {
+				entry.append(pool.get(random.nextInt(pool.size())));
+			} else {
+				final int start = entry.length();
+				appendEntry(entry, nextLevel(random), random, sequence++);
+				final String rest = entry.substring(start);
+				if(pool.size() < DUPLICATE_POOL_SIZE) {
+					pool.add(rest);
+				} else {
+					pool.set(random.nextInt(DUPLICATE_POOL_SIZE), rest);
+				}
+			}
+			final byte[] bytes = entry.toString().getBytes(StandardCharsets.US_ASCII);
+			out.write(bytes);
+			written += bytes.length;
+		}
+		return written;
+	}
+
+	private LogLevel nextLevel(final Random random) {
+		final int value = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+		int i = 0;
+		while(value >= this.cumulativeWeights[i]) {
+			i++;
+		}
+		return this.levels[i];
+	}
+
+	/**
+	 * Appends the entry after the date: the level, the thread, the class, the message and the stack trace if any
+	 */
+	private void appendEntry(final StringBuilder entry, final LogLevel level, final Random random, final long sequence) {
+		entry.append('*').append(level.name()).append("* [thread-").append(random.nextInt(16)).append("] com.example.Service").append(random.nextInt(8)).append(' ');
+		// the sequence makes the message unique, the random values make it look like a real one
+		entry.append(String.format(MESSAGES[random.nextInt(MESSAGES.length)], sequence, random.nextInt(256), random.nextInt(256))).append('\n');
+		if((level == LogLevel.FATAL || level == LogLevel.ERROR) && this.stackTraceDepth > 0) {
+			entry.append(String.format(EXCEPTIONS[random.nextInt(EXCEPTIONS.length)], random.nextInt(10))).append('\n');
+			final int frames = random.nextInt(4);
+			for(int i = 0; i < this.stackTraceDepth; i++) {
+				entry.append("\tat com.example.Service").append(frames).append(".handle").append(i).append("(Service").append(frames).append(".java:").append(10 + i * 7).append(")\n");
+			}
+		}
+	}
+
+	private static void appendPadded(final StringBuilder entry, final long millis) {
+		if(millis < 1000) {
+			entry.append('0');
+		}
+		if(millis < 100) {
+			entry.append('0');
+		}
+		if(millis < 10) {
+			entry.append('0');
+		}
+		entry.append(millis);
+	}
+
+	/**
+	 * Writes a synthetic log file
+	 *
+	 * @param args the file, the size in MB and optionally the level mix, the stack trace depth, the duplicate ratio and
+	 *            the seed
+	 * @throws IOException if the file can't be written
+	 */
+	public static void main(final String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("usage: SyntheticLogGenerator <file> <size MB> [level mix] [stack trace depth] [duplicate ratio] [seed]");
+			System.exit(1);
+		}
+		final String levelMix = args.length > 2 ? args[2] : DEFAULT_LEVEL_MIX;
+		final int stackTraceDepth = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+		final double duplicateRatio = args.length > 4 ? Double.parseDouble(args[4]) : 0.9;
+		final long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+		new SyntheticLogGenerator(seed, levelMix, stackTraceDepth, duplicateRatio).write(new File(args[0]), Long.parseLong(args[1]) * 1024 * 1024);
+	}
+}
@@ -0,0 +1,84 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.BodyStore;
+import net.demonsteam.tools.parsers.log4j.impl.LogEntryReader;
+import net.demonsteam.tools.parsers.log4j.impl.UniqueEntryAggregator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Groups the entries of the whole corpus by their message or template, reading them from memory, so the score is the
+ * cost of the reading, the hashing and the aggregation without the file system. One operation is the whole corpus, the
+ * bytes and lines counters give the throughput.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UniqueGroupingBenchmark {
+
+	@Param({ "fatal,error,warn" })
+	public String levels;
+
+	@Param({ AppArguments.DEFAULT_VALUE_OPT_GROUP, AppArguments.VALUE_OPT_GROUP_TEMPLATE })
+	public String group;
+
+	private AppArguments appArgs;
+
+	@Setup
+	public void setUp() {
+		this.appArgs = LogCorpus.createAppArguments("-l", this.levels, "-u", "-g", this.group);
+	}
+
+	@Benchmark
+	public int group(final LogCorpus corpus, final Throughput throughput) throws IOException {
+		final UniqueEntryAggregator aggregator = new UniqueEntryAggregator();
+		try (BodyStore bodyStore = new BodyStore(this.appArgs.getMemoryBudget(), null);
+		        LogEntryReader reader = new LogEntryReader(new ByteArrayInputStream(corpus.data), this.appArgs, bodyStore)) {
+			while(reader.next() != null) {
+				// the first occurrences are collected by the reader
+			}
+			aggregator.mergeAll(reader.getUniqueEntries());
+			throughput.add(corpus.data.length, reader.getLineNumber());
+		}
+		return aggregator.size();
+	}
+}
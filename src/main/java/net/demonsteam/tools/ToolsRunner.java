@@ -18,7 +18,12 @@
  * OR OTHER DEALINGS IN THE SOFTWARE. */
 package net.demonsteam.tools;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import net.demonsteam.tools.parsers.log4j.Log4jParser;
+import net.demonsteam.tools.parsers.log4j.ParserClient;
+import net.demonsteam.tools.parsers.log4j.ParserDaemon;
 
 /**
  * Application main class and starting point for running the different tools
@@ -29,10 +34,18 @@ import net.demonsteam.tools.parsers.log4j.Log4jParser;
 public class ToolsRunner {
 
 	/**
-	 * @param args
+	 * @param args the arguments of the parser, or <code>daemon</code> followed by the options of the daemon, or
+	 *            <code>client</code> followed by the arguments of a job run on the daemon
+	 * @throws IOException if the daemon can't be started
 	 */
-	public static void main(final String[] args) {
-		new Log4jParser(args);
+	public static void main(final String[] args) throws IOException {
+		if(args.length > 0 && "daemon".equals(args[0])) {
+			ParserDaemon.main(Arrays.copyOfRange(args, 1, args.length));
+		} else if(args.length > 0 && "client".equals(args[0])) {
+			ParserClient.main(Arrays.copyOfRange(args, 1, args.length));
+		} else if(!new Log4jParser(args).isSucceeded()) {
+			System.exit(1);
+		}
 	}
 
 }
@@ -18,33 +18,53 @@
  * OR OTHER DEALINGS IN THE SOFTWARE. */
 package net.demonsteam.tools.parsers.log4j;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.text.ParseException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.ZipEntry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipException;
-import java.util.zip.ZipFile;
 
 import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.AsyncBatchWriter;
+import net.demonsteam.tools.parsers.log4j.impl.BodyStore;
+import net.demonsteam.tools.parsers.log4j.impl.Checkpoint;
+import net.demonsteam.tools.parsers.log4j.impl.ChunkedFileParser;
+import net.demonsteam.tools.parsers.log4j.impl.CombinedInputParser;
+import net.demonsteam.tools.parsers.log4j.impl.Console;
+import net.demonsteam.tools.parsers.log4j.impl.ConcurrentEntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.EntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.EntryEncoder;
+import net.demonsteam.tools.parsers.log4j.impl.FileRangeInputStream;
+import net.demonsteam.tools.parsers.log4j.impl.FollowInputStream;
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker;
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker.InputSource;
 import net.demonsteam.tools.parsers.log4j.impl.LogEntry;
+import net.demonsteam.tools.parsers.log4j.impl.LogEntryReader;
 import net.demonsteam.tools.parsers.log4j.impl.LogLevel;
+import net.demonsteam.tools.parsers.log4j.impl.MergedEntryReader;
+import net.demonsteam.tools.parsers.log4j.impl.MultiQueryReader;
+import net.demonsteam.tools.parsers.log4j.impl.ReportSorter;
+import net.demonsteam.tools.parsers.log4j.impl.RunStatistics;
+import net.demonsteam.tools.parsers.log4j.impl.TimeRangeSeeker;
+import net.demonsteam.tools.parsers.log4j.impl.Timeline;
+import net.demonsteam.tools.parsers.log4j.impl.TopEntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.UniqueEntryAggregator;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 
 /**
@@ -55,19 +75,100 @@ import org.apache.commons.lang3.time.StopWatch;
  */
 public class Log4jParser {
 
-	private static final int READ_AHEAD_LIMIT = (512 * 1000) / 8; // limit to 512KB of characters
+	private static final long FOLLOW_POLL_MILLIS = 500;
+
+	private ChunkedFileParser chunkedFileParser;
+	private BodyStore bodyStore;
+	private Checkpoint checkpoint;
+	private File tempDir;
+	private boolean failed; // set where a read error is reported and the parser goes on with the next source
+	private boolean succeeded;
 
 	public Log4jParser(final String... consoleArgs) {
-		final AppArguments appArgs = new AppArguments(consoleArgs);
+		this(new AppArguments(consoleArgs), new FileOutputStream(FileDescriptor.out).getChannel());
+	}
+
+	/**
+	 * @param appArgs the parsed arguments
+	 * @param standardOutput the output of the entries if no output file is given, not closed
+	 */
+	public Log4jParser(final AppArguments appArgs, final WritableByteChannel standardOutput) {
+		boolean structuredOutput = isStructuredOutput(appArgs);
+		for(final AppArguments query: appArgs.getQueries()) {
+			structuredOutput |= isStructuredOutput(query);
+		}
+		final PrintStream consoleOut = Console.out();
+		if(structuredOutput) {
+			// the standard output carries the records, the messages go to the standard error
+			Console.redirect(Console.err(), Console.err());
+		}
+		try {
+			this.succeeded = run(appArgs, standardOutput);
+		} finally {
+			if(structuredOutput) {
+				Console.redirect(consoleOut, Console.err());
+			}
+		}
+	}
+
+	/**
+	 * @return true if the query writes records of a structured format to the standard output
+	 */
+	private static boolean isStructuredOutput(final AppArguments appArgs) {
+		return !EntryEncoder.FORMAT_TEXT.equals(appArgs.getFormat()) && !appArgs.isWriteToFileEnabled();
+	}
+
+	/**
+	 * @return false if a source couldn't be read or the output couldn't be written
+	 */
+	public boolean isSucceeded() {
+		return this.succeeded;
+	}
+
+	/**
+	 * @return false if a source couldn't be read or the output couldn't be written
+	 */
+	private boolean run(final AppArguments appArgs, final WritableByteChannel standardOutput) {
 		LogLevel.INFO.printlnToConsole("###################################### App arguments ######################################\n%s", appArgs);
 
-		try (BufferedWriter writer = new BufferedWriter(appArgs.isWriteToFileEnabled() ? new OutputStreamWriter(new FileOutputStream(appArgs.getOutputFilePath()), "UTF-8") : new OutputStreamWriter(System.out))) {
+		final RunStatistics statistics = appArgs.getStatistics();
+		try (AsyncBatchWriter writer = appArgs.isWriteToFileEnabled() ? openOutputFile(new File(appArgs.getOutputFilePath()), statistics)
+		        : new AsyncBatchWriter(standardOutput, Charset.defaultCharset(), false, statistics)) {
+			final EntryEncoder encoder = EntryEncoder.create(appArgs.getFormat(), writer, appArgs.getTimelineBucketMillis() > 0);
+			encoder.writeHeader();
 			boolean cleanUp = false;
 			if(!appArgs.getTempDir().exists()) {
 				cleanUp = appArgs.getTempDir().mkdir();
 			}
+			// fall back to the default temp directory if the directory of the input is read only
+			this.tempDir = appArgs.getTempDir().canWrite() ? appArgs.getTempDir() : null;
 
-			parseFile(appArgs.getInputFile(), writer, appArgs);
+			this.bodyStore = new BodyStore(appArgs.getMemoryBudget(), this.tempDir);
+			if(appArgs.getThreads() > 1) {
+				this.chunkedFileParser = new ChunkedFileParser(appArgs, this.bodyStore);
+			}
+			try {
+				if(appArgs.getCheckpointFile() != null) {
+					this.checkpoint = Checkpoint.load(appArgs.getCheckpointFile(), appArgs, this.bodyStore);
+				}
+				if(!appArgs.getQueries().isEmpty()) {
+					parseQueries(appArgs.getInputFile(), encoder, standardOutput, appArgs);
+				} else if(appArgs.isFlagFollow()) {
+					followFile(appArgs.getInputFile(), encoder, appArgs);
+				} else {
+					parseFile(appArgs.getInputFile(), encoder, appArgs);
+				}
+				if(this.checkpoint != null) {
+					this.checkpoint.save(appArgs.getCheckpointFile());
+				}
+			} finally {
+				if(this.chunkedFileParser != null) {
+					this.chunkedFileParser.close();
+				}
+				statistics.add(RunStatistics.Counter.BODY_BYTES_STORED, this.bodyStore.size());
+				statistics.add(RunStatistics.Counter.TEMP_BYTES_WRITTEN, this.bodyStore.spilledSize());
+				this.bodyStore.close();
+			}
 
 			if(cleanUp) {
 				for(final File tmpFile: appArgs.getTempDir().listFiles()) {
@@ -77,145 +178,377 @@ public class Log4jParser {
 			}
 		} catch(final ZipException e) {
 			LogLevel.ERROR.printlnToConsole("Cannot read source from zip file: %s", e.getMessage());
+			this.failed = true;
 		} catch(final IOException e) {
 			LogLevel.ERROR.printlnToConsole("Cannot read source from file: %s", e.getMessage());
-			e.printStackTrace();
+			e.printStackTrace(Console.err());
+			this.failed = true;
 		}
+		if(statistics.isEnabled()) {
+			printStatistics(statistics, appArgs.getStatsJsonFile());
+		}
+		return !this.failed;
 	}
 
-	private void parseFile(final File fileArg, final BufferedWriter writer, final AppArguments appArgs) throws ZipException, IOException {
-
-		if(fileArg.getPath().endsWith(".zip")) {
-			final ZipFile zipFile = new ZipFile(fileArg);
-
-			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-			final List<? extends ZipEntry> contentEntries = Collections.list(entries);
-			Collections.sort(contentEntries, new Comparator<ZipEntry>() {
+	private static void printStatistics(final RunStatistics statistics, final File jsonFile) {
+		statistics.finish();
+		LogLevel.INFO.printlnToConsole("###################################### Statistics ######################################\n%s", statistics.toSummary());
+		if(jsonFile != null) {
+			try {
+				statistics.writeJson(jsonFile);
+			} catch(final IOException e) {
+				LogLevel.ERROR.printlnToConsole("Cannot write the statistics to %s: %s", jsonFile.getPath(), e.getMessage());
+			}
+		}
+	}
 
-				@Override
-				public int compare(final ZipEntry first, final ZipEntry second) {
-					return first.getName().compareTo(second.getName());
+	private void parseFile(final File fileArg, final EntryEncoder encoder, final AppArguments appArgs) throws ZipException, IOException {
+		try (InputSourceWalker walker = new InputSourceWalker(this.tempDir, appArgs.getThreads(), appArgs.getStatistics())) {
+			final List<InputSource> sources = walker.walk(fileArg);
+			if(appArgs.isFlagMerge()) {
+				parseEntries(encoder, fileArg.getPath(), appArgs, createAggregator(appArgs, false), aggregator -> mergeEntries(sources, encoder, appArgs));
+				return;
+			}
+			if(appArgs.isFlagCombine()) {
+				try (CombinedInputParser combinedParser = new CombinedInputParser(appArgs, this.bodyStore)) {
+					parseEntries(encoder, fileArg.getPath(), appArgs, createAggregator(appArgs, true), aggregator -> combinedParser.parse(sources, aggregator, encoder));
 				}
-			});
-			for(final ZipEntry contentEntry: contentEntries) {
-				if(contentEntry.isDirectory()) {
-					continue; //TODO implement directory tree walking within the archive
+				return;
+			}
+			for(int i = 0; i < sources.size(); i++) {
+				final InputSource source = sources.get(i);
+				// the next compressed sources are inflated while this one is parsed
+				for(int next = i + 1; next < Math.min(sources.size(), i + appArgs.getThreads()); next++) {
+					sources.get(next).prefetch();
 				}
-				parseFile(zipFile.getInputStream(contentEntry), writer, fileArg.getPath() + "/" + contentEntry.getName(), appArgs);
-			}
-			zipFile.close();
-		} else if(fileArg.isDirectory()) {
-			final File[] files = fileArg.listFiles();
-			if(files.length > 0) {
-				for(final File file: files) {
-					parseFile(file, writer, appArgs);
+				if(this.checkpoint != null) {
+					resumeFile(source, encoder, appArgs);
+				} else if(source.getFile() != null && (appArgs.hasTimeRange() || appArgs.isFlagIndex())) {
+					parseTimeRange(source.getFile(), encoder, source.getPath(), appArgs);
+				} else if(source.getFile() != null && this.chunkedFileParser != null) {
+					parseEntries(encoder, source.getPath(), appArgs, createAggregator(appArgs, false), aggregator -> this.chunkedFileParser.parse(source.getFile(), aggregator, encoder));
+				} else {
+					parseFile(source.open(), encoder, source.getPath(), appArgs);
 				}
 			}
-		} else {
-			parseFile(new FileInputStream(fileArg), writer, fileArg.getPath(), appArgs);
 		}
+	}
 
+	/**
+	 * Runs the query of the command line and the further queries in a single read of every source, each query writing
+	 * to its own output
+	 */
+	private void parseQueries(final File fileArg, final EntryEncoder encoder, final WritableByteChannel standardOutput, final AppArguments appArgs) throws IOException {
+		final List<AppArguments> queries = new ArrayList<>();
+		queries.add(appArgs);
+		queries.addAll(appArgs.getQueries());
+		final List<EntryEncoder> encoders = new ArrayList<>();
+		encoders.add(encoder);
+		final List<AsyncBatchWriter> writers = new ArrayList<>();
+		try {
+			for(final AppArguments query: appArgs.getQueries()) {
+				// only one query writes to the standard output
+				final AsyncBatchWriter writer = query.isWriteToFileEnabled() ? openOutputFile(new File(query.getOutputFilePath()), appArgs.getStatistics())
+				        : new AsyncBatchWriter(standardOutput, Charset.defaultCharset(), false, appArgs.getStatistics());
+				writers.add(writer);
+				final EntryEncoder queryEncoder = EntryEncoder.create(query.getFormat(), writer, query.getTimelineBucketMillis() > 0);
+				queryEncoder.writeHeader();
+				encoders.add(queryEncoder);
+			}
+			try (InputSourceWalker walker = new InputSourceWalker(this.tempDir, appArgs.getThreads(), appArgs.getStatistics())) {
+				final List<InputSource> sources = walker.walk(fileArg);
+				for(int i = 0; i < sources.size(); i++) {
+					// the next compressed sources are inflated while this one is parsed
+					for(int next = i + 1; next < Math.min(sources.size(), i + appArgs.getThreads()); next++) {
+						sources.get(next).prefetch();
+					}
+					parseQueries(sources.get(i), queries, encoders);
+				}
+			}
+		} finally {
+			for(final AsyncBatchWriter writer: writers) {
+				writer.close();
+			}
+		}
 	}
 
-	private void parseFile(final InputStream inputStream, final BufferedWriter writer, final String path, final AppArguments appArgs) {
+	private void parseQueries(final InputSource source, final List<AppArguments> queries, final List<EntryEncoder> encoders) {
+		final AppArguments appArgs = queries.get(0);
+		final String path = source.getPath();
 		LogLevel.INFO.printlnToConsole("###################################### START Parsing file %s ######################################", path);
 		StopWatch timeStopper = new StopWatch();
 		timeStopper.start();
-		final Map<String, LogEntry> uniqueLogEntries = new HashMap<>();
-		final Map<String, String> uniqueLogEntryBodyMap = new HashMap<>();
-		try (final BufferedReader inputReader = new BufferedReader(new InputStreamReader(inputStream))) {
-			AtomicLong lineNumber = new AtomicLong();
-			LogEntry logEntry;
-			while((logEntry = findNextEntry(writer, appArgs, uniqueLogEntries, inputReader, lineNumber)) != null) {
-				if(!logEntry.isLineFiltertMatching()) {
-					continue;
-				}
-				if(appArgs.isFlagUnique()) {
-					final String bodyMd5 = logEntry.getBodyMd5();
-					if(uniqueLogEntryBodyMap.containsKey(bodyMd5)) {
-						final String mappedEntryMd5 = uniqueLogEntryBodyMap.get(bodyMd5);
-						uniqueLogEntries.get(mappedEntryMd5).addDuplicate(logEntry.getLine());
+		try {
+			final List<EntryAggregator> aggregators = new ArrayList<>();
+			for(final AppArguments query: queries) {
+				aggregators.add(createAggregator(query, false));
+			}
+			final InputStream inputStream;
+			final long lineOffset;
+			if(source.getFile() != null && (appArgs.hasTimeRange() || appArgs.isFlagIndex())) {
+				final TimeRangeSeeker.Range range = seekTimeRange(source.getFile(), path, appArgs);
+				inputStream = new FileRangeInputStream(source.getFile().toPath(), range.getStart(), range.getEnd());
+				lineOffset = Math.max(0, range.getLineOffset());
+			} else {
+				inputStream = source.open();
+				lineOffset = 0;
+			}
+			try (MultiQueryReader reader = new MultiQueryReader(inputStream, queries, this.bodyStore)) {
+				reader.read((query, logEntry) -> {
+					if(queries.get(query).getTop() > 0) {
+						aggregators.get(query).merge(logEntry);
 					} else {
-						uniqueLogEntries.put(logEntry.getMd5(), logEntry);
-						if(StringUtils.isNotBlank(bodyMd5)) {
-							uniqueLogEntryBodyMap.put(bodyMd5, logEntry.getMd5());
-						}
+						encoders.get(query).writeEntry(logEntry);
 					}
-				} else {
-					logEntry.writeLogEntryData(writer);
+				});
+				final long mergeStart = appArgs.getStatistics().startTimer();
+				for(int query = 0; query < queries.size(); query++) {
+					final List<LogEntry> partials = reader.getUniqueEntries(query);
+					for(final LogEntry partial: partials) {
+						partial.shiftLineNumber(lineOffset);
+					}
+					aggregators.get(query).mergeAll(partials);
 				}
+				appArgs.getStatistics().stopTimer(RunStatistics.Stage.MERGE, mergeStart);
 			}
-
-			if(appArgs.isFlagUnique() && uniqueLogEntries.size() > 0) {
-				if(appArgs.isWriteToFileEnabled()) {
-					LogLevel.INFO.printlnToConsole("Unique exceptions count: %d", uniqueLogEntries.size());
-				}
-				LogLevel.INFO.println(writer, "Unique exceptions count: %d", uniqueLogEntries.size());
-				final List<LogEntry> sortedEntries = new ArrayList<>(uniqueLogEntries.values());
-				Collections.sort(sortedEntries);
-				for(final LogEntry entry: sortedEntries) {
-					LogLevel.INFO.println(writer, entry.toString()); // write stats
-					entry.writeLogEntryData(writer);
-				}
+			for(int query = 0; query < queries.size(); query++) {
+				reportEntries(encoders.get(query), queries.get(query), aggregators.get(query));
 			}
-			writer.flush();
-		} catch(final IOException | ParseException e) {
+		} catch(final IOException e) {
 			LogLevel.ERROR.printlnToConsole("Cannot read source from file %s", path);
-			e.printStackTrace();
+			e.printStackTrace(Console.err());
+			this.failed = true;
 		}
 		timeStopper.stop();
 		LogLevel.INFO.printlnToConsole("###################################### END The file %s parsed in %s ######################################", path, timeStopper);
 	}
 
-	private LogEntry findNextEntry(final BufferedWriter writer, final AppArguments appArgs, final Map<String, LogEntry> localUniqueEntries, final BufferedReader inputReader, AtomicLong lineNumber) throws IOException {
-		String line = null;
-		try {
-			if((line = inputReader.readLine()) != null) {
-				final LogEntry logEntry = new LogEntry(line, appArgs);
-				logEntry.setLineNumber(lineNumber.incrementAndGet());
+	private void parseFile(final InputStream inputStream, final EntryEncoder encoder, final String path, final AppArguments appArgs) {
+		parseEntries(encoder, path, appArgs, createAggregator(appArgs, false), aggregator -> readEntries(inputStream, 0, encoder, appArgs, aggregator));
+	}
 
-				if(!logEntry.isLineFiltertMatching()) {
-					return logEntry;
+	/**
+	 * Reads the source from the position the last run stopped at and records the new position in the checkpoint
+	 */
+	private void resumeFile(final InputSource source, final EntryEncoder encoder, final AppArguments appArgs) throws IOException {
+		try (Checkpoint.Resumption resumption = this.checkpoint.resume(source)) {
+			if(resumption.getStart() > 0) {
+				LogLevel.INFO.printlnToConsole("Resuming file %s at byte %d, line %d", source.getPath(), resumption.getStart(), resumption.getLineOffset());
+			}
+			parseEntries(encoder, source.getPath(), appArgs, createAggregator(appArgs, false), aggregator -> {
+				aggregator.mergeAll(resumption.getEntries());
+				final long lineCount;
+				final long stopPosition;
+				if(source.getFile() != null && this.chunkedFileParser != null) {
+					final ChunkedFileParser.Progress progress = this.chunkedFileParser.parse(source.getFile(), resumption.getStart(), resumption.getEnd(), resumption.getLineOffset(), aggregator, encoder);
+					lineCount = progress.getLineCount();
+					stopPosition = progress.getStopPosition();
+				} else {
+					try (final LogEntryReader reader = new LogEntryReader(resumption.getInputStream(), appArgs, this.bodyStore)) {
+						lineCount = readEntries(reader, resumption.getLineOffset(), encoder, appArgs, aggregator);
+						stopPosition = reader.getStopPosition() < 0 ? -1 : resumption.getStart() + reader.getStopPosition();
+					}
 				}
-				if(localUniqueEntries.containsKey(logEntry.getMd5())) {
-					localUniqueEntries.get(logEntry.getMd5()).addDuplicate(line);
-					// ok, we have this one already, skip all body bytes if any other related lines
-					readContinuousLines(inputReader, appArgs, lineNumber);
-
-					return localUniqueEntries.get(logEntry.getMd5());
-				} else { // new entry
-					localUniqueEntries.put(logEntry.getMd5(), logEntry);
-
-					String body = readContinuousLines(inputReader, appArgs, lineNumber);
-					if(body != null) {
-						logEntry.appendBody(body);
+				resumption.finish(lineCount, stopPosition, appArgs.isFlagUnique() ? aggregator.getEntries() : Collections.emptyList());
+			});
+		}
+	}
+
+	/**
+	 * Reads only the part of the file holding the entries of the time window
+	 */
+	private void parseTimeRange(final File file, final EntryEncoder encoder, final String path, final AppArguments appArgs) throws IOException {
+		final TimeRangeSeeker.Range range = seekTimeRange(file, path, appArgs);
+		final long lineOffset = Math.max(0, range.getLineOffset());
+		parseEntries(encoder, path, appArgs, createAggregator(appArgs, false), aggregator -> {
+			if(this.chunkedFileParser != null) {
+				this.chunkedFileParser.parse(file, range.getStart(), range.getEnd(), lineOffset, aggregator, encoder);
+			} else {
+				readEntries(new FileRangeInputStream(file.toPath(), range.getStart(), range.getEnd()), lineOffset, encoder, appArgs, aggregator);
+			}
+		});
+	}
+
+	/**
+	 * @return the part of the file holding the entries of the time window
+	 */
+	private static TimeRangeSeeker.Range seekTimeRange(final File file, final String path, final AppArguments appArgs) throws IOException {
+		final TimeRangeSeeker.Range range;
+		try (TimeRangeSeeker seeker = new TimeRangeSeeker(file, appArgs.getHeaderFormat(), appArgs.getTimestampParser(), appArgs.getEncoding(), appArgs.isFlagIndex())) {
+			range = seeker.seek(appArgs.getFromMillis(), appArgs.getToMillis());
+		}
+		if(range.getLineOffset() < 0) {
+			LogLevel.INFO.printlnToConsole("The line numbers of %s are counted from byte %d, use '--index' for absolute line numbers", path, range.getStart());
+		}
+		return range;
+	}
+
+	/**
+	 * @return the number of lines read
+	 */
+	private long readEntries(final InputStream inputStream, final long lineOffset, final EntryEncoder encoder, final AppArguments appArgs, final EntryAggregator aggregator) throws IOException {
+		try (final LogEntryReader reader = new LogEntryReader(inputStream, appArgs, this.bodyStore)) {
+			return readEntries(reader, lineOffset, encoder, appArgs, aggregator);
+		}
+	}
+
+	/**
+	 * @return the number of lines read
+	 */
+	private static long readEntries(final LogEntryReader reader, final long lineOffset, final EntryEncoder encoder, final AppArguments appArgs, final EntryAggregator aggregator) throws IOException {
+		LogEntry logEntry;
+		while((logEntry = reader.next()) != null) {
+			if(appArgs.getTop() > 0) {
+				aggregator.merge(logEntry);
+			} else if(!appArgs.isFlagUnique()) {
+				encoder.writeEntry(logEntry);
+			}
+		}
+		final List<LogEntry> partials = reader.getUniqueEntries();
+		for(final LogEntry partial: partials) {
+			partial.shiftLineNumber(lineOffset);
+		}
+		final long mergeStart = appArgs.getStatistics().startTimer();
+		aggregator.mergeAll(partials);
+		appArgs.getStatistics().stopTimer(RunStatistics.Stage.MERGE, mergeStart);
+		return reader.getLineNumber();
+	}
+
+	/**
+	 * Writes the entries of all sources merged in the order of their dates
+	 */
+	private void mergeEntries(final List<InputSource> sources, final EntryEncoder encoder, final AppArguments appArgs) throws IOException {
+		try (MergedEntryReader reader = new MergedEntryReader(sources, appArgs)) {
+			LogEntry logEntry;
+			while((logEntry = reader.next()) != null) {
+				encoder.writeEntry(logEntry);
+			}
+		}
+	}
+
+	/**
+	 * Reads the file until the program is stopped. The matching entries are written as they are found or, in unique
+	 * mode, merged one by one into the aggregator which is reported at the configured interval.
+	 */
+	private void followFile(final File file, final EntryEncoder encoder, final AppArguments appArgs) throws IOException {
+		LogLevel.INFO.printlnToConsole("###################################### Following file %s ######################################", file.getPath());
+		final EntryAggregator aggregator = createAggregator(appArgs, false);
+		final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+		if(appArgs.isFlagUnique()) {
+			reporter.scheduleWithFixedDelay(() -> {
+				try {
+					synchronized(aggregator) {
+						rewriteReport(encoder, appArgs, aggregator);
 					}
-					return logEntry;
+				} catch(final IOException e) {
+					LogLevel.ERROR.printlnToConsole("Cannot write the report: %s", e.getMessage());
+				}
+			}, appArgs.getInterval(), appArgs.getInterval(), TimeUnit.SECONDS);
+		}
+		try (LogEntryReader reader = new LogEntryReader(new FollowInputStream(file.toPath(), FOLLOW_POLL_MILLIS), appArgs, this.bodyStore)) {
+			LogEntry logEntry;
+			while((logEntry = reader.next()) != null) {
+				if(appArgs.isFlagUnique()) {
+					synchronized(aggregator) {
+						aggregator.merge(logEntry);
+					}
+				} else {
+					encoder.writeEntry(logEntry);
+					encoder.flush();
 				}
 			}
-		} catch(final ParseException e) {
-			LogLevel.FATAL.printlnToConsole("Can't parse the line '%s'. Details: %s. Writing the match to the output", line, e.getMessage());
+		} finally {
+			reporter.shutdownNow();
+		}
+	}
+
+	/**
+	 * Prints the report to the standard output or replaces the output file with the current report
+	 */
+	private void rewriteReport(final EntryEncoder encoder, final AppArguments appArgs, final EntryAggregator aggregator) throws IOException {
+		if(!appArgs.isWriteToFileEnabled()) {
+			writeReport(encoder, appArgs, aggregator, false);
+			encoder.flush();
+			return;
+		}
+		final File outputFile = new File(appArgs.getOutputFilePath());
+		final File tmpFile = new File(outputFile.getPath() + ".tmp");
+		try (AsyncBatchWriter tmpWriter = openOutputFile(tmpFile, RunStatistics.DISABLED)) {
+			final EntryEncoder tmpEncoder = EntryEncoder.create(appArgs.getFormat(), tmpWriter, appArgs.getTimelineBucketMillis() > 0);
+			tmpEncoder.writeHeader();
+			writeReport(tmpEncoder, appArgs, aggregator, false);
+		}
+		Files.move(tmpFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static AsyncBatchWriter openOutputFile(final File file, final RunStatistics statistics) throws IOException {
+		return new AsyncBatchWriter(FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.UTF_8, true, statistics);
+	}
+
+	private EntryAggregator createAggregator(final AppArguments appArgs, final boolean concurrent) {
+		if(appArgs.getTop() > 0) {
+			return new TopEntryAggregator(appArgs.getTop());
 		}
-		return null;
+		return concurrent ? new ConcurrentEntryAggregator() : new UniqueEntryAggregator();
 	}
 
-	private String readContinuousLines(final BufferedReader inputReader, AppArguments appArgs, AtomicLong lineNumber) throws IOException, ParseException {
-		inputReader.mark(READ_AHEAD_LIMIT);
-		StringBuilder body = new StringBuilder();
-		// read any body lines
-		String line = null;
-		while((line = inputReader.readLine()) != null) {
-			lineNumber.incrementAndGet();
-			final LogEntry nextLogEntry = new LogEntry(line, appArgs);
-			if(nextLogEntry.isNewLine()) {
-				lineNumber.decrementAndGet();
-				inputReader.reset(); // we don't want to read any new entries, so reset the last line
-				break;
+	private void parseEntries(final EntryEncoder encoder, final String path, final AppArguments appArgs, final EntryAggregator aggregator, final EntrySource source) {
+		LogLevel.INFO.printlnToConsole("###################################### START Parsing file %s ######################################", path);
+		StopWatch timeStopper = new StopWatch();
+		timeStopper.start();
+		try {
+			source.read(aggregator);
+			reportEntries(encoder, appArgs, aggregator);
+		} catch(final IOException e) {
+			LogLevel.ERROR.printlnToConsole("Cannot read source from file %s", path);
+			e.printStackTrace(Console.err());
+			this.failed = true;
+		}
+		timeStopper.stop();
+		LogLevel.INFO.printlnToConsole("###################################### END The file %s parsed in %s ######################################", path, timeStopper);
+	}
+
+	/**
+	 * Writes the report of a source and flushes the output
+	 */
+	private void reportEntries(final EntryEncoder encoder, final AppArguments appArgs, final EntryAggregator aggregator) throws IOException {
+		final RunStatistics statistics = appArgs.getStatistics();
+		final long reportStart = statistics.startTimer();
+		final int size = aggregator.size();
+		writeReport(encoder, appArgs, aggregator, true);
+		encoder.flush();
+		statistics.stopTimer(RunStatistics.Stage.REPORT, reportStart);
+		statistics.add(RunStatistics.Counter.UNIQUE_ENTRIES, size);
+		statistics.updatePeak(RunStatistics.Peak.AGGREGATOR_SIZE, size);
+	}
+
+	/**
+	 * @param release true to remove the entries from the aggregator, so the report releases them as it writes them,
+	 *        false to keep them for a later report
+	 */
+	private void writeReport(final EntryEncoder encoder, final AppArguments appArgs, final EntryAggregator aggregator, final boolean release) throws IOException {
+		if(appArgs.isFlagUnique() && aggregator.size() > 0) {
+			final String summary = aggregator.isApproximate()
+			        ? String.format("Unique exceptions count (estimated): %d, top %d (%s)", aggregator.size(), appArgs.getTop(), aggregator.getAccuracy())
+			        : String.format("Unique exceptions count: %d", aggregator.size());
+			if(appArgs.isWriteToFileEnabled() || !encoder.isText()) {
+				LogLevel.INFO.printlnToConsole("%s", summary);
 			}
-			body.append(line).append("\n");
-			inputReader.mark(READ_AHEAD_LIMIT);
+			encoder.writeSummary(summary);
+			final List<LogEntry> entries = release ? aggregator.removeEntries() : new ArrayList<>(aggregator.getEntries());
+			if(appArgs.getTimelineBucketMillis() > 0) {
+				encoder.setReportBuckets(Timeline.countBuckets(entries, appArgs.getTimelineBucketMillis()));
+			}
+			new ReportSorter(appArgs, this.bodyStore, this.tempDir).sort(entries, encoder::writeGroup);
 		}
+	}
+
+	/**
+	 * Reads the log entries of a single input, either writing them to the output or merging them into the aggregator
+	 */
+	@FunctionalInterface
+	private interface EntrySource {
 
-		return body.length() == 0 ? null : body.toString();
+		void read(EntryAggregator aggregator) throws IOException;
 	}
 }
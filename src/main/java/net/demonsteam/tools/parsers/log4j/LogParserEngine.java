@@ -0,0 +1,370 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.BodyStore;
+import net.demonsteam.tools.parsers.log4j.impl.EntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker;
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker.InputSource;
+import net.demonsteam.tools.parsers.log4j.impl.LogEntry;
+import net.demonsteam.tools.parsers.log4j.impl.LogEntryReader;
+import net.demonsteam.tools.parsers.log4j.impl.TopEntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.UniqueEntryAggregator;
+
+/**
+ * The parser embedded in an application, without the command line. An engine is created once for a configuration and
+ * reused for any number of sources, so its filter and date parser stay compiled between the calls. The engine is
+ * thread safe, every call reads with its own reader.
+ * <p>
+ * The matching entries are either pulled from a lazy {@link Stream} or {@link EntryIterator}, or pushed to an
+ * {@link EntryHandler}. In both cases the next line is read only when the previous entry is consumed, so a slow consumer
+ * slows down the reading instead of filling the memory. The unique entries with their counts are collected by
+ * {@link #aggregate(Path)}.
+ * <p>
+ * A {@link Path} may be a plain text file, a gzip, zip or tar.gz file or a directory, like the input of the command
+ * line. The streams and channels are read as plain text.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class LogParserEngine {
+
+	private final File tempDir;
+	private final AppArguments streamArgs;
+	private final AppArguments aggregateArgs;
+
+	/**
+	 * @param config the configuration, later changes of it don't affect the engine
+	 * @throws IllegalArgumentException if the configuration is invalid
+	 */
+	public LogParserEngine(final ParserConfig config) throws IllegalArgumentException {
+		this.tempDir = config.getTempDir();
+		this.streamArgs = config.toAppArguments(false);
+		this.aggregateArgs = config.toAppArguments(true);
+	}
+
+	/**
+	 * @param path the log file, archive or directory
+	 * @return the matching entries in the order of the sources, the stream must be closed
+	 * @throws IOException if the path can't be read
+	 */
+	public Stream<LogEntry> stream(final Path path) throws IOException {
+		return toStream(iterator(path));
+	}
+
+	/**
+	 * @param input the log, closed with the stream
+	 * @return the matching entries, the stream must be closed
+	 */
+	public Stream<LogEntry> stream(final InputStream input) {
+		return toStream(iterator(input));
+	}
+
+	/**
+	 * @param channel the log, closed with the stream
+	 * @return the matching entries, the stream must be closed
+	 */
+	public Stream<LogEntry> stream(final ReadableByteChannel channel) {
+		return stream(Channels.newInputStream(channel));
+	}
+
+	/**
+	 * @param path the log file, archive or directory
+	 * @return the matching entries in the order of the sources, the iterator must be closed
+	 * @throws IOException if the path can't be read
+	 */
+	public EntryIterator iterator(final Path path) throws IOException {
+		final InputSourceWalker walker = new InputSourceWalker(this.tempDir, 1, this.streamArgs.getStatistics());
+		try {
+			final List<SourceOpener> sources = new ArrayList<>();
+			for(final InputSource source: walker.walk(path.toFile())) {
+				sources.add(source::open);
+			}
+			return new EntryIterator(this.streamArgs, sources, walker);
+		} catch(final IOException | RuntimeException e) {
+			walker.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param input the log, closed with the iterator
+	 * @return the matching entries, the iterator must be closed
+	 */
+	public EntryIterator iterator(final InputStream input) {
+		return new EntryIterator(this.streamArgs, Collections.singletonList(() -> input), null);
+	}
+
+	/**
+	 * Passes the matching entries to the handler until the end of the input or until the handler stops the parsing
+	 *
+	 * @param path the log file, archive or directory
+	 * @param handler the handler of the entries
+	 * @return the number of entries passed to the handler
+	 * @throws IOException if the path can't be read
+	 */
+	public long parse(final Path path, final EntryHandler handler) throws IOException {
+		return parse(iterator(path), handler);
+	}
+
+	/**
+	 * Passes the matching entries to the handler until the end of the input or until the handler stops the parsing
+	 *
+	 * @param input the log, closed when the parsing ends
+	 * @param handler the handler of the entries
+	 * @return the number of entries passed to the handler
+	 * @throws IOException if the input can't be read
+	 */
+	public long parse(final InputStream input, final EntryHandler handler) throws IOException {
+		return parse(iterator(input), handler);
+	}
+
+	/**
+	 * Passes the matching entries to the handler until the end of the input or until the handler stops the parsing
+	 *
+	 * @param channel the log, closed when the parsing ends
+	 * @param handler the handler of the entries
+	 * @return the number of entries passed to the handler
+	 * @throws IOException if the channel can't be read
+	 */
+	public long parse(final ReadableByteChannel channel, final EntryHandler handler) throws IOException {
+		return parse(Channels.newInputStream(channel), handler);
+	}
+
+	private static long parse(final EntryIterator entries, final EntryHandler handler) throws IOException {
+		long count = 0;
+		try (EntryIterator iterator = entries) {
+			LogEntry entry;
+			while((entry = iterator.read()) != null) {
+				count++;
+				if(!handler.onEntry(entry)) {
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Collects the unique entries of all sources of the path into a single result
+	 *
+	 * @param path the log file, archive or directory
+	 * @return the unique entries, the result must be closed
+	 * @throws IOException if the path can't be read
+	 */
+	public ParseResult aggregate(final Path path) throws IOException {
+		try (InputSourceWalker walker = new InputSourceWalker(this.tempDir, 1, this.aggregateArgs.getStatistics())) {
+			final List<SourceOpener> sources = new ArrayList<>();
+			for(final InputSource source: walker.walk(path.toFile())) {
+				sources.add(source::open);
+			}
+			return aggregate(sources);
+		}
+	}
+
+	/**
+	 * @param input the log, closed when it is read
+	 * @return the unique entries, the result must be closed
+	 * @throws IOException if the input can't be read
+	 */
+	public ParseResult aggregate(final InputStream input) throws IOException {
+		return aggregate(Collections.singletonList(() -> input));
+	}
+
+	/**
+	 * @param channel the log, closed when it is read
+	 * @return the unique entries, the result must be closed
+	 * @throws IOException if the channel can't be read
+	 */
+	public ParseResult aggregate(final ReadableByteChannel channel) throws IOException {
+		return aggregate(Channels.newInputStream(channel));
+	}
+
+	private ParseResult aggregate(final List<SourceOpener> sources) throws IOException {
+		final BodyStore bodyStore = new BodyStore(this.aggregateArgs.getMemoryBudget(), this.tempDir);
+		final EntryAggregator aggregator = this.aggregateArgs.getTop() > 0 ? new TopEntryAggregator(this.aggregateArgs.getTop()) : new UniqueEntryAggregator();
+		long lineCount = 0;
+		try {
+			for(final SourceOpener source: sources) {
+				try (LogEntryReader reader = new LogEntryReader(source.open(), this.aggregateArgs, bodyStore)) {
+					LogEntry logEntry;
+					while((logEntry = reader.next()) != null) {
+						if(this.aggregateArgs.getTop() > 0) {
+							aggregator.merge(logEntry);
+						}
+					}
+					aggregator.mergeAll(reader.getUniqueEntries());
+					lineCount += reader.getLineNumber();
+				}
+			}
+		} catch(final IOException | RuntimeException e) {
+			bodyStore.close();
+			throw e;
+		}
+		return new ParseResult(aggregator, bodyStore, lineCount);
+	}
+
+	private static Stream<LogEntry> toStream(final EntryIterator iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+			try {
+				iterator.close();
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Receives the matching entries of {@link LogParserEngine#parse(Path, EntryHandler)}
+	 */
+	@FunctionalInterface
+	public interface EntryHandler {
+
+		/**
+		 * Called on the parsing thread, the next entry is read when this method returns
+		 *
+		 * @param entry the matching entry with its body
+		 * @return true to continue, false to stop the parsing
+		 * @throws IOException to stop the parsing with an error
+		 */
+		boolean onEntry(LogEntry entry) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface SourceOpener {
+
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * The matching entries of one or more sources, read one by one. A read error is thrown as an
+	 * {@link UncheckedIOException}.
+	 */
+	public static final class EntryIterator implements Iterator<LogEntry>, Closeable {
+
+		private final AppArguments appArgs;
+		private final Iterator<SourceOpener> sources;
+		private final Closeable resources;
+		private LogEntryReader reader;
+		private LogEntry current;
+		private boolean consumed = true;
+		private boolean closed;
+
+		private EntryIterator(final AppArguments appArgs, final List<SourceOpener> sources, final Closeable resources) {
+			this.appArgs = appArgs;
+			this.sources = sources.iterator();
+			this.resources = resources;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				return nextEntry();
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public LogEntry next() {
+			final LogEntry entry;
+			try {
+				entry = read();
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if(entry == null) {
+				throw new NoSuchElementException();
+			}
+			return entry;
+		}
+
+		private LogEntry read() throws IOException {
+			if(!nextEntry()) {
+				return null;
+			}
+			this.consumed = true;
+			return this.current;
+		}
+
+		/**
+		 * Reads the next entry unless the current one is not consumed yet, opening the next source at the end of one
+		 */
+		private boolean nextEntry() throws IOException {
+			if(!this.consumed) {
+				return true;
+			}
+			while(!this.closed) {
+				if(this.reader == null) {
+					if(!this.sources.hasNext()) {
+						close();
+						return false;
+					}
+					// the bodies of a stream are never stored, only the entries of an aggregation are
+					this.reader = new LogEntryReader(this.sources.next().open(), this.appArgs, null);
+				}
+				this.current = this.reader.next();
+				if(this.current != null) {
+					this.consumed = false;
+					return true;
+				}
+				this.reader.close();
+				this.reader = null;
+			}
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(this.closed) {
+				return;
+			}
+			this.closed = true;
+			this.current = null;
+			try {
+				if(this.reader != null) {
+					this.reader.close();
+				}
+			} finally {
+				if(this.resources != null) {
+					this.resources.close();
+				}
+			}
+		}
+	}
+}
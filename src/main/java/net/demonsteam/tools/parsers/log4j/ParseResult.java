@@ -0,0 +1,112 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import net.demonsteam.tools.parsers.log4j.impl.BodyStore;
+import net.demonsteam.tools.parsers.log4j.impl.EntryAggregator;
+import net.demonsteam.tools.parsers.log4j.impl.LogEntry;
+import net.demonsteam.tools.parsers.log4j.impl.ReportSorter;
+
+/**
+ * The unique entries collected by {@link LogParserEngine#aggregate(java.nio.file.Path)}, the report of the command
+ * line as objects. The bodies of the entries are kept in a {@link BodyStore}, which may be spilled to a temp file, so
+ * they can be read with {@link LogEntry#readBody()} only until the result is closed.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParseResult implements Closeable {
+
+	private final EntryAggregator aggregator;
+	private final BodyStore bodyStore;
+	private final long lineCount;
+
+	ParseResult(final EntryAggregator aggregator, final BodyStore bodyStore, final long lineCount) {
+		this.aggregator = aggregator;
+		this.bodyStore = bodyStore;
+		this.lineCount = lineCount;
+	}
+
+	/**
+	 * @return the unique entries in the order of the report, by date or by count as configured
+	 */
+	public List<LogEntry> getEntries() {
+		return ReportSorter.sortInMemory(this.aggregator.getEntries());
+	}
+
+	/**
+	 * @return the unique entries in the order of their first occurrence, or by count if only the most frequent entries
+	 *         are kept
+	 */
+	public List<LogEntry> getEntriesInOrder() {
+		return Collections.unmodifiableList(this.aggregator.getEntries());
+	}
+
+	/**
+	 * @return the number of unique entries, estimated if {@link #isApproximate()}
+	 */
+	public int size() {
+		return this.aggregator.size();
+	}
+
+	/**
+	 * @return the number of matching entries, the occurrences of the unique entries kept
+	 */
+	public long getTotalCount() {
+		long totalCount = 0;
+		for(final LogEntry entry: this.aggregator.getEntries()) {
+			totalCount += entry.getCount() + 1; // the count is the number of duplicates
+		}
+		return totalCount;
+	}
+
+	/**
+	 * @return the number of lines read
+	 */
+	public long getLineCount() {
+		return this.lineCount;
+	}
+
+	/**
+	 * @return true if the counts and the size are estimates
+	 */
+	public boolean isApproximate() {
+		return this.aggregator.isApproximate();
+	}
+
+	/**
+	 * @return a description of the error bounds of the estimates or null if the counts are exact
+	 */
+	public String getAccuracy() {
+		return this.aggregator.getAccuracy();
+	}
+
+	/**
+	 * Releases the bodies of the entries, the other values stay readable
+	 */
+	@Override
+	public void close() throws IOException {
+		this.bodyStore.close();
+	}
+}
@@ -0,0 +1,112 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Sends the arguments of the command line as a job to a running {@link ParserDaemon} and prints the output of the job,
+ * as if the parser was run in this process. The job is sent with the token the daemon wrote to the home directory of
+ * its user.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParserClient {
+
+	private static final String OPT_PORT = "--port";
+
+	private ParserClient() {
+	}
+
+	/**
+	 * @param port the port of the daemon
+	 * @param args the arguments of the parser
+	 * @return the exit status of the job
+	 * @throws IOException if the daemon is not running, its token can't be read or the connection fails
+	 */
+	public static int run(final int port, final String... args) throws IOException {
+		final File tokenFile = ParserDaemon.getTokenFile(port);
+		if(!tokenFile.isFile()) {
+			throw new IOException("No daemon of this user is running, the token file " + tokenFile + " is missing");
+		}
+		final String token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.US_ASCII);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			out.writeInt(ParserDaemon.PROTOCOL_VERSION);
+			out.writeUTF(token);
+			out.writeUTF(System.getProperty("user.dir"));
+			out.writeInt(args.length);
+			for(final String arg: args) {
+				out.writeUTF(arg);
+			}
+			out.flush();
+
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			byte[] data = new byte[8192];
+			while(true) {
+				final byte type = in.readByte();
+				if(type == ParserDaemon.FRAME_EXIT) {
+					System.out.flush();
+					return in.readInt();
+				}
+				final int length = in.readInt();
+				if(length > data.length) {
+					data = new byte[Math.max(length, data.length * 2)];
+				}
+				in.readFully(data, 0, length);
+				final PrintStream target = type == ParserDaemon.FRAME_ERR ? System.err : System.out;
+				target.write(data, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Runs a job on the daemon and exits with its exit status
+	 *
+	 * @param args the arguments of the parser, optionally preceded by <code>--port &lt;port&gt;</code>
+	 */
+	public static void main(final String[] args) {
+		int port = ParserDaemon.DEFAULT_PORT;
+		String[] jobArgs = args;
+		if(args.length >= 2 && OPT_PORT.equals(args[0])) {
+			port = Integer.parseInt(args[1]);
+			jobArgs = Arrays.copyOfRange(args, 2, args.length);
+		}
+		int status;
+		try {
+			status = run(port, jobArgs);
+		} catch(final IOException e) {
+			System.err.println("Cannot run the job on the daemon at port " + port + ": " + e.getMessage());
+			status = 1;
+		}
+		System.exit(status);
+	}
+}
@@ -0,0 +1,230 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.LogLevel;
+
+/**
+ * The configuration of an embedded {@link LogParserEngine}, built in code instead of parsed from the command line. The
+ * values are validated like the options of the command line when the engine is created.
+ *
+ * <pre>
+ * LogParserEngine engine = new LogParserEngine(new ParserConfig().levels(LogLevel.ERROR, LogLevel.FATAL).pattern(".*Timeout.*"));
+ * </pre>
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParserConfig {
+
+	private final List<LogLevel> levels = new ArrayList<>();
+	private String pattern;
+	private String dateFormat;
+	private String layout;
+	private Charset encoding;
+	private String sort;
+	private String group;
+	private int top;
+	private String timeline;
+	private String from;
+	private String to;
+	private int memory;
+	private File tempDir;
+
+	/**
+	 * @param levels the levels of the entries to read, at least one is required
+	 * @return this configuration
+	 */
+	public ParserConfig levels(final LogLevel... levels) {
+		this.levels.clear();
+		for(final LogLevel level: levels) {
+			this.levels.add(level);
+		}
+		return this;
+	}
+
+	/**
+	 * @param pattern the regular expression the header line of an entry must match, any line if not set
+	 * @return this configuration
+	 */
+	public ParserConfig pattern(final String pattern) {
+		this.pattern = pattern;
+		return this;
+	}
+
+	/**
+	 * @param dateFormat the date format of the log entries, {@link AppArguments#DEFAULT_LOG_DATE_FORMAT} if not set
+	 * @return this configuration
+	 */
+	public ParserConfig dateFormat(final String dateFormat) {
+		this.dateFormat = dateFormat;
+		return this;
+	}
+
+	/**
+	 * @param layout the log4j conversion pattern of the logs, like <code>%d{ISO8601} [%t] %-5p %c - %m%n</code>, its
+	 *            date gives the date format. The <code>date *LEVEL* message</code> lines if not set.
+	 * @return this configuration
+	 */
+	public ParserConfig layout(final String layout) {
+		this.layout = layout;
+		return this;
+	}
+
+	/**
+	 * @param encoding the charset of the logs, the platform charset if not set
+	 * @return this configuration
+	 */
+	public ParserConfig encoding(final Charset encoding) {
+		this.encoding = encoding;
+		return this;
+	}
+
+	/**
+	 * @param sort the order of the aggregated entries, either <code>date</code>, <code>count</code> or
+	 *            <code>peak</code>
+	 * @return this configuration
+	 */
+	public ParserConfig sort(final String sort) {
+		this.sort = sort;
+		return this;
+	}
+
+	/**
+	 * @param group the grouping of the aggregated entries, either <code>message</code> or <code>template</code>
+	 * @return this configuration
+	 */
+	public ParserConfig group(final String group) {
+		this.group = group;
+		return this;
+	}
+
+	/**
+	 * @param top the number of most frequent entries kept by the aggregation, counted approximately in fixed memory, 0
+	 *            for all entries
+	 * @return this configuration
+	 */
+	public ParserConfig top(final int top) {
+		this.top = top;
+		return this;
+	}
+
+	/**
+	 * @param timeline the size of the time buckets the occurrences of the aggregated entries are counted in, e.g.
+	 *            <code>1m</code>, see {@link net.demonsteam.tools.parsers.log4j.impl.LogEntry#getPeakCount()}
+	 * @return this configuration
+	 */
+	public ParserConfig timeline(final String timeline) {
+		this.timeline = timeline;
+		return this;
+	}
+
+	/**
+	 * @param from the earliest date of the entries, in the date format of the log entries
+	 * @return this configuration
+	 */
+	public ParserConfig from(final String from) {
+		this.from = from;
+		return this;
+	}
+
+	/**
+	 * @param to the latest date of the entries, in the date format of the log entries
+	 * @return this configuration
+	 */
+	public ParserConfig to(final String to) {
+		this.to = to;
+		return this;
+	}
+
+	/**
+	 * @param memory the memory in MB for the bodies of the aggregated entries, above it they are spilled to the temp
+	 *            directory. 256 if not set.
+	 * @return this configuration
+	 */
+	public ParserConfig memory(final int memory) {
+		this.memory = memory;
+		return this;
+	}
+
+	/**
+	 * @param tempDir the directory of the spilled bodies and the extracted archive files, the default temp directory if
+	 *            not set
+	 * @return this configuration
+	 */
+	public ParserConfig tempDir(final File tempDir) {
+		this.tempDir = tempDir;
+		return this;
+	}
+
+	File getTempDir() {
+		return this.tempDir;
+	}
+
+	/**
+	 * @param unique true for the arguments of the aggregation, false for the arguments of the entry streams
+	 * @return the arguments of this configuration
+	 * @throws IllegalArgumentException if the configuration is invalid
+	 */
+	AppArguments toAppArguments(final boolean unique) throws IllegalArgumentException {
+		if(this.levels.isEmpty()) {
+			throw new IllegalArgumentException("At least one log level is required");
+		}
+		final List<String> args = new ArrayList<>();
+		final StringBuilder levelArg = new StringBuilder();
+		for(final LogLevel level: this.levels) {
+			levelArg.append(levelArg.length() == 0 ? "" : ",").append(level.name());
+		}
+		addOption(args, "--loglevel", levelArg.toString());
+		addOption(args, "--pattern", this.pattern);
+		addOption(args, "--dateFormat", this.dateFormat);
+		addOption(args, "--layout", this.layout);
+		addOption(args, "--encoding", this.encoding == null ? null : this.encoding.name());
+		addOption(args, "--from", this.from);
+		addOption(args, "--to", this.to);
+		if(this.memory != 0) {
+			addOption(args, "--memory", String.valueOf(this.memory));
+		}
+		if(unique) {
+			args.add("--unique");
+			addOption(args, "--sort", this.sort);
+			addOption(args, "--group", this.group);
+			addOption(args, "--timeline", this.timeline);
+			if(this.top != 0) {
+				addOption(args, "--top", String.valueOf(this.top));
+			}
+		}
+		// the sources are passed to the engine, the input is only required by the command line
+		addOption(args, "--inputFile", new File(this.tempDir != null ? this.tempDir : new File(System.getProperty("java.io.tmpdir")), "embedded.log").getAbsolutePath());
+		return AppArguments.parse(args.toArray(new String[args.size()]));
+	}
+
+	private static void addOption(final List<String> args, final String option, final String value) {
+		if(value != null) {
+			args.add(option);
+			args.add(value);
+		}
+	}
+}
@@ -0,0 +1,344 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.demonsteam.tools.parsers.log4j.impl.AppArguments;
+import net.demonsteam.tools.parsers.log4j.impl.Console;
+import net.demonsteam.tools.parsers.log4j.impl.LogLevel;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Keeps the parser running between the jobs of the {@link ParserClient}, so the jobs don't pay for the start of the JVM
+ * and run the parser compiled by the JIT compiler instead of interpreting it. The daemon listens on a port of the
+ * loopback address only and runs the jobs on a fixed pool of workers, a job waits while all workers are busy.
+ * <p>
+ * A job is the arguments of the command line and the working directory of the client, the paths of the arguments are
+ * resolved against it. The output and the messages of the job are sent back to the client as frames, a type byte and
+ * the length of the data followed by the data, and the job ends with the exit status frame.
+ * <p>
+ * Any local user can connect to the port, so the daemon writes a random token to a file in the home directory which
+ * only its user can read, see {@link #getTokenFile(int)}. A client sends the token first and the daemon rejects a
+ * connection with another token before it reads the arguments, so only the user of the daemon runs jobs with its
+ * permissions.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParserDaemon implements Closeable {
+
+	public static final int DEFAULT_PORT = 4748;
+
+	static final int PROTOCOL_VERSION = 2;
+	static final byte FRAME_OUT = 1;
+	static final byte FRAME_ERR = 2;
+	static final byte FRAME_EXIT = 3;
+	static final int STATUS_FAILED = 1;
+	static final int STATUS_INVALID_ARGUMENTS = 255;
+
+	private static final String OPT_PORT = "port";
+	private static final String OPT_WORKERS = "workers";
+	private static final int TOKEN_LENGTH = 32;
+
+	private final ServerSocket serverSocket;
+	private final Path tokenFile;
+	private final byte[] token;
+	private final ExecutorService workers;
+	private volatile boolean closed;
+
+	/**
+	 * @param port the port on the loopback address
+	 * @param workers the number of jobs run at once
+	 * @throws IOException if the port can't be bound or the token file can't be written
+	 */
+	public ParserDaemon(final int port, final int workers) throws IOException {
+		this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		this.tokenFile = getTokenFile(getPort()).toPath();
+		this.token = createToken();
+		try {
+			writeTokenFile(this.tokenFile, this.token);
+		} catch(final IOException e) {
+			this.serverSocket.close();
+			throw e;
+		}
+		final AtomicInteger workerCount = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+			final Thread thread = new Thread(runnable, "job-" + workerCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return the port the daemon listens on
+	 */
+	public int getPort() {
+		return this.serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Accepts jobs until the daemon is closed
+	 *
+	 * @throws IOException if the socket fails
+	 */
+	public void run() throws IOException {
+		while(!this.closed) {
+			final Socket socket;
+			try {
+				socket = this.serverSocket.accept();
+			} catch(final SocketException e) {
+				if(this.closed) {
+					return;
+				}
+				throw e;
+			}
+			this.workers.execute(() -> runJob(socket));
+		}
+	}
+
+	private void runJob(final Socket socket) {
+		try (Socket client = socket) {
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+			final FrameWriter frames = new FrameWriter(client.getOutputStream());
+			if(in.readInt() != PROTOCOL_VERSION) {
+				frames.writeExit(STATUS_INVALID_ARGUMENTS);
+				return;
+			}
+			// compared in constant time, so the time of the answer tells nothing about the token
+			if(!MessageDigest.isEqual(this.token, in.readUTF().getBytes(StandardCharsets.US_ASCII))) {
+				LogLevel.WARN.printlnToConsole("Rejected a job without the token of the daemon");
+				frames.writeExit(STATUS_INVALID_ARGUMENTS);
+				return;
+			}
+			final File workingDirectory = new File(in.readUTF());
+			final String[] args = new String[in.readInt()];
+			for(int i = 0; i < args.length; i++) {
+				args[i] = in.readUTF();
+			}
+			frames.writeExit(runJob(frames, workingDirectory, args));
+		} catch(final IOException e) {
+			LogLevel.ERROR.printlnToConsole("The job failed: %s", e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the exit status of the job
+	 */
+	private int runJob(final FrameWriter frames, final File workingDirectory, final String[] args) throws IOException {
+		final Charset charset = Charset.defaultCharset();
+		final OutputStream out = frames.newStream(FRAME_OUT);
+		final PrintStream outStream = newPrintStream(out, charset);
+		final PrintStream errStream = newPrintStream(frames.newStream(FRAME_ERR), charset);
+		Console.redirect(outStream, errStream);
+		try {
+			final AppArguments appArgs;
+			try {
+				appArgs = AppArguments.parse(workingDirectory, args);
+			} catch(final IllegalArgumentException e) {
+				outStream.println(e.getMessage());
+				AppArguments.printUsage(new PrintWriter(outStream));
+				return STATUS_INVALID_ARGUMENTS;
+			}
+			if(appArgs.isFlagFollow()) {
+				// a followed file never ends, it would keep a worker busy after the client is gone
+				errStream.println("The daemon doesn't follow files, run the parser without the client to follow a file");
+				return STATUS_INVALID_ARGUMENTS;
+			}
+			return new Log4jParser(appArgs, Channels.newChannel(out)).isSucceeded() ? 0 : STATUS_FAILED;
+		} catch(final RuntimeException e) {
+			e.printStackTrace(errStream);
+			return STATUS_FAILED;
+		} finally {
+			Console.reset();
+			outStream.flush();
+			errStream.flush();
+		}
+	}
+
+	/**
+	 * @param port the port of a daemon
+	 * @return the file holding the token of the daemon listening on the port
+	 */
+	public static File getTokenFile(final int port) {
+		return new File(System.getProperty("user.home"), ".log4jparser-daemon-" + port + ".token");
+	}
+
+	/**
+	 * @return a random token as hex digits
+	 */
+	private static byte[] createToken() {
+		final byte[] random = new byte[TOKEN_LENGTH];
+		new SecureRandom().nextBytes(random);
+		final StringBuilder token = new StringBuilder(2 * TOKEN_LENGTH);
+		for(final byte b: random) {
+			token.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return token.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Writes the token to a new file only the user can read and write, replacing the file of an earlier daemon
+	 */
+	private static void writeTokenFile(final Path file, final byte[] token) throws IOException {
+		Files.deleteIfExists(file);
+		try {
+			if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+				Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+			} else {
+				Files.createFile(file);
+				final File created = file.toFile();
+				created.setReadable(false, false);
+				created.setWritable(false, false);
+				created.setReadable(true, true);
+				created.setWritable(true, true);
+			}
+		} catch(final FileAlreadyExistsException e) {
+			throw new IOException("The token file " + file + " was created by another process", e);
+		}
+		Files.write(file, token);
+	}
+
+	private static PrintStream newPrintStream(final OutputStream out, final Charset charset) throws UnsupportedEncodingException {
+		// buffered, so a line is sent as a single frame
+		return new PrintStream(new BufferedOutputStream(out), true, charset.name());
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		this.serverSocket.close();
+		this.workers.shutdownNow();
+		Files.deleteIfExists(this.tokenFile);
+	}
+
+	/**
+	 * Starts the daemon and runs until the process is stopped
+	 *
+	 * @param args the options of the daemon
+	 * @throws IOException if the port can't be bound
+	 */
+	public static void main(final String[] args) throws IOException {
+		final Options options = new Options();
+		options.addOption(new Option(null, OPT_PORT, true, "(optional) The port on the loopback address. Defaults to " + DEFAULT_PORT + "."));
+		options.addOption(new Option(null, OPT_WORKERS, true, "(optional) The number of jobs run at once, the next jobs wait for a free worker. Defaults to the number of processors."));
+		final int port;
+		final int workers;
+		try {
+			final CommandLine cmd = new DefaultParser().parse(options, args);
+			port = Integer.parseInt(cmd.getOptionValue(OPT_PORT, String.valueOf(DEFAULT_PORT)));
+			workers = Integer.parseInt(cmd.getOptionValue(OPT_WORKERS, String.valueOf(Runtime.getRuntime().availableProcessors())));
+			if(workers <= 0) {
+				throw new ParseException("The value of '" + OPT_WORKERS + "' must be a positive number: " + workers);
+			}
+		} catch(final ParseException | NumberFormatException e) {
+			System.out.println(e.getMessage());
+			new HelpFormatter().printHelp("log4jparser daemon", options);
+			System.exit(-1);
+			return;
+		}
+		try (ParserDaemon daemon = new ParserDaemon(port, workers)) {
+			// the daemon is usually stopped by a signal, which skips the close of the daemon and its token file
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					daemon.close();
+				} catch(final IOException e) {
+					// the process ends anyway
+				}
+			}));
+			LogLevel.INFO.printlnToConsole("Listening on %s:%d with %d workers", InetAddress.getLoopbackAddress().getHostAddress(), daemon.getPort(), workers);
+			daemon.run();
+		}
+	}
+
+	/**
+	 * Writes the frames of a job, the frames of the output and the error streams are written by several threads
+	 */
+	private static final class FrameWriter {
+
+		private final DataOutputStream out;
+
+		private FrameWriter(final OutputStream out) {
+			this.out = new DataOutputStream(new BufferedOutputStream(out));
+		}
+
+		private synchronized void writeFrame(final byte type, final byte[] data, final int offset, final int length) throws IOException {
+			this.out.writeByte(type);
+			this.out.writeInt(length);
+			this.out.write(data, offset, length);
+			this.out.flush();
+		}
+
+		private synchronized void writeExit(final int status) throws IOException {
+			this.out.writeByte(FRAME_EXIT);
+			this.out.writeInt(status);
+			this.out.flush();
+		}
+
+		private OutputStream newStream(final byte type) {
+			return new OutputStream() {
+
+				@Override
+				public void write(final int b) throws IOException {
+					write(new byte[] { (byte) b }, 0, 1);
+				}
+
+				@Override
+				public void write(final byte[] data, final int offset, final int length) throws IOException {
+					if(length > 0) {
+						writeFrame(type, data, offset, length);
+					}
+				}
+			};
+		}
+	}
+}
@@ -19,9 +19,18 @@
 package net.demonsteam.tools.parsers.log4j.impl;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -44,14 +53,41 @@ public class AppArguments {
 
 	public static final String DEFAULT_LOG_DATE_FORMAT = "dd.MM.yyyy HH:mm:ss.SSSS";
 	public static final String DEFAULT_VALUE_OPT_SORT = "date";
+	public static final String VALUE_OPT_SORT_PEAK = "peak";
+	public static final String DEFAULT_VALUE_OPT_GROUP = "message";
+	public static final String VALUE_OPT_GROUP_TEMPLATE = "template";
 
 	private static final String OPT_DATE_FORMAT = "dateFormat";
+	private static final String OPT_LAYOUT = "layout";
 	private static final String OPT_LOG_LEVEL = "loglevel";
 	private static final String OPT_USER_PATTERN = "pattern";
 	private static final String OPT_INPUT_SOURCE_PATH = "inputFile";
 	private static final String OPT_OUTPUT_FILE_PATH = "outputFile";
 	private static final String OPT_SORT = "sort";
 	private static final String FLAG_UNIQUE = "unique";
+	private static final String OPT_THREADS = "threads";
+	private static final String FLAG_COMBINE = "combine";
+	private static final String FLAG_MERGE = "merge";
+	private static final String OPT_MEMORY = "memory";
+	private static final String OPT_GROUP = "group";
+	private static final String OPT_TOP = "top";
+	private static final String FLAG_FOLLOW = "follow";
+	private static final String OPT_INTERVAL = "interval";
+	private static final String OPT_CHECKPOINT = "checkpoint";
+	private static final String OPT_FROM = "from";
+	private static final String OPT_TO = "to";
+	private static final String FLAG_INDEX = "index";
+	private static final String OPT_ENCODING = "encoding";
+	private static final String FLAG_STATS = "stats";
+	private static final String OPT_STATS_JSON = "stats-json";
+	private static final String OPT_FORMAT = "format";
+	private static final String OPT_TIMELINE = "timeline";
+	private static final String OPT_QUERY = "query";
+	private static final String OPT_QUERIES = "queries";
+	// the options a query can have, all other options apply to all queries
+	private static final List<String> QUERY_OPTIONS = Arrays.asList(OPT_LOG_LEVEL, OPT_USER_PATTERN, FLAG_UNIQUE, OPT_SORT, OPT_GROUP, OPT_TOP, OPT_TIMELINE, OPT_FORMAT, OPT_OUTPUT_FILE_PATH);
+	private static final long DEFAULT_TIMELINE_BUCKET_MILLIS = 60_000L;
+	private static final Pattern DURATION = Pattern.compile("(\\d{1,9})([smhd])");
 
 	private List<LogLevel> logLevels = new ArrayList<>();
 	private String regexLogLevels = StringUtils.EMPTY;
@@ -61,24 +97,67 @@ public class AppArguments {
 	private String optOutputFilePath;
 	private String optSort;
 	private boolean flagUnique;
+	private int threads;
+	private boolean flagCombine;
+	private boolean flagMerge;
+	private long memoryBudget;
+	private String optGroup;
+	private TemplateMiner templateMiner;
+	private int top;
+	private boolean flagFollow;
+	private int interval;
+	private File checkpointFile;
+	private long fromMillis = Long.MIN_VALUE;
+	private long toMillis = Long.MAX_VALUE;
+	private boolean flagIndex;
+	private Charset encoding;
+	private RunStatistics statistics = RunStatistics.DISABLED;
+	private File statsJsonFile;
+	private String optFormat;
+	private long timelineBucketMillis;
+	private final List<AppArguments> queries = new ArrayList<>();
+	private LineFilter lineFilter;
+	private HeaderFormat headerFormat;
+	private TimestampParser timestampParser;
 	private String logDateFormat;
 	private File tempDir;
 
-	public AppArguments(final String[] args) throws IllegalArgumentException {
-		final Options cmdOptions = new Options();
-		cmdOptions.addOption(createOption(OPT_DATE_FORMAT, "Specify the log format of the log entries. Defaults to: " + DEFAULT_LOG_DATE_FORMAT, true, false));
-		cmdOptions.addOption(createOption(OPT_LOG_LEVEL, "A valid log4J log level: " + Arrays.toString(LogLevel.values()) + ". Multiple values can be separated by comma or space.", true, true));
-		cmdOptions.addOption(createOption(OPT_USER_PATTERN, "Pattern to match", true, false));
-		cmdOptions.addOption(createOption(OPT_INPUT_SOURCE_PATH, "Absolute or relative to the current directory path to the logfile (text or zip)", true, true));
-		cmdOptions.addOption(createOption(OPT_OUTPUT_FILE_PATH, "Absolute or relative to the current directory path to the output file. If omitted the standard output is used.", true, false));
-		cmdOptions.addOption(createOption(FLAG_UNIQUE, "Unique lines with occurrence count", false, false));
-		cmdOptions.addOption(createOption(OPT_SORT, "Sort either by date or unique count. This option is only used when '" + FLAG_UNIQUE + "' flag is set. Default to date.", true, false));
+	/**
+	 * Parses the command line arguments, printing the usage and exiting if they are invalid
+	 *
+	 * @param args the command line arguments
+	 */
+	public AppArguments(final String[] args) {
+		this(args, true, new File(System.getProperty("user.dir")));
+	}
 
+	private AppArguments(final String[] args, final boolean exitOnError, final File workingDirectory) throws IllegalArgumentException {
+		final Options cmdOptions = createOptions();
 		final CommandLineParser parser = new DefaultParser();
 		final HelpFormatter helpFormatter = new HelpFormatter();
 		try {
 			final CommandLine cmd = parser.parse(cmdOptions, args);
-			this.logDateFormat = cmd.getOptionValue(OPT_DATE_FORMAT, DEFAULT_LOG_DATE_FORMAT);
+			if(cmd.hasOption(OPT_LAYOUT)) {
+				if(cmd.hasOption(OPT_DATE_FORMAT)) {
+					throw new ParseException("The option '" + OPT_DATE_FORMAT + "' can't be combined with '" + OPT_LAYOUT + "', the date format is the one of the layout");
+				}
+				final PatternLayoutFormat layoutFormat;
+				try {
+					layoutFormat = new PatternLayoutFormat(cmd.getOptionValue(OPT_LAYOUT));
+				} catch(final IllegalArgumentException e) {
+					throw new ParseException("Invalid layout: " + e.getMessage());
+				}
+				this.headerFormat = layoutFormat;
+				this.logDateFormat = layoutFormat.getDateFormat();
+			} else {
+				this.headerFormat = HeaderDetector.ANY_LEVEL;
+				this.logDateFormat = cmd.getOptionValue(OPT_DATE_FORMAT, DEFAULT_LOG_DATE_FORMAT);
+			}
+			try {
+				this.timestampParser = new TimestampParser(this.logDateFormat);
+			} catch(final IllegalArgumentException e) {
+				throw new ParseException("Invalid date format: " + e.getMessage());
+			}
 			final String[] logLevelArgs = cmd.getOptionValue(OPT_LOG_LEVEL).split(",\\s*|\\s+");
 			boolean firstIteration = true;
 			for(final String logLevel: logLevelArgs) {
@@ -93,8 +172,14 @@ public class AppArguments {
 			}
 			this.regexLogLevels = "\\*(" + this.regexLogLevels + ")\\*";
 			this.optUserPattern = cmd.getOptionValue(OPT_USER_PATTERN, ".*"); // defaults to any match
+			this.encoding = parseEncoding(cmd);
+			try {
+				this.lineFilter = new LineFilter(this.headerFormat, this.logLevels, this.optUserPattern, this.encoding);
+			} catch(final PatternSyntaxException e) {
+				throw new ParseException("Invalid pattern: " + e.getMessage());
+			}
 
-			final String executionPath = System.getProperty("user.dir");
+			final String executionPath = workingDirectory.getAbsolutePath();
 			this.optInputSourcePath = cmd.getOptionValue(OPT_INPUT_SOURCE_PATH);
 			if(this.optInputSourcePath.charAt(0) != '/') {
 				this.optInputSourcePath = executionPath + "/" + this.optInputSourcePath;
@@ -108,17 +193,321 @@ public class AppArguments {
 				}
 			}
 			this.optSort = cmd.getOptionValue(OPT_SORT, DEFAULT_VALUE_OPT_SORT);
-			this.flagUnique = cmd.hasOption(FLAG_UNIQUE);
+			this.top = parsePositiveInt(cmd, OPT_TOP, 0);
+			this.flagUnique = cmd.hasOption(FLAG_UNIQUE) || this.top > 0;
+			this.threads = parsePositiveInt(cmd, OPT_THREADS, 1);
+			this.flagCombine = cmd.hasOption(FLAG_COMBINE);
+			this.flagMerge = cmd.hasOption(FLAG_MERGE);
+			if(cmd.hasOption(OPT_TIMELINE)) {
+				this.timelineBucketMillis = parseDuration(cmd, OPT_TIMELINE);
+			} else if(VALUE_OPT_SORT_PEAK.equals(this.optSort)) {
+				this.timelineBucketMillis = DEFAULT_TIMELINE_BUCKET_MILLIS;
+			}
+			if(this.timelineBucketMillis > 0 && !this.flagUnique) {
+				throw new ParseException("The option '" + OPT_TIMELINE + "' and the sort by " + VALUE_OPT_SORT_PEAK + " require '" + FLAG_UNIQUE + "' or '" + OPT_TOP + "'");
+			}
+			this.memoryBudget = parsePositiveInt(cmd, OPT_MEMORY, 256) * 1024L * 1024L;
+			this.flagFollow = cmd.hasOption(FLAG_FOLLOW);
+			this.interval = parsePositiveInt(cmd, OPT_INTERVAL, 10);
+			if(this.flagFollow && (!this.inputFile.isFile() || InputSourceWalker.isCompressed(this.inputFile.getName()))) {
+				throw new ParseException("The input of '" + FLAG_FOLLOW + "' must be a plain text file: " + this.optInputSourcePath);
+			}
+			this.fromMillis = parseDate(cmd, OPT_FROM, Long.MIN_VALUE);
+			this.toMillis = parseDate(cmd, OPT_TO, Long.MAX_VALUE);
+			this.flagIndex = cmd.hasOption(FLAG_INDEX);
+			if(hasTimeRange() && (this.flagFollow || cmd.hasOption(OPT_CHECKPOINT))) {
+				throw new ParseException("The options '" + OPT_FROM + "' and '" + OPT_TO + "' can't be combined with '" + FLAG_FOLLOW + "' or '" + OPT_CHECKPOINT + "'");
+			}
+			if(this.flagMerge && (this.flagUnique || this.flagCombine || this.flagFollow || cmd.hasOption(OPT_CHECKPOINT))) {
+				throw new ParseException("The option '" + FLAG_MERGE + "' can't be combined with '" + FLAG_UNIQUE + "', '" + OPT_TOP + "', '" + FLAG_COMBINE + "', '" + FLAG_FOLLOW + "' or '" + OPT_CHECKPOINT + "'");
+			}
+			if(cmd.hasOption(OPT_CHECKPOINT)) {
+				if(this.flagCombine || this.flagFollow || this.top > 0) {
+					throw new ParseException("The option '" + OPT_CHECKPOINT + "' can't be combined with '" + FLAG_COMBINE + "', '" + FLAG_FOLLOW + "' or '" + OPT_TOP + "'");
+				}
+				String checkpointPath = cmd.getOptionValue(OPT_CHECKPOINT);
+				if(checkpointPath.charAt(0) != '/') {
+					checkpointPath = executionPath + "/" + checkpointPath;
+				}
+				this.checkpointFile = new File(checkpointPath);
+			}
+			this.optGroup = cmd.getOptionValue(OPT_GROUP, DEFAULT_VALUE_OPT_GROUP);
+			if(VALUE_OPT_GROUP_TEMPLATE.equals(this.optGroup)) {
+				this.templateMiner = new TemplateMiner();
+			} else if(!DEFAULT_VALUE_OPT_GROUP.equals(this.optGroup)) {
+				throw new ParseException("The value of '" + OPT_GROUP + "' must be either " + DEFAULT_VALUE_OPT_GROUP + " or " + VALUE_OPT_GROUP_TEMPLATE + ": " + this.optGroup);
+			}
+			this.optFormat = cmd.getOptionValue(OPT_FORMAT, EntryEncoder.FORMAT_TEXT);
+			if(!EntryEncoder.FORMATS.contains(this.optFormat)) {
+				throw new ParseException("The value of '" + OPT_FORMAT + "' must be one of " + EntryEncoder.FORMATS + ": " + this.optFormat);
+			}
+			if(cmd.hasOption(OPT_STATS_JSON)) {
+				String statsJsonPath = cmd.getOptionValue(OPT_STATS_JSON);
+				if(statsJsonPath.charAt(0) != '/') {
+					statsJsonPath = executionPath + "/" + statsJsonPath;
+				}
+				this.statsJsonFile = new File(statsJsonPath);
+			}
+			if(cmd.hasOption(FLAG_STATS) || this.statsJsonFile != null) {
+				this.statistics = new RunStatistics();
+			}
 			this.tempDir = new File(this.inputFile.getParent() + "/" + this.inputFile.getName() + ".d");
+			parseQueries(cmd, cmdOptions, executionPath, workingDirectory);
 		} catch(final ParseException e) {
+			if(!exitOnError) {
+				throw new IllegalArgumentException(e.getMessage(), e);
+			}
 			System.out.println(e.getMessage());
 			helpFormatter.printHelp("log4jparser", cmdOptions);
 			System.exit(-1);
 		}
 	}
 
-	private Option createOption(final String longOpt, final String description, final boolean hasArgs, final boolean required) {
-		final Option opt = new Option(longOpt.charAt(0) + "", longOpt, hasArgs, (required ? "" : "(optional) ") + description);
+	/**
+	 * Parses the arguments like the command line does, but reports invalid arguments with an exception, so the parser
+	 * can be embedded in a running application
+	 *
+	 * @param args the arguments in the command line format
+	 * @return the parsed arguments
+	 * @throws IllegalArgumentException if the arguments are invalid
+	 */
+	public static AppArguments parse(final String... args) throws IllegalArgumentException {
+		return parse(new File(System.getProperty("user.dir")), args);
+	}
+
+	/**
+	 * Parses the arguments like {@link #parse(String...)}, resolving the relative paths against the given directory
+	 *
+	 * @param workingDirectory the directory of the relative paths
+	 * @param args the arguments in the command line format
+	 * @return the parsed arguments
+	 * @throws IllegalArgumentException if the arguments are invalid
+	 */
+	public static AppArguments parse(final File workingDirectory, final String... args) throws IllegalArgumentException {
+		return new AppArguments(args, false, workingDirectory);
+	}
+
+	/**
+	 * @param writer the writer the usage of the command line is printed to
+	 */
+	public static void printUsage(final PrintWriter writer) {
+		final HelpFormatter helpFormatter = new HelpFormatter();
+		helpFormatter.printHelp(writer, helpFormatter.getWidth(), "log4jparser", null, createOptions(), helpFormatter.getLeftPadding(), helpFormatter.getDescPadding(), null);
+		writer.flush();
+	}
+
+	private static Options createOptions() {
+		final Options cmdOptions = new Options();
+		cmdOptions.addOption(createOption(OPT_DATE_FORMAT, "Specify the log format of the log entries. Defaults to: " + DEFAULT_LOG_DATE_FORMAT, true, false));
+		cmdOptions.addOption(createOption(null, OPT_LAYOUT, "A log4j conversion pattern of the log files with a date %d, a level %p and a message %m, e.g. '%d{ISO8601} [%t] %-5p %c - %m%n'. The date format is taken from the date. Defaults to the '<date> *LEVEL* <message>' lines.", true, false));
+		cmdOptions.addOption(createOption(OPT_LOG_LEVEL, "A valid log4J log level: " + Arrays.toString(LogLevel.values()) + ". Multiple values can be separated by comma or space.", true, true));
+		cmdOptions.addOption(createOption(OPT_USER_PATTERN, "Pattern to match", true, false));
+		cmdOptions.addOption(createOption(OPT_INPUT_SOURCE_PATH, "Absolute or relative to the current directory path to the logfile (text, zip, gz or tar.gz) or to a directory", true, true));
+		cmdOptions.addOption(createOption(OPT_OUTPUT_FILE_PATH, "Absolute or relative to the current directory path to the output file. If omitted the standard output is used.", true, false));
+		cmdOptions.addOption(createOption(FLAG_UNIQUE, "Unique lines with occurrence count", false, false));
+		cmdOptions.addOption(createOption(OPT_SORT, "Sort either by date, unique count or peak rate (the '" + OPT_TIMELINE + "', per minute unless given). This option is only used when '" + FLAG_UNIQUE + "' flag is set. Default to date.", true, false));
+		cmdOptions.addOption(createOption(OPT_THREADS, "Number of threads used to parse a plain text file in parallel chunks. Defaults to 1.", true, false));
+		cmdOptions.addOption(createOption(OPT_MEMORY, "Memory in MB for the bodies of the unique entries, above it the bodies are spilled to a file in the temp directory. A report of more entries than fit into it is sorted in runs in the temp directory. Defaults to 256.", true, false));
+		cmdOptions.addOption(createOption(OPT_GROUP, "Group the unique entries either by message or by template. The template grouping masks variable tokens like numbers, ids and paths, so messages differing only in them are counted together. Defaults to " + DEFAULT_VALUE_OPT_GROUP + ".", true, false));
+		cmdOptions.addOption(createOption(null, OPT_TOP, "Report only the N most frequent unique entries, counted approximately in fixed memory. The counts are given with their maximum error and the number of unique entries is estimated. Implies '" + FLAG_UNIQUE + "' and groups the entries like it while they are counted, an entry sharing only the body of an entry no longer counted starts a group of its own.", true, false));
+		cmdOptions.addOption(createOption(FLAG_FOLLOW, "Follow a plain text file which is still written to, like 'tail -f', until the program is stopped. Log rollover by truncation or rename is detected. In unique mode the report is printed or the output file is rewritten every '" + OPT_INTERVAL + "' seconds.", false, false));
+		cmdOptions.addOption(createOption(null, OPT_INTERVAL, "Seconds between two reports in '" + FLAG_FOLLOW + "' mode. Defaults to 10.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_CHECKPOINT, "Path to a checkpoint file. The next run with the same checkpoint reads only the bytes appended to the input files since this run and merges them into the saved unique entries. Not supported with '" + FLAG_COMBINE + "', '" + FLAG_FOLLOW + "' and '" + OPT_TOP + "'.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_FROM, "Only entries dated at or after this date, in the format of '" + OPT_DATE_FORMAT + "' or of the date of the '" + OPT_LAYOUT + "'. The start of a plain text file is found by a binary search over the file.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_TO, "Only entries dated at or before this date, in the format of '" + OPT_DATE_FORMAT + "' or of the date of the '" + OPT_LAYOUT + "'. Reading a plain text file stops at the first entry after it.", true, false));
+		cmdOptions.addOption(createOption(null, FLAG_INDEX, "Create or update a sparse time index next to a plain text file (<file>.tidx), making later '" + OPT_FROM + "'/'" + OPT_TO + "' queries almost instant and their line numbers exact. An existing index is always used.", false, false));
+		cmdOptions.addOption(createOption(OPT_ENCODING, "The charset of the log files, e.g. UTF-8 or ISO-8859-1. Only ASCII compatible charsets are supported. Defaults to the platform charset.", true, false));
+		cmdOptions.addOption(createOption(null, FLAG_STATS, "Print the statistics of the run: bytes and lines read, matched and unique entries, stored bodies, temp files and the time spent in each stage.", false, false));
+		cmdOptions.addOption(createOption(null, OPT_STATS_JSON, "Path to a file the statistics of the run are written to as JSON. Implies '" + FLAG_STATS + "'.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_QUERY, "A further query run in the same read of the input, given by its own '" + OPT_LOG_LEVEL + "', '" + OPT_USER_PATTERN + "', '" + FLAG_UNIQUE + "', '" + OPT_SORT + "', '" + OPT_GROUP + "', '" + OPT_TOP + "', '" + OPT_TIMELINE + "', '" + OPT_FORMAT + "' and '" + OPT_OUTPUT_FILE_PATH + "' options and written like --" + OPT_QUERY + "=\"-l warn -p .*Timeout.* -o warn.log\". All other options apply to all queries. Can be repeated.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_QUERIES, "Path to a file with a further query per line, like the value of '" + OPT_QUERY + "'. Lines starting with # are ignored.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_TIMELINE, "Count the occurrences of every unique entry in time buckets of this size, e.g. 30s, 1m, 1h or 1d, and report its peak rate and whether it occurred in a burst, a peak at least " + Timeline.BURST_FACTOR + " times its mean rate over the report.", true, false));
+		cmdOptions.addOption(createOption(null, OPT_FORMAT, "The format of the output: " + EntryEncoder.FORMAT_TEXT + ", " + EntryEncoder.FORMAT_JSONL + " (a JSON object per entry), " + EntryEncoder.FORMAT_CSV + " or " + EntryEncoder.FORMAT_BINARY + ". The structured formats have one record per entry with its hash, count, dates in epoch milliseconds, line number, line and body and are written in UTF-8. Defaults to " + EntryEncoder.FORMAT_TEXT + ".", true, false));
+		cmdOptions.addOption(createOption(FLAG_COMBINE, "Parse the files of a directory or zip archive concurrently using '" + OPT_THREADS + "' threads and write a single report for all of them", false, false));
+		cmdOptions.addOption(createOption(null, FLAG_MERGE, "Read all files of a directory or archive at once and write their matching entries merged in the order of their dates, like a single log. The memory used depends on the number of files only.", false, false));
+
+		return cmdOptions;
+	}
+
+	/**
+	 * Parses the further queries, each one with the options of the command line which apply to all queries
+	 */
+	private void parseQueries(final CommandLine cmd, final Options cmdOptions, final String executionPath, final File workingDirectory) throws ParseException {
+		final List<String> queryLines = new ArrayList<>();
+		if(cmd.hasOption(OPT_QUERY)) {
+			queryLines.addAll(Arrays.asList(cmd.getOptionValues(OPT_QUERY)));
+		}
+		if(cmd.hasOption(OPT_QUERIES)) {
+			String queriesPath = cmd.getOptionValue(OPT_QUERIES);
+			if(queriesPath.charAt(0) != '/') {
+				queriesPath = executionPath + "/" + queriesPath;
+			}
+			try {
+				for(final String line: Files.readAllLines(Paths.get(queriesPath), StandardCharsets.UTF_8)) {
+					if(!line.trim().isEmpty() && !line.trim().startsWith("#")) {
+						queryLines.add(line.trim());
+					}
+				}
+			} catch(final IOException e) {
+				throw new ParseException("Cannot read the queries from " + queriesPath + ": " + e.getMessage());
+			}
+		}
+		if(queryLines.isEmpty()) {
+			return;
+		}
+		if(this.flagFollow || this.flagMerge || this.flagCombine || this.checkpointFile != null) {
+			throw new ParseException("The options '" + OPT_QUERY + "' and '" + OPT_QUERIES + "' can't be combined with '" + FLAG_FOLLOW + "', '" + FLAG_MERGE + "', '" + FLAG_COMBINE + "' or '" + OPT_CHECKPOINT + "'");
+		}
+		// the statistics are shared, so they count the single read of the input
+		final List<String> ownArgs = Arrays.asList(OPT_QUERY, OPT_QUERIES, FLAG_STATS, OPT_STATS_JSON);
+		final List<String> sharedArgs = new ArrayList<>();
+		for(final Option option: cmd.getOptions()) {
+			if(!QUERY_OPTIONS.contains(option.getLongOpt()) && !ownArgs.contains(option.getLongOpt())) {
+				sharedArgs.add("--" + option.getLongOpt());
+				if(option.hasArg()) {
+					sharedArgs.add(option.getValue());
+				}
+			}
+		}
+		final List<String> outputs = new ArrayList<>();
+		outputs.add(this.optOutputFilePath);
+		for(final String queryLine: queryLines) {
+			final List<String> queryArgs = splitQuery(queryLine);
+			for(final String arg: queryArgs) {
+				final Option option = arg.startsWith("-") ? cmdOptions.getOption(arg.replaceFirst("^--?", "")) : null;
+				if(option != null && !QUERY_OPTIONS.contains(option.getLongOpt())) {
+					throw new ParseException("The option '" + option.getLongOpt() + "' applies to all queries and is only accepted on the command line: " + queryLine);
+				}
+			}
+			queryArgs.addAll(sharedArgs);
+			final AppArguments query;
+			try {
+				query = new AppArguments(queryArgs.toArray(new String[queryArgs.size()]), false, workingDirectory);
+			} catch(final IllegalArgumentException e) {
+				throw new ParseException("Invalid query '" + queryLine + "': " + e.getMessage());
+			}
+			if(outputs.contains(query.optOutputFilePath)) {
+				throw new ParseException(query.optOutputFilePath == null ? "Only one query can write to the standard output, give the others an '" + OPT_OUTPUT_FILE_PATH + "'"
+				        : "Two queries write to the same output file: " + query.optOutputFilePath);
+			}
+			outputs.add(query.optOutputFilePath);
+			query.statistics = this.statistics;
+			this.queries.add(query);
+		}
+	}
+
+	/**
+	 * @return the arguments of a query, separated by whitespace unless quoted with ' or "
+	 */
+	private static List<String> splitQuery(final String query) throws ParseException {
+		final List<String> args = new ArrayList<>();
+		final StringBuilder arg = new StringBuilder();
+		boolean inArg = false;
+		char quote = 0;
+		for(int i = 0; i < query.length(); i++) {
+			final char c = query.charAt(i);
+			if(quote != 0) {
+				if(c == quote) {
+					quote = 0;
+				} else {
+					arg.append(c);
+				}
+			} else if(c == '\'' || c == '"') {
+				quote = c;
+				inArg = true;
+			} else if(Character.isWhitespace(c)) {
+				if(inArg) {
+					args.add(arg.toString());
+					arg.setLength(0);
+					inArg = false;
+				}
+			} else {
+				arg.append(c);
+				inArg = true;
+			}
+		}
+		if(quote != 0) {
+			throw new ParseException("Unterminated quote in the query: " + query);
+		}
+		if(inArg) {
+			args.add(arg.toString());
+		}
+		return args;
+	}
+
+	/**
+	 * @return the duration in milliseconds of a value like 30s, 5m, 1h or 1d
+	 */
+	private long parseDuration(final CommandLine cmd, final String opt) throws ParseException {
+		final Matcher matcher = DURATION.matcher(cmd.getOptionValue(opt).trim());
+		if(matcher.matches() && Long.parseLong(matcher.group(1)) > 0) {
+			final long unit;
+			switch(matcher.group(2)) {
+				case "s":
+					unit = 1000L;
+					break;
+				case "m":
+					unit = 60_000L;
+					break;
+				case "h":
+					unit = 3600_000L;
+					break;
+				default:
+					unit = 24 * 3600_000L;
+			}
+			return Long.parseLong(matcher.group(1)) * unit;
+		}
+		throw new ParseException("The value of '" + opt + "' must be a positive number of seconds, minutes, hours or days, like 30s, 5m, 1h or 1d: " + cmd.getOptionValue(opt));
+	}
+
+	private int parsePositiveInt(final CommandLine cmd, final String opt, final int defaultValue) throws ParseException {
+		if(!cmd.hasOption(opt)) {
+			return defaultValue;
+		}
+		try {
+			final int value = Integer.parseInt(cmd.getOptionValue(opt).trim());
+			if(value > 0) {
+				return value;
+			}
+		} catch(final NumberFormatException e) {
+			// handled below
+		}
+		throw new ParseException("The value of '" + opt + "' must be a positive number: " + cmd.getOptionValue(opt));
+	}
+
+	private Charset parseEncoding(final CommandLine cmd) throws ParseException {
+		final Charset charset;
+		try {
+			charset = cmd.hasOption(OPT_ENCODING) ? Charset.forName(cmd.getOptionValue(OPT_ENCODING).trim()) : Charset.defaultCharset();
+		} catch(final IllegalArgumentException e) {
+			throw new ParseException("Unknown encoding: " + cmd.getOptionValue(OPT_ENCODING));
+		}
+		if(!ByteLineReader.isAsciiCompatible(charset)) {
+			throw new ParseException("The encoding must be ASCII compatible, like UTF-8 or ISO-8859-1: " + charset.name() + (cmd.hasOption(OPT_ENCODING) ? "" : ", use '" + OPT_ENCODING + "'"));
+		}
+		return charset;
+	}
+
+	private long parseDate(final CommandLine cmd, final String opt, final long defaultValue) throws ParseException {
+		if(!cmd.hasOption(opt)) {
+			return defaultValue;
+		}
+		try {
+			return this.timestampParser.parse(cmd.getOptionValue(opt));
+		} catch(final java.text.ParseException e) {
+			throw new ParseException("The value of '" + opt + "' must be a date in the format " + this.logDateFormat + ": " + cmd.getOptionValue(opt));
+		}
+	}
+
+	private static Option createOption(final String longOpt, final String description, final boolean hasArgs, final boolean required) {
+		return createOption(longOpt.charAt(0) + "", longOpt, description, hasArgs, required);
+	}
+
+	/**
+	 * @param shortOpt the short option or null if the first letter of the long option is already taken
+	 */
+	private static Option createOption(final String shortOpt, final String longOpt, final String description, final boolean hasArgs, final boolean required) {
+		final Option opt = new Option(shortOpt, longOpt, hasArgs, (required ? "" : "(optional) ") + description);
 		opt.setRequired(required);
 		return opt;
 	}
@@ -141,6 +530,20 @@ public class AppArguments {
 		return this.logDateFormat;
 	}
 
+	/**
+	 * @return the format of the header lines, compiled from the layout
+	 */
+	public HeaderFormat getHeaderFormat() {
+		return this.headerFormat;
+	}
+
+	/**
+	 * @return the parser for the dates of the log entries, compiled from the log date format
+	 */
+	public TimestampParser getTimestampParser() {
+		return this.timestampParser;
+	}
+
 	public String getRegexLogLevels() {
 		return this.regexLogLevels;
 	}
@@ -149,6 +552,20 @@ public class AppArguments {
 		return this.optUserPattern;
 	}
 
+	/**
+	 * @return the ASCII compatible charset of the log files
+	 */
+	public Charset getEncoding() {
+		return this.encoding;
+	}
+
+	/**
+	 * @return the filter for the log entries, compiled from the log levels and the user pattern
+	 */
+	public LineFilter getLineFilter() {
+		return this.lineFilter;
+	}
+
 	public String getOptInputSourcePath() {
 		return this.optInputSourcePath;
 	}
@@ -180,6 +597,137 @@ public class AppArguments {
 		return this.flagUnique;
 	}
 
+	/**
+	 * @return the number of threads used to parse a plain text file
+	 */
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/**
+	 * @return the number of bytes of bodies kept in memory
+	 */
+	public long getMemoryBudget() {
+		return this.memoryBudget;
+	}
+
+	/**
+	 * @return the output format, one of the {@link EntryEncoder#FORMATS}
+	 */
+	public String getFormat() {
+		return this.optFormat;
+	}
+
+	/**
+	 * @return the size of the buckets of the timelines of the unique entries in milliseconds or 0 without timelines
+	 */
+	public long getTimelineBucketMillis() {
+		return this.timelineBucketMillis;
+	}
+
+	/**
+	 * @return the further queries run in the same read of the input, each one with the options of the command line
+	 *         which apply to all queries, empty if there are none
+	 */
+	public List<AppArguments> getQueries() {
+		return this.queries;
+	}
+
+	public String getOptGroup() {
+		return this.optGroup;
+	}
+
+	/**
+	 * @return the miner grouping the messages into templates or null if the entries are grouped by message
+	 */
+	public TemplateMiner getTemplateMiner() {
+		return this.templateMiner;
+	}
+
+	/**
+	 * @return the number of most frequent entries to report or 0 if all unique entries are reported
+	 */
+	public int getTop() {
+		return this.top;
+	}
+
+	/**
+	 * @return true if the input file should be followed while it is written to
+	 */
+	public boolean isFlagFollow() {
+		return this.flagFollow;
+	}
+
+	/**
+	 * @return the seconds between two reports in follow mode
+	 */
+	public int getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * @return the checkpoint file of an incremental run or null
+	 */
+	public File getCheckpointFile() {
+		return this.checkpointFile;
+	}
+
+	/**
+	 * @return the first date of the entries in epoch milliseconds or {@link Long#MIN_VALUE}
+	 */
+	public long getFromMillis() {
+		return this.fromMillis;
+	}
+
+	/**
+	 * @return the last date of the entries in epoch milliseconds or {@link Long#MAX_VALUE}
+	 */
+	public long getToMillis() {
+		return this.toMillis;
+	}
+
+	/**
+	 * @return true if only the entries of a time window are read
+	 */
+	public boolean hasTimeRange() {
+		return this.fromMillis != Long.MIN_VALUE || this.toMillis != Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return true if the sparse time index of a plain text file should be created or updated
+	 */
+	public boolean isFlagIndex() {
+		return this.flagIndex;
+	}
+
+	/**
+	 * @return true if all files of the input should be parsed concurrently into a single report
+	 */
+	public boolean isFlagCombine() {
+		return this.flagCombine;
+	}
+
+	/**
+	 * @return true if the entries of all input files are merged by their dates
+	 */
+	public boolean isFlagMerge() {
+		return this.flagMerge;
+	}
+
+	/**
+	 * @return the statistics of the run, disabled unless requested
+	 */
+	public RunStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * @return the file the statistics are written to as JSON or null
+	 */
+	public File getStatsJsonFile() {
+		return this.statsJsonFile;
+	}
+
 	@Override
 	public String toString() {
 		return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
@@ -0,0 +1,305 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the output on a thread of its own. The text is encoded into large direct buffers (batches) and a full batch is
+ * passed to the output thread, which writes it to the channel while the next batch is filled. The number of batches is
+ * fixed, so a writer faster than the channel waits until the output thread frees a batch.
+ * <p>
+ * The channel is only written with whole batches, except on {@link #flush()}, which passes the current batch to the
+ * output thread and waits until everything written so far is on the channel.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class AsyncBatchWriter extends Writer {
+
+	private static final int BATCH_SIZE = 1024 * 1024;
+	private static final int BATCH_COUNT = 8;
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	private final WritableByteChannel channel;
+	private final boolean closeChannel;
+	private final boolean utf8;
+	private final CharsetEncoder encoder;
+	private final RunStatistics statistics;
+	private final BlockingQueue<ByteBuffer> emptyBatches = new ArrayBlockingQueue<>(BATCH_COUNT);
+	private final BlockingQueue<ByteBuffer> filledBatches = new ArrayBlockingQueue<>(BATCH_COUNT + 1); // and the end
+	private final Thread outputThread;
+	private final Object progress = new Object();
+	private long submittedBatches;
+	private long writtenBatches; // guarded by progress
+	private volatile IOException failure;
+	private ByteBuffer batch;
+	private boolean closed;
+
+	/**
+	 * @param channel the output
+	 * @param charset the charset of the output
+	 * @param closeChannel true to close the channel when this writer is closed
+	 */
+	public AsyncBatchWriter(final WritableByteChannel channel, final Charset charset, final boolean closeChannel) {
+		this(channel, charset, closeChannel, RunStatistics.DISABLED);
+	}
+
+	/**
+	 * @param channel the output
+	 * @param charset the charset of the output
+	 * @param closeChannel true to close the channel when this writer is closed
+	 * @param statistics the statistics counting the bytes written and the time spent writing them
+	 */
+	public AsyncBatchWriter(final WritableByteChannel channel, final Charset charset, final boolean closeChannel, final RunStatistics statistics) {
+		this.channel = channel;
+		this.statistics = statistics;
+		this.closeChannel = closeChannel;
+		this.utf8 = StandardCharsets.UTF_8.equals(charset);
+		this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+		for(int i = 0; i < BATCH_COUNT; i++) {
+			this.emptyBatches.add(ByteBuffer.allocateDirect(BATCH_SIZE));
+		}
+		this.batch = this.emptyBatches.poll();
+		this.outputThread = new Thread(this::drain, "output");
+		this.outputThread.start();
+	}
+
+	private void drain() {
+		try {
+			ByteBuffer filled;
+			while((filled = this.filledBatches.take()) != END) {
+				final long start = this.statistics.startTimer();
+				this.statistics.add(RunStatistics.Counter.OUTPUT_BYTES, filled.remaining());
+				try {
+					while(this.failure == null && filled.hasRemaining()) {
+						this.channel.write(filled);
+					}
+				} catch(final IOException e) {
+					this.failure = e; // the following batches are dropped, the writer fails on its next call
+				}
+				this.statistics.stopTimer(RunStatistics.Stage.OUTPUT, start);
+				filled.clear();
+				this.emptyBatches.add(filled);
+				synchronized(this.progress) {
+					this.writtenBatches++;
+					this.progress.notifyAll();
+				}
+			}
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void write(final int c) throws IOException {
+		synchronized(this.lock) {
+			ensureOpen();
+			if(c < 0x80 && this.batch.hasRemaining()) {
+				this.batch.put((byte) c);
+			} else {
+				encode(CharBuffer.wrap(new char[] { (char) c }));
+			}
+		}
+	}
+
+	@Override
+	public void write(final char[] chars, final int offset, final int length) throws IOException {
+		synchronized(this.lock) {
+			ensureOpen();
+			final int end = offset + length;
+			int i = offset;
+			// most log text is ASCII, which is copied without the encoder
+			while(i < end) {
+				final char c = chars[i];
+				if(c >= 0x80) {
+					encode(CharBuffer.wrap(chars, i, end - i));
+					return;
+				}
+				if(!this.batch.hasRemaining()) {
+					submitBatch();
+				}
+				this.batch.put((byte) c);
+				i++;
+			}
+		}
+	}
+
+	@Override
+	public void write(final String text, final int offset, final int length) throws IOException {
+		synchronized(this.lock) {
+			ensureOpen();
+			final int end = offset + length;
+			int i = offset;
+			while(i < end) {
+				final char c = text.charAt(i);
+				if(c >= 0x80) {
+					encode(CharBuffer.wrap(text, i, end));
+					return;
+				}
+				if(!this.batch.hasRemaining()) {
+					submitBatch();
+				}
+				this.batch.put((byte) c);
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Writes text which is already encoded in UTF-8, like a body kept in the {@link BodyStore}
+	 *
+	 * @param bytes the UTF-8 encoded text
+	 * @throws IOException if the output failed
+	 */
+	public void writeUtf8(final byte[] bytes) throws IOException {
+		if(!this.utf8) {
+			write(new String(bytes, StandardCharsets.UTF_8));
+			return;
+		}
+		writeRaw(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Writes bytes which are already encoded, whatever the charset of this writer, like a record of a structured output
+	 * format
+	 *
+	 * @param bytes the bytes
+	 * @param offset the index of the first byte
+	 * @param length the number of bytes
+	 * @throws IOException if the output failed
+	 */
+	public void writeRaw(final byte[] bytes, final int offset, final int length) throws IOException {
+		synchronized(this.lock) {
+			ensureOpen();
+			final int end = offset + length;
+			int i = offset;
+			while(i < end) {
+				if(!this.batch.hasRemaining()) {
+					submitBatch();
+				}
+				final int count = Math.min(end - i, this.batch.remaining());
+				this.batch.put(bytes, i, count);
+				i += count;
+			}
+		}
+	}
+
+	private void encode(final CharBuffer chars) throws IOException {
+		this.encoder.reset();
+		CoderResult result;
+		while((result = this.encoder.encode(chars, this.batch, true)).isOverflow()) {
+			submitBatch();
+		}
+		while((result = this.encoder.flush(this.batch)).isOverflow()) {
+			submitBatch();
+		}
+		if(result.isError()) {
+			result.throwException();
+		}
+	}
+
+	/**
+	 * Passes the current batch to the output thread and takes an empty one, waiting while there is none
+	 */
+	private void submitBatch() throws IOException {
+		checkFailure();
+		this.batch.flip();
+		try {
+			this.filledBatches.put(this.batch);
+			this.submittedBatches++;
+			this.batch = this.emptyBatches.take();
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the output");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		synchronized(this.lock) {
+			ensureOpen();
+			if(this.batch.position() > 0) {
+				submitBatch();
+			}
+			awaitWritten();
+			checkFailure();
+		}
+	}
+
+	private void awaitWritten() throws IOException {
+		synchronized(this.progress) {
+			while(this.writtenBatches < this.submittedBatches) {
+				try {
+					this.progress.wait();
+				} catch(final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for the output");
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized(this.lock) {
+			if(this.closed) {
+				return;
+			}
+			try {
+				flush();
+			} finally {
+				this.closed = true;
+				this.filledBatches.add(END);
+				try {
+					this.outputThread.join();
+				} catch(final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if(this.closeChannel) {
+					this.channel.close();
+				}
+			}
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if(this.closed) {
+			throw new IOException("The writer is closed");
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		if(this.failure != null) {
+			throw new IOException("Cannot write the output: " + this.failure.getMessage(), this.failure);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a source stream on a thread of the given executor, so the work of the source (the inflation of a compressed
+ * file) overlaps with the work of the reader (the parsing). The data is passed in a fixed number of buffers, the
+ * source thread waits while all of them are filled and the reader waits while all of them are empty.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class AsyncInputStream extends InputStream {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int BUFFER_COUNT = 16;
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	private static final int NEW = 0;
+	private static final int RUNNING = 1;
+	private static final int CLOSED = 2;
+
+	private final InputStream source;
+	private final BlockingQueue<ByteBuffer> emptyBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+	private final BlockingQueue<ByteBuffer> filledBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT + 1); // and the end
+	private final AtomicInteger state = new AtomicInteger(NEW);
+	private final Future<?> producer;
+	private volatile Throwable failure;
+	private ByteBuffer current;
+
+	/**
+	 * @param source the stream to read, closed when it is read completely or this stream is closed
+	 * @param executor the executor running the thread reading the source
+	 */
+	public AsyncInputStream(final InputStream source, final ExecutorService executor) {
+		this.source = source;
+		for(int i = 0; i < BUFFER_COUNT; i++) {
+			this.emptyBuffers.add(ByteBuffer.allocate(BUFFER_SIZE));
+		}
+		this.producer = executor.submit(this::produce);
+	}
+
+	private void produce() {
+		if(!this.state.compareAndSet(NEW, RUNNING)) {
+			return; // closed before the thread started
+		}
+		try (InputStream in = this.source) {
+			int read = 0;
+			while(read >= 0) {
+				final ByteBuffer buffer = this.emptyBuffers.take();
+				buffer.clear();
+				while(buffer.hasRemaining() && (read = in.read(buffer.array(), buffer.position(), buffer.remaining())) >= 0) {
+					buffer.position(buffer.position() + read);
+				}
+				buffer.flip();
+				if(buffer.hasRemaining()) {
+					this.filledBuffers.put(buffer);
+				}
+			}
+		} catch(final InterruptedException e) {
+			// closed by the reader
+		} catch(final Throwable e) {
+			this.failure = e; // rethrown by the reader, which would wait for the end forever otherwise
+		} finally {
+			this.filledBuffers.add(END); // there is always room for the end, the buffers can't fill the queue
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if(!fill()) {
+			return -1;
+		}
+		return this.current.get() & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(length == 0) {
+			return 0;
+		}
+		if(!fill()) {
+			return -1;
+		}
+		final int count = Math.min(length, this.current.remaining());
+		this.current.get(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return this.current != null ? this.current.remaining() : 0;
+	}
+
+	private boolean fill() throws IOException {
+		if(this.current != null && this.current.hasRemaining()) {
+			return true;
+		}
+		if(this.current == END) {
+			return false;
+		}
+		if(this.current != null) {
+			this.emptyBuffers.add(this.current);
+		}
+		try {
+			this.current = this.filledBuffers.take();
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the input");
+		}
+		if(this.current == END) {
+			if(this.failure != null) {
+				throw new IOException(this.failure.getMessage(), this.failure);
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(this.state.getAndSet(CLOSED) == NEW) {
+			this.source.close();
+		}
+		this.producer.cancel(true);
+	}
+}
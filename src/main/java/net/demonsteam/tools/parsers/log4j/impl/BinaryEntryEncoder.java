@@ -0,0 +1,84 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+
+/**
+ * Writes the entries as compact binary records for other programs. The output starts with the magic bytes
+ * <code>L4JB</code> and the version of the format, followed by the records. All numbers are big endian, like the ones
+ * of a {@link java.io.DataInput}. A record is
+ * <ul>
+ * <li>the length of the rest of the record (int)</li>
+ * <li>the hash, the number of occurrences, the dates of the first and the last occurrence in epoch milliseconds or
+ * {@link TimestampParser#NO_DATE} ({@link Long#MIN_VALUE}) if there is none, the line number of the first occurrence (5 longs)</li>
+ * <li>the length of the line (int) and the line in UTF-8</li>
+ * <li>the length of the body (int), -1 if there is none, and the body in UTF-8</li>
+ * </ul>
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class BinaryEntryEncoder extends EntryEncoder {
+
+	public static final byte VERSION = 1;
+	private static final String MAGIC = "L4JB";
+
+	public BinaryEntryEncoder(final AsyncBatchWriter writer, final boolean timelines) {
+		super(writer, timelines);
+	}
+
+	@Override
+	public void writeHeader() throws IOException {
+		putAscii(MAGIC);
+		put(VERSION);
+		writeRecord();
+	}
+
+	@Override
+	public void writeEntry(final LogEntry entry) throws IOException {
+		encode(entry, 1);
+	}
+
+	@Override
+	public void writeGroup(final LogEntry entry) throws IOException {
+		encode(entry, entry.getCount() + 1);
+	}
+
+	private void encode(final LogEntry entry, final long occurrences) throws IOException {
+		putInt(0); // the length of the record
+		putLong(entry.getHash());
+		putLong(occurrences);
+		putLong(entry.getFirstOccurrenceMillis());
+		putLong(entry.getLastOccurrenceMillis());
+		putLong(entry.getLineNumber());
+		final int lineStart = position();
+		putInt(0);
+		putText(entry.getLine(), 0, entry.getLine().length());
+		setInt(lineStart, position() - lineStart - 4);
+		final int bodyStart = position();
+		putInt(-1);
+		if(hasBodyText(entry)) {
+			putBody(entry);
+			setInt(bodyStart, position() - bodyStart - 4);
+		}
+		setInt(0, position() - 4);
+		writeRecord();
+	}
+}
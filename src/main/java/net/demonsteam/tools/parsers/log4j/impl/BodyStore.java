@@ -0,0 +1,176 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store for the bodies of the unique log entries. Bodies are kept UTF-8 encoded in fixed size segments
+ * outside of the heap until the memory budget is used up, further segments are memory mapped regions of a single
+ * spill file. A body is referenced by its offset and length in the store. Appending is thread safe, a body may be
+ * read by any thread which has seen its offset.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class BodyStore implements Closeable {
+
+	private static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+
+	private final long memoryBudget;
+	private final File spillDir;
+	private volatile ByteBuffer[] segments = new ByteBuffer[0];
+	private long size;
+	private int memorySegments;
+	private File spillFile;
+	private RandomAccessFile spillAccess;
+
+	/**
+	 * @param memoryBudget the number of bytes kept in memory before spilling to disk
+	 * @param spillDir the directory for the spill file or null for the default temp directory
+	 */
+	public BodyStore(final long memoryBudget, final File spillDir) {
+		this.memoryBudget = memoryBudget;
+		this.spillDir = spillDir;
+	}
+
+	/**
+	 * @param body the body to store
+	 * @return the offset of the stored body, its length is the length of the UTF-8 encoded body
+	 * @throws IOException if the spill file can't be written
+	 */
+	public long append(final byte[] body) throws IOException {
+		final long offset;
+		synchronized(this) {
+			offset = this.size;
+			ensureCapacity(offset + body.length);
+			this.size += body.length;
+		}
+		copy(body, 0, body.length, offset, true);
+		return offset;
+	}
+
+	/**
+	 * @param offset the offset returned when the body was stored
+	 * @param length the length of the stored body
+	 * @return the body
+	 */
+	public byte[] read(final long offset, final int length) {
+		final byte[] body = new byte[length];
+		copy(body, 0, length, offset, false);
+		return body;
+	}
+
+	/**
+	 * Copies a stored body into the given array, which can be reused for the next body
+	 *
+	 * @param offset the offset returned when the body was stored
+	 * @param length the length of the stored body
+	 * @param target the array the body is copied to
+	 * @param targetOffset the index of the first byte of the body in the array
+	 */
+	public void read(final long offset, final int length, final byte[] target, final int targetOffset) {
+		copy(target, targetOffset, length, offset, false);
+	}
+
+	/**
+	 * @param offset the offset returned when the body was stored
+	 * @param length the length of the stored body
+	 * @return the decoded body
+	 */
+	public String readString(final long offset, final int length) {
+		return new String(read(offset, length), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the number of stored bytes
+	 */
+	public synchronized long size() {
+		return this.size;
+	}
+
+	/**
+	 * @return the number of bytes spilled to disk
+	 */
+	public synchronized long spilledSize() {
+		return Math.max(0, this.size - (long) this.memorySegments * SEGMENT_SIZE);
+	}
+
+	private void copy(final byte[] bytes, final int bytesOffset, final int bytesLength, final long offset, final boolean write) {
+		final ByteBuffer[] current = this.segments;
+		int done = 0;
+		while(done < bytesLength) {
+			final long position = offset + done;
+			final ByteBuffer segment = current[(int) (position / SEGMENT_SIZE)].duplicate();
+			segment.position((int) (position % SEGMENT_SIZE));
+			final int length = Math.min(bytesLength - done, segment.remaining());
+			if(write) {
+				segment.put(bytes, bytesOffset + done, length);
+			} else {
+				segment.get(bytes, bytesOffset + done, length);
+			}
+			done += length;
+		}
+	}
+
+	private void ensureCapacity(final long capacity) throws IOException {
+		ByteBuffer[] current = this.segments;
+		while((long) current.length * SEGMENT_SIZE < capacity) {
+			current = Arrays.copyOf(current, current.length + 1);
+			current[current.length - 1] = allocateSegment(current.length - 1);
+		}
+		this.segments = current;
+	}
+
+	private ByteBuffer allocateSegment(final int index) throws IOException {
+		if(this.spillAccess == null && (long) (index + 1) * SEGMENT_SIZE <= this.memoryBudget) {
+			try {
+				final ByteBuffer segment = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+				this.memorySegments++;
+				return segment;
+			} catch(final OutOfMemoryError e) {
+				LogLevel.WARN.printlnToConsole("Direct memory exhausted after %d MB, spilling bodies to disk", (long) index * SEGMENT_SIZE / (1024 * 1024));
+			}
+		}
+		if(this.spillAccess == null) {
+			this.spillFile = File.createTempFile("bodies", ".spill", this.spillDir);
+			this.spillFile.deleteOnExit();
+			this.spillAccess = new RandomAccessFile(this.spillFile, "rw");
+		}
+		final long fileOffset = (long) (index - this.memorySegments) * SEGMENT_SIZE;
+		return this.spillAccess.getChannel().map(FileChannel.MapMode.READ_WRITE, fileOffset, SEGMENT_SIZE);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.segments = new ByteBuffer[0];
+		if(this.spillAccess != null) {
+			this.spillAccess.close();
+			this.spillFile.delete();
+			this.spillAccess = null;
+		}
+	}
+}
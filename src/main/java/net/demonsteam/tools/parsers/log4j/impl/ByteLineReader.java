@@ -0,0 +1,200 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a byte stream into lines without decoding it. The current line is a range of the internal buffer, which is
+ * valid until the next call of {@link #next()}, and is decoded to a {@link String} only on request, so the lines the
+ * caller rejects by their bytes cost no allocation. The lines end at a line feed, a carriage return or both, like the
+ * lines of a {@link java.io.BufferedReader}.
+ * <p>
+ * The charset must be ASCII compatible, like UTF-8 or ISO-8859-1: the line ends and the characters of a log entry
+ * header are recognized by their ASCII bytes, which must not be part of another character.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ByteLineReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+	private static final String ASCII_PROBE = "\r\n\t *[]:.-0123456789AZaz";
+
+	private final InputStream input;
+	private final Charset charset;
+	private final RunStatistics statistics;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private long bufferPosition; // the position of the buffer in the input
+	private int position; // the start of the unread bytes
+	private int limit; // the end of the bytes in the buffer
+	private int lineStart;
+	private int lineEnd;
+	private boolean skipLineFeed; // the last line ended with a carriage return
+	private boolean pushedBack;
+	private boolean endOfInput;
+
+	/**
+	 * @param input the input
+	 * @param charset the ASCII compatible charset of the input
+	 */
+	public ByteLineReader(final InputStream input, final Charset charset) {
+		this(input, charset, RunStatistics.DISABLED);
+	}
+
+	/**
+	 * @param input the input
+	 * @param charset the ASCII compatible charset of the input
+	 * @param statistics the statistics counting the bytes read and the time spent reading
+	 */
+	public ByteLineReader(final InputStream input, final Charset charset, final RunStatistics statistics) {
+		this.input = input;
+		this.charset = charset;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * @param charset a charset
+	 * @return true if the charset encodes the ASCII characters as single ASCII bytes
+	 */
+	public static boolean isAsciiCompatible(final Charset charset) {
+		return charset.canEncode() && Arrays.equals(ASCII_PROBE.getBytes(charset), ASCII_PROBE.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Moves to the next line
+	 *
+	 * @return false if the end of the input is reached
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		if(this.pushedBack) {
+			this.pushedBack = false;
+			return true;
+		}
+		int i = this.position;
+		while(true) {
+			if(this.skipLineFeed && i < this.limit) {
+				if(this.buffer[i] == '\n') {
+					i = ++this.position;
+				}
+				this.skipLineFeed = false;
+			}
+			while(i < this.limit) {
+				final byte b = this.buffer[i];
+				if(b == '\n' || b == '\r') {
+					this.lineStart = this.position;
+					this.lineEnd = i;
+					this.position = i + 1;
+					this.skipLineFeed = b == '\r';
+					return true;
+				}
+				i++;
+			}
+			if(this.endOfInput) {
+				this.skipLineFeed = false;
+				if(this.position < this.limit) {
+					this.lineStart = this.position;
+					this.lineEnd = this.limit;
+					this.position = this.limit;
+					return true;
+				}
+				return false;
+			}
+			final int scanned = i - this.position;
+			fill();
+			i = this.position + scanned;
+		}
+	}
+
+	/**
+	 * Reads more bytes after the unread ones, moving them to the start of the buffer first
+	 */
+	private void fill() throws IOException {
+		if(this.position > 0) {
+			this.bufferPosition += this.position;
+			System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+			this.limit -= this.position;
+			this.position = 0;
+		} else if(this.limit == this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2); // a line longer than the buffer
+		}
+		final long start = this.statistics.startTimer();
+		final int read = this.input.read(this.buffer, this.limit, this.buffer.length - this.limit);
+		this.statistics.stopTimer(RunStatistics.Stage.READ, start);
+		if(read < 0) {
+			this.endOfInput = true;
+		} else {
+			this.limit += read;
+			this.statistics.add(RunStatistics.Counter.BYTES_READ, read);
+		}
+	}
+
+	/**
+	 * Makes the next call of {@link #next()} return the current line again
+	 */
+	public void pushBack() {
+		this.pushedBack = true;
+	}
+
+	/**
+	 * @return the buffer holding the current line
+	 */
+	public byte[] getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * @return the index of the first byte of the current line in the buffer
+	 */
+	public int getLineStart() {
+		return this.lineStart;
+	}
+
+	/**
+	 * @return the index after the last byte of the current line in the buffer, without the line end
+	 */
+	public int getLineEnd() {
+		return this.lineEnd;
+	}
+
+	/**
+	 * @return the position of the first byte of the current line in the input
+	 */
+	public long getLinePosition() {
+		return this.bufferPosition + this.lineStart;
+	}
+
+	/**
+	 * @return the current line decoded
+	 */
+	public String decodeLine() {
+		return new String(this.buffer, this.lineStart, this.lineEnd - this.lineStart, this.charset);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.input.close();
+	}
+}
@@ -0,0 +1,369 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker.InputSource;
+
+/**
+ * The state of an earlier run, so the next run reads only the bytes appended since then. For every input file or zip
+ * entry the checkpoint holds the number of bytes and lines read, a fingerprint of the head of the input and the
+ * aggregated unique entries. An input is resumed only if its head is unchanged, otherwise it was rotated or replaced
+ * and is read from the start. The checkpoint is written as a compressed binary file and is only valid for the same
+ * filter, grouping, time window and top options.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class Checkpoint {
+
+	private static final int HEAD_LENGTH = 4096; // the bytes at the start of an input used for its fingerprint
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+	private static final int MAGIC = 0x4C34_4A43;
+	private static final int VERSION = 2;
+
+	private final String options;
+	private final Map<String, SourceState> sources = new LinkedHashMap<>();
+
+	private Checkpoint(final String options) {
+		this.options = options;
+	}
+
+	/**
+	 * Loads the checkpoint of the given file. A missing file or a checkpoint of other options results in an empty
+	 * checkpoint.
+	 *
+	 * @param file the checkpoint file
+	 * @param appArgs the application arguments
+	 * @param bodyStore the store for the bodies of the restored entries
+	 * @return the checkpoint
+	 * @throws IOException if the file exists but can't be read
+	 */
+	public static Checkpoint load(final File file, final AppArguments appArgs, final BodyStore bodyStore) throws IOException {
+		final Checkpoint checkpoint = new Checkpoint(describeOptions(appArgs));
+		if(!file.isFile()) {
+			return checkpoint;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if(in.readInt() != MAGIC) {
+				throw new IOException("Not a checkpoint file: " + file);
+			}
+			if(in.readInt() != VERSION) {
+				LogLevel.WARN.printlnToConsole("The checkpoint %s was written by another version, all inputs are read from the start", file);
+				return checkpoint;
+			}
+			if(!checkpoint.options.equals(in.readUTF())) {
+				LogLevel.WARN.printlnToConsole("The checkpoint %s was written with other options, all inputs are read from the start", file);
+				return checkpoint;
+			}
+			final int sourceCount = in.readInt();
+			for(int i = 0; i < sourceCount; i++) {
+				final String path = in.readUTF();
+				final SourceState state = new SourceState(in.readLong(), in.readLong(), in.readInt(), in.readLong());
+				final int entryCount = in.readInt();
+				for(int j = 0; j < entryCount; j++) {
+					state.entries.add(LogEntry.readFrom(in, appArgs, bodyStore));
+				}
+				checkpoint.sources.put(path, state);
+			}
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * Writes the checkpoint to a temporary file which then replaces the given one
+	 *
+	 * @param file the checkpoint file
+	 * @throws IOException
+	 */
+	public void save(final File file) throws IOException {
+		final File tmpFile = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(this.options);
+			out.writeInt(this.sources.size());
+			for(final Map.Entry<String, SourceState> source: this.sources.entrySet()) {
+				final SourceState state = source.getValue();
+				out.writeUTF(source.getKey());
+				out.writeLong(state.offset);
+				out.writeLong(state.lineCount);
+				out.writeInt(state.headLength);
+				out.writeLong(state.headHash);
+				out.writeInt(state.entries.size());
+				for(final LogEntry entry: state.entries) {
+					entry.writeTo(out);
+				}
+			}
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Opens the given input at the position the last run stopped at. A plain text file is read only up to its last line
+	 * feed, so a line which is still written to is read completely by the next run.
+	 *
+	 * @param source the input
+	 * @return the resumed input
+	 * @throws IOException
+	 */
+	public Resumption resume(final InputSource source) throws IOException {
+		final InputStream in = source.open();
+		try {
+			final byte[] head = new byte[HEAD_LENGTH];
+			int headLength = 0;
+			int read;
+			while(headLength < head.length && (read = in.read(head, headLength, head.length - headLength)) > 0) {
+				headLength += read;
+			}
+			final long end = source.getFile() != null ? findLastLineEnd(source.getFile()) : -1;
+			SourceState state = this.sources.get(source.getPath());
+			if(state != null && (state.headLength > headLength || state.headHash != hash(head, state.headLength) || end >= 0 && state.offset > end)) {
+				state = null; // rotated or replaced
+			}
+			final long start = state == null ? 0 : state.offset;
+			final InputStream resumed = new SequenceInputStream(new ByteArrayInputStream(head, 0, headLength), in);
+			long skipped = 0;
+			while(skipped < start) {
+				final long count = resumed.skip(start - skipped);
+				if(count <= 0) {
+					throw new EOFException("The input " + source.getPath() + " is shorter than its checkpoint");
+				}
+				skipped += count;
+			}
+			// the head of this run is stored, it may have grown since the last run
+			final SourceState newState = new SourceState(start, state == null ? 0 : state.lineCount, headLength, hash(head, headLength));
+			return new Resumption(source.getPath(), resumed, state, newState, end);
+		} catch(final IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	private static long findLastLineEnd(final File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+			long position = channel.size();
+			while(position > 0) {
+				final long start = Math.max(0, position - SCAN_BUFFER_SIZE);
+				buffer.clear().limit((int) (position - start));
+				while(buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+					// read the whole block
+				}
+				for(int i = buffer.position() - 1; i >= 0; i--) {
+					if(buffer.get(i) == '\n') {
+						return start + i + 1;
+					}
+				}
+				position = start;
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * An input opened at the position of the last run. The state of the input is recorded in the checkpoint by
+	 * {@link #finish(long, long, List)}.
+	 */
+	public final class Resumption implements Closeable {
+
+		private final String path;
+		private final CountingInputStream in;
+		private final SourceState state;
+		private final SourceState newState;
+		private final long end;
+
+		private Resumption(final String path, final InputStream in, final SourceState state, final SourceState newState, final long end) {
+			this.path = path;
+			this.in = new CountingInputStream(in, end < 0 ? Long.MAX_VALUE : end - newState.offset);
+			this.state = state;
+			this.newState = newState;
+			this.end = end;
+		}
+
+		/**
+		 * @return the input starting at the resumed position
+		 */
+		public InputStream getInputStream() {
+			return this.in;
+		}
+
+		/**
+		 * @return the position the input is resumed at
+		 */
+		public long getStart() {
+			return this.newState.offset;
+		}
+
+		/**
+		 * @return the position the input should be read to or -1 if it is read to its end
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * @return the number of lines before the resumed position
+		 */
+		public long getLineOffset() {
+			return this.newState.lineCount;
+		}
+
+		/**
+		 * @return the unique entries of the last run, empty if the input is read from the start
+		 */
+		public List<LogEntry> getEntries() {
+			return this.state == null ? new ArrayList<>() : this.state.entries;
+		}
+
+		/**
+		 * Records the state of the input in the checkpoint
+		 *
+		 * @param lineCount the number of lines read in this run
+		 * @param stopPosition the position of the line the reading stopped at after the time window, -1 if the input
+		 *        is read to its end
+		 * @param entries the unique entries of the input including the ones of the last run
+		 */
+		public void finish(final long lineCount, final long stopPosition, final List<LogEntry> entries) {
+			if(stopPosition >= 0) {
+				this.newState.offset = stopPosition; // the next run goes on at the first entry after the time window
+			} else {
+				this.newState.offset = this.end < 0 ? this.newState.offset + this.in.count : this.end;
+			}
+			this.newState.lineCount += lineCount;
+			this.newState.entries.addAll(entries);
+			Checkpoint.this.sources.put(this.path, this.newState);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.in.close();
+		}
+	}
+
+	/**
+	 * Counts the bytes read and stops at the given limit
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private final long limit;
+		private long count;
+
+		private CountingInputStream(final InputStream in, final long limit) {
+			super(in);
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if(this.count >= this.limit) {
+				return -1;
+			}
+			final int b = super.read();
+			if(b >= 0) {
+				this.count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			if(this.count >= this.limit) {
+				return -1;
+			}
+			final int read = super.read(bytes, offset, (int) Math.min(length, this.limit - this.count));
+			if(read > 0) {
+				this.count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			final long skipped = super.skip(Math.min(n, this.limit - this.count));
+			this.count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+	private static String describeOptions(final AppArguments appArgs) {
+		return String.join("\n", appArgs.getLogLevels().toString(), appArgs.getOptUserPattern(), appArgs.getLogDateFormat(), appArgs.isFlagUnique().toString(), appArgs.getOptGroup(), String.valueOf(appArgs.getTimelineBucketMillis()),
+		                   String.valueOf(appArgs.getFromMillis()), String.valueOf(appArgs.getToMillis()), String.valueOf(appArgs.getTop()));
+	}
+
+	/**
+	 * @return the fingerprint of the first bytes of an input
+	 */
+	private static long hash(final byte[] head, final int length) {
+		final XxHash64 hash = new XxHash64();
+		for(int i = 0; i < length; i++) {
+			hash.update((char) (head[i] & 0xFF));
+		}
+		return hash.digest();
+	}
+
+	/**
+	 * The progress of a single input
+	 */
+	private static final class SourceState {
+
+		private long offset;
+		private long lineCount;
+		private final int headLength;
+		private final long headHash;
+		private final List<LogEntry> entries = new ArrayList<>();
+
+		private SourceState(final long offset, final long lineCount, final int headLength, final long headHash) {
+			this.offset = offset;
+			this.lineCount = lineCount;
+			this.headLength = headLength;
+			this.headHash = headHash;
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a single plain text file in parallel. The file is split into chunks starting at log entry boundaries, every
+ * chunk is memory mapped and parsed on a fork-join pool and the chunk results are merged in file order, so the output
+ * is the same as the one of a sequential run.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ChunkedFileParser implements Closeable {
+
+	private static final long MAX_CHUNK_SIZE = 256L * 1024 * 1024;
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_HEADER_LENGTH = 4 * 1024; // enough bytes of a line to recognize a log entry start
+
+	private final AppArguments appArgs;
+	private final ForkJoinPool pool;
+	private final BodyStore bodyStore;
+
+	public ChunkedFileParser(final AppArguments appArgs, final BodyStore bodyStore) {
+		this.appArgs = appArgs;
+		this.bodyStore = bodyStore;
+		this.pool = new ForkJoinPool(appArgs.getThreads());
+	}
+
+	/**
+	 * Parses the given file. In unique mode the chunk results are merged into the aggregator, otherwise the matching
+	 * entries are written to the output. If only the most frequent entries are reported, the matching entries of the
+	 * chunks are merged into the aggregator one by one, in the order of the file.
+	 *
+	 * @param file the plain text file to parse
+	 * @param aggregator the aggregator for the unique entries
+	 * @param encoder the output
+	 * @throws IOException
+	 */
+	public void parse(final File file, final EntryAggregator aggregator, final EntryEncoder encoder) throws IOException {
+		parse(file, 0, -1, 0, aggregator, encoder);
+	}
+
+	/**
+	 * Parses a part of the given file, used to resume a file read by an earlier run
+	 *
+	 * @param file the plain text file to parse
+	 * @param start the position of the first line to read
+	 * @param end the position after the last line to read or -1 to read to the end of the file
+	 * @param lineOffset the number of lines before the start position
+	 * @param aggregator the aggregator for the unique entries
+	 * @param encoder the output
+	 * @return the number of lines read and the position the reading stopped at
+	 * @throws IOException
+	 */
+	public Progress parse(final File file, final long start, final long end, final long lineOffset, final EntryAggregator aggregator, final EntryEncoder encoder) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final List<ChunkTask> tasks = new ArrayList<>();
+			final long size = end < 0 ? channel.size() : end;
+			final List<Long> chunkStarts = splitIntoChunks(channel, start, size);
+			for(int i = 0; i < chunkStarts.size(); i++) {
+				final long chunkEnd = i + 1 < chunkStarts.size() ? chunkStarts.get(i + 1) : size;
+				tasks.add(new ChunkTask(channel, chunkStarts.get(i), chunkEnd - chunkStarts.get(i)));
+			}
+
+			// keep only a limited number of chunk results in memory, they are consumed in file order
+			final int window = this.pool.getParallelism() * 2;
+			for(int i = 0; i < Math.min(window, tasks.size()); i++) {
+				this.pool.execute(tasks.get(i));
+			}
+			long lineCount = 0;
+			long stopPosition = -1;
+			for(int i = 0; i < tasks.size() && stopPosition < 0; i++) {
+				final ChunkResult result;
+				try {
+					result = tasks.get(i).join();
+				} catch(final UncheckedIOException e) {
+					throw e.getCause();
+				}
+				if(i + window < tasks.size()) {
+					this.pool.execute(tasks.get(i + window));
+				}
+				final long mergeStart = this.appArgs.getStatistics().startTimer();
+				for(final LogEntry entry: result.entries) {
+					entry.shiftLineNumber(lineOffset + lineCount);
+					if(this.appArgs.isFlagUnique()) {
+						aggregator.merge(entry);
+					} else {
+						encoder.writeEntry(entry);
+					}
+				}
+				if(this.appArgs.isFlagUnique()) {
+					this.appArgs.getStatistics().stopTimer(RunStatistics.Stage.MERGE, mergeStart);
+				}
+				lineCount += result.lineCount;
+				stopPosition = result.stopPosition;
+			}
+			// the chunks after the end of the time window have no entries
+			for(final ChunkTask task: tasks) {
+				task.cancel(false);
+			}
+			return new Progress(lineCount, stopPosition);
+		}
+	}
+
+	private List<Long> splitIntoChunks(final FileChannel channel, final long start, final long size) throws IOException {
+		final int chunkCount = (int) Math.max(this.pool.getParallelism() * CHUNKS_PER_THREAD, (size - start + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		final List<Long> chunkStarts = new ArrayList<>();
+		chunkStarts.add(start);
+		for(int i = 1; i < chunkCount; i++) {
+			final long target = Math.max(start + (size - start) / chunkCount * i, chunkStarts.get(chunkStarts.size() - 1) + 1);
+			final long chunkStart = findEntryStart(channel, target, size);
+			if(chunkStart >= size) {
+				break;
+			}
+			if(chunkStart > chunkStarts.get(chunkStarts.size() - 1)) {
+				chunkStarts.add(chunkStart);
+			}
+		}
+		return chunkStarts;
+	}
+
+	/**
+	 * @return the position of the first log entry start at or after the given position or the size of the file if
+	 *         there is none
+	 */
+	private long findEntryStart(final FileChannel channel, final long from, final long size) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		final ByteArrayOutputStream line = new ByteArrayOutputStream(MAX_HEADER_LENGTH);
+		long position = from - 1; // a line starts at 'from' if the previous byte is a line feed
+		long lineStart = -1; // -1 while skipping to the next line feed
+		while(position < size) {
+			buffer.clear();
+			final int read = channel.read(buffer, position);
+			if(read <= 0) {
+				break;
+			}
+			for(int i = 0; i < read; i++, position++) {
+				final byte b = buffer.get(i);
+				if(lineStart < 0) {
+					if(b == '\n') {
+						lineStart = position + 1;
+						line.reset();
+					}
+				} else if(b == '\n') {
+					if(isEntryStart(line)) {
+						return lineStart;
+					}
+					lineStart = position + 1;
+					line.reset();
+				} else if(line.size() < MAX_HEADER_LENGTH) {
+					line.write(b);
+				} else {
+					if(isEntryStart(line)) {
+						return lineStart;
+					}
+					lineStart = -1;
+				}
+			}
+		}
+		if(lineStart >= 0 && lineStart < size && isEntryStart(line)) {
+			return lineStart;
+		}
+		return size;
+	}
+
+	private boolean isEntryStart(final ByteArrayOutputStream line) {
+		return this.appArgs.getHeaderFormat().isHeader(line.toByteArray(), 0, line.size());
+	}
+
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+
+	private static final class ChunkResult {
+
+		private final List<LogEntry> entries;
+		private final long lineCount;
+		private final long stopPosition;
+
+		private ChunkResult(final List<LogEntry> entries, final long lineCount, final long stopPosition) {
+			this.entries = entries;
+			this.lineCount = lineCount;
+			this.stopPosition = stopPosition;
+		}
+	}
+
+	private final class ChunkTask extends RecursiveTask<ChunkResult> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient FileChannel channel;
+		private final long start;
+		private final long length;
+
+		private ChunkTask(final FileChannel channel, final long start, final long length) {
+			this.channel = channel;
+			this.start = start;
+			this.length = length;
+		}
+
+		@Override
+		protected ChunkResult compute() {
+			try {
+				final ByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.start, this.length);
+				final AppArguments appArgs = ChunkedFileParser.this.appArgs;
+				try (LogEntryReader reader = new LogEntryReader(new ByteBufferInputStream(buffer), appArgs, ChunkedFileParser.this.bodyStore)) {
+					List<LogEntry> entries = new ArrayList<>();
+					LogEntry logEntry;
+					while((logEntry = reader.next()) != null) {
+						if(appArgs.getTop() > 0 || !appArgs.isFlagUnique()) {
+							entries.add(logEntry);
+						}
+					}
+					if(appArgs.isFlagUnique() && appArgs.getTop() == 0) {
+						entries = reader.getUniqueEntries();
+					}
+					return new ChunkResult(entries, reader.getLineNumber(), reader.getStopPosition() < 0 ? -1 : this.start + reader.getStopPosition());
+				}
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * The progress of the parsing of a file
+	 */
+	public static final class Progress {
+
+		private final long lineCount;
+		private final long stopPosition;
+
+		private Progress(final long lineCount, final long stopPosition) {
+			this.lineCount = lineCount;
+			this.stopPosition = stopPosition;
+		}
+
+		/**
+		 * @return the number of lines read
+		 */
+		public long getLineCount() {
+			return this.lineCount;
+		}
+
+		/**
+		 * @return the position of the line the reading stopped at after the time window, -1 if the file is read to
+		 *         the end
+		 */
+		public long getStopPosition() {
+			return this.stopPosition;
+		}
+	}
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(final ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) {
+			if(!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			final int count = Math.min(length, this.buffer.remaining());
+			this.buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+	}
+}
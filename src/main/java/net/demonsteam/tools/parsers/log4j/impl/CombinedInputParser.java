@@ -0,0 +1,109 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker.InputSource;
+
+/**
+ * Parses several log files at the same time on a fixed number of worker threads. In unique mode all files are merged
+ * into a single aggregator, so the same entry found in different files is reported only once.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class CombinedInputParser implements Closeable {
+
+	private final AppArguments appArgs;
+	private final ExecutorService pool;
+	private final BodyStore bodyStore;
+
+	public CombinedInputParser(final AppArguments appArgs, final BodyStore bodyStore) {
+		this.appArgs = appArgs;
+		this.bodyStore = bodyStore;
+		this.pool = Executors.newFixedThreadPool(appArgs.getThreads());
+	}
+
+	/**
+	 * Parses the given sources. In unique mode the results are merged into the aggregator, otherwise the matching
+	 * entries are written to the output as they are found.
+	 *
+	 * @param sources the log files to parse
+	 * @param aggregator an aggregator safe for concurrent use
+	 * @param encoder the output
+	 * @throws IOException
+	 */
+	public void parse(final List<InputSource> sources, final EntryAggregator aggregator, final EntryEncoder encoder) throws IOException {
+		final List<Future<Void>> results = new ArrayList<>(sources.size());
+		for(final InputSource source: sources) {
+			results.add(this.pool.submit(() -> {
+				parse(source, aggregator, encoder);
+				return null;
+			}));
+		}
+		try {
+			for(final Future<Void> result: results) {
+				result.get();
+			}
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing the files", e);
+		} catch(final ExecutionException e) {
+			for(final Future<Void> result: results) {
+				result.cancel(true);
+			}
+			if(e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private void parse(final InputSource source, final EntryAggregator aggregator, final EntryEncoder encoder) throws IOException {
+		LogLevel.INFO.printlnToConsole("Parsing file %s", source.getPath());
+		try (LogEntryReader reader = new LogEntryReader(source.open(), this.appArgs, this.bodyStore)) {
+			LogEntry logEntry;
+			while((logEntry = reader.next()) != null) {
+				if(this.appArgs.getTop() > 0) {
+					aggregator.merge(logEntry);
+				} else if(!this.appArgs.isFlagUnique()) {
+					synchronized(encoder) {
+						encoder.writeEntry(logEntry);
+					}
+				}
+			}
+			final long mergeStart = this.appArgs.getStatistics().startTimer();
+			aggregator.mergeAll(reader.getUniqueEntries());
+			this.appArgs.getStatistics().stopTimer(RunStatistics.Stage.MERGE, mergeStart);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+}
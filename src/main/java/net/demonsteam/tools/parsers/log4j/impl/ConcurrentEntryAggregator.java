@@ -0,0 +1,101 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Groups log entries read concurrently from several inputs. The header and body maps are split into stripes guarded by
+ * their own lock, so threads merging different headers don't block each other. A body stripe is only locked while
+ * holding a header stripe. As the inputs are not merged in a defined order the first and last match dates of an entry
+ * are the earliest and the latest date of all its duplicates.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ConcurrentEntryAggregator implements EntryAggregator {
+
+	private static final int STRIPES = 64; // power of two
+
+	private final List<LongObjectMap<LogEntry>> uniqueLogEntryStripes = new ArrayList<>(STRIPES);
+	private final List<LongObjectMap<LogEntry>> uniqueLogEntryBodyStripes = new ArrayList<>(STRIPES);
+	private final Queue<LogEntry> entries = new ConcurrentLinkedQueue<>();
+
+	public ConcurrentEntryAggregator() {
+		for(int i = 0; i < STRIPES; i++) {
+			this.uniqueLogEntryStripes.add(new LongObjectMap<>());
+			this.uniqueLogEntryBodyStripes.add(new LongObjectMap<>());
+		}
+	}
+
+	@Override
+	public void merge(final LogEntry partial) throws IOException {
+		final LongObjectMap<LogEntry> stripe = this.uniqueLogEntryStripes.get(stripeIndex(partial.getHash()));
+		LogEntry entry;
+		synchronized(stripe) {
+			entry = stripe.get(partial.getHash());
+			if(entry == null) {
+				if(partial.hasBody()) {
+					final LongObjectMap<LogEntry> bodyStripe = this.uniqueLogEntryBodyStripes.get(stripeIndex(partial.getBodyHash()));
+					synchronized(bodyStripe) {
+						entry = bodyStripe.putIfAbsent(partial.getBodyHash(), partial);
+					}
+				}
+				if(entry == null) {
+					this.entries.add(partial);
+					stripe.put(partial.getHash(), partial);
+					return;
+				}
+				stripe.put(partial.getHash(), entry);
+			}
+		}
+		synchronized(entry) {
+			entry.mergeUnordered(partial);
+		}
+	}
+
+	private static int stripeIndex(final long hash) {
+		return (int) (hash >>> 58) & (STRIPES - 1);
+	}
+
+	@Override
+	public List<LogEntry> getEntries() {
+		return new ArrayList<>(this.entries);
+	}
+
+	@Override
+	public List<LogEntry> removeEntries() {
+		final List<LogEntry> removed = new ArrayList<>(this.entries);
+		this.entries.clear();
+		for(int i = 0; i < STRIPES; i++) {
+			this.uniqueLogEntryStripes.get(i).clear();
+			this.uniqueLogEntryBodyStripes.get(i).clear();
+		}
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		return this.entries.size();
+	}
+}
@@ -0,0 +1,73 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.PrintStream;
+
+/**
+ * The standard output and error of the messages of the parser. These are the streams of the process, unless a thread
+ * redirects them, like a job of the daemon does for the messages of its client. The redirection is inherited by the
+ * threads started by the redirecting thread, so the reader and writer threads of a job print to the same client.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public final class Console {
+
+	private static final InheritableThreadLocal<PrintStream> OUT = new InheritableThreadLocal<>();
+	private static final InheritableThreadLocal<PrintStream> ERR = new InheritableThreadLocal<>();
+
+	private Console() {
+	}
+
+	/**
+	 * @return the standard output of the current thread
+	 */
+	public static PrintStream out() {
+		final PrintStream out = OUT.get();
+		return out != null ? out : System.out;
+	}
+
+	/**
+	 * @return the standard error of the current thread
+	 */
+	public static PrintStream err() {
+		final PrintStream err = ERR.get();
+		return err != null ? err : System.err;
+	}
+
+	/**
+	 * Redirects the messages of the current thread and of the threads it starts from now on
+	 *
+	 * @param out the standard output
+	 * @param err the standard error
+	 */
+	public static void redirect(final PrintStream out, final PrintStream err) {
+		OUT.set(out);
+		ERR.set(err);
+	}
+
+	/**
+	 * Prints the messages of the current thread to the streams of the process again
+	 */
+	public static void reset() {
+		OUT.remove();
+		ERR.remove();
+	}
+}
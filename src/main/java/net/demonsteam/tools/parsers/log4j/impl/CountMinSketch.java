@@ -0,0 +1,76 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+/**
+ * Estimates the frequency of 64 bit keys in fixed memory. Every key increments one counter in each of the rows and the
+ * estimate is the smallest of these counters, so it is never below the real frequency and exceeds it by at most
+ * <code>e / width</code> of the total count with a probability of <code>1 - e^-depth</code>. The keys are expected to
+ * be hash values already, the row indexes are derived from their two halves. The sketch is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class CountMinSketch {
+
+	private final long[][] rows;
+	private final int mask;
+	private long total;
+
+	/**
+	 * @param depth the number of rows
+	 * @param width the number of counters per row, a power of two
+	 */
+	public CountMinSketch(final int depth, final int width) {
+		if(Integer.bitCount(width) != 1) {
+			throw new IllegalArgumentException("The width must be a power of two: " + width);
+		}
+		this.rows = new long[depth][width];
+		this.mask = width - 1;
+	}
+
+	/**
+	 * @param key the key
+	 * @param count the number of occurrences to add
+	 * @return the estimated frequency of the key including the added occurrences
+	 */
+	public long add(final long key, final long count) {
+		this.total += count;
+		long estimate = Long.MAX_VALUE;
+		for(int i = 0; i < this.rows.length; i++) {
+			final int index = index(key, i);
+			this.rows[i][index] += count;
+			estimate = Math.min(estimate, this.rows[i][index]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * @return the error bound of an estimate, valid with the probability given by the depth
+	 */
+	public long getErrorBound() {
+		return (long) Math.ceil(Math.E * this.total / (this.mask + 1));
+	}
+
+	private int index(final long key, final int row) {
+		final int low = (int) key;
+		final int high = (int) (key >>> 32);
+		return (low + row * (high | 1)) & this.mask;
+	}
+}
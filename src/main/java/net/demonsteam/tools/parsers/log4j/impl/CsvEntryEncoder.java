@@ -0,0 +1,102 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+
+/**
+ * Writes every entry as a row of comma separated values (RFC 4180) after a row with the column names. The line and the
+ * body are quoted, a missing date or body is an empty value. With timelines the peak count, the start of the peak bucket
+ * and the burst flag of the unique entries follow in three more columns.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class CsvEntryEncoder extends EntryEncoder {
+
+	private static final String COLUMNS = "hash,count,first,last,lineNumber,line,body";
+	private static final String TIMELINE_COLUMNS = ",peak,peakTime,burst";
+
+	public CsvEntryEncoder(final AsyncBatchWriter writer, final boolean timelines) {
+		super(writer, timelines);
+	}
+
+	@Override
+	public void writeHeader() throws IOException {
+		putAscii(COLUMNS);
+		if(this.timelines) {
+			putAscii(TIMELINE_COLUMNS);
+		}
+		put('\n');
+		writeRecord();
+	}
+
+	@Override
+	public void writeEntry(final LogEntry entry) throws IOException {
+		encode(entry, 1, false);
+	}
+
+	@Override
+	public void writeGroup(final LogEntry entry) throws IOException {
+		encode(entry, entry.getCount() + 1, this.timelines);
+	}
+
+	private void encode(final LogEntry entry, final long occurrences, final boolean timeline) throws IOException {
+		putHex(entry.getHash());
+		put(',');
+		putDecimal(occurrences);
+		put(',');
+		putDate(entry.getFirstOccurrenceMillis());
+		put(',');
+		putDate(entry.getLastOccurrenceMillis());
+		put(',');
+		putDecimal(entry.getLineNumber());
+		putAscii(",\"");
+		putText(entry.getLine(), 0, entry.getLine().length());
+		putAscii("\",");
+		if(hasBodyText(entry)) {
+			put('"');
+			putBody(entry);
+			put('"');
+		}
+		if(timeline) {
+			put(',');
+			putDecimal(entry.getPeakCount());
+			put(',');
+			putDate(entry.getPeakMillis());
+			putAscii(entry.isBurst(this.reportBuckets) ? ",true" : ",false");
+		}
+		put('\n');
+		writeRecord();
+	}
+
+	private void putDate(final long millis) {
+		if(millis != TimestampParser.NO_DATE) {
+			putDecimal(millis);
+		}
+	}
+
+	@Override
+	protected void putTextChar(final int c) {
+		if(c == '"') {
+			put('"');
+		}
+		put(c);
+	}
+}
@@ -0,0 +1,75 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Collects the unique log entries of one or more inputs
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public interface EntryAggregator {
+
+	/**
+	 * @param partial an entry holding the count and the last date of its duplicates in a part of the input
+	 * @throws IOException if the body of the entry can't be read
+	 */
+	void merge(LogEntry partial) throws IOException;
+
+	default void mergeAll(final List<LogEntry> partials) throws IOException {
+		for(final LogEntry partial: partials) {
+			merge(partial);
+		}
+	}
+
+	/**
+	 * @return the unique entries
+	 */
+	List<LogEntry> getEntries();
+
+	/**
+	 * Hands the unique entries over to the report, the aggregator keeps no reference to them afterwards, so the report
+	 * can release every entry as soon as it is written
+	 *
+	 * @return the unique entries like {@link #getEntries()}, in a list the caller may modify
+	 */
+	List<LogEntry> removeEntries();
+
+	/**
+	 * @return the number of unique entries
+	 */
+	int size();
+
+	/**
+	 * @return true if the counts and the size are estimates
+	 */
+	default boolean isApproximate() {
+		return false;
+	}
+
+	/**
+	 * @return a description of the error bounds of the estimates or null if the counts are exact
+	 */
+	default String getAccuracy() {
+		return null;
+	}
+}
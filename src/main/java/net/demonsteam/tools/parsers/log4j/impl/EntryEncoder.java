@@ -0,0 +1,315 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the filtered entries and the records of the unique entries in one of the output formats. The structured formats
+ * encode a record into a byte array which is reused for all records and pass it to the writer in one piece, so no
+ * intermediate strings are built: the numbers are written digit by digit, the line is encoded char by char and a body
+ * kept in the {@link BodyStore} is copied as the UTF-8 bytes it is stored as. The structured formats are always written
+ * in UTF-8.
+ * <p>
+ * A record has the hash of the entry, the number of occurrences (1 for a filtered entry), the dates of the first and the
+ * last occurrence in epoch milliseconds, the line number of the first occurrence, the line and the body without its
+ * last line break. With timelines the record of a unique entry has its peak count, the start of the peak bucket and
+ * the burst flag as well, except in the binary format. An encoder is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public abstract class EntryEncoder {
+
+	public static final String FORMAT_TEXT = "text";
+	public static final String FORMAT_JSONL = "jsonl";
+	public static final String FORMAT_CSV = "csv";
+	public static final String FORMAT_BINARY = "binary";
+	public static final List<String> FORMATS = Collections.unmodifiableList(Arrays.asList(FORMAT_TEXT, FORMAT_JSONL, FORMAT_CSV, FORMAT_BINARY));
+
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+	private static final int INITIAL_RECORD_SIZE = 8192;
+
+	protected final AsyncBatchWriter writer;
+	protected final boolean timelines;
+	protected long reportBuckets;
+	private byte[] record = new byte[INITIAL_RECORD_SIZE];
+	private int length;
+	private byte[] storedBody = new byte[INITIAL_RECORD_SIZE];
+
+	/**
+	 * @param writer the output
+	 * @param timelines true if the unique entries have timelines, whose peak rates are written
+	 */
+	protected EntryEncoder(final AsyncBatchWriter writer, final boolean timelines) {
+		this.writer = writer;
+		this.timelines = timelines;
+	}
+
+	/**
+	 * @param format one of the {@link #FORMATS}
+	 * @param writer the output
+	 * @param timelines true if the unique entries have timelines, whose peak rates are written
+	 * @return the encoder of the format
+	 */
+	public static EntryEncoder create(final String format, final AsyncBatchWriter writer, final boolean timelines) {
+		switch(format) {
+			case FORMAT_JSONL:
+				return new JsonLinesEntryEncoder(writer, timelines);
+			case FORMAT_CSV:
+				return new CsvEntryEncoder(writer, timelines);
+			case FORMAT_BINARY:
+				return new BinaryEntryEncoder(writer, timelines);
+			default:
+				return new TextEntryEncoder(writer, timelines);
+		}
+	}
+
+	/**
+	 * Sets the length of the report the burst flags of the following unique entries are computed for
+	 *
+	 * @param reportBuckets the number of buckets from the first to the last date of the report, see
+	 *            {@link Timeline#countBuckets(List, long)}
+	 */
+	public void setReportBuckets(final long reportBuckets) {
+		this.reportBuckets = reportBuckets;
+	}
+
+	/**
+	 * @return true for the text format, which is read by people rather than programs
+	 */
+	public boolean isText() {
+		return false;
+	}
+
+	/**
+	 * Writes the start of the output, e.g. the column names
+	 *
+	 * @throws IOException if the output failed
+	 */
+	public void writeHeader() throws IOException {
+		// no header
+	}
+
+	/**
+	 * Writes the summary line of a report, which only the text format has
+	 *
+	 * @param summary the summary
+	 * @throws IOException if the output failed
+	 */
+	public void writeSummary(final String summary) throws IOException {
+		// only in the text format
+	}
+
+	/**
+	 * @param entry a matching entry written as it is found
+	 * @throws IOException if the output failed
+	 */
+	public abstract void writeEntry(LogEntry entry) throws IOException;
+
+	/**
+	 * @param entry a unique entry of the report
+	 * @throws IOException if the output failed
+	 */
+	public abstract void writeGroup(LogEntry entry) throws IOException;
+
+	public void flush() throws IOException {
+		this.writer.flush();
+	}
+
+	/**
+	 * Passes the encoded record to the writer and starts the next one
+	 */
+	protected final void writeRecord() throws IOException {
+		this.writer.writeRaw(this.record, 0, this.length);
+		this.length = 0;
+	}
+
+	/**
+	 * @return the number of bytes of the record encoded so far
+	 */
+	protected final int position() {
+		return this.length;
+	}
+
+	/**
+	 * Writes a byte which is not escaped
+	 */
+	protected final void put(final int b) {
+		ensureCapacity(1);
+		this.record[this.length++] = (byte) b;
+	}
+
+	/**
+	 * Writes ASCII text which is not escaped
+	 */
+	protected final void putAscii(final String text) {
+		ensureCapacity(text.length());
+		for(int i = 0; i < text.length(); i++) {
+			this.record[this.length++] = (byte) text.charAt(i);
+		}
+	}
+
+	protected final void putDecimal(final long value) {
+		if(value == Long.MIN_VALUE) {
+			putAscii(Long.toString(value));
+			return;
+		}
+		ensureCapacity(20);
+		long rest = value;
+		if(rest < 0) {
+			this.record[this.length++] = '-';
+			rest = -rest;
+		}
+		int digits = 1;
+		for(long limit = 10; digits < 19 && rest >= limit; limit *= 10) {
+			digits++;
+		}
+		for(int i = this.length + digits - 1; i >= this.length; i--) {
+			this.record[i] = (byte) ('0' + rest % 10);
+			rest /= 10;
+		}
+		this.length += digits;
+	}
+
+	/**
+	 * Writes the value as 16 lower case hex digits
+	 */
+	protected final void putHex(final long value) {
+		ensureCapacity(16);
+		for(int shift = 60; shift >= 0; shift -= 4) {
+			this.record[this.length++] = HEX_DIGITS[(int) (value >>> shift) & 0xf];
+		}
+	}
+
+	/**
+	 * Writes the value in big endian byte order
+	 */
+	protected final void putInt(final int value) {
+		ensureCapacity(4);
+		setInt(this.length, value);
+		this.length += 4;
+	}
+
+	/**
+	 * Replaces four bytes of the record, e.g. a length which is known only after the data it precedes
+	 */
+	protected final void setInt(final int position, final int value) {
+		this.record[position] = (byte) (value >>> 24);
+		this.record[position + 1] = (byte) (value >>> 16);
+		this.record[position + 2] = (byte) (value >>> 8);
+		this.record[position + 3] = (byte) value;
+	}
+
+	/**
+	 * Writes the value in big endian byte order
+	 */
+	protected final void putLong(final long value) {
+		putInt((int) (value >>> 32));
+		putInt((int) value);
+	}
+
+	/**
+	 * Writes a char of the ASCII range of the text or of the UTF-8 bytes of a body, the formats override it to escape
+	 * the char
+	 */
+	protected void putTextChar(final int c) {
+		put(c);
+	}
+
+	/**
+	 * Encodes the text in UTF-8, escaping the chars of the ASCII range, an unpaired surrogate is written as '?'
+	 */
+	protected final void putText(final String text, final int start, final int end) {
+		for(int i = start; i < end; i++) {
+			final char c = text.charAt(i);
+			if(c < 0x80) {
+				putTextChar(c);
+			} else if(c < 0x800) {
+				ensureCapacity(2);
+				this.record[this.length++] = (byte) (0xc0 | c >> 6);
+				this.record[this.length++] = (byte) (0x80 | c & 0x3f);
+			} else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+				final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				ensureCapacity(4);
+				this.record[this.length++] = (byte) (0xf0 | codePoint >> 18);
+				this.record[this.length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+				this.record[this.length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+				this.record[this.length++] = (byte) (0x80 | codePoint & 0x3f);
+			} else if(Character.isSurrogate(c)) {
+				putTextChar('?');
+			} else {
+				ensureCapacity(3);
+				this.record[this.length++] = (byte) (0xe0 | c >> 12);
+				this.record[this.length++] = (byte) (0x80 | c >> 6 & 0x3f);
+				this.record[this.length++] = (byte) (0x80 | c & 0x3f);
+			}
+		}
+	}
+
+	/**
+	 * Copies UTF-8 encoded text, escaping the chars of the ASCII range
+	 */
+	protected final void putUtf8(final byte[] bytes, final int start, final int end) {
+		for(int i = start; i < end; i++) {
+			final byte b = bytes[i];
+			if(b >= 0) {
+				putTextChar(b);
+			} else {
+				ensureCapacity(1);
+				this.record[this.length++] = b;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the entry has a body, kept in memory or in the body store
+	 */
+	protected static boolean hasBodyText(final LogEntry entry) {
+		return entry.getStoredBodyLength() >= 0 || entry.readBody() != null;
+	}
+
+	/**
+	 * Writes the body of the entry without its last line break, a stored body without decoding it
+	 */
+	protected final void putBody(final LogEntry entry) {
+		final int storedLength = entry.getStoredBodyLength();
+		if(storedLength >= 0) {
+			if(this.storedBody.length < storedLength) {
+				this.storedBody = new byte[Math.max(storedLength, 2 * this.storedBody.length)];
+			}
+			entry.readStoredBody(this.storedBody, 0);
+			putUtf8(this.storedBody, 0, storedLength > 0 && this.storedBody[storedLength - 1] == '\n' ? storedLength - 1 : storedLength);
+			return;
+		}
+		final String body = entry.readBody();
+		if(body != null) {
+			putText(body, 0, body.endsWith("\n") ? body.length() - 1 : body.length());
+		}
+	}
+
+	private void ensureCapacity(final int count) {
+		if(this.length + count > this.record.length) {
+			this.record = Arrays.copyOf(this.record, Math.max(this.length + count, 2 * this.record.length));
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of a byte stream for the readers of log entries. A log entry is a header line followed by any number
+ * of continuation (body) lines, the readers find the header lines and this class reads or skips the body lines up to
+ * the next header line and keeps the counters of the statistics, which are added when the reader is closed.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public abstract class EntryReader implements Closeable {
+
+	protected final ByteLineReader inputReader;
+	protected final HeaderFormat headerFormat;
+	protected final RunStatistics statistics;
+	protected final XxHash64 bodyHash = new XxHash64();
+	protected long lineNumber;
+	private long stopPosition = -1;
+	// the counters of the statistics, added when the reader is closed
+	protected long headerLines;
+	protected long candidateLines;
+	protected long matchedEntries;
+	protected long duplicateEntries;
+	private long bodyLines;
+
+	/**
+	 * @param input the input
+	 * @param appArgs the application arguments giving the encoding, the header format and the statistics
+	 */
+	protected EntryReader(final InputStream input, final AppArguments appArgs) {
+		this.statistics = appArgs.getStatistics();
+		this.inputReader = new ByteLineReader(input, appArgs.getEncoding(), this.statistics);
+		this.headerFormat = appArgs.getHeaderFormat();
+	}
+
+	/**
+	 * @return the number of lines read so far
+	 */
+	public long getLineNumber() {
+		return this.lineNumber;
+	}
+
+	/**
+	 * @return the position in the input of the line the reading stopped at before the end of the input, -1 if the
+	 *         input is read to its end
+	 */
+	public long getStopPosition() {
+		return this.stopPosition;
+	}
+
+	/**
+	 * Stops the reading at the current line, which is left unread, like the first entry after the time window
+	 */
+	protected final void stopAtLine() {
+		this.stopPosition = this.inputReader.getLinePosition();
+		this.lineNumber--;
+	}
+
+	/**
+	 * Reads the body lines following a header line and computes the hash of the body
+	 *
+	 * @return the body or null if the entry has no body lines, its hash is the digest of {@link #bodyHash}
+	 * @throws IOException
+	 */
+	protected final String readContinuousLines() throws IOException {
+		final long start = this.statistics.startTimer();
+		final StringBuilder body = new StringBuilder();
+		this.bodyHash.reset();
+		// read any body lines, stopping before the start of the next entry
+		while(nextContinuousLine()) {
+			this.lineNumber++;
+			final String line = this.inputReader.decodeLine();
+			body.append(line).append("\n");
+			this.bodyHash.update(line);
+			this.bodyHash.update('\n');
+		}
+		this.statistics.stopTimer(RunStatistics.Stage.BODY, start);
+		return body.length() == 0 ? null : body.toString();
+	}
+
+	/**
+	 * Skips the body lines following a header line without decoding them
+	 *
+	 * @throws IOException
+	 */
+	protected final void skipContinuousLines() throws IOException {
+		while(nextContinuousLine()) {
+			this.lineNumber++;
+		}
+	}
+
+	/**
+	 * @return true if the next line is a continuation line, false at the start of the next entry or the end of the input
+	 */
+	private boolean nextContinuousLine() throws IOException {
+		if(!this.inputReader.next()) {
+			return false;
+		}
+		if(this.headerFormat.isHeader(this.inputReader.getBuffer(), this.inputReader.getLineStart(), this.inputReader.getLineEnd())) {
+			this.inputReader.pushBack(); // read again as the start of the next entry
+			return false;
+		}
+		this.bodyLines++;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.statistics.add(RunStatistics.Counter.LINES_READ, this.lineNumber);
+		this.statistics.add(RunStatistics.Counter.HEADER_LINES, this.headerLines + this.candidateLines);
+		this.statistics.add(RunStatistics.Counter.CANDIDATE_LINES, this.candidateLines);
+		this.statistics.add(RunStatistics.Counter.MATCHED_ENTRIES, this.matchedEntries);
+		this.statistics.add(RunStatistics.Counter.DUPLICATE_ENTRIES, this.duplicateEntries);
+		this.statistics.add(RunStatistics.Counter.BODY_LINES, this.bodyLines);
+		this.inputReader.close();
+	}
+}
@@ -0,0 +1,86 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a part of a file through positional reads of a {@link FileChannel}
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class FileRangeInputStream extends InputStream {
+
+	private final FileChannel channel;
+	private final long end;
+	private long position;
+
+	/**
+	 * @param path the file
+	 * @param start the position of the first byte to read
+	 * @param end the position after the last byte to read
+	 * @throws IOException if the file can't be opened
+	 */
+	public FileRangeInputStream(final Path path, final long start, final long end) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.position = start;
+		this.end = end;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] single = new byte[1];
+		return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(this.position >= this.end) {
+			return -1;
+		}
+		final int read = this.channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, this.end - this.position)), this.position);
+		if(read > 0) {
+			this.position += read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(final long n) {
+		final long skipped = Math.max(0, Math.min(n, this.end - this.position));
+		this.position += skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return (int) Math.min(Integer.MAX_VALUE, this.end - this.position);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+}
@@ -0,0 +1,155 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Reads a file which is still written to, like <code>tail -f</code>. At the end of the file the stream doesn't return
+ * end of stream, it waits until new bytes are appended. The position in the file is kept by the stream, so a read
+ * costs only the new bytes. A log rollover is detected while waiting:
+ * <ul>
+ * <li>if the file was truncated, it is read again from the start</li>
+ * <li>if the file was renamed and a new file was created, the rest of the old file is read and then the new file from
+ * the start</li>
+ * </ul>
+ * While the file doesn't change the stream only checks its size and identity at the poll interval.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class FollowInputStream extends InputStream {
+
+	private final Path path;
+	private final long pollMillis;
+	private final ByteBuffer single = ByteBuffer.allocate(1);
+	private FileChannel channel;
+	private Object fileKey;
+	private long position;
+	private volatile boolean closed;
+
+	/**
+	 * @param path the file to follow
+	 * @param pollMillis the time to wait between two checks for new bytes
+	 * @throws IOException if the file can't be opened
+	 */
+	public FollowInputStream(final Path path, final long pollMillis) throws IOException {
+		this.path = path;
+		this.pollMillis = pollMillis;
+		open();
+	}
+
+	@Override
+	public int read() throws IOException {
+		this.single.clear();
+		final int read = read(this.single);
+		return read < 0 ? -1 : this.single.get(0) & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(length == 0) {
+			return 0;
+		}
+		return read(ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	/**
+	 * Reads the available bytes, waiting for new bytes if the end of the file is reached
+	 *
+	 * @return the number of bytes read, -1 only if the stream was closed
+	 */
+	private int read(final ByteBuffer buffer) throws IOException {
+		while(!this.closed) {
+			final int read = this.channel.read(buffer, this.position);
+			if(read > 0) {
+				this.position += read;
+				return read;
+			}
+			if(!rollOver()) {
+				try {
+					Thread.sleep(this.pollMillis);
+				} catch(final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while following " + this.path);
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.max(0, Math.min(Integer.MAX_VALUE, this.channel.size() - this.position));
+	}
+
+	/**
+	 * @return true if the file was truncated or replaced, so reading can continue immediately
+	 */
+	private boolean rollOver() throws IOException {
+		final BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+		} catch(final NoSuchFileException e) {
+			return false; // renamed, the new file is not created yet
+		}
+		if(this.fileKey != null && !Objects.equals(this.fileKey, attributes.fileKey())) {
+			if(this.channel.size() > this.position) {
+				return true; // bytes were appended to the old file before it was renamed
+			}
+			this.channel.close();
+			open();
+			return true;
+		}
+		if(attributes.size() < this.position) {
+			this.position = 0;
+			return true;
+		}
+		return false;
+	}
+
+	private void open() throws IOException {
+		this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+		this.fileKey = Files.readAttributes(this.path, BasicFileAttributes.class).fileKey();
+		this.position = 0;
+	}
+
+	/**
+	 * @return the position in the current file
+	 */
+	public long getPosition() {
+		return this.position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		this.channel.close();
+	}
+}
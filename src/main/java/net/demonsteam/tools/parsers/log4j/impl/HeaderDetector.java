@@ -0,0 +1,249 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recognizes the <code>date *LEVEL* message</code> start of a log entry with a hand written state machine, doing the
+ * work of the regular expression <code>^([^\*]+)\*(LEVEL|...)\*\s</code> without allocating anything. This is the
+ * header format of the log files unless a layout is given, see {@link PatternLayoutFormat}. The detector is immutable
+ * and can be shared between threads.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public final class HeaderDetector implements HeaderFormat {
+
+	/**
+	 * Detects the start of a log entry with any log level
+	 */
+	public static final HeaderDetector ANY_LEVEL = new HeaderDetector(Arrays.asList(LogLevel.values()));
+
+	private static final int STATE_DATE = 0;
+	private static final int STATE_LEVEL = 1;
+	private static final int STATE_SEPARATOR = 2;
+
+	private final char[][] levels;
+	private final int allLevels;
+
+	/**
+	 * @param levels the accepted log levels, at most 32
+	 */
+	public HeaderDetector(final List<LogLevel> levels) {
+		this.levels = new char[levels.size()][];
+		for(int i = 0; i < levels.size(); i++) {
+			this.levels[i] = levels.get(i).toString().toCharArray();
+		}
+		this.allLevels = levels.size() == 32 ? -1 : (1 << levels.size()) - 1;
+	}
+
+	/**
+	 * @param line a line of the log file
+	 * @return true if the line starts a log entry with one of the accepted log levels
+	 */
+	@Override
+	public boolean isHeader(final CharSequence line) {
+		return findMessageStart(line) >= 0;
+	}
+
+	/**
+	 * @param line a line of the log file
+	 * @return the index of the message after the <code>*LEVEL*</code> token and the following whitespace or -1 if the
+	 *         line doesn't start a log entry with one of the accepted log levels
+	 */
+	@Override
+	public int findMessageStart(final CharSequence line) {
+		final int length = line.length();
+		int state = STATE_DATE;
+		int levelStart = 0;
+		int candidates = 0; // bit set of the levels matching the characters seen so far
+		for(int i = 0; i < length; i++) {
+			final char c = line.charAt(i);
+			switch(state) {
+				case STATE_DATE:
+					if(c == '*') {
+						if(i == 0) {
+							return -1; // the date must not be empty
+						}
+						state = STATE_LEVEL;
+						levelStart = i + 1;
+						candidates = this.allLevels;
+					}
+					break;
+				case STATE_LEVEL:
+					final int position = i - levelStart;
+					if(c == '*') {
+						if(!endsAnyLevel(candidates, position)) {
+							return -1;
+						}
+						state = STATE_SEPARATOR;
+						break;
+					}
+					candidates = matchLevels(candidates, position, c);
+					if(candidates == 0) {
+						return -1;
+					}
+					break;
+				default:
+					return isWhitespace(c) ? i + 1 : -1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param bytes the bytes of a line in an ASCII compatible charset
+	 * @param start the index of the first byte of the line
+	 * @param end the index after the last byte of the line
+	 * @return true if the line starts a log entry with one of the accepted log levels
+	 */
+	@Override
+	public boolean isHeader(final byte[] bytes, final int start, final int end) {
+		return findMessageStart(bytes, start, end) >= 0;
+	}
+
+	/**
+	 * Does the work of {@link #findMessageStart(CharSequence)} on the bytes of a line. The date, the log level and the
+	 * separator are recognized by their ASCII bytes, so the line doesn't need to be decoded.
+	 *
+	 * @param bytes the bytes of a line in an ASCII compatible charset
+	 * @param start the index of the first byte of the line
+	 * @param end the index after the last byte of the line
+	 * @return the index of the first byte of the message or -1 if the line doesn't start a log entry with one of the
+	 *         accepted log levels
+	 */
+	@Override
+	public int findMessageStart(final byte[] bytes, final int start, final int end) {
+		int state = STATE_DATE;
+		int levelStart = 0;
+		int candidates = 0;
+		for(int i = start; i < end; i++) {
+			final char c = (char) (bytes[i] & 0xFF);
+			switch(state) {
+				case STATE_DATE:
+					if(c == '*') {
+						if(i == start) {
+							return -1;
+						}
+						state = STATE_LEVEL;
+						levelStart = i + 1;
+						candidates = this.allLevels;
+					}
+					break;
+				case STATE_LEVEL:
+					final int position = i - levelStart;
+					if(c == '*') {
+						if(!endsAnyLevel(candidates, position)) {
+							return -1;
+						}
+						state = STATE_SEPARATOR;
+						break;
+					}
+					candidates = matchLevels(candidates, position, c);
+					if(candidates == 0) {
+						return -1;
+					}
+					break;
+				default:
+					return isWhitespace(c) ? i + 1 : -1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The date is the text before the <code>*LEVEL*</code> token and the message the text after its whitespace, the
+	 * format has no thread and no logger field.
+	 */
+	@Override
+	public boolean findFields(final CharSequence line, final int[] bounds) {
+		Arrays.fill(bounds, -1);
+		final int messageStart = findMessageStart(line);
+		if(messageStart < 0) {
+			return false;
+		}
+		final int dateEnd = findDateEnd(line);
+		setBounds(bounds, Field.DATE, 0, dateEnd);
+		setBounds(bounds, Field.LEVEL, dateEnd + 1, messageStart - 2);
+		setBounds(bounds, Field.MESSAGE, messageStart, line.length());
+		return true;
+	}
+
+	private static void setBounds(final int[] bounds, final Field field, final int start, final int end) {
+		bounds[2 * field.ordinal()] = start;
+		bounds[2 * field.ordinal() + 1] = end;
+	}
+
+	@Override
+	public long parseDate(final String line, final TimestampParser timestampParser) throws ParseException {
+		return timestampParser.parse(line, 0, findDateEnd(line));
+	}
+
+	@Override
+	public HeaderFormat forLevels(final List<LogLevel> levels) {
+		return new HeaderDetector(levels);
+	}
+
+	/**
+	 * @param line a log entry start
+	 * @return the index of the '*' ending the date of the log entry start or -1 if there is none
+	 */
+	public static int findDateEnd(final CharSequence line) {
+		for(int i = 0; i < line.length(); i++) {
+			if(line.charAt(i) == '*') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int matchLevels(final int candidates, final int position, final char c) {
+		int matching = candidates;
+		for(int k = 0; k < this.levels.length; k++) {
+			if((candidates & (1 << k)) != 0 && (this.levels[k].length <= position || this.levels[k][position] != c)) {
+				matching &= ~(1 << k);
+			}
+		}
+		return matching;
+	}
+
+	private boolean endsAnyLevel(final int candidates, final int length) {
+		for(int k = 0; k < this.levels.length; k++) {
+			if((candidates & (1 << k)) != 0 && this.levels[k].length == length) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "<date> *LEVEL* <message>";
+	}
+
+	/**
+	 * @return true for the characters matched by <code>\s</code>
+	 */
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+	}
+}
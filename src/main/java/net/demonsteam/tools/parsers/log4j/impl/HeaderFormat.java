@@ -0,0 +1,98 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Recognizes the header line starting a log entry and finds its fields. A format is compiled once, is immutable and can
+ * be shared between threads.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public interface HeaderFormat {
+
+	/**
+	 * The fields of a header line
+	 */
+	enum Field {
+		DATE, LEVEL, THREAD, LOGGER, MESSAGE
+	}
+
+	/**
+	 * @param line a line of the log file
+	 * @return the index of the message or -1 if the line doesn't start a log entry with one of the accepted log levels
+	 */
+	int findMessageStart(CharSequence line);
+
+	/**
+	 * Does the work of {@link #findMessageStart(CharSequence)} on the undecoded bytes of a line
+	 *
+	 * @param bytes the bytes of a line in an ASCII compatible charset
+	 * @param start the index of the first byte of the line
+	 * @param end the index after the last byte of the line
+	 * @return the index of the first byte of the message or -1 if the line doesn't start a log entry with one of the
+	 *         accepted log levels
+	 */
+	int findMessageStart(byte[] bytes, int start, int end);
+
+	/**
+	 * @param line a line of the log file
+	 * @return true if the line starts a log entry with one of the accepted log levels
+	 */
+	default boolean isHeader(final CharSequence line) {
+		return findMessageStart(line) >= 0;
+	}
+
+	/**
+	 * @param bytes the bytes of a line in an ASCII compatible charset
+	 * @param start the index of the first byte of the line
+	 * @param end the index after the last byte of the line
+	 * @return true if the line starts a log entry with one of the accepted log levels
+	 */
+	default boolean isHeader(final byte[] bytes, final int start, final int end) {
+		return findMessageStart(bytes, start, end) >= 0;
+	}
+
+	/**
+	 * Finds the fields of a header line. The start of a field is stored at <code>2 * field.ordinal()</code> of the
+	 * bounds, the index after its end at the next index, and both are -1 for a field the format doesn't have.
+	 *
+	 * @param line a line of the log file
+	 * @param bounds the bounds of the fields, at least two per {@link Field}
+	 * @return false if the line doesn't start a log entry with one of the accepted log levels
+	 */
+	boolean findFields(CharSequence line, int[] bounds);
+
+	/**
+	 * @param line a line starting a log entry
+	 * @param timestampParser the parser for the date format of the log entries
+	 * @return the date of the log entry in epoch milliseconds
+	 * @throws ParseException if the line has no date of the date format
+	 */
+	long parseDate(String line, TimestampParser timestampParser) throws ParseException;
+
+	/**
+	 * @param levels the accepted log levels
+	 * @return this format accepting only the given log levels
+	 */
+	HeaderFormat forLevels(List<LogLevel> levels);
+}
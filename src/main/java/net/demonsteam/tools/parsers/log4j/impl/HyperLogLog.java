@@ -0,0 +1,82 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+/**
+ * Estimates the number of distinct 64 bit keys in fixed memory. The first bits of a key select a register, which keeps
+ * the longest run of leading zeros seen in the remaining bits. With <code>2^precision</code> registers the standard
+ * error of the estimate is <code>1.04 / sqrt(2^precision)</code>. The keys are expected to be hash values already.
+ * The estimator is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class HyperLogLog {
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * @param precision the number of bits selecting a register, between 4 and 18
+	 */
+	public HyperLogLog(final int precision) {
+		if(precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("The precision must be between 4 and 18: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	public void add(final long key) {
+		final int index = (int) (key >>> (64 - this.precision));
+		// the marker bit limits the run of zeros to the bits left after the register index
+		final byte rank = (byte) (Long.numberOfLeadingZeros((key << this.precision) | (1L << (this.precision - 1))) + 1);
+		if(rank > this.registers[index]) {
+			this.registers[index] = rank;
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct keys
+	 */
+	public long estimate() {
+		final int m = this.registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for(final byte register: this.registers) {
+			sum += 1.0 / (1L << register);
+			if(register == 0) {
+				zeros++;
+			}
+		}
+		final double alpha = 0.7213 / (1 + 1.079 / m);
+		final double estimate = alpha * m * m / sum;
+		if(estimate <= 2.5 * m && zeros > 0) {
+			return Math.round(m * Math.log((double) m / zeros)); // linear counting for small cardinalities
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * @return the relative standard error of the estimate
+	 */
+	public double getStandardError() {
+		return 1.04 / Math.sqrt(this.registers.length);
+	}
+}
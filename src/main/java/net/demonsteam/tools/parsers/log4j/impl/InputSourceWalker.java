@@ -0,0 +1,234 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Lists the log files of an input path. Directories are walked recursively and zip archives are expanded into their
+ * entries, including the entries of nested directories and of zip archives nested within the archive. Nested archives
+ * are copied to the temp directory to allow reading their entries independently of each other. Gzip files are read as
+ * a single log file and tar.gz archives are expanded into their files.
+ * <p>
+ * The compressed sources are inflated on threads of their own, so the inflation overlaps with the parsing, and the
+ * members of a multi-member gzip file are inflated in parallel by the given number of threads.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class InputSourceWalker implements Closeable {
+
+	private final File tempDir;
+	private final RunStatistics statistics;
+	private final int threads;
+	private final ExecutorService inflaters;
+	private final List<ZipFile> zipFiles = new ArrayList<>();
+	private final List<TarArchive> tarArchives = new ArrayList<>();
+	private final List<File> tempFiles = new ArrayList<>();
+	private final List<InputSource> sources = new ArrayList<>();
+
+	/**
+	 * @param tempDir the directory for the nested archives, null for the default temp directory
+	 * @param threads the number of threads inflating the members of a gzip file
+	 * @param statistics the statistics counting the bytes of the nested archives
+	 */
+	public InputSourceWalker(final File tempDir, final int threads, final RunStatistics statistics) {
+		this.tempDir = tempDir;
+		this.statistics = statistics;
+		this.threads = threads;
+		this.inflaters = Executors.newCachedThreadPool(runnable -> {
+			final Thread thread = new Thread(runnable, "inflater");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @param path a file path
+	 * @return true if the file is an archive or a compressed file read by the walker
+	 */
+	public static boolean isCompressed(final String path) {
+		return path.endsWith(".zip") || path.endsWith(".gz") || path.endsWith(".tgz");
+	}
+
+	/**
+	 * @param input a file, a directory, a zip archive, a gzip file or a tar.gz archive
+	 * @return the log files found in the given input
+	 * @throws ZipException if an archive can't be read
+	 * @throws IOException
+	 */
+	public List<InputSource> walk(final File input) throws ZipException, IOException {
+		final List<InputSource> sources = new ArrayList<>();
+		walk(input, input.getPath(), sources);
+		this.sources.addAll(sources);
+		return sources;
+	}
+
+	private void walk(final File input, final String path, final List<InputSource> sources) throws ZipException, IOException {
+		if(input.getPath().endsWith(".zip")) {
+			final ZipFile zipFile = new ZipFile(input);
+			this.zipFiles.add(zipFile);
+
+			final List<? extends ZipEntry> contentEntries = Collections.list(zipFile.entries());
+			Collections.sort(contentEntries, new Comparator<ZipEntry>() {
+
+				@Override
+				public int compare(final ZipEntry first, final ZipEntry second) {
+					return first.getName().compareTo(second.getName());
+				}
+			});
+			for(final ZipEntry contentEntry: contentEntries) {
+				if(contentEntry.isDirectory()) {
+					continue; // the entries of nested directories are listed with their full path
+				}
+				final String entryPath = path + "/" + contentEntry.getName();
+				if(contentEntry.getName().endsWith(".zip")) {
+					final File nestedZip = File.createTempFile("nested", ".zip", this.tempDir);
+					this.tempFiles.add(nestedZip);
+					try (InputStream inputStream = zipFile.getInputStream(contentEntry)) {
+						this.statistics.add(RunStatistics.Counter.TEMP_BYTES_WRITTEN, Files.copy(inputStream, nestedZip.toPath(), StandardCopyOption.REPLACE_EXISTING));
+					}
+					walk(nestedZip, entryPath, sources);
+				} else {
+					sources.add(new InputSource(entryPath, null, true, () -> inflate(entryPath, zipFile.getInputStream(contentEntry))));
+				}
+			}
+		} else if(input.isDirectory()) {
+			final File[] files = input.listFiles();
+			if(files != null) {
+				for(final File file: files) {
+					walk(file, file.getPath(), sources);
+				}
+			}
+		} else if(input.getPath().endsWith(".tar.gz") || input.getPath().endsWith(".tgz")) {
+			final TarArchive tarArchive = new TarArchive(() -> new ParallelGzipInputStream(input.toPath(), this.inflaters, this.threads), this.tempDir, this.statistics);
+			this.tarArchives.add(tarArchive);
+			for(final TarArchive.Entry tarEntry: tarArchive.list()) {
+				final String entryPath = path + "/" + tarEntry.getName();
+				// the files are read from a single stream, so they aren't inflated ahead
+				sources.add(new InputSource(entryPath, null, false, () -> inflate(entryPath, tarArchive.open(tarEntry))));
+			}
+		} else if(input.getPath().endsWith(".gz")) {
+			sources.add(new InputSource(path, null, true, () -> new AsyncInputStream(new ParallelGzipInputStream(input.toPath(), this.inflaters, this.threads), this.inflaters)));
+		} else {
+			sources.add(new InputSource(path, input, false, () -> new FileInputStream(input)));
+		}
+	}
+
+	/**
+	 * @return the content of an archived file, inflated on a thread of its own
+	 */
+	private InputStream inflate(final String path, final InputStream archived) throws IOException {
+		return new AsyncInputStream(path.endsWith(".gz") ? new GZIPInputStream(archived) : archived, this.inflaters);
+	}
+
+	@Override
+	public void close() throws IOException {
+		for(final InputSource source: this.sources) {
+			source.discardPrefetched();
+		}
+		for(final TarArchive tarArchive: this.tarArchives) {
+			tarArchive.close();
+		}
+		for(final ZipFile zipFile: this.zipFiles) {
+			zipFile.close();
+		}
+		this.inflaters.shutdownNow();
+		for(final File tempFile: this.tempFiles) {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * A single log file, either a plain file, a gzip file or a file of an archive
+	 */
+	public static class InputSource {
+
+		private final String path;
+		private final File file;
+		private final boolean prefetchable;
+		private final TarArchive.StreamOpener opener;
+		private InputStream prefetched;
+
+		private InputSource(final String path, final File file, final boolean prefetchable, final TarArchive.StreamOpener opener) {
+			this.path = path;
+			this.file = file;
+			this.prefetchable = prefetchable;
+			this.opener = opener;
+		}
+
+		/**
+		 * @return the path used in messages, for archived files the path of the archive followed by the file name
+		 */
+		public String getPath() {
+			return this.path;
+		}
+
+		/**
+		 * @return the plain text file or null if the source is compressed
+		 */
+		public File getFile() {
+			return this.file;
+		}
+
+		public synchronized InputStream open() throws IOException {
+			if(this.prefetched != null) {
+				final InputStream in = this.prefetched;
+				this.prefetched = null;
+				return in;
+			}
+			return this.opener.open();
+		}
+
+		/**
+		 * Starts inflating a compressed source before it is opened, so it is inflated while the previous sources are
+		 * parsed. Does nothing for a plain text file or a file of a tar archive.
+		 *
+		 * @throws IOException if the source can't be opened
+		 */
+		public synchronized void prefetch() throws IOException {
+			if(this.prefetchable && this.prefetched == null) {
+				this.prefetched = this.opener.open();
+			}
+		}
+
+		private synchronized void discardPrefetched() throws IOException {
+			if(this.prefetched != null) {
+				this.prefetched.close();
+				this.prefetched = null;
+			}
+		}
+	}
+}
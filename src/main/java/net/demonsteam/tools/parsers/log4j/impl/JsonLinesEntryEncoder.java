@@ -0,0 +1,117 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+
+/**
+ * Writes every entry as a JSON object on a line of its own (JSON Lines). A missing date or body is null, the hash is a
+ * string of 16 hex digits, as it doesn't fit into the numbers of most JSON parsers. With timelines a unique entry has
+ * its peak count, the start of the peak bucket and the burst flag as well.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class JsonLinesEntryEncoder extends EntryEncoder {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	public JsonLinesEntryEncoder(final AsyncBatchWriter writer, final boolean timelines) {
+		super(writer, timelines);
+	}
+
+	@Override
+	public void writeEntry(final LogEntry entry) throws IOException {
+		encode(entry, 1, false);
+	}
+
+	@Override
+	public void writeGroup(final LogEntry entry) throws IOException {
+		encode(entry, entry.getCount() + 1, this.timelines);
+	}
+
+	private void encode(final LogEntry entry, final long occurrences, final boolean timeline) throws IOException {
+		putAscii("{\"hash\":\"");
+		putHex(entry.getHash());
+		putAscii("\",\"count\":");
+		putDecimal(occurrences);
+		putAscii(",\"first\":");
+		putDate(entry.getFirstOccurrenceMillis());
+		putAscii(",\"last\":");
+		putDate(entry.getLastOccurrenceMillis());
+		putAscii(",\"lineNumber\":");
+		putDecimal(entry.getLineNumber());
+		if(timeline) {
+			putAscii(",\"peak\":");
+			putDecimal(entry.getPeakCount());
+			putAscii(",\"peakTime\":");
+			putDate(entry.getPeakMillis());
+			putAscii(entry.isBurst(this.reportBuckets) ? ",\"burst\":true" : ",\"burst\":false");
+		}
+		putAscii(",\"line\":\"");
+		putText(entry.getLine(), 0, entry.getLine().length());
+		putAscii("\",\"body\":");
+		if(hasBodyText(entry)) {
+			put('"');
+			putBody(entry);
+			put('"');
+		} else {
+			putAscii("null");
+		}
+		putAscii("}\n");
+		writeRecord();
+	}
+
+	private void putDate(final long millis) {
+		if(millis == TimestampParser.NO_DATE) {
+			putAscii("null");
+		} else {
+			putDecimal(millis);
+		}
+	}
+
+	@Override
+	protected void putTextChar(final int c) {
+		switch(c) {
+			case '"':
+				putAscii("\\\"");
+				break;
+			case '\\':
+				putAscii("\\\\");
+				break;
+			case '\n':
+				putAscii("\\n");
+				break;
+			case '\r':
+				putAscii("\\r");
+				break;
+			case '\t':
+				putAscii("\\t");
+				break;
+			default:
+				if(c < 0x20 || c == 0x7f) {
+					putAscii("\\u00");
+					put(HEX[c >> 4]);
+					put(HEX[c & 0xf]);
+				} else {
+					put(c);
+				}
+		}
+	}
+}
@@ -0,0 +1,384 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Decides if a line is the start of a log entry with one of the requested log levels whose message matches the user
+ * pattern. The filter is compiled once and checks a line in stages, from the cheapest to the most expensive one:
+ * <ol>
+ * <li>the header of the line is recognized by the {@link HeaderFormat} and its level compared with the requested
+ * levels</li>
+ * <li>the literals every match of the user pattern must contain are searched in the message</li>
+ * <li>the compiled regular expression is matched against the message</li>
+ * </ol>
+ * Most lines of a log file are rejected by the first stage, so the regular expression runs only for likely matches. A
+ * user pattern which only looks for a literal, like <code>.*Connection refused.*</code>, is decided by the first two
+ * stages alone.
+ * The first two stages also run on the undecoded bytes of a line, see {@link #mayMatch(byte[], int, int)}, so only
+ * the lines passing them need to be decoded. The filter is immutable and can be shared between threads.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class LineFilter {
+
+	private static final String MATCH_ANY = ".*";
+	private static final String REGEX_META_CHARACTERS = "\\[](){}.*+?^$|";
+
+	private final HeaderFormat headerFormat;
+	private final LiteralSearch[] literals;
+	private final boolean matchAnyMessage;
+	private final boolean matchLiteralsOnly;
+	private final Pattern pattern;
+
+	/**
+	 * @param logLevels the accepted log levels
+	 * @param userPattern the pattern the message after the log level has to match
+	 * @param charset the ASCII compatible charset of the log files
+	 * @throws java.util.regex.PatternSyntaxException if the user pattern is not a valid regular expression
+	 */
+	public LineFilter(final List<LogLevel> logLevels, final String userPattern, final Charset charset) {
+		this(HeaderDetector.ANY_LEVEL, logLevels, userPattern, charset);
+	}
+
+	/**
+	 * @param headerFormat the format of the header lines
+	 * @param logLevels the accepted log levels
+	 * @param userPattern the pattern the message has to match
+	 * @param charset the ASCII compatible charset of the log files
+	 * @throws java.util.regex.PatternSyntaxException if the user pattern is not a valid regular expression
+	 */
+	public LineFilter(final HeaderFormat headerFormat, final List<LogLevel> logLevels, final String userPattern, final Charset charset) {
+		this.headerFormat = headerFormat.forLevels(logLevels);
+		final List<String> requiredLiterals = extractRequiredLiterals(userPattern);
+		Collections.sort(requiredLiterals, (first, second) -> second.length() - first.length()); // most selective first
+		this.literals = new LiteralSearch[requiredLiterals.size()];
+		for(int i = 0; i < requiredLiterals.size(); i++) {
+			this.literals[i] = new LiteralSearch(requiredLiterals.get(i), charset);
+		}
+		this.matchAnyMessage = MATCH_ANY.equals(userPattern);
+		this.matchLiteralsOnly = isContainsLiteral(userPattern);
+		this.pattern = Pattern.compile(userPattern);
+	}
+
+	/**
+	 * @param line a line of the log file
+	 * @return true if the line starts a log entry matching the filter
+	 */
+	public boolean matches(final String line) {
+		final int messageStart = this.headerFormat.findMessageStart(line);
+		return messageStart >= 0 && matchesMessage(line, messageStart);
+	}
+
+	/**
+	 * Checks the message of a header line whose log level is already known to be accepted, like a line whose header
+	 * was recognized once for several filters
+	 *
+	 * @param line a header line of the log file
+	 * @param messageStart the index of the message
+	 * @return true if the message matches the user pattern
+	 */
+	public boolean matchesMessage(final String line, final int messageStart) {
+		if(this.matchAnyMessage) {
+			return !containsLineTerminator(line, messageStart);
+		}
+		for(final LiteralSearch literal: this.literals) {
+			if(literal.indexOf(line, messageStart) < 0) {
+				return false;
+			}
+		}
+		if(this.matchLiteralsOnly) {
+			return !containsLineTerminator(line, messageStart);
+		}
+		// the message only, but anchors and look-behinds see the whole line like a match of the line would
+		return this.pattern.matcher(line).region(messageStart, line.length()).useAnchoringBounds(false).useTransparentBounds(true).matches();
+	}
+
+	/**
+	 * Checks the bytes of a line with the log level and the literal stages. A line for which this method returns false
+	 * never matches, a line for which it returns true has to be decoded and checked with {@link #matches(String)}.
+	 *
+	 * @param bytes the bytes of a line
+	 * @param start the index of the first byte of the line
+	 * @param end the index after the last byte of the line
+	 * @return false if the line doesn't start a log entry matching the filter
+	 */
+	public boolean mayMatch(final byte[] bytes, final int start, final int end) {
+		final int messageStart = this.headerFormat.findMessageStart(bytes, start, end);
+		return messageStart >= 0 && mayMatchMessage(bytes, messageStart, end);
+	}
+
+	/**
+	 * Checks the bytes of the message of a header line with the literal stage, like {@link #mayMatch(byte[], int, int)}
+	 * for a line whose header was recognized once for several filters. The log level is not checked.
+	 *
+	 * @param bytes the bytes of a line
+	 * @param messageStart the index of the first byte of the message
+	 * @param end the index after the last byte of the line
+	 * @return false if the message never matches the user pattern
+	 */
+	public boolean mayMatchMessage(final byte[] bytes, final int messageStart, final int end) {
+		for(final LiteralSearch literal: this.literals) {
+			if(literal.indexOf(bytes, messageStart, end) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the pattern is <code>.*literal.*</code>, so it matches any message containing the literal
+	 */
+	private static boolean isContainsLiteral(final String userPattern) {
+		if(userPattern.length() <= 2 * MATCH_ANY.length() || !userPattern.startsWith(MATCH_ANY) || !userPattern.endsWith(MATCH_ANY)) {
+			return false;
+		}
+		for(int i = MATCH_ANY.length(); i < userPattern.length() - MATCH_ANY.length(); i++) {
+			if(REGEX_META_CHARACTERS.indexOf(userPattern.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the line contains a character not matched by <code>.</code>
+	 */
+	private static boolean containsLineTerminator(final String line, final int from) {
+		for(int i = from; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if(c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collects the literal parts every match of the given regular expression must contain. The analysis is
+	 * conservative: groups, character classes, escaped classes and optional characters end a literal and any
+	 * alternation, inline flag or quotation on the top level yields no literals at all.
+	 *
+	 * @param regex a regular expression
+	 * @return the required literals, may be empty
+	 */
+	static List<String> extractRequiredLiterals(final String regex) {
+		final List<String> literals = new ArrayList<>();
+		final StringBuilder current = new StringBuilder();
+		boolean lastAtomLiteral = false;
+		for(int i = 0; i < regex.length(); i++) {
+			final char c = regex.charAt(i);
+			switch(c) {
+				case '\\':
+					if(i + 1 >= regex.length()) {
+						return Collections.emptyList();
+					}
+					final char escaped = regex.charAt(++i);
+					if(escaped == 'Q') {
+						return Collections.emptyList();
+					}
+					if(Character.isLetterOrDigit(escaped)) { // character class, back reference or control character
+						flush(current, literals);
+						lastAtomLiteral = false;
+					} else {
+						current.append(escaped);
+						lastAtomLiteral = true;
+					}
+					break;
+				case '[':
+					flush(current, literals);
+					i = skipCharacterClass(regex, i);
+					lastAtomLiteral = false;
+					break;
+				case '(':
+					if(i + 2 < regex.length() && regex.charAt(i + 1) == '?' && (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-')) {
+						return Collections.emptyList(); // inline flags, e.g. case insensitive matching
+					}
+					flush(current, literals);
+					i = skipGroup(regex, i);
+					lastAtomLiteral = false;
+					break;
+				case '|':
+					return Collections.emptyList();
+				case '*':
+				case '?':
+				case '{':
+					if(lastAtomLiteral) {
+						current.setLength(current.length() - 1); // the previous character is optional or repeated
+					}
+					flush(current, literals);
+					if(c == '{') {
+						i = regex.indexOf('}', i);
+						if(i < 0) {
+							return Collections.emptyList();
+						}
+					}
+					i = skipQuantifierModifier(regex, i);
+					lastAtomLiteral = false;
+					break;
+				case '+':
+					flush(current, literals);
+					i = skipQuantifierModifier(regex, i);
+					lastAtomLiteral = false;
+					break;
+				case '.':
+				case '^':
+				case '$':
+					flush(current, literals);
+					lastAtomLiteral = false;
+					break;
+				default:
+					current.append(c);
+					lastAtomLiteral = true;
+			}
+		}
+		flush(current, literals);
+		return literals;
+	}
+
+	private static void flush(final StringBuilder current, final List<String> literals) {
+		if(current.length() > 0) {
+			literals.add(current.toString());
+			current.setLength(0);
+		}
+	}
+
+	private static int skipQuantifierModifier(final String regex, final int i) {
+		return i + 1 < regex.length() && (regex.charAt(i + 1) == '?' || regex.charAt(i + 1) == '+') ? i + 1 : i;
+	}
+
+	/**
+	 * @return the index of the closing bracket of the character class starting at the given index
+	 */
+	private static int skipCharacterClass(final String regex, final int start) {
+		int depth = 0;
+		for(int i = start; i < regex.length(); i++) {
+			final char c = regex.charAt(i);
+			if(c == '\\') {
+				i++;
+			} else if(c == '[') {
+				depth++;
+				if(i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+					i++;
+				}
+				if(i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+					i++; // a leading ']' is a literal
+				}
+			} else if(c == ']' && --depth == 0) {
+				return i;
+			}
+		}
+		return regex.length();
+	}
+
+	/**
+	 * @return the index of the closing parenthesis of the group starting at the given index
+	 */
+	private static int skipGroup(final String regex, final int start) {
+		int depth = 0;
+		for(int i = start; i < regex.length(); i++) {
+			final char c = regex.charAt(i);
+			if(c == '\\') {
+				i++;
+			} else if(c == '[') {
+				i = skipCharacterClass(regex, i);
+			} else if(c == '(') {
+				depth++;
+			} else if(c == ')' && --depth == 0) {
+				return i;
+			}
+		}
+		return regex.length();
+	}
+
+	@Override
+	public String toString() {
+		final List<String> literalList = new ArrayList<>();
+		for(final LiteralSearch literal: this.literals) {
+			literalList.add(new String(literal.literal));
+		}
+		return String.format("LineFilter[pattern=%s, literals=%s]", this.pattern, Arrays.toString(literalList.toArray()));
+	}
+
+	/**
+	 * Boyer-Moore-Horspool substring search for a fixed literal, in the characters of a line or in its encoded bytes
+	 */
+	private static final class LiteralSearch {
+
+		private final char[] literal;
+		private final int[] shift = new int[256];
+		private final byte[] encoded;
+		private final int[] byteShift = new int[256];
+
+		private LiteralSearch(final String literal, final Charset charset) {
+			this.literal = literal.toCharArray();
+			final int last = this.literal.length - 1;
+			Arrays.fill(this.shift, this.literal.length);
+			for(int i = 0; i < last; i++) {
+				this.shift[this.literal[i] & 0xFF] = last - i; // characters sharing a slot keep the smallest shift
+			}
+			// a literal the charset can't encode is only searched in the decoded line
+			this.encoded = charset.newEncoder().canEncode(literal) ? literal.getBytes(charset) : new byte[0];
+			final int lastByte = this.encoded.length - 1;
+			Arrays.fill(this.byteShift, this.encoded.length);
+			for(int i = 0; i < lastByte; i++) {
+				this.byteShift[this.encoded[i] & 0xFF] = lastByte - i;
+			}
+		}
+
+		private int indexOf(final byte[] bytes, final int from, final int end) {
+			final int last = this.encoded.length - 1;
+			int i = from;
+			while(i + last < end) {
+				int j = last;
+				while(j >= 0 && bytes[i + j] == this.encoded[j]) {
+					j--;
+				}
+				if(j < 0) {
+					return i;
+				}
+				i += this.byteShift[bytes[i + last] & 0xFF];
+			}
+			return -1;
+		}
+
+		private int indexOf(final String text, final int from) {
+			final int last = this.literal.length - 1;
+			int i = from;
+			while(i + last < text.length()) {
+				int j = last;
+				while(j >= 0 && text.charAt(i + j) == this.literal[j]) {
+					j--;
+				}
+				if(j < 0) {
+					return i;
+				}
+				i += this.shift[text.charAt(i + last) & 0xFF];
+			}
+			return -1;
+		}
+	}
+}
@@ -18,24 +18,13 @@
  * OR OTHER DEALINGS IN THE SOFTWARE. */
 package net.demonsteam.tools.parsers.log4j.impl;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
-import java.util.Date;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
@@ -47,43 +36,98 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  */
 public class LogEntry implements Comparable<LogEntry> {
 
-	private static final String FORMAT_REGEX_LINE_START = "^([^\\*]+)\\*(%s)\\*\\s";
-	private static final Pattern PATTERN_LOG_LINE_START = Pattern.compile(String.format(FORMAT_REGEX_LINE_START + "(.*)", Arrays.stream(LogLevel.values()).map(l -> l.toString()).collect(Collectors.joining("|"))));
+	private static final long[] NO_ALIASES = new long[0];
 
 	private String line;
 	private long lineNumber;
-	private final SimpleDateFormat sdf;
-	private String md5Hex;
-	private String bodyMd5Hex;
-	private Date firstOccurrenceDate;
-	private Date lastOccurrenceDate;
+	private long lastLineNumber;
+	private final TimestampParser timestampParser;
+	private final HeaderFormat headerFormat;
+	private long hash;
+	private long bodyHash;
+	private long[] aliasHashes = NO_ALIASES;
+	private long firstOccurrenceMillis = TimestampParser.NO_DATE;
+	private long lastOccurrenceMillis = TimestampParser.NO_DATE;
 	private long count = 0l;
-	private String sortBy;
+	private long countError = -1; // only set for estimated counts
+	private final boolean sortByDate;
+	private final boolean sortByPeak;
+	private final long timelineBucketMillis; // 0 without timelines
+	private Timeline timeline; // null while the only occurrence is the first one
 	private boolean newLogEntry;
-	private boolean lineFilterMatching;
-	private File tempFile;
+	private String body;
+	private BodyStore bodyStore;
+	private long bodyOffset;
+	private int bodyLength;
 	private boolean multiline;
-	private final String tempDirPath;
+	private TemplateMiner.Template template;
+	private String templateText; // of an entry restored from a report run, its template is not kept
+
+	private LogEntry(final AppArguments appArgs) {
+		this.timestampParser = appArgs.getTimestampParser();
+		this.headerFormat = appArgs.getHeaderFormat();
+		this.sortByDate = AppArguments.DEFAULT_VALUE_OPT_SORT.equals(appArgs.getOptSort());
+		this.sortByPeak = AppArguments.VALUE_OPT_SORT_PEAK.equals(appArgs.getOptSort());
+		this.timelineBucketMillis = appArgs.getTimelineBucketMillis();
+	}
 
 	public LogEntry(final String line, final AppArguments appArgs) throws ParseException, IOException {
+		this(appArgs);
+		final int messageStart = this.headerFormat.findMessageStart(line);
+		long millis = TimestampParser.NO_DATE;
+		if(messageStart >= 0) {
+			final RunStatistics statistics = appArgs.getStatistics();
+			final long start = statistics.startTimer();
+			millis = this.headerFormat.parseDate(line, this.timestampParser);
+			statistics.stopTimer(RunStatistics.Stage.DATE_PARSING, start);
+		}
+		init(line, messageStart, millis, appArgs);
+	}
+
+	/**
+	 * Creates the entry of a header line whose message and date are already known, like a line read once for several
+	 * queries
+	 *
+	 * @param line the header line
+	 * @param messageStart the index of the message
+	 * @param millis the date of the line in epoch milliseconds
+	 * @param appArgs the application arguments of the entry
+	 */
+	public LogEntry(final String line, final int messageStart, final long millis, final AppArguments appArgs) {
+		this(appArgs);
+		init(line, messageStart, millis, appArgs);
+	}
+
+	private void init(final String line, final int messageStart, final long millis, final AppArguments appArgs) {
 		this.line = line;
-		this.tempDirPath = appArgs.getTempDir().getPath();
-		this.sdf = new SimpleDateFormat(appArgs.getLogDateFormat());
-		this.sortBy = appArgs.getOptSort();
-		final Matcher matcher = PATTERN_LOG_LINE_START.matcher(line);
-		if(matcher.find()) {
+		if(messageStart >= 0) {
 			this.newLogEntry = true;
-			this.firstOccurrenceDate = this.lastOccurrenceDate = this.sdf.parse(matcher.group(1).trim());
-			String hashable = StringUtils.defaultString(matcher.group(3));
-			if(hashable.charAt(0) == '[' && hashable.indexOf(']') > 0) {
-				hashable = StringUtils.substringAfterLast(hashable, "]").trim();
+			final RunStatistics statistics = appArgs.getStatistics();
+			this.firstOccurrenceMillis = this.lastOccurrenceMillis = millis;
+			// hash the message, skipping any leading [thread] or [context] information
+			int hashStart = messageStart;
+			int hashEnd = line.length();
+			if(hashStart < hashEnd && line.charAt(hashStart) == '[' && line.indexOf(']', hashStart) > hashStart) {
+				hashStart = line.lastIndexOf(']') + 1;
+				while(hashStart < hashEnd && line.charAt(hashStart) <= ' ') {
+					hashStart++;
+				}
+				while(hashEnd > hashStart && line.charAt(hashEnd - 1) <= ' ') {
+					hashEnd--;
+				}
+			}
+			final long start = statistics.startTimer();
+			final TemplateMiner templateMiner = appArgs.getTemplateMiner();
+			if(templateMiner != null) {
+				this.template = templateMiner.classify(line, hashStart, hashEnd);
+				this.hash = this.template.getId();
+			} else {
+				this.hash = XxHash64.hash(line, hashStart, hashEnd);
 			}
-			this.md5Hex = DigestUtils.md5Hex(hashable);
+			statistics.stopTimer(RunStatistics.Stage.HASHING, start);
 		} else {
-			this.md5Hex = DigestUtils.md5Hex(line);
+			this.hash = XxHash64.hash(line);
 		}
-		this.lineFilterMatching = line.matches(String.format(FORMAT_REGEX_LINE_START + appArgs.getOptUserPattern(), appArgs.getLogLevels().stream().map(l -> l.toString()).collect(Collectors.joining("|"))));
-
 	}
 
 	/**
@@ -97,7 +141,7 @@ public class LogEntry implements Comparable<LogEntry> {
 	 * @param lineNumber the lineNumber to set
 	 */
 	public void setLineNumber(final long lineNumber) {
-		this.lineNumber = lineNumber;
+		this.lineNumber = this.lastLineNumber = lineNumber;
 	}
 
 	/**
@@ -107,6 +151,16 @@ public class LogEntry implements Comparable<LogEntry> {
 		return this.lineNumber;
 	}
 
+	/**
+	 * Moves the line number of this entry by the given offset, used when the entry was read from a part of a file
+	 *
+	 * @param offset the number of lines preceding the part this entry was read from
+	 */
+	public void shiftLineNumber(final long offset) {
+		this.lineNumber += offset;
+		this.lastLineNumber += offset;
+	}
+
 	/**
 	 * @return the multiline
 	 */
@@ -114,15 +168,39 @@ public class LogEntry implements Comparable<LogEntry> {
 		return this.multiline;
 	}
 
-	public String getMd5() {
-		return this.md5Hex;
+	/**
+	 * @return the hash of the message identifying duplicates of this entry
+	 */
+	public long getHash() {
+		return this.hash;
 	}
 
-	public String getBodyMd5() throws IOException {
-		if(this.bodyMd5Hex == null && this.tempFile != null && this.tempFile.exists()) {
-			this.bodyMd5Hex = DigestUtils.md5Hex(new FileInputStream(this.tempFile));
-		}
-		return this.bodyMd5Hex;
+	/**
+	 * @return the hash of the body, only valid if this entry has a body
+	 */
+	public long getBodyHash() {
+		return this.bodyHash;
+	}
+
+	public boolean hasBody() {
+		return this.multiline;
+	}
+
+	/**
+	 * Records the hash of another header grouped with this entry because of the same body
+	 *
+	 * @param aliasHash the hash of the other header
+	 */
+	public void addAliasHash(final long aliasHash) {
+		this.aliasHashes = Arrays.copyOf(this.aliasHashes, this.aliasHashes.length + 1);
+		this.aliasHashes[this.aliasHashes.length - 1] = aliasHash;
+	}
+
+	/**
+	 * @return the hashes of the other headers grouped with this entry
+	 */
+	public long[] getAliasHashes() {
+		return this.aliasHashes;
 	}
 
 	public boolean isNewLine() {
@@ -130,41 +208,201 @@ public class LogEntry implements Comparable<LogEntry> {
 	}
 
 	/**
-	 * @return the lineMatches
+	 * Counts a duplicate of this entry
+	 *
+	 * @param millis the date of the duplicate in epoch milliseconds or {@link TimestampParser#NO_DATE}
+	 * @param lineNumber the line number of the duplicate
+	 * @return the number of duplicates
 	 */
-	public boolean isLineFiltertMatching() {
-		return this.lineFilterMatching;
+	public long addDuplicate(final long millis, final long lineNumber) {
+		this.lastLineNumber = lineNumber;
+		if(millis != TimestampParser.NO_DATE) {
+			this.lastOccurrenceMillis = millis;
+			if(this.timelineBucketMillis > 0) {
+				timeline().add(millis);
+			}
+		}
+		return ++this.count;
 	}
 
-	public long addDuplicate(final String line) throws ParseException {
-		final String logDate = extractLogDate(line);
-		if(logDate != null) {
-			this.lastOccurrenceDate = this.sdf.parse(logDate);
+	/**
+	 * Adds the occurrences of the given entry to this one. The given entry must come later in the input than this one,
+	 * but its duplicates may interleave with the duplicates of this one.
+	 *
+	 * @param other an entry which is a duplicate of this one
+	 */
+	public void merge(final LogEntry other) {
+		this.count += other.count + 1;
+		mergeTimeline(other);
+		if(other.lastLineNumber > this.lastLineNumber) {
+			this.lastLineNumber = other.lastLineNumber;
+			if(other.lastOccurrenceMillis != TimestampParser.NO_DATE) {
+				this.lastOccurrenceMillis = other.lastOccurrenceMillis;
+			}
 		}
-		return ++this.count;
 	}
 
-	private String extractLogDate(final String line) {
-		final Matcher matcher = PATTERN_LOG_LINE_START.matcher(line);
-		return matcher.find() ? matcher.group(1) : null;
+	/**
+	 * Adds the occurrences of the given entry to this one, regardless of the order they were read in. The first and
+	 * last dates become the earliest and the latest one of both entries.
+	 *
+	 * @param other an entry which is a duplicate of this one
+	 */
+	public void mergeUnordered(final LogEntry other) {
+		this.count += other.count + 1;
+		mergeTimeline(other);
+		if(other.firstOccurrenceMillis != TimestampParser.NO_DATE && (this.firstOccurrenceMillis == TimestampParser.NO_DATE || other.firstOccurrenceMillis < this.firstOccurrenceMillis)) {
+			this.firstOccurrenceMillis = other.firstOccurrenceMillis;
+		}
+		if(other.lastOccurrenceMillis > this.lastOccurrenceMillis) { // NO_DATE is the smallest value
+			this.lastOccurrenceMillis = other.lastOccurrenceMillis;
+		}
 	}
 
 	public long getCount() {
 		return this.count;
 	}
 
-	public void appendBody(final String line) throws IOException {
-		if(this.tempFile == null) {
-			this.tempFile = new File(this.tempDirPath + "/" + this.md5Hex);
+	/**
+	 * @return the timeline of the occurrences, created with the second occurrence
+	 */
+	private Timeline timeline() {
+		if(this.timeline == null) {
+			this.timeline = new Timeline(this.timelineBucketMillis);
+			if(this.firstOccurrenceMillis != TimestampParser.NO_DATE) {
+				this.timeline.add(this.firstOccurrenceMillis);
+			}
+		}
+		return this.timeline;
+	}
+
+	private void mergeTimeline(final LogEntry other) {
+		if(this.timelineBucketMillis == 0) {
+			return;
+		}
+		if(other.timeline != null) {
+			timeline().merge(other.timeline);
+		} else if(other.firstOccurrenceMillis != TimestampParser.NO_DATE) {
+			timeline().add(other.firstOccurrenceMillis);
+		}
+	}
+
+	/**
+	 * @return the highest number of dated occurrences in a bucket of the timeline
+	 */
+	public long getPeakCount() {
+		if(this.timeline != null) {
+			return this.timeline.getPeakCount();
+		}
+		return this.firstOccurrenceMillis != TimestampParser.NO_DATE ? 1 : 0;
+	}
+
+	/**
+	 * @return the start of the first bucket of the timeline with the peak count in epoch milliseconds or
+	 *         {@link TimestampParser#NO_DATE} if no occurrence has a date
+	 */
+	public long getPeakMillis() {
+		if(this.timeline != null && this.timeline.getPeakCount() > 0) {
+			return this.timeline.getPeakMillis();
+		}
+		if(this.firstOccurrenceMillis == TimestampParser.NO_DATE || this.timelineBucketMillis == 0) {
+			return TimestampParser.NO_DATE;
 		}
+		return Math.floorDiv(this.firstOccurrenceMillis, this.timelineBucketMillis) * this.timelineBucketMillis;
+	}
+
+	/**
+	 * @param reportBuckets the number of buckets from the first to the last date of the report, see
+	 *            {@link Timeline#countBuckets(java.util.List, long)}
+	 * @return true if the peak rate of this entry is a burst compared with its mean rate over the report
+	 */
+	public boolean isBurst(final long reportBuckets) {
+		if(this.timeline != null) {
+			return this.timeline.isBurst(reportBuckets);
+		}
+		return Timeline.isBurst(getPeakCount(), getPeakCount(), reportBuckets);
+	}
+
+	/**
+	 * Replaces the count by an estimate
+	 *
+	 * @param count the estimated number of duplicates
+	 * @param countError the maximum overestimate of the count
+	 */
+	public void setEstimatedCount(final long count, final long countError) {
+		this.count = count;
+		this.countError = countError;
+	}
+
+	/**
+	 * Sets the body kept in memory
+	 *
+	 * @param body the continuation lines of this entry
+	 * @param bodyHash the hash of the body computed while reading it
+	 */
+	public void setBody(final String body, final long bodyHash) {
+		this.body = body;
+		this.bodyHash = bodyHash;
 		this.multiline = true;
-		try (BufferedWriter bw = new BufferedWriter(new FileWriter(this.tempFile, true))) {
-			bw.write(line);
+	}
+
+	/**
+	 * Moves the body of this entry to the given store, used for entries which are kept until the end of the input
+	 *
+	 * @param store the store for the bodies
+	 * @throws IOException if the store can't be written
+	 */
+	public void storeBody(final BodyStore store) throws IOException {
+		if(this.body == null) {
+			return;
+		}
+		final byte[] bytes = this.body.getBytes(StandardCharsets.UTF_8);
+		this.bodyOffset = store.append(bytes);
+		this.bodyLength = bytes.length;
+		this.bodyStore = store;
+		this.body = null;
+	}
+
+	/**
+	 * @return the body or null if this entry has no continuation lines
+	 */
+	public String readBody() {
+		if(this.bodyStore != null) {
+			return this.bodyStore.readString(this.bodyOffset, this.bodyLength);
 		}
+		return this.body;
+	}
+
+	/**
+	 * @return the length of the UTF-8 encoded body kept in the body store or -1 if the body is kept in memory or there
+	 *         is none
+	 */
+	public int getStoredBodyLength() {
+		return this.bodyStore != null ? this.bodyLength : -1;
+	}
+
+	/**
+	 * Copies the UTF-8 encoded body kept in the body store without decoding it
+	 *
+	 * @param target the array the body is copied to, at least {@link #getStoredBodyLength()} bytes from the offset
+	 * @param offset the index of the first byte of the body in the array
+	 */
+	public void readStoredBody(final byte[] target, final int offset) {
+		this.bodyStore.read(this.bodyOffset, this.bodyLength, target, offset);
 	}
 
-	public String readBody() throws IOException {
-		return new String(Files.readAllBytes(Paths.get(this.tempFile.getPath())), StandardCharsets.UTF_8);
+	/**
+	 * @return the key of this entry in the order of the report, the smaller key first: the latest first date first, the
+	 *         entries without a date last, the highest count first or the highest peak count first
+	 */
+	public long getSortKey() {
+		if(this.sortByDate) {
+			return this.firstOccurrenceMillis == TimestampParser.NO_DATE ? Long.MAX_VALUE : -this.firstOccurrenceMillis;
+		}
+		if(this.sortByPeak) {
+			return -getPeakCount();
+		}
+		return -this.count;
 	}
 
 	/* (non-Javadoc)
@@ -172,19 +410,7 @@ public class LogEntry implements Comparable<LogEntry> {
 	 */
 	@Override
 	public int compareTo(final LogEntry o) {
-		if(AppArguments.DEFAULT_VALUE_OPT_SORT.equals(this.sortBy)) {
-			if(this.firstOccurrenceDate == null && o.firstOccurrenceDate == null) {
-				return 0;
-			}
-			if(this.firstOccurrenceDate == null) {
-				return 1;
-			}
-			if(o.firstOccurrenceDate == null) {
-				return -1;
-			}
-			return o.firstOccurrenceDate.compareTo(this.firstOccurrenceDate);
-		}
-		return ((Long) o.count).compareTo(this.count);
+		return Long.compare(getSortKey(), o.getSortKey());
 	}
 
 	@Override
@@ -193,32 +419,239 @@ public class LogEntry implements Comparable<LogEntry> {
 			return false;
 		}
 		final LogEntry o = (LogEntry) other;
-		return new EqualsBuilder().append(this.md5Hex, o.md5Hex).isEquals();
+		return new EqualsBuilder().append(this.hash, o.hash).isEquals();
 	}
 
 	@Override
 	public int hashCode() {
-		return new HashCodeBuilder(17, 117).append(this.md5Hex).hashCode();
+		return new HashCodeBuilder(17, 117).append(this.hash).hashCode();
 	}
 
 	@Override
 	public String toString() {
-		return String.format("%s -> Count: %d, Date first match: %s, Date last match: %s, First match line number: %d, Multiline: %s",
-		                     this.md5Hex, this.count, this.sdf.format(this.firstOccurrenceDate), this.sdf.format(this.lastOccurrenceDate), this.lineNumber, this.multiline);
+		return formatStats(0);
 	}
 
 	/**
-	 * @param writer
+	 * @param reportBuckets the number of buckets from the first to the last date of the report, 0 to leave out the
+	 *            burst flag
+	 * @return the statistics of this entry written before it in the report
+	 */
+	public String formatStats(final long reportBuckets) {
+		final StringBuilder stats = new StringBuilder(256);
+		final String hex = Long.toHexString(this.hash);
+		for(int i = hex.length(); i < 16; i++) {
+			stats.append('0');
+		}
+		stats.append(hex).append(" -> Count: ").append(this.count);
+		stats.append(", Date first match: ").append(formatDate(this.firstOccurrenceMillis));
+		stats.append(", Date last match: ").append(formatDate(this.lastOccurrenceMillis));
+		stats.append(", First match line number: ").append(this.lineNumber);
+		stats.append(", Multiline: ").append(this.multiline);
+		if(this.countError >= 0) {
+			stats.append(", Count error: ").append(this.countError);
+		}
+		if(this.template != null || this.templateText != null) {
+			stats.append(", Template: ").append(this.template != null ? this.template.getText() : this.templateText);
+		}
+		if(this.timelineBucketMillis > 0) {
+			stats.append(", Peak: ").append(getPeakCount()).append(" per ").append(Timeline.formatBucket(this.timelineBucketMillis));
+			stats.append(" at ").append(formatDate(getPeakMillis()));
+			if(reportBuckets > 0) {
+				stats.append(", Burst: ").append(isBurst(reportBuckets));
+			}
+		}
+		return stats.toString();
+	}
+
+	private String formatDate(final long epochMillis) {
+		return epochMillis == TimestampParser.NO_DATE ? "-" : this.timestampParser.format(epochMillis);
+	}
+
+	/**
+	 * @return the date of the first occurrence in epoch milliseconds or {@link TimestampParser#NO_DATE}
+	 */
+	public long getFirstOccurrenceMillis() {
+		return this.firstOccurrenceMillis;
+	}
+
+	/**
+	 * @return the date of the last occurrence in epoch milliseconds or {@link TimestampParser#NO_DATE}
+	 */
+	public long getLastOccurrenceMillis() {
+		return this.lastOccurrenceMillis;
+	}
+
+	/**
+	 * Writes the state of this entry, so it can be restored by {@link #readFrom(DataInput, AppArguments, BodyStore)}
+	 *
+	 * @param out the output
 	 * @throws IOException
 	 */
-	public void writeLogEntryData(final BufferedWriter writer) throws IOException {
+	public void writeTo(final DataOutput out) throws IOException {
+		writeBytes(out, this.line.getBytes(StandardCharsets.UTF_8));
+		out.writeLong(this.lineNumber);
+		out.writeLong(this.lastLineNumber);
+		out.writeLong(this.count);
+		out.writeLong(this.firstOccurrenceMillis);
+		out.writeLong(this.lastOccurrenceMillis);
+		out.writeInt(this.aliasHashes.length);
+		for(final long aliasHash: this.aliasHashes) {
+			out.writeLong(aliasHash);
+		}
+		out.writeBoolean(this.multiline);
+		if(this.multiline) {
+			out.writeLong(this.bodyHash);
+			writeBytes(out, readBody().getBytes(StandardCharsets.UTF_8));
+		}
+		writeTimeline(out);
+	}
+
+	/**
+	 * Restores an entry written by {@link #writeTo(DataOutput)}. The hash of the line is computed again, so in template
+	 * mode the entry is classified again.
+	 *
+	 * @param in the input
+	 * @param appArgs the application arguments
+	 * @param bodyStore the store for the body or null to keep the body in memory
+	 * @return the entry
+	 * @throws IOException if the input can't be read or the line of the entry can't be parsed
+	 */
+	public static LogEntry readFrom(final DataInput in, final AppArguments appArgs, final BodyStore bodyStore) throws IOException {
+		final String line = new String(readBytes(in), StandardCharsets.UTF_8);
+		final LogEntry entry;
 		try {
-			writer.write(this.line + "\n");
-			if(this.tempFile != null && this.tempFile.exists()) {
-				writer.write(this.readBody() + "\n");
+			entry = new LogEntry(line, appArgs);
+		} catch(final ParseException e) {
+			throw new IOException("Invalid entry '" + line + "': " + e.getMessage(), e);
+		}
+		entry.lineNumber = in.readLong();
+		entry.lastLineNumber = in.readLong();
+		entry.count = in.readLong();
+		entry.firstOccurrenceMillis = in.readLong();
+		entry.lastOccurrenceMillis = in.readLong();
+		entry.aliasHashes = new long[in.readInt()];
+		for(int i = 0; i < entry.aliasHashes.length; i++) {
+			entry.aliasHashes[i] = in.readLong();
+		}
+		if(in.readBoolean()) {
+			final long bodyHash = in.readLong();
+			entry.setBody(new String(readBytes(in), StandardCharsets.UTF_8), bodyHash);
+			if(bodyStore != null) {
+				entry.storeBody(bodyStore);
 			}
-		} catch(final IOException e) {
-			LogLevel.ERROR.printlnToConsole("Can't read the exception contents: " + e.getMessage());
+		}
+		entry.readTimeline(in);
+		return entry;
+	}
+
+	/**
+	 * Writes what the report needs of this entry as a compact record: the counts, the dates, the line and the offset
+	 * and length of the body in the given store. A body kept in memory or in another store is moved to the given store
+	 * first, so the record never carries the body itself.
+	 *
+	 * @param out the output
+	 * @param store the store the bodies of the report are kept in
+	 * @throws IOException
+	 */
+	public void writeReportRecord(final DataOutput out, final BodyStore store) throws IOException {
+		out.writeLong(this.hash);
+		out.writeLong(this.lineNumber);
+		out.writeLong(this.count);
+		out.writeLong(this.countError);
+		out.writeLong(this.firstOccurrenceMillis);
+		out.writeLong(this.lastOccurrenceMillis);
+		out.writeBoolean(this.multiline);
+		final String text = this.template != null ? this.template.getText() : this.templateText;
+		out.writeBoolean(text != null);
+		if(text != null) {
+			writeBytes(out, text.getBytes(StandardCharsets.UTF_8));
+		}
+		writeBytes(out, this.line.getBytes(StandardCharsets.UTF_8));
+		if(this.bodyStore != null && this.bodyStore != store) {
+			this.body = readBody();
+			this.bodyStore = null;
+		}
+		storeBody(store);
+		out.writeInt(this.bodyStore != null ? this.bodyLength : -1);
+		if(this.bodyStore != null) {
+			out.writeLong(this.bodyOffset);
+		}
+		writeTimeline(out);
+	}
+
+	/**
+	 * Restores an entry written by {@link #writeReportRecord(DataOutput, BodyStore)}, without parsing its line again
+	 *
+	 * @param in the input
+	 * @param appArgs the application arguments
+	 * @param store the store the bodies of the report are kept in
+	 * @return the entry, only for the report
+	 * @throws IOException
+	 */
+	public static LogEntry readReportRecord(final DataInput in, final AppArguments appArgs, final BodyStore store) throws IOException {
+		final LogEntry entry = new LogEntry(appArgs);
+		entry.hash = in.readLong();
+		entry.lineNumber = in.readLong();
+		entry.count = in.readLong();
+		entry.countError = in.readLong();
+		entry.firstOccurrenceMillis = in.readLong();
+		entry.lastOccurrenceMillis = in.readLong();
+		entry.multiline = in.readBoolean();
+		if(in.readBoolean()) {
+			entry.templateText = new String(readBytes(in), StandardCharsets.UTF_8);
+		}
+		entry.line = new String(readBytes(in), StandardCharsets.UTF_8);
+		final int bodyLength = in.readInt();
+		if(bodyLength >= 0) {
+			entry.bodyStore = store;
+			entry.bodyLength = bodyLength;
+			entry.bodyOffset = in.readLong();
+		}
+		entry.readTimeline(in);
+		return entry;
+	}
+
+	private void writeTimeline(final DataOutput out) throws IOException {
+		out.writeLong(this.timeline != null ? this.timelineBucketMillis : 0);
+		if(this.timeline != null) {
+			this.timeline.writeTo(out);
+		}
+	}
+
+	private void readTimeline(final DataInput in) throws IOException {
+		final long bucketMillis = in.readLong();
+		if(bucketMillis > 0) {
+			this.timeline = Timeline.readFrom(in, bucketMillis);
+		}
+	}
+
+	private static void writeBytes(final DataOutput out, final byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(final DataInput in) throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Writes the line and the body of this entry. A stored body is written without decoding it.
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void writeLogEntryData(final AsyncBatchWriter writer) throws IOException {
+		writer.write(this.line);
+		writer.write('\n');
+		if(this.bodyStore != null) {
+			writer.writeUtf8(this.bodyStore.read(this.bodyOffset, this.bodyLength));
+			writer.write('\n');
+		} else if(this.body != null) {
+			writer.write(this.body);
+			writer.write('\n');
 		}
 	}
 
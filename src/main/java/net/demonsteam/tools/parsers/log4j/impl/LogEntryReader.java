@@ -0,0 +1,152 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the log entries matching the line filter from a byte stream. A log entry is a header line followed by any
+ * number of continuation (body) lines. In unique mode the entries are pre-aggregated by their header, so only the
+ * first occurrence of a header is returned and the following occurrences are counted as duplicates.
+ * <p>
+ * The lines are checked by their bytes first and decoded with the encoding of the application arguments only if they
+ * may match the filter or belong to a matching entry, so the rejected lines are never decoded.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class LogEntryReader extends EntryReader {
+
+	private final AppArguments appArgs;
+	private final LineFilter lineFilter;
+	private final BodyStore bodyStore;
+	private final boolean preAggregate;
+	private boolean pastTimeRange;
+	private final LongObjectMap<LogEntry> localUniqueEntries = new LongObjectMap<>();
+	private final List<LogEntry> localUniqueEntryList = new ArrayList<>();
+
+	/**
+	 * @param input the input
+	 * @param appArgs the application arguments
+	 * @param bodyStore the store for the bodies of the unique entries
+	 */
+	public LogEntryReader(final InputStream input, final AppArguments appArgs, final BodyStore bodyStore) {
+		super(input, appArgs);
+		this.appArgs = appArgs;
+		this.lineFilter = appArgs.getLineFilter();
+		this.bodyStore = bodyStore;
+		// the most frequent entries are counted by the aggregator only, so its memory stays fixed, and a followed file
+		// is merged entry by entry, so the report is always up to date
+		this.preAggregate = appArgs.isFlagUnique() && appArgs.getTop() == 0 && !appArgs.isFlagFollow();
+	}
+
+	/**
+	 * @return the next log entry matching the line filter or null if the end of the stream is reached. In unique mode
+	 *         only entries with a not yet seen header are returned, unless only the most frequent entries are
+	 *         reported or the input is followed.
+	 * @throws IOException
+	 */
+	public LogEntry next() throws IOException {
+		while(!this.pastTimeRange && this.inputReader.next()) {
+			this.lineNumber++;
+			// timing every line would cost more than the filter itself
+			final boolean sampled = (this.lineNumber & (RunStatistics.FILTER_SAMPLE_INTERVAL - 1)) == 0;
+			final long start = sampled ? this.statistics.startTimer() : 0;
+			if(!this.lineFilter.mayMatch(this.inputReader.getBuffer(), this.inputReader.getLineStart(), this.inputReader.getLineEnd())) {
+				if(sampled) {
+					this.statistics.stopTimer(RunStatistics.Stage.FILTER, start, RunStatistics.FILTER_SAMPLE_INTERVAL);
+				}
+				if(this.statistics.isEnabled() && this.headerFormat.isHeader(this.inputReader.getBuffer(), this.inputReader.getLineStart(), this.inputReader.getLineEnd())) {
+					this.headerLines++;
+				}
+				continue;
+			}
+			this.candidateLines++;
+			final String line = this.inputReader.decodeLine();
+			final boolean matches = this.lineFilter.matches(line);
+			if(sampled) {
+				this.statistics.stopTimer(RunStatistics.Stage.FILTER, start, RunStatistics.FILTER_SAMPLE_INTERVAL);
+			}
+			if(!matches) {
+				continue;
+			}
+			final LogEntry logEntry;
+			try {
+				logEntry = new LogEntry(line, this.appArgs);
+			} catch(final ParseException e) {
+				LogLevel.FATAL.printlnToConsole("Can't parse the line '%s'. Details: %s. Skipping the line", line, e.getMessage());
+				continue;
+			}
+			logEntry.setLineNumber(this.lineNumber);
+			if(logEntry.getFirstOccurrenceMillis() < this.appArgs.getFromMillis()) {
+				skipContinuousLines();
+				continue;
+			}
+			if(logEntry.getFirstOccurrenceMillis() > this.appArgs.getToMillis()) {
+				this.pastTimeRange = true; // the entries are in date order, so reading can stop
+				stopAtLine();
+				return null;
+			}
+			this.matchedEntries++;
+
+			if(this.preAggregate) {
+				final LogEntry knownEntry = this.localUniqueEntries.get(logEntry.getHash());
+				if(knownEntry != null) {
+					this.duplicateEntries++;
+					knownEntry.addDuplicate(logEntry.getFirstOccurrenceMillis(), this.lineNumber);
+					// ok, we have this one already, skip all body bytes if any other related lines
+					skipContinuousLines();
+					continue;
+				}
+				this.localUniqueEntries.put(logEntry.getHash(), logEntry);
+				this.localUniqueEntryList.add(logEntry);
+			}
+			final String body = readContinuousLines();
+			if(body != null) {
+				logEntry.setBody(body, this.bodyHash.digest());
+				if(this.preAggregate) {
+					final long storeStart = this.statistics.startTimer();
+					logEntry.storeBody(this.bodyStore);
+					this.statistics.stopTimer(RunStatistics.Stage.BODY_STORE, storeStart);
+				}
+			}
+			return logEntry;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the entries read so far in order of their first occurrence, each one holding the count and the last
+	 *         date of its duplicates. Empty if the unique flag is not set, only the most frequent entries are
+	 *         reported or the input is followed.
+	 */
+	public List<LogEntry> getUniqueEntries() {
+		return new ArrayList<>(this.localUniqueEntryList);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.statistics.updatePeak(RunStatistics.Peak.READER_MAP_SIZE, this.localUniqueEntryList.size());
+		super.close();
+	}
+}
@@ -20,8 +20,6 @@ package net.demonsteam.tools.parsers.log4j.impl;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.ArrayDeque;
-import java.util.Arrays;
 
 /**
  * Defines the available log levels in a log filea and gives some apis for printing formatted messages to the given
@@ -35,14 +33,14 @@ public enum LogLevel {
 
 		@Override
 		public void printlnToConsole(final String msg, final Object... msgArgs) {
-			System.err.println(formatMessage(msg, msgArgs));
+			Console.err().println(formatMessage(msg, msgArgs));
 		}
 	},
 	ERROR {
 
 		@Override
 		public void printlnToConsole(final String msg, final Object... msgArgs) {
-			System.err.println(formatMessage(msg, msgArgs));
+			Console.err().println(formatMessage(msg, msgArgs));
 		}
 	},
 	WARN,
@@ -51,16 +49,23 @@ public enum LogLevel {
 	TRACE;
 
 	public void println(Writer writer, final String msg, final Object... msgArgs) throws IOException {
-		writer.write(formatMessage(msg, msgArgs) + "\n");
+		writer.write('*');
+		writer.write(name());
+		writer.write("* ");
+		writer.write(msgArgs.length == 0 ? msg : String.format(msg, msgArgs));
+		writer.write('\n');
 	}
 
 	public void printlnToConsole(final String msg, final Object... msgArgs) {
-		System.out.println(formatMessage(msg, msgArgs));
+		Console.out().println(formatMessage(msg, msgArgs));
 	}
 
+	/**
+	 * @param msg the message, a format string if arguments are given
+	 * @param msgArgs the arguments of the format string
+	 * @return the message prefixed with the log level
+	 */
 	public String formatMessage(final String msg, final Object... msgArgs) {
-		final ArrayDeque<Object> args = new ArrayDeque<>(Arrays.asList(msgArgs));
-		args.addFirst(this);
-		return String.format("*%s* " + msg, args.toArray());
+		return "*" + name() + "* " + (msgArgs.length == 0 ? msg : String.format(msg, msgArgs));
 	}
 }
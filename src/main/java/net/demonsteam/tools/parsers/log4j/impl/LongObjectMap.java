@@ -0,0 +1,198 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.util.Arrays;
+
+/**
+ * Hash map with primitive long keys using open addressing with linear probing, avoiding the key objects and entry
+ * nodes of a {@link java.util.HashMap}. The map is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ * @param <V> the type of the values
+ */
+public class LongObjectMap<V> {
+
+	private static final long FREE_KEY = 0;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+	private boolean hasFreeKey; // the free key itself is stored outside of the table
+	private V freeKeyValue;
+
+	public LongObjectMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of entries the map should hold without resizing
+	 */
+	public LongObjectMap(final int expectedSize) {
+		int capacity = 16;
+		while(capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(final long key) {
+		if(key == FREE_KEY) {
+			return this.hasFreeKey ? this.freeKeyValue : null;
+		}
+		int index = index(key);
+		long current;
+		while((current = this.keys[index]) != FREE_KEY) {
+			if(current == key) {
+				return (V) this.values[index];
+			}
+			index = (index + 1) & this.mask;
+		}
+		return null;
+	}
+
+	public boolean containsKey(final long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * @param key the key
+	 * @param value the value, must not be null
+	 * @return the previous value of the key or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value) {
+		if(key == FREE_KEY) {
+			final V previous = this.hasFreeKey ? this.freeKeyValue : null;
+			if(!this.hasFreeKey) {
+				this.size++;
+			}
+			this.hasFreeKey = true;
+			this.freeKeyValue = value;
+			return previous;
+		}
+		int index = index(key);
+		long current;
+		while((current = this.keys[index]) != FREE_KEY) {
+			if(current == key) {
+				final V previous = (V) this.values[index];
+				this.values[index] = value;
+				return previous;
+			}
+			index = (index + 1) & this.mask;
+		}
+		this.keys[index] = key;
+		this.values[index] = value;
+		if(++this.size * 2 > this.keys.length) {
+			rehash();
+		}
+		return null;
+	}
+
+	/**
+	 * @return the current value of the key or null if the given value was added
+	 */
+	public V putIfAbsent(final long key, final V value) {
+		final V current = get(key);
+		if(current == null) {
+			put(key, value);
+		}
+		return current;
+	}
+
+	/**
+	 * @return the removed value or null if the key was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long key) {
+		if(key == FREE_KEY) {
+			final V previous = this.hasFreeKey ? this.freeKeyValue : null;
+			if(this.hasFreeKey) {
+				this.size--;
+			}
+			this.hasFreeKey = false;
+			this.freeKeyValue = null;
+			return previous;
+		}
+		int index = index(key);
+		long current;
+		while((current = this.keys[index]) != key) {
+			if(current == FREE_KEY) {
+				return null;
+			}
+			index = (index + 1) & this.mask;
+		}
+		final V previous = (V) this.values[index];
+		this.size--;
+		// shift the following keys of the probe sequence back, so no lookup stops at the emptied slot
+		int free = index;
+		int next = (index + 1) & this.mask;
+		while((current = this.keys[next]) != FREE_KEY) {
+			final int home = index(current);
+			if(((next - home) & this.mask) >= ((next - free) & this.mask)) {
+				this.keys[free] = current;
+				this.values[free] = this.values[next];
+				free = next;
+			}
+			next = (next + 1) & this.mask;
+		}
+		this.keys[free] = FREE_KEY;
+		this.values[free] = null;
+		return previous;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	private int index(final long key) {
+		final long mixed = key * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32)) & this.mask;
+	}
+
+	private void allocate(final int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rehash() {
+		final long[] oldKeys = this.keys;
+		final Object[] oldValues = this.values;
+		allocate(oldKeys.length * 2);
+		this.size = this.hasFreeKey ? 1 : 0;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] != FREE_KEY) {
+				put(oldKeys[i], (V) oldValues[i]);
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(this.keys, FREE_KEY);
+		Arrays.fill(this.values, null);
+		this.size = 0;
+		this.hasFreeKey = false;
+		this.freeKeyValue = null;
+	}
+}
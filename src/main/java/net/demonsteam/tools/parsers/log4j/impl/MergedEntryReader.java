@@ -0,0 +1,151 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.demonsteam.tools.parsers.log4j.impl.InputSourceWalker.InputSource;
+
+/**
+ * Reads the matching entries of several sources merged in the order of their dates, like the entries of a single log.
+ * Every source is read by a {@link LogEntryReader} of its own and the next entry of every source waits in a heap, so
+ * only one entry per source is held in memory, whatever the size of the sources. An entry keeps its body, the body
+ * lines are read with the header.
+ * <p>
+ * Entries with the same date are returned in the order of the sources and the entries of one source always in their
+ * order in the source, an entry without a date is taken as dated like the entry before it in its source.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class MergedEntryReader implements Closeable {
+
+	private final List<LogEntryReader> readers = new ArrayList<>();
+	private final PriorityQueue<Head> heads = new PriorityQueue<>();
+
+	/**
+	 * Opens all sources and reads their first entries
+	 *
+	 * @param sources the sources
+	 * @param appArgs the application arguments
+	 * @throws IOException if a source can't be read
+	 */
+	public MergedEntryReader(final List<InputSource> sources, final AppArguments appArgs) throws IOException {
+		try {
+			for(final InputSource source: sources) {
+				final LogEntryReader reader = new LogEntryReader(open(source, appArgs), appArgs, null);
+				this.readers.add(reader);
+				final Head head = new Head(reader, this.readers.size() - 1);
+				if(head.advance()) {
+					this.heads.add(head);
+				}
+			}
+		} catch(final IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the source, only the part of the time window for a plain text file
+	 */
+	private static InputStream open(final InputSource source, final AppArguments appArgs) throws IOException {
+		if(source.getFile() == null || !appArgs.hasTimeRange()) {
+			return source.open();
+		}
+		try (TimeRangeSeeker seeker = new TimeRangeSeeker(source.getFile(), appArgs.getHeaderFormat(), appArgs.getTimestampParser(), appArgs.getEncoding(), appArgs.isFlagIndex())) {
+			final TimeRangeSeeker.Range range = seeker.seek(appArgs.getFromMillis(), appArgs.getToMillis());
+			return new FileRangeInputStream(source.getFile().toPath(), range.getStart(), range.getEnd());
+		}
+	}
+
+	/**
+	 * @return the matching entry with the earliest date of all sources or null if all sources are read
+	 * @throws IOException if a source can't be read
+	 */
+	public LogEntry next() throws IOException {
+		final Head head = this.heads.poll();
+		if(head == null) {
+			return null;
+		}
+		final LogEntry entry = head.entry;
+		if(head.advance()) {
+			this.heads.add(head);
+		}
+		return entry;
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for(final LogEntryReader reader: this.readers) {
+			try {
+				reader.close();
+			} catch(final IOException e) {
+				failure = e;
+			}
+		}
+		this.readers.clear();
+		this.heads.clear();
+		if(failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * The next entry of a source
+	 */
+	private static final class Head implements Comparable<Head> {
+
+		private final LogEntryReader reader;
+		private final int sourceIndex;
+		private LogEntry entry;
+		private long millis = TimestampParser.NO_DATE;
+
+		private Head(final LogEntryReader reader, final int sourceIndex) {
+			this.reader = reader;
+			this.sourceIndex = sourceIndex;
+		}
+
+		/**
+		 * @return false at the end of the source
+		 */
+		private boolean advance() throws IOException {
+			this.entry = this.reader.next();
+			if(this.entry == null) {
+				return false;
+			}
+			if(this.entry.getFirstOccurrenceMillis() != TimestampParser.NO_DATE) {
+				this.millis = this.entry.getFirstOccurrenceMillis();
+			}
+			return true;
+		}
+
+		@Override
+		public int compareTo(final Head other) {
+			final int order = Long.compare(this.millis, other.millis);
+			return order != 0 ? order : Integer.compare(this.sourceIndex, other.sourceIndex);
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.demonsteam.tools.parsers.log4j.impl.HeaderFormat.Field;
+
+/**
+ * Reads the log entries of several queries from a byte stream in a single pass, like a {@link LogEntryReader} per
+ * query would. Every query has its own log levels, pattern and unique mode, the first query gives the settings shared
+ * by all of them: the header format, the date format, the encoding and the time window.
+ * <p>
+ * A line is recognized as a header once for the log levels of all queries and checked by the literals of every query
+ * on its bytes. A line passing any of them is decoded once, its fields are found once to learn its log level and its
+ * date is parsed once, only the levels and the patterns are checked per query. The body of a matching entry is read
+ * once and shared by the entries of all queries it matches.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class MultiQueryReader extends EntryReader {
+
+	private final AppArguments appArgs;
+	private final List<AppArguments> queries;
+	private final HeaderFormat queriedFormat;
+	private final LineFilter[] lineFilters;
+	private final boolean[][] acceptedLevels;
+	private final boolean[] preAggregate;
+	private final List<LongObjectMap<LogEntry>> localUniqueEntries = new ArrayList<>();
+	private final List<List<LogEntry>> localUniqueEntryLists = new ArrayList<>();
+	private final BodyStore bodyStore;
+	private final int[] bounds = new int[2 * Field.values().length];
+	private final boolean[] candidates;
+	private final LogEntry[] entries;
+
+	/**
+	 * @param input the input
+	 * @param queries the application arguments of the queries, the first one gives the settings shared by all queries
+	 * @param bodyStore the store for the bodies of the unique entries
+	 */
+	public MultiQueryReader(final InputStream input, final List<AppArguments> queries, final BodyStore bodyStore) {
+		super(input, queries.get(0));
+		this.appArgs = queries.get(0);
+		this.queries = queries;
+		this.bodyStore = bodyStore;
+		this.lineFilters = new LineFilter[queries.size()];
+		this.acceptedLevels = new boolean[queries.size()][LogLevel.values().length];
+		this.preAggregate = new boolean[queries.size()];
+		this.candidates = new boolean[queries.size()];
+		this.entries = new LogEntry[queries.size()];
+		final boolean[] queriedLevels = new boolean[LogLevel.values().length];
+		for(int query = 0; query < queries.size(); query++) {
+			final AppArguments queryArgs = queries.get(query);
+			this.lineFilters[query] = queryArgs.getLineFilter();
+			for(final LogLevel level: queryArgs.getLogLevels()) {
+				this.acceptedLevels[query][level.ordinal()] = true;
+				queriedLevels[level.ordinal()] = true;
+			}
+			this.preAggregate[query] = queryArgs.isFlagUnique() && queryArgs.getTop() == 0;
+			this.localUniqueEntries.add(new LongObjectMap<>());
+			this.localUniqueEntryLists.add(new ArrayList<>());
+		}
+		final List<LogLevel> levels = new ArrayList<>();
+		for(final LogLevel level: LogLevel.values()) {
+			if(queriedLevels[level.ordinal()]) {
+				levels.add(level);
+			}
+		}
+		this.queriedFormat = this.headerFormat.forLevels(levels);
+	}
+
+	/**
+	 * Reads the input to its end or the end of the time window. The matching entries of the queries in unique mode are
+	 * pre-aggregated by their header, like {@link LogEntryReader#next()} does, the matching entries of the other queries
+	 * are passed to the handler.
+	 *
+	 * @param handler the handler of the entries which are not pre-aggregated
+	 * @throws IOException if the input can't be read or the handler fails
+	 */
+	public void read(final EntryHandler handler) throws IOException {
+		while(this.inputReader.next()) {
+			this.lineNumber++;
+			final byte[] bytes = this.inputReader.getBuffer();
+			final int lineEnd = this.inputReader.getLineEnd();
+			// timing every line would cost more than the filter itself
+			final boolean sampled = (this.lineNumber & (RunStatistics.FILTER_SAMPLE_INTERVAL - 1)) == 0;
+			final long start = sampled ? this.statistics.startTimer() : 0;
+			final int byteMessageStart = this.queriedFormat.findMessageStart(bytes, this.inputReader.getLineStart(), lineEnd);
+			boolean mayMatch = false;
+			for(int query = 0; query < this.queries.size(); query++) {
+				this.candidates[query] = byteMessageStart >= 0 && this.lineFilters[query].mayMatchMessage(bytes, byteMessageStart, lineEnd);
+				mayMatch |= this.candidates[query];
+			}
+			if(!mayMatch) {
+				if(sampled) {
+					this.statistics.stopTimer(RunStatistics.Stage.FILTER, start, RunStatistics.FILTER_SAMPLE_INTERVAL);
+				}
+				if(this.statistics.isEnabled() && this.headerFormat.isHeader(bytes, this.inputReader.getLineStart(), lineEnd)) {
+					this.headerLines++;
+				}
+				continue;
+			}
+			this.candidateLines++;
+			final String line = this.inputReader.decodeLine();
+			final boolean matches = matchQueries(line);
+			if(sampled) {
+				this.statistics.stopTimer(RunStatistics.Stage.FILTER, start, RunStatistics.FILTER_SAMPLE_INTERVAL);
+			}
+			if(!matches) {
+				continue;
+			}
+			final int messageStart = this.bounds[2 * Field.MESSAGE.ordinal()];
+			final long millis;
+			final long parseStart = this.statistics.startTimer();
+			try {
+				millis = this.headerFormat.parseDate(line, this.appArgs.getTimestampParser());
+			} catch(final ParseException e) {
+				LogLevel.FATAL.printlnToConsole("Can't parse the line '%s'. Details: %s. Skipping the line", line, e.getMessage());
+				continue;
+			} finally {
+				this.statistics.stopTimer(RunStatistics.Stage.DATE_PARSING, parseStart);
+			}
+			if(millis < this.appArgs.getFromMillis()) {
+				skipContinuousLines();
+				continue;
+			}
+			if(millis > this.appArgs.getToMillis()) {
+				stopAtLine(); // the entries are in date order, so reading can stop
+				return;
+			}
+			boolean needsBody = false;
+			for(int query = 0; query < this.queries.size(); query++) {
+				this.entries[query] = null;
+				if(!this.candidates[query]) {
+					continue;
+				}
+				this.matchedEntries++;
+				final LogEntry logEntry = new LogEntry(line, messageStart, millis, this.queries.get(query));
+				logEntry.setLineNumber(this.lineNumber);
+				if(this.preAggregate[query]) {
+					final LogEntry knownEntry = this.localUniqueEntries.get(query).get(logEntry.getHash());
+					if(knownEntry != null) {
+						this.duplicateEntries++;
+						knownEntry.addDuplicate(millis, this.lineNumber);
+						continue;
+					}
+					this.localUniqueEntries.get(query).put(logEntry.getHash(), logEntry);
+					this.localUniqueEntryLists.get(query).add(logEntry);
+				}
+				this.entries[query] = logEntry;
+				needsBody = true;
+			}
+			if(!needsBody) {
+				// ok, all queries have this one already, skip all body bytes if any other related lines
+				skipContinuousLines();
+				continue;
+			}
+			final String body = readContinuousLines();
+			final long hash = this.bodyHash.digest();
+			for(int query = 0; query < this.queries.size(); query++) {
+				final LogEntry logEntry = this.entries[query];
+				if(logEntry == null) {
+					continue;
+				}
+				if(body != null) {
+					logEntry.setBody(body, hash);
+				}
+				if(this.preAggregate[query]) {
+					final long storeStart = this.statistics.startTimer();
+					logEntry.storeBody(this.bodyStore);
+					this.statistics.stopTimer(RunStatistics.Stage.BODY_STORE, storeStart);
+				} else {
+					handler.accept(query, logEntry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the fields of a line passing the byte checks once and leaves only the queries it matches as candidates
+	 *
+	 * @return true if any query matches the line
+	 */
+	private boolean matchQueries(final String line) {
+		if(!this.queriedFormat.findFields(line, this.bounds)) {
+			return false;
+		}
+		final int level = findLevel(line);
+		final int messageStart = this.bounds[2 * Field.MESSAGE.ordinal()];
+		boolean matches = false;
+		for(int query = 0; query < this.queries.size(); query++) {
+			this.candidates[query] = this.candidates[query] && (level < 0 || this.acceptedLevels[query][level]) && this.lineFilters[query].matchesMessage(line, messageStart);
+			matches |= this.candidates[query];
+		}
+		return matches;
+	}
+
+	/**
+	 * @return the ordinal of the log level of a line whose fields are found or -1 if the header format has no level
+	 */
+	private int findLevel(final String line) {
+		final int levelStart = this.bounds[2 * Field.LEVEL.ordinal()];
+		final int levelLength = this.bounds[2 * Field.LEVEL.ordinal() + 1] - levelStart;
+		if(levelStart < 0) {
+			return -1;
+		}
+		for(final LogLevel level: LogLevel.values()) {
+			if(level.name().length() == levelLength && line.regionMatches(levelStart, level.name(), 0, levelLength)) {
+				return level.ordinal();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param query the index of the query
+	 * @return the entries of the query read so far in order of their first occurrence, each one holding the count and
+	 *         the last date of its duplicates. Empty if the query is not in unique mode or reports only the most
+	 *         frequent entries.
+	 */
+	public List<LogEntry> getUniqueEntries(final int query) {
+		return new ArrayList<>(this.localUniqueEntryLists.get(query));
+	}
+
+	@Override
+	public void close() throws IOException {
+		for(final List<LogEntry> uniqueEntryList: this.localUniqueEntryLists) {
+			this.statistics.updatePeak(RunStatistics.Peak.READER_MAP_SIZE, uniqueEntryList.size());
+		}
+		super.close();
+	}
+
+	/**
+	 * Receives the matching entries of the queries which are not pre-aggregated
+	 */
+	@FunctionalInterface
+	public interface EntryHandler {
+
+		void accept(int query, LogEntry entry) throws IOException;
+	}
+}
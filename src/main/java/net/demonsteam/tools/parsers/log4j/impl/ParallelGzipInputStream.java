@@ -0,0 +1,401 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a gzip file made of one or more members, like the concatenation of several gzip files. The members are
+ * inflated in parallel: the file is scanned for the magic bytes of a member header and the member starting at each
+ * candidate position is inflated ahead on a thread of the given executor. The position of the next member is only
+ * known once the previous member is inflated, so the candidates which turn out to be inside a member are discarded.
+ * <p>
+ * At most {@link #PREFETCH_LIMIT} bytes of a member are inflated ahead, the rest of a larger member is inflated while
+ * it is read. A file with a single member is therefore read like a {@link java.util.zip.GZIPInputStream}. Data after
+ * the last member which is not a member header is ignored, like the {@link java.util.zip.GZIPInputStream} does.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+	private static final int PREFETCH_LIMIT = 8 * 1024 * 1024;
+	private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+	private static final int OUTPUT_CHUNK_SIZE = 256 * 1024;
+
+	private static final int FLAG_HEADER_CRC = 2;
+	private static final int FLAG_EXTRA = 4;
+	private static final int FLAG_NAME = 8;
+	private static final int FLAG_COMMENT = 16;
+	private static final int FLAG_RESERVED = 0xE0;
+
+	private final FileChannel channel;
+	private final long size;
+	private final ExecutorService executor;
+	private final int parallelism;
+	private final TreeMap<Long, Member> prefetched = new TreeMap<>();
+	private long scanPosition;
+	private long position;
+	private Member current;
+
+	/**
+	 * @param path the gzip file
+	 * @param executor the executor inflating the members ahead
+	 * @param parallelism the number of members inflated ahead
+	 * @throws IOException if the file can't be opened
+	 */
+	public ParallelGzipInputStream(final Path path, final ExecutorService executor, final int parallelism) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = this.channel.size();
+		this.executor = executor;
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] single = new byte[1];
+		return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(length == 0) {
+			return 0;
+		}
+		while(true) {
+			if(this.current == null && !nextMember()) {
+				return -1;
+			}
+			final int read = this.current.read(bytes, offset, length);
+			if(read > 0) {
+				return read;
+			}
+			this.position = this.current.end;
+			this.current = null;
+		}
+	}
+
+	private boolean nextMember() throws IOException {
+		// the candidates before the position were inside the previous member
+		final Iterator<Member> passed = this.prefetched.headMap(this.position).values().iterator();
+		while(passed.hasNext()) {
+			passed.next().discard();
+			passed.remove();
+		}
+		if(this.position >= this.size) {
+			return false;
+		}
+		this.scanPosition = Math.max(this.scanPosition, this.position);
+		long candidate;
+		while(this.prefetched.size() < this.parallelism && (candidate = findCandidate()) >= 0) {
+			final Member member = new Member(candidate);
+			member.future = this.executor.submit(() -> {
+				member.prefetch();
+				return null;
+			});
+			this.prefetched.put(candidate, member);
+		}
+
+		final Member member = this.prefetched.remove(this.position);
+		if(member == null) {
+			if(this.position == 0) {
+				throw new ZipException("Not in GZIP format");
+			}
+			return false; // trailing data
+		}
+		try {
+			member.future.get();
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while inflating");
+		} catch(final ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+		if(!member.validHeader) {
+			if(this.position == 0) {
+				throw new ZipException("Not in GZIP format");
+			}
+			return false; // trailing data
+		}
+		this.current = member;
+		return true;
+	}
+
+	/**
+	 * @return the position of the next member header candidate from the scan position or -1 if there is none
+	 */
+	private long findCandidate() throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+		while(this.scanPosition + 2 < this.size) {
+			buffer.clear();
+			readFully(buffer, this.scanPosition);
+			final byte[] bytes = buffer.array();
+			final int limit = buffer.position() - 2;
+			for(int i = 0; i < limit; i++) {
+				if(bytes[i] == 0x1F && bytes[i + 1] == (byte) 0x8B && bytes[i + 2] == 8) {
+					final long candidate = this.scanPosition + i;
+					this.scanPosition = candidate + 1;
+					return candidate;
+				}
+			}
+			this.scanPosition += limit;
+		}
+		this.scanPosition = this.size;
+		return -1;
+	}
+
+	private int readFully(final ByteBuffer buffer, final long position) throws IOException {
+		while(buffer.hasRemaining() && this.channel.read(buffer, position + buffer.position()) > 0) {
+			// read until the buffer is full or the end of the file
+		}
+		return buffer.position();
+	}
+
+	@Override
+	public void close() throws IOException {
+		for(final Member member: this.prefetched.values()) {
+			member.discard();
+		}
+		this.prefetched.clear();
+		if(this.current != null) {
+			this.current.inflater.end();
+		}
+		this.channel.close();
+	}
+
+	/**
+	 * A gzip member, inflated ahead on a thread of the executor and then read by the reader of the stream. A discarded
+	 * member stops inflating without interrupting its thread, which would close the channel shared by all members.
+	 */
+	private final class Member {
+
+		private final long start;
+		private final Inflater inflater = new Inflater(true);
+		private final CRC32 crc = new CRC32();
+		private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+		private long inputPosition; // the position of the input buffer in the file
+		private boolean validHeader;
+		private final List<byte[]> chunks = new ArrayList<>();
+		private int chunkIndex;
+		private int chunkOffset;
+		private int lastChunkLength;
+		private long end;
+		private Future<?> future;
+		private volatile boolean discarded;
+		private boolean prefetching;
+
+		private Member(final long start) {
+			this.start = start;
+			this.inputPosition = start;
+			this.input.limit(0);
+		}
+
+		/**
+		 * Reads the header and inflates the start of the member. The inflater of a candidate which fails or is discarded
+		 * is ended here if the candidate is being inflated, otherwise by {@link #discard()}.
+		 */
+		private void prefetch() throws IOException {
+			synchronized(this) {
+				if(this.discarded) {
+					return;
+				}
+				this.prefetching = true;
+			}
+			boolean completed = false;
+			try {
+				this.validHeader = readHeader();
+				if(!this.validHeader) {
+					this.inflater.end();
+					return;
+				}
+				long prefetched = 0;
+				while(prefetched < PREFETCH_LIMIT && this.end == 0 && !this.discarded) {
+					final byte[] chunk = new byte[OUTPUT_CHUNK_SIZE];
+					int length = 0;
+					int read;
+					while(length < chunk.length && (read = inflate(chunk, length, chunk.length - length)) >= 0) {
+						length += read;
+					}
+					if(length > 0) {
+						this.chunks.add(chunk);
+						this.lastChunkLength = length;
+						prefetched += length;
+					}
+				}
+				completed = true;
+			} finally {
+				synchronized(this) {
+					this.prefetching = false;
+					if(this.discarded || !completed) {
+						this.inflater.end(); // a failed candidate is never read
+					}
+				}
+			}
+		}
+
+		private synchronized void discard() {
+			this.discarded = true;
+			this.future.cancel(false);
+			if(!this.prefetching) {
+				this.inflater.end();
+			}
+		}
+
+		/**
+		 * @return the number of bytes read, -1 if the member is read completely
+		 */
+		private int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			while(this.chunkIndex < this.chunks.size()) {
+				final byte[] chunk = this.chunks.get(this.chunkIndex);
+				final int chunkLength = this.chunkIndex == this.chunks.size() - 1 ? this.lastChunkLength : chunk.length;
+				if(this.chunkOffset < chunkLength) {
+					final int count = Math.min(length, chunkLength - this.chunkOffset);
+					System.arraycopy(chunk, this.chunkOffset, bytes, offset, count);
+					this.chunkOffset += count;
+					return count;
+				}
+				this.chunks.set(this.chunkIndex++, null);
+				this.chunkOffset = 0;
+			}
+			if(this.end > 0) {
+				return -1;
+			}
+			int read;
+			while((read = inflate(bytes, offset, length)) == 0) {
+				// the inflater needed more input
+			}
+			return read;
+		}
+
+		/**
+		 * @return the number of bytes inflated, possibly 0, or -1 at the end of the member
+		 */
+		private int inflate(final byte[] bytes, final int offset, final int length) throws IOException {
+			if(this.end > 0) {
+				return -1;
+			}
+			try {
+				if(this.inflater.needsInput()) {
+					if(!this.input.hasRemaining()) {
+						fillInput();
+					}
+					this.inflater.setInput(this.input.array(), this.input.position(), this.input.remaining());
+					this.input.position(this.input.limit()); // the input is consumed by the inflater
+				}
+				final int inflated = this.inflater.inflate(bytes, offset, length);
+				this.crc.update(bytes, offset, inflated);
+				if(this.inflater.finished()) {
+					readTrailer();
+				} else if(inflated == 0 && this.inflater.needsDictionary()) {
+					throw new ZipException("Corrupt GZIP member at byte " + this.start);
+				}
+				return inflated;
+			} catch(final DataFormatException e) {
+				throw new ZipException("Corrupt GZIP member at byte " + this.start + ": " + e.getMessage());
+			}
+		}
+
+		private void readTrailer() throws IOException {
+			final long trailer = this.inputPosition + this.input.limit() - this.inflater.getRemaining();
+			final ByteBuffer bytes = ByteBuffer.allocate(8);
+			if(readFully(bytes, trailer) < 8) {
+				throw new EOFException("Unexpected end of the GZIP member at byte " + this.start);
+			}
+			final long crc = (bytes.get(0) & 0xFFL) | (bytes.get(1) & 0xFFL) << 8 | (bytes.get(2) & 0xFFL) << 16 | (bytes.get(3) & 0xFFL) << 24;
+			final long inflatedSize = (bytes.get(4) & 0xFFL) | (bytes.get(5) & 0xFFL) << 8 | (bytes.get(6) & 0xFFL) << 16 | (bytes.get(7) & 0xFFL) << 24;
+			if(crc != this.crc.getValue() || inflatedSize != (this.inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+				throw new ZipException("Corrupt GZIP trailer at byte " + trailer);
+			}
+			this.end = trailer + 8;
+			this.inflater.end();
+		}
+
+		private boolean readHeader() throws IOException {
+			if(readUnsignedByte() != 0x1F || readUnsignedByte() != 0x8B || readUnsignedByte() != 8) {
+				return false;
+			}
+			final int flags = readUnsignedByte();
+			if((flags & FLAG_RESERVED) != 0) {
+				return false;
+			}
+			skipBytes(6); // modification time, extra flags and operating system
+			if((flags & FLAG_EXTRA) != 0) {
+				skipBytes(readUnsignedByte() | readUnsignedByte() << 8);
+			}
+			if((flags & FLAG_NAME) != 0) {
+				while(readUnsignedByte() != 0) {
+					// skip the file name
+				}
+			}
+			if((flags & FLAG_COMMENT) != 0) {
+				while(readUnsignedByte() != 0) {
+					// skip the comment
+				}
+			}
+			if((flags & FLAG_HEADER_CRC) != 0) {
+				skipBytes(2);
+			}
+			return true;
+		}
+
+		private int readUnsignedByte() throws IOException {
+			if(!this.input.hasRemaining()) {
+				fillInput();
+			}
+			return this.input.get() & 0xFF;
+		}
+
+		private void skipBytes(final int count) throws IOException {
+			for(int i = 0; i < count; i++) {
+				readUnsignedByte();
+			}
+		}
+
+		/**
+		 * Reads the next block of the file into the empty input buffer
+		 */
+		private void fillInput() throws IOException {
+			this.inputPosition += this.input.limit();
+			this.input.clear();
+			readFully(this.input, this.inputPosition);
+			this.input.flip();
+			if(!this.input.hasRemaining()) {
+				throw new EOFException("Unexpected end of the GZIP member at byte " + this.start);
+			}
+		}
+	}
+}
@@ -0,0 +1,604 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Recognizes the header lines written by a log4j <code>PatternLayout</code>, like
+ * <code>%d{ISO8601} [%t] %-5p %c - %m%n</code>. The conversion pattern is compiled once into a sequence of steps which
+ * are matched from the start of a line, without any regular expression:
+ * <ul>
+ * <li>the text between two conversions is compared at its position</li>
+ * <li>a date of a fixed width, like the one of <code>%d{ISO8601}</code>, is taken by its length and checked against
+ * the digits and the separators of its date format, any other date ends where the following text starts</li>
+ * <li>the level is compared with the accepted log levels, skipping the padding of its format modifier</li>
+ * <li>the thread, the logger and any other conversion end where the following text starts</li>
+ * <li>the message is the rest of the line</li>
+ * </ul>
+ * The date format of the <code>%d</code> conversion is the date format of the log entries. The conversions after the
+ * message, like <code>%n</code> or <code>%throwable</code>, are not part of the header line. The format is immutable
+ * and can be shared between threads.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public final class PatternLayoutFormat implements HeaderFormat {
+
+	private static final String DATE_FORMAT_ISO8601 = "yyyy-MM-dd HH:mm:ss,SSS";
+	private static final String DATE_FORMAT_ABSOLUTE = "HH:mm:ss,SSS";
+	private static final String DATE_FORMAT_DATE = "dd MMM yyyy HH:mm:ss,SSS";
+
+	private static final String NEW_LINE = "n";
+	private static final List<String> THROWABLES = Arrays.asList("ex", "exception", "throwable", "xEx", "xException", "xThrowable", "rEx", "rException", "rThrowable", "wEx", "wex");
+
+	private static final int STEP_TEXT = 0;
+	private static final int STEP_FIXED = 1;
+	private static final int STEP_DELIMITED = 2;
+	private static final int STEP_LEVEL = 3;
+
+	private static final char MASK_ANY = 0;
+	private static final char MASK_DIGIT = 1;
+
+	private final String layout;
+	private final String dateFormat;
+	private final Step[] steps;
+	private final char[][] levels;
+
+	/**
+	 * @param layout a log4j conversion pattern with a date <code>%d</code>, a level <code>%p</code> and a message
+	 *            <code>%m</code>
+	 * @throws IllegalArgumentException if the layout is invalid or its fields can't be told apart
+	 */
+	public PatternLayoutFormat(final String layout) throws IllegalArgumentException {
+		this.layout = layout;
+		final List<Step> compiled = new ArrayList<>();
+		String compiledDateFormat = null;
+		boolean hasLevel = false;
+		boolean hasMessage = false;
+		final List<Conversion> conversions = tokenize(layout);
+		for(int i = 0; i < conversions.size() && !hasMessage; i++) {
+			final Conversion conversion = conversions.get(i);
+			final String next = i + 1 < conversions.size() ? conversions.get(i + 1).text : null;
+			if(conversion.text != null) {
+				compiled.add(new Step(STEP_TEXT, null, conversion.text.toCharArray(), 0, false, 0));
+			} else if(conversion.field == Field.MESSAGE) {
+				checkEndOfLine(conversions, i + 1);
+				hasMessage = true;
+			} else if(conversion.field == Field.DATE) {
+				if(compiledDateFormat != null) {
+					throw new IllegalArgumentException("The layout must contain a single date: " + layout);
+				}
+				compiledDateFormat = toDateFormat(conversion.option);
+				compiled.add(compileDate(compiledDateFormat, next));
+			} else if(conversion.field == Field.LEVEL) {
+				if(hasLevel) {
+					throw new IllegalArgumentException("The layout must contain a single level: " + layout);
+				}
+				hasLevel = true;
+				compiled.add(new Step(STEP_LEVEL, Field.LEVEL, null, 0, conversion.leftAlign, conversion.minWidth));
+			} else if(NEW_LINE.equals(conversion.name)) {
+				throw new IllegalArgumentException("The message %m must be on the first line of the layout: " + layout);
+			} else {
+				if(next == null) {
+					throw new IllegalArgumentException("The conversion %" + conversion.name + " must be followed by text separating it from the next field: " + layout);
+				}
+				compiled.add(new Step(STEP_DELIMITED, conversion.field, next.toCharArray(), 0, false, 0));
+			}
+		}
+		if(compiledDateFormat == null || !hasLevel || !hasMessage) {
+			throw new IllegalArgumentException("The layout must contain a date %d, a level %p and a message %m: " + layout);
+		}
+		this.dateFormat = compiledDateFormat;
+		this.steps = compiled.toArray(new Step[compiled.size()]);
+		this.levels = toCharArrays(Arrays.asList(LogLevel.values()));
+	}
+
+	private PatternLayoutFormat(final PatternLayoutFormat format, final List<LogLevel> levels) {
+		this.layout = format.layout;
+		this.dateFormat = format.dateFormat;
+		this.steps = format.steps;
+		this.levels = toCharArrays(levels);
+	}
+
+	/**
+	 * @return the conversion pattern of this format
+	 */
+	public String getLayout() {
+		return this.layout;
+	}
+
+	/**
+	 * @return the {@link SimpleDateFormat} pattern of the <code>%d</code> conversion
+	 */
+	public String getDateFormat() {
+		return this.dateFormat;
+	}
+
+	@Override
+	public int findMessageStart(final CharSequence line) {
+		return match(line, null);
+	}
+
+	@Override
+	public boolean findFields(final CharSequence line, final int[] bounds) {
+		Arrays.fill(bounds, -1);
+		final int messageStart = match(line, bounds);
+		if(messageStart < 0) {
+			return false;
+		}
+		setBounds(bounds, Field.MESSAGE, messageStart, line.length());
+		return true;
+	}
+
+	@Override
+	public long parseDate(final String line, final TimestampParser timestampParser) throws ParseException {
+		final int[] bounds = new int[2 * Field.values().length];
+		if(!findFields(line, bounds)) {
+			throw new ParseException("Not a header line of the layout " + this.layout, 0);
+		}
+		return timestampParser.parse(line, bounds[2 * Field.DATE.ordinal()], bounds[2 * Field.DATE.ordinal() + 1]);
+	}
+
+	@Override
+	public HeaderFormat forLevels(final List<LogLevel> levels) {
+		return new PatternLayoutFormat(this, levels);
+	}
+
+	/**
+	 * @param line a line of the log file
+	 * @param bounds the bounds of the fields or null if they are not needed
+	 * @return the index of the message or -1 if the line isn't a header line
+	 */
+	private int match(final CharSequence line, final int[] bounds) {
+		final int end = line.length();
+		int position = 0;
+		for(final Step step: this.steps) {
+			final char[] text = step.text;
+			switch(step.type) {
+				case STEP_TEXT:
+					if(!regionMatches(line, position, end, text)) {
+						return -1;
+					}
+					position += text.length;
+					break;
+				case STEP_FIXED:
+					if(position + text.length > end) {
+						return -1;
+					}
+					for(int i = 0; i < text.length; i++) {
+						if(!matchesMask(text[i], line.charAt(position + i))) {
+							return -1;
+						}
+					}
+					setBounds(bounds, step.field, position, position + text.length);
+					position += text.length;
+					break;
+				case STEP_DELIMITED:
+					int valueEnd = -1;
+					int skip = step.skip;
+					for(int i = position; i + text.length <= end; i++) {
+						if(regionMatches(line, i, end, text) && skip-- == 0) {
+							valueEnd = i;
+							break;
+						}
+					}
+					if(valueEnd < 0 || valueEnd == position && step.field == Field.DATE) {
+						return -1;
+					}
+					if(bounds != null) {
+						int valueStart = position;
+						while(valueStart < valueEnd && line.charAt(valueStart) == ' ') {
+							valueStart++;
+						}
+						int trimmedEnd = valueEnd;
+						while(trimmedEnd > valueStart && line.charAt(trimmedEnd - 1) == ' ') {
+							trimmedEnd--;
+						}
+						setBounds(bounds, step.field, valueStart, trimmedEnd);
+					}
+					position = valueEnd;
+					break;
+				default:
+					int levelStart = position;
+					if(!step.leftAlign) {
+						while(levelStart < end && line.charAt(levelStart) == ' ') {
+							levelStart++;
+						}
+					}
+					final int levelLength = matchLevel(line, position, levelStart, end, step.minWidth);
+					if(levelLength < 0) {
+						return -1;
+					}
+					setBounds(bounds, Field.LEVEL, levelStart, levelStart + levelLength);
+					position = levelStart + levelLength;
+					while(step.leftAlign && position < end && position - levelStart < step.minWidth && line.charAt(position) == ' ') {
+						position++;
+					}
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Does the work of {@link #findMessageStart(CharSequence)} on the bytes of a line. The text between the
+	 * conversions is ASCII, so the line doesn't need to be decoded.
+	 */
+	@Override
+	public int findMessageStart(final byte[] bytes, final int start, final int end) {
+		int position = start;
+		for(final Step step: this.steps) {
+			final char[] text = step.text;
+			switch(step.type) {
+				case STEP_TEXT:
+					if(!regionMatches(bytes, position, end, text)) {
+						return -1;
+					}
+					position += text.length;
+					break;
+				case STEP_FIXED:
+					if(position + text.length > end) {
+						return -1;
+					}
+					for(int i = 0; i < text.length; i++) {
+						if(!matchesMask(text[i], (char) (bytes[position + i] & 0xFF))) {
+							return -1;
+						}
+					}
+					position += text.length;
+					break;
+				case STEP_DELIMITED:
+					int valueEnd = -1;
+					int skip = step.skip;
+					for(int i = position; i + text.length <= end; i++) {
+						if(regionMatches(bytes, i, end, text) && skip-- == 0) {
+							valueEnd = i;
+							break;
+						}
+					}
+					if(valueEnd < 0 || valueEnd == position && step.field == Field.DATE) {
+						return -1;
+					}
+					position = valueEnd;
+					break;
+				default:
+					int levelStart = position;
+					if(!step.leftAlign) {
+						while(levelStart < end && bytes[levelStart] == ' ') {
+							levelStart++;
+						}
+					}
+					final int levelLength = matchLevel(bytes, position, levelStart, end, step.minWidth);
+					if(levelLength < 0) {
+						return -1;
+					}
+					position = levelStart + levelLength;
+					while(step.leftAlign && position < end && position - levelStart < step.minWidth && bytes[position] == ' ') {
+						position++;
+					}
+			}
+		}
+		return position;
+	}
+
+	private static boolean regionMatches(final CharSequence line, final int position, final int end, final char[] text) {
+		if(position + text.length > end) {
+			return false;
+		}
+		for(int i = 0; i < text.length; i++) {
+			if(line.charAt(position + i) != text[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean regionMatches(final byte[] bytes, final int position, final int end, final char[] text) {
+		if(position + text.length > end) {
+			return false;
+		}
+		for(int i = 0; i < text.length; i++) {
+			if(bytes[position + i] != text[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matchesMask(final char mask, final char c) {
+		return mask == MASK_ANY || (mask == MASK_DIGIT ? c >= '0' && c <= '9' : c == mask);
+	}
+
+	/**
+	 * @param fieldStart the start of the level field including its padding
+	 * @param position the start of the level
+	 * @param minWidth the padded width of the field
+	 * @return the length of the accepted log level at the position or -1 if there is none. A level followed by a letter,
+	 *         like the <code>INFO</code> of <code>INFOX</code>, is only accepted where the padded width ends.
+	 */
+	private int matchLevel(final CharSequence line, final int fieldStart, final int position, final int end, final int minWidth) {
+		for(final char[] level: this.levels) {
+			final int levelEnd = position + level.length;
+			if(regionMatches(line, position, end, level) && (levelEnd == end || !isLetter(line.charAt(levelEnd)) || minWidth > 0 && levelEnd - fieldStart >= minWidth)) {
+				return level.length;
+			}
+		}
+		return -1;
+	}
+
+	private int matchLevel(final byte[] bytes, final int fieldStart, final int position, final int end, final int minWidth) {
+		for(final char[] level: this.levels) {
+			final int levelEnd = position + level.length;
+			if(regionMatches(bytes, position, end, level) && (levelEnd == end || !isLetter(bytes[levelEnd] & 0xFF) || minWidth > 0 && levelEnd - fieldStart >= minWidth)) {
+				return level.length;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return true for an ASCII letter and any other than ASCII char, which is taken as a letter as the bytes of a line
+	 *         aren't decoded
+	 */
+	private static boolean isLetter(final int c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= 0x80;
+	}
+
+	private static void setBounds(final int[] bounds, final Field field, final int start, final int end) {
+		if(bounds != null && field != null) {
+			bounds[2 * field.ordinal()] = start;
+			bounds[2 * field.ordinal() + 1] = end;
+		}
+	}
+
+	private static char[][] toCharArrays(final List<LogLevel> levels) {
+		final char[][] names = new char[levels.size()][];
+		for(int i = 0; i < levels.size(); i++) {
+			names[i] = levels.get(i).name().toCharArray();
+		}
+		return names;
+	}
+
+	/**
+	 * Compiles the date into a fixed width step if all sample dates have the same length, otherwise into a step ending
+	 * at the following text, skipping its occurrences within the date
+	 */
+	private Step compileDate(final String format, final String next) {
+		final String[] samples = formatSamples(format);
+		boolean fixedWidth = true;
+		for(final String sample: samples) {
+			fixedWidth &= sample.length() == samples[0].length();
+		}
+		if(fixedWidth) {
+			final char[] mask = new char[samples[0].length()];
+			for(int i = 0; i < mask.length; i++) {
+				boolean digits = true;
+				boolean constant = true;
+				for(final String sample: samples) {
+					digits &= Character.isDigit(sample.charAt(i));
+					constant &= sample.charAt(i) == samples[0].charAt(i);
+				}
+				mask[i] = digits ? MASK_DIGIT : constant ? samples[0].charAt(i) : MASK_ANY;
+			}
+			return new Step(STEP_FIXED, Field.DATE, mask, 0, false, 0);
+		}
+		final int skip = next == null ? -1 : countOccurrences(samples[0], next);
+		for(final String sample: samples) {
+			if(skip < 0 || countOccurrences(sample, next) != skip) {
+				throw new IllegalArgumentException("The date format " + format + " has no fixed width and must be followed by text separating it from the next field: " + this.layout);
+			}
+		}
+		return new Step(STEP_DELIMITED, Field.DATE, next.toCharArray(), skip, false, 0);
+	}
+
+	/**
+	 * @return the sample dates formatted with the given date format, varying every field of the date
+	 */
+	private static String[] formatSamples(final String format) {
+		final SimpleDateFormat dateFormat = new SimpleDateFormat(format);
+		final int[][] dates = { { 2019, Calendar.JANUARY, 1, 1, 2, 3, 4 }, { 2026, Calendar.DECEMBER, 31, 23, 59, 59, 999 }, { 2020, Calendar.OCTOBER, 15, 12, 30, 45, 678 }, { 2023, Calendar.MAY, 7, 9, 8, 7, 60 } };
+		final String[] samples = new String[dates.length];
+		final Calendar calendar = Calendar.getInstance();
+		for(int i = 0; i < dates.length; i++) {
+			calendar.clear();
+			calendar.set(dates[i][0], dates[i][1], dates[i][2], dates[i][3], dates[i][4], dates[i][5]);
+			calendar.set(Calendar.MILLISECOND, dates[i][6]);
+			samples[i] = dateFormat.format(calendar.getTime());
+		}
+		return samples;
+	}
+
+	private static int countOccurrences(final String text, final String part) {
+		int count = 0;
+		for(int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+			count++;
+		}
+		return count;
+	}
+
+	private static String toDateFormat(final String option) {
+		if(option == null || "ISO8601".equals(option)) {
+			return DATE_FORMAT_ISO8601;
+		}
+		if("ABSOLUTE".equals(option)) {
+			return DATE_FORMAT_ABSOLUTE;
+		}
+		if("DATE".equals(option)) {
+			return DATE_FORMAT_DATE;
+		}
+		new SimpleDateFormat(option); // fail early on an invalid pattern
+		return option;
+	}
+
+	/**
+	 * Checks that only white space, throwables and the line separator follow the message on its line
+	 */
+	private void checkEndOfLine(final List<Conversion> conversions, final int start) {
+		for(int i = start; i < conversions.size(); i++) {
+			final Conversion conversion = conversions.get(i);
+			if(NEW_LINE.equals(conversion.name)) {
+				return;
+			}
+			if(conversion.text != null ? !conversion.text.trim().isEmpty() : !THROWABLES.contains(conversion.name)) {
+				throw new IllegalArgumentException("The message %m must be the last field of its line: " + this.layout);
+			}
+		}
+	}
+
+	/**
+	 * Splits the layout into its text and its conversions, <code>%[-][minWidth][.maxWidth]name[{option}]</code>
+	 */
+	private static List<Conversion> tokenize(final String layout) {
+		final List<Conversion> conversions = new ArrayList<>();
+		final StringBuilder text = new StringBuilder();
+		int i = 0;
+		while(i < layout.length()) {
+			final char c = layout.charAt(i++);
+			if(c != '%') {
+				if(c > 0x7F) {
+					throw new IllegalArgumentException("Only ASCII text is supported between the conversions: " + layout);
+				}
+				text.append(c);
+				continue;
+			}
+			if(i < layout.length() && layout.charAt(i) == '%') {
+				text.append('%');
+				i++;
+				continue;
+			}
+			if(text.length() > 0) {
+				conversions.add(new Conversion(text.toString()));
+				text.setLength(0);
+			}
+			final Conversion conversion = new Conversion(null);
+			if(i < layout.length() && layout.charAt(i) == '-') {
+				conversion.leftAlign = true;
+				i++;
+			}
+			while(i < layout.length() && Character.isDigit(layout.charAt(i))) {
+				conversion.minWidth = conversion.minWidth * 10 + layout.charAt(i++) - '0';
+			}
+			if(i < layout.length() && layout.charAt(i) == '.') {
+				i++;
+				while(i < layout.length() && Character.isDigit(layout.charAt(i))) {
+					i++; // the truncation doesn't change where a field ends
+				}
+			}
+			final int nameStart = i;
+			while(i < layout.length() && Character.isLetter(layout.charAt(i))) {
+				i++;
+			}
+			conversion.name = layout.substring(nameStart, i);
+			if(conversion.name.isEmpty()) {
+				throw new IllegalArgumentException("Missing conversion name at index " + nameStart + ": " + layout);
+			}
+			if(i < layout.length() && layout.charAt(i) == '{') {
+				final int optionEnd = layout.indexOf('}', i);
+				if(optionEnd < 0) {
+					throw new IllegalArgumentException("Unterminated option of %" + conversion.name + ": " + layout);
+				}
+				conversion.option = layout.substring(i + 1, optionEnd);
+				i = optionEnd + 1;
+				if(i < layout.length() && layout.charAt(i) == '{') {
+					throw new IllegalArgumentException("Only a single option is supported, e.g. no time zone of a date: " + layout);
+				}
+			}
+			conversion.field = toField(conversion.name);
+			conversions.add(conversion);
+		}
+		if(text.length() > 0) {
+			conversions.add(new Conversion(text.toString()));
+		}
+		return conversions;
+	}
+
+	private static Field toField(final String name) {
+		switch(name) {
+			case "d":
+			case "date":
+				return Field.DATE;
+			case "p":
+			case "le":
+			case "level":
+				return Field.LEVEL;
+			case "t":
+			case "thread":
+				return Field.THREAD;
+			case "c":
+			case "lo":
+			case "logger":
+				return Field.LOGGER;
+			case "m":
+			case "msg":
+			case "message":
+				return Field.MESSAGE;
+			default:
+				return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.layout;
+	}
+
+	/**
+	 * A text or a conversion of the layout
+	 */
+	private static final class Conversion {
+
+		private final String text; // null for a conversion
+		private String name;
+		private String option;
+		private Field field;
+		private boolean leftAlign;
+		private int minWidth;
+
+		private Conversion(final String text) {
+			this.text = text;
+		}
+	}
+
+	/**
+	 * A compiled step of the layout
+	 */
+	private static final class Step {
+
+		private final int type;
+		private final Field field; // null for a conversion which isn't reported
+		private final char[] text; // the text, the mask of a fixed width field or the text ending a delimited field
+		private final int skip; // the occurrences of the ending text within a delimited field
+		private final boolean leftAlign;
+		private final int minWidth;
+
+		private Step(final int type, final Field field, final char[] text, final int skip, final boolean leftAlign, final int minWidth) {
+			this.type = type;
+			this.field = field;
+			this.text = text;
+			this.skip = skip;
+			this.leftAlign = leftAlign;
+			this.minWidth = minWidth;
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts the unique entries in the order of the report. The entries are sorted by their primitive
+ * {@link LogEntry#getSortKey() sort keys}, which are read once per entry, and the sort is stable, so entries with the
+ * same key keep the order of their first occurrence.
+ * <p>
+ * Up to the run size the entries are sorted in memory. Above it they are sorted in runs of the run size, every run is
+ * written to a temp file as compact report records (the sort key, the counts, the dates, the line and a reference to
+ * the body in the {@link BodyStore}) and the runs are merged while the report is written, so only one record per run
+ * is read back at a time. Every entry is released from the given list once it is written to a run or passed to the
+ * consumer, so with the list {@link EntryAggregator#removeEntries() removed} from the aggregator the entries of a
+ * spilled run can be collected before the next run is sorted.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ReportSorter {
+
+	private static final int ESTIMATED_RECORD_SIZE = 256;
+	private static final int MIN_RUN_SIZE = 1024;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final AppArguments appArgs;
+	private final BodyStore bodyStore;
+	private final File tempDir;
+	private final int runSize;
+
+	/**
+	 * @param appArgs the application arguments, the memory budget gives the run size
+	 * @param bodyStore the store of the bodies of the entries
+	 * @param tempDir the directory of the runs or null for the default temp directory
+	 */
+	public ReportSorter(final AppArguments appArgs, final BodyStore bodyStore, final File tempDir) {
+		this.appArgs = appArgs;
+		this.bodyStore = bodyStore;
+		this.tempDir = tempDir;
+		this.runSize = (int) Math.max(MIN_RUN_SIZE, Math.min(Integer.MAX_VALUE - 8, appArgs.getMemoryBudget() / ESTIMATED_RECORD_SIZE));
+	}
+
+	/**
+	 * Passes the entries to the consumer in the order of the report
+	 *
+	 * @param entries the entries in the order of their first occurrence, every element is set to null once it is
+	 *        written or passed to the consumer
+	 * @param consumer the consumer of the sorted entries
+	 * @throws IOException if a run can't be written or read or the consumer fails
+	 */
+	public void sort(final List<LogEntry> entries, final EntryConsumer consumer) throws IOException {
+		if(entries.size() <= this.runSize) {
+			for(final int index: sortedIndexes(entries, 0, entries.size())) {
+				consumer.accept(entries.set(index, null));
+			}
+			return;
+		}
+		final List<File> runFiles = new ArrayList<>();
+		try {
+			for(int start = 0; start < entries.size(); start += this.runSize) {
+				runFiles.add(writeRun(entries, start, Math.min(entries.size(), start + this.runSize)));
+			}
+			mergeRuns(runFiles, consumer);
+		} finally {
+			for(final File runFile: runFiles) {
+				runFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * @param entries the entries in the order of their first occurrence
+	 * @return the entries in the order of the report
+	 */
+	public static List<LogEntry> sortInMemory(final List<LogEntry> entries) {
+		final List<LogEntry> sortedEntries = new ArrayList<>(entries.size());
+		for(final int index: sortedIndexes(entries, 0, entries.size())) {
+			sortedEntries.add(entries.get(index));
+		}
+		return sortedEntries;
+	}
+
+	private File writeRun(final List<LogEntry> entries, final int start, final int end) throws IOException {
+		final File runFile = File.createTempFile("report", ".run", this.tempDir);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFile), BUFFER_SIZE))) {
+			out.writeInt(end - start);
+			for(final int index: sortedIndexes(entries, start, end)) {
+				final LogEntry entry = entries.set(index, null);
+				out.writeLong(entry.getSortKey());
+				entry.writeReportRecord(out, this.bodyStore);
+			}
+		} catch(final IOException | RuntimeException e) {
+			runFile.delete();
+			throw e;
+		}
+		this.appArgs.getStatistics().add(RunStatistics.Counter.TEMP_BYTES_WRITTEN, runFile.length());
+		return runFile;
+	}
+
+	private void mergeRuns(final List<File> runFiles, final EntryConsumer consumer) throws IOException {
+		final List<Run> runs = new ArrayList<>();
+		try {
+			final PriorityQueue<Run> heads = new PriorityQueue<>();
+			for(final File runFile: runFiles) {
+				final Run run = new Run(new DataInputStream(new BufferedInputStream(new FileInputStream(runFile), BUFFER_SIZE)), runs.size());
+				runs.add(run);
+				if(run.advance()) {
+					heads.add(run);
+				}
+			}
+			Run run;
+			while((run = heads.poll()) != null) {
+				consumer.accept(run.entry);
+				if(run.advance()) {
+					heads.add(run);
+				}
+			}
+		} finally {
+			for(final Run run: runs) {
+				run.in.close();
+			}
+		}
+	}
+
+	/**
+	 * @return the indexes of the entries between start and end in the order of their sort keys, stable
+	 */
+	private static int[] sortedIndexes(final List<LogEntry> entries, final int start, final int end) {
+		final int length = end - start;
+		final long[] keys = new long[length];
+		int[] indexes = new int[length];
+		for(int i = 0; i < length; i++) {
+			keys[i] = entries.get(start + i).getSortKey();
+			indexes[i] = i;
+		}
+		// bottom up merge sort of the indexes, comparing the keys only
+		int[] merged = new int[length];
+		for(int width = 1; width < length; width *= 2) {
+			for(int left = 0; left < length; left += 2 * width) {
+				final int middle = Math.min(left + width, length);
+				final int right = Math.min(left + 2 * width, length);
+				int i = left;
+				int j = middle;
+				int k = left;
+				while(i < middle && j < right) {
+					merged[k++] = keys[indexes[j]] < keys[indexes[i]] ? indexes[j++] : indexes[i++];
+				}
+				while(i < middle) {
+					merged[k++] = indexes[i++];
+				}
+				while(j < right) {
+					merged[k++] = indexes[j++];
+				}
+			}
+			final int[] swap = indexes;
+			indexes = merged;
+			merged = swap;
+		}
+		for(int i = 0; i < length; i++) {
+			indexes[i] += start;
+		}
+		return indexes;
+	}
+
+	/**
+	 * Receives the entries of the report in their order
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer {
+
+		void accept(LogEntry entry) throws IOException;
+	}
+
+	/**
+	 * The next record of a sorted run
+	 */
+	private final class Run implements Comparable<Run> {
+
+		private final DataInputStream in;
+		private final int runIndex;
+		private int remaining;
+		private long key;
+		private LogEntry entry;
+
+		private Run(final DataInputStream in, final int runIndex) throws IOException {
+			this.in = in;
+			this.runIndex = runIndex;
+			this.remaining = in.readInt();
+		}
+
+		/**
+		 * @return false at the end of the run
+		 */
+		private boolean advance() throws IOException {
+			if(this.remaining == 0) {
+				this.entry = null;
+				return false;
+			}
+			this.remaining--;
+			this.key = this.in.readLong();
+			this.entry = LogEntry.readReportRecord(this.in, ReportSorter.this.appArgs, ReportSorter.this.bodyStore);
+			return true;
+		}
+
+		@Override
+		public int compareTo(final Run other) {
+			final int order = Long.compare(this.key, other.key);
+			return order != 0 ? order : Integer.compare(this.runIndex, other.runIndex);
+		}
+	}
+}
@@ -0,0 +1,268 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and per-stage timers of a run, enabled with the <code>--stats</code> option. The counters are
+ * {@link LongAdder}s, so the reader threads of a chunked or combined run update them without contention. The per-line
+ * counters are kept by each reader and added when the reader is closed, the time of the per-line filter stage is
+ * measured on every {@value #FILTER_SAMPLE_INTERVAL}th line only and scaled, so the statistics cost next to nothing
+ * even when enabled.
+ * <p>
+ * The disabled instance {@link #DISABLED} ignores all updates and never reads the clock.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class RunStatistics {
+
+	/** the lines of the filter stage timed, a power of two */
+	public static final int FILTER_SAMPLE_INTERVAL = 64;
+
+	public static final RunStatistics DISABLED = new RunStatistics(false);
+
+	public enum Counter {
+		BYTES_READ("bytesRead"),
+		LINES_READ("linesRead"),
+		HEADER_LINES("headerLines"),
+		CANDIDATE_LINES("candidateLines"),
+		MATCHED_ENTRIES("matchedEntries"),
+		DUPLICATE_ENTRIES("duplicateEntries"),
+		BODY_LINES("bodyLines"),
+		BODY_BYTES_STORED("bodyBytesStored"),
+		TEMP_BYTES_WRITTEN("tempBytesWritten"),
+		OUTPUT_BYTES("outputBytes"),
+		UNIQUE_ENTRIES("uniqueEntries");
+
+		private final String key;
+
+		Counter(final String key) {
+			this.key = key;
+		}
+	}
+
+	public enum Stage {
+		/** reading the input, including the inflation of a compressed input */
+		READ("read"),
+		/** checking the lines against the levels and the pattern, estimated from the sampled lines */
+		FILTER("filter"),
+		/** parsing the dates of the matching entries and their duplicates */
+		DATE_PARSING("dateParsing"),
+		/** hashing or classifying the messages of the matching entries */
+		HASHING("hashing"),
+		/** reading, decoding and hashing the bodies of the matching entries */
+		BODY("body"),
+		/** storing the bodies of the unique entries, in memory or spilled to the temp directory */
+		BODY_STORE("bodyStore"),
+		/** merging the entries into the unique entries of the input */
+		MERGE("merge"),
+		/** sorting and writing the report */
+		REPORT("report"),
+		/** writing the output on the output thread */
+		OUTPUT("output");
+
+		private final String key;
+
+		Stage(final String key) {
+			this.key = key;
+		}
+	}
+
+	public enum Peak {
+		READER_MAP_SIZE("readerMapSize"),
+		AGGREGATOR_SIZE("aggregatorSize");
+
+		private final String key;
+
+		Peak(final String key) {
+			this.key = key;
+		}
+	}
+
+	private final boolean enabled;
+	private final long startNanos = System.nanoTime();
+	private final LongAdder[] counters = new LongAdder[Counter.values().length];
+	private final LongAdder[] stageNanos = new LongAdder[Stage.values().length];
+	private final LongAdder[] stageCalls = new LongAdder[Stage.values().length];
+	private final LongAccumulator[] peaks = new LongAccumulator[Peak.values().length];
+	private volatile long elapsedNanos = -1;
+
+	public RunStatistics() {
+		this(true);
+	}
+
+	private RunStatistics(final boolean enabled) {
+		this.enabled = enabled;
+		for(int i = 0; i < this.counters.length; i++) {
+			this.counters[i] = new LongAdder();
+		}
+		for(int i = 0; i < this.stageNanos.length; i++) {
+			this.stageNanos[i] = new LongAdder();
+			this.stageCalls[i] = new LongAdder();
+		}
+		for(int i = 0; i < this.peaks.length; i++) {
+			this.peaks[i] = new LongAccumulator(Math::max, 0);
+		}
+	}
+
+	/**
+	 * @return false for the disabled instance
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void add(final Counter counter, final long value) {
+		if(this.enabled) {
+			this.counters[counter.ordinal()].add(value);
+		}
+	}
+
+	public void increment(final Counter counter) {
+		if(this.enabled) {
+			this.counters[counter.ordinal()].increment();
+		}
+	}
+
+	/**
+	 * @return the start time for {@link #stopTimer(Stage, long)}, 0 if disabled
+	 */
+	public long startTimer() {
+		return this.enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @param start the value returned by {@link #startTimer()}
+	 */
+	public void stopTimer(final Stage stage, final long start) {
+		stopTimer(stage, start, 1);
+	}
+
+	/**
+	 * @param stage the stage
+	 * @param start the value returned by {@link #startTimer()}
+	 * @param weight the number of calls the measured one stands for
+	 */
+	public void stopTimer(final Stage stage, final long start, final int weight) {
+		if(this.enabled) {
+			this.stageNanos[stage.ordinal()].add((System.nanoTime() - start) * weight);
+			this.stageCalls[stage.ordinal()].add(weight);
+		}
+	}
+
+	public void updatePeak(final Peak peak, final long value) {
+		if(this.enabled) {
+			this.peaks[peak.ordinal()].accumulate(value);
+		}
+	}
+
+	/**
+	 * Stops the clock of the whole run
+	 */
+	public void finish() {
+		this.elapsedNanos = System.nanoTime() - this.startNanos;
+	}
+
+	public long get(final Counter counter) {
+		return this.counters[counter.ordinal()].sum();
+	}
+
+	public long getNanos(final Stage stage) {
+		return this.stageNanos[stage.ordinal()].sum();
+	}
+
+	public long getPeak(final Peak peak) {
+		return this.peaks[peak.ordinal()].get();
+	}
+
+	private long getElapsedNanos() {
+		return this.elapsedNanos >= 0 ? this.elapsedNanos : System.nanoTime() - this.startNanos;
+	}
+
+	/**
+	 * @return the statistics as readable lines
+	 */
+	public String toSummary() {
+		final StringBuilder summary = new StringBuilder();
+		final double seconds = getElapsedNanos() / 1e9;
+		summary.append(String.format(Locale.ROOT, "Elapsed: %.3f s, read %.1f MB/s, %.0f lines/s%n", seconds, get(Counter.BYTES_READ) / 1e6 / seconds, get(Counter.LINES_READ) / seconds));
+		for(final Counter counter: Counter.values()) {
+			summary.append(String.format(Locale.ROOT, "  %-18s %,d%n", counter.key, get(counter)));
+		}
+		summary.append("Stages (time summed over all threads):").append(System.lineSeparator());
+		for(final Stage stage: Stage.values()) {
+			summary.append(String.format(Locale.ROOT, "  %-18s %,12.1f ms %,14d calls%n", stage.key, getNanos(stage) / 1e6, this.stageCalls[stage.ordinal()].sum()));
+		}
+		summary.append("Peaks:").append(System.lineSeparator());
+		for(final Peak peak: Peak.values()) {
+			summary.append(String.format(Locale.ROOT, "  %-18s %,d%n", peak.key, getPeak(peak)));
+		}
+		return summary.toString().trim();
+	}
+
+	/**
+	 * @return the statistics as a JSON object
+	 */
+	public String toJson() {
+		final StringBuilder json = new StringBuilder("{\n");
+		json.append("  \"elapsedMillis\": ").append(getElapsedNanos() / 1000000).append(",\n");
+		json.append("  \"counters\": {");
+		final Counter[] counterValues = Counter.values();
+		for(int i = 0; i < counterValues.length; i++) {
+			json.append(i == 0 ? "\n" : ",\n").append("    \"").append(counterValues[i].key).append("\": ").append(get(counterValues[i]));
+		}
+		json.append("\n  },\n  \"stages\": {");
+		final Stage[] stageValues = Stage.values();
+		for(int i = 0; i < stageValues.length; i++) {
+			json.append(i == 0 ? "\n" : ",\n").append("    \"").append(stageValues[i].key).append("\": { \"millis\": ")
+			        .append(String.format(Locale.ROOT, "%.3f", getNanos(stageValues[i]) / 1e6)).append(", \"calls\": ").append(this.stageCalls[i].sum()).append(" }");
+		}
+		json.append("\n  },\n  \"peaks\": {");
+		final Peak[] peakValues = Peak.values();
+		for(int i = 0; i < peakValues.length; i++) {
+			json.append(i == 0 ? "\n" : ",\n").append("    \"").append(peakValues[i].key).append("\": ").append(getPeak(peakValues[i]));
+		}
+		return json.append("\n  }\n}\n").toString();
+	}
+
+	/**
+	 * @param file the file to write the JSON object to
+	 * @throws IOException if the file can't be written
+	 */
+	public void writeJson(final File file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(toJson());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.enabled ? "enabled" : "disabled";
+	}
+}
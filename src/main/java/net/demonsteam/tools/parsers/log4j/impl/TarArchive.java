@@ -0,0 +1,427 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists and reads the files of a tar archive, usually a compressed one. The archive has no index, so listing the files
+ * reads the whole archive once. After that the archive is read once more from a single stream and never again: the
+ * files are read from it in the order of the archive. A file which is passed on the way to the next one, or which is
+ * still read when the next one is opened, is copied to a temp file and read from there, so the files can be read in any
+ * order and at the same time.
+ * <p>
+ * The ustar format is supported with the GNU and pax extensions for long file names.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TarArchive implements Closeable {
+
+	private static final int BLOCK_SIZE = 512;
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private final StreamOpener opener;
+	private final File tempDir;
+	private final RunStatistics statistics;
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<Long, File> spilledFiles = new HashMap<>(); // by the offset of the file in the archive
+	private InputStream sharedStream;
+	private long sharedPosition;
+	private EntryInputStream current; // the file read from the shared stream
+
+	/**
+	 * @param opener opens a new stream of the uncompressed archive
+	 * @param tempDir the directory of the files copied out of the shared stream, null for the default temp directory
+	 * @param statistics the statistics counting the bytes of the copied files
+	 */
+	public TarArchive(final StreamOpener opener, final File tempDir, final RunStatistics statistics) {
+		this.opener = opener;
+		this.tempDir = tempDir;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * @return the regular files of the archive in the order of the archive
+	 * @throws IOException if the archive can't be read
+	 */
+	public synchronized List<Entry> list() throws IOException {
+		this.entries.clear();
+		try (InputStream in = this.opener.open()) {
+			final byte[] header = new byte[BLOCK_SIZE];
+			long position = 0;
+			String longName = null;
+			while(readBlock(in, header)) {
+				position += BLOCK_SIZE;
+				if(isZeroBlock(header)) {
+					break;
+				}
+				final long size = parseSize(header);
+				final char type = (char) header[156];
+				String name = longName != null ? longName : parseName(header);
+				longName = null;
+				if(type == 'L' || type == 'x') {
+					final byte[] data = new byte[(int) size];
+					readFully(in, data);
+					longName = type == 'L' ? trimName(data, 0, data.length) : parsePaxPath(data);
+				} else {
+					if(type == '0' || type == '\0' || type == '7') {
+						if(name.startsWith("./")) {
+							name = name.substring(2);
+						}
+						this.entries.add(new Entry(name, position, size));
+					}
+					skipFully(in, size);
+				}
+				final long padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+				skipFully(in, padding);
+				position += size + padding;
+			}
+		}
+		return new ArrayList<>(this.entries);
+	}
+
+	/**
+	 * Opens a file listed by {@link #list()}. Every file can be opened once.
+	 *
+	 * @param entry a file of the archive
+	 * @return the content of the file
+	 * @throws IOException if the archive can't be read or the file was opened already
+	 */
+	public synchronized InputStream open(final Entry entry) throws IOException {
+		final File spilledFile = this.spilledFiles.remove(entry.offset);
+		if(spilledFile != null) {
+			return new EntryInputStream(new FileInputStream(spilledFile), entry.size, spilledFile);
+		}
+		if(this.current != null) {
+			this.current.spill(); // the file read so far is read on from a temp file
+		}
+		if(entry.offset < this.sharedPosition) {
+			throw new IOException("The file " + entry.name + " of the tar archive was read already");
+		}
+		if(this.sharedStream == null) {
+			this.sharedStream = this.opener.open();
+		}
+		// the files passed on the way are kept for their later reading
+		for(final Entry passed: this.entries) {
+			if(passed.offset >= this.sharedPosition && passed.offset < entry.offset) {
+				skipFully(this.sharedStream, passed.offset - this.sharedPosition);
+				this.spilledFiles.put(passed.offset, spill(this.sharedStream, passed.size));
+				this.sharedPosition = passed.offset + passed.size;
+			}
+		}
+		skipFully(this.sharedStream, entry.offset - this.sharedPosition);
+		this.sharedPosition = entry.offset;
+		this.current = new EntryInputStream(this.sharedStream, entry.size, null);
+		return this.current;
+	}
+
+	/**
+	 * Closes the shared stream and deletes the copied files which were not read
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		for(final File spilledFile: this.spilledFiles.values()) {
+			spilledFile.delete();
+		}
+		this.spilledFiles.clear();
+		if(this.sharedStream != null) {
+			this.sharedStream.close();
+			this.sharedStream = null;
+		}
+	}
+
+	/**
+	 * @return a temp file with the next bytes of the shared stream
+	 */
+	private File spill(final InputStream in, final long length) throws IOException {
+		final File file = File.createTempFile("tar", ".part", this.tempDir);
+		try (OutputStream out = new FileOutputStream(file)) {
+			final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+			long remaining = length;
+			while(remaining > 0) {
+				final int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if(read < 0) {
+					throw new EOFException("Unexpected end of the tar archive");
+				}
+				out.write(buffer, 0, read);
+				remaining -= read;
+			}
+		} catch(final IOException e) {
+			file.delete();
+			throw e;
+		}
+		this.statistics.add(RunStatistics.Counter.TEMP_BYTES_WRITTEN, length);
+		return file;
+	}
+
+	private static boolean readBlock(final InputStream in, final byte[] block) throws IOException {
+		int length = 0;
+		int read;
+		while(length < block.length && (read = in.read(block, length, block.length - length)) > 0) {
+			length += read;
+		}
+		if(length > 0 && length < block.length) {
+			throw new EOFException("Unexpected end of the tar archive");
+		}
+		return length == block.length;
+	}
+
+	private static void readFully(final InputStream in, final byte[] bytes) throws IOException {
+		if(bytes.length > 0 && !readBlock(in, bytes)) {
+			throw new EOFException("Unexpected end of the tar archive");
+		}
+	}
+
+	private static void skipFully(final InputStream in, final long count) throws IOException {
+		long skipped = 0;
+		while(skipped < count) {
+			final long n = in.skip(count - skipped);
+			if(n <= 0) {
+				if(in.read() < 0) {
+					throw new EOFException("Unexpected end of the tar archive");
+				}
+				skipped++;
+			} else {
+				skipped += n;
+			}
+		}
+	}
+
+	private static boolean isZeroBlock(final byte[] block) {
+		for(final byte b: block) {
+			if(b != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String parseName(final byte[] header) {
+		final String name = trimName(header, 0, 100);
+		if(new String(header, 257, 5, StandardCharsets.US_ASCII).equals("ustar")) {
+			final String prefix = trimName(header, 345, 155);
+			if(!prefix.isEmpty()) {
+				return prefix + "/" + name;
+			}
+		}
+		return name;
+	}
+
+	private static String trimName(final byte[] bytes, final int offset, final int length) {
+		int end = offset;
+		while(end < offset + length && bytes[end] != 0) {
+			end++;
+		}
+		return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	private static long parseSize(final byte[] header) throws IOException {
+		if((header[124] & 0x80) != 0) {
+			long size = 0; // base-256 encoding of large sizes
+			for(int i = 125; i < 136; i++) {
+				size = size << 8 | header[i] & 0xFF;
+			}
+			return size;
+		}
+		long size = 0;
+		for(int i = 124; i < 136; i++) {
+			final byte b = header[i];
+			if(b >= '0' && b <= '7') {
+				size = size * 8 + b - '0';
+			} else if(b != ' ' && b != 0) {
+				throw new IOException("Invalid size in the tar header: " + trimName(header, 124, 12));
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return the path of the pax extended header records, null if there is none
+	 */
+	private static String parsePaxPath(final byte[] data) {
+		int position = 0;
+		while(position < data.length) {
+			int space = position;
+			while(space < data.length && data[space] != ' ') {
+				space++;
+			}
+			final int length;
+			try {
+				length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.US_ASCII));
+			} catch(final NumberFormatException e) {
+				return null;
+			}
+			if(length <= 0 || position + length > data.length) {
+				return null;
+			}
+			final String record = new String(data, space + 1, position + length - space - 2, StandardCharsets.UTF_8); // without the line feed
+			if(record.startsWith("path=")) {
+				return record.substring(5);
+			}
+			position += length;
+		}
+		return null;
+	}
+
+	/**
+	 * Opens a new stream of the uncompressed archive
+	 */
+	@FunctionalInterface
+	public interface StreamOpener {
+
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * A regular file of the archive
+	 */
+	public static class Entry {
+
+		private final String name;
+		private final long offset;
+		private final long size;
+
+		private Entry(final String name, final long offset, final long size) {
+			this.name = name;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		/**
+		 * @return the path of the file within the archive
+		 */
+		public String getName() {
+			return this.name;
+		}
+	}
+
+	/**
+	 * Reads the content of a single file of the archive, from the shared stream until the next file is opened and from
+	 * a temp file after that
+	 */
+	private final class EntryInputStream extends FilterInputStream {
+
+		private final long end;
+		private File spilledFile;
+		private long remaining;
+		private boolean closed;
+
+		/**
+		 * @param spilledFile the temp file the content is read from or null if it is read from the shared stream
+		 */
+		private EntryInputStream(final InputStream in, final long size, final File spilledFile) {
+			super(in);
+			this.end = TarArchive.this.sharedPosition + size;
+			this.remaining = size;
+			this.spilledFile = spilledFile;
+		}
+
+		/**
+		 * Copies the unread rest of the file out of the shared stream, called while the archive is locked
+		 */
+		private void spill() throws IOException {
+			this.spilledFile = TarArchive.this.spill(this.in, this.remaining);
+			this.in = new FileInputStream(this.spilledFile);
+			TarArchive.this.sharedPosition = this.end;
+			TarArchive.this.current = null;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) > 0 ? b[0] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+			// once the file is read from a temp file it is never read from the shared stream again
+			synchronized(TarArchive.this) {
+				if(this.spilledFile == null) {
+					return readAvailable(bytes, offset, length);
+				}
+			}
+			return readAvailable(bytes, offset, length);
+		}
+
+		private int readAvailable(final byte[] bytes, final int offset, final int length) throws IOException {
+			if(this.remaining <= 0) {
+				return -1;
+			}
+			final int count = this.in.read(bytes, offset, (int) Math.min(length, this.remaining));
+			if(count > 0) {
+				this.remaining -= count;
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			synchronized(TarArchive.this) {
+				final long skipped = this.in.skip(Math.min(n, this.remaining));
+				this.remaining -= skipped;
+				return skipped;
+			}
+		}
+
+		@Override
+		public int available() throws IOException {
+			synchronized(TarArchive.this) {
+				return (int) Math.min(this.in.available(), this.remaining);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized(TarArchive.this) {
+				if(this.closed) {
+					return;
+				}
+				this.closed = true;
+				if(this.spilledFile == null) {
+					// the reading may have been stopped early, the shared stream moves on to the end of the file
+					skipFully(this.in, this.remaining);
+					TarArchive.this.sharedPosition = this.end;
+					TarArchive.this.current = null;
+				} else {
+					this.in.close();
+					this.spilledFile.delete();
+				}
+			}
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clusters log messages into templates in the style of the Drain algorithm. A message is split into tokens at
+ * whitespace and every token which looks like a variable (it contains a digit or is a long hexadecimal value) is masked
+ * with {@link #WILDCARD}. The masked tokens are looked up in a prefix tree of fixed depth: the first level is the
+ * number of tokens, the next levels are the first tokens of the message. The leaf holds the templates of similar
+ * messages and the message joins the most similar one, or starts a new template if none is similar enough. The
+ * positions where a message differs from its template become wildcards of the template.
+ * <p>
+ * Classifying a message costs a pass over its tokens and a comparison with the few templates of one leaf. The memory
+ * grows with the number of templates, not with the number of distinct messages. The miner can be shared between
+ * threads, the templates depend on the order the messages are classified in.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TemplateMiner {
+
+	public static final String WILDCARD = "<*>";
+
+	private static final int DEPTH = 4; // the length level, the prefix levels and the leaf
+	private static final int MAX_CHILDREN = 100;
+	private static final double SIMILARITY_THRESHOLD = 0.4;
+	private static final int MIN_HEX_LENGTH = 8;
+
+	private final Map<Integer, Node> lengthNodes = new HashMap<>();
+	private int templateCount;
+
+	/**
+	 * @param message the text to classify
+	 * @param start the index of the first character of the message
+	 * @param end the index after the last character of the message
+	 * @return the template the message belongs to
+	 */
+	public synchronized Template classify(final CharSequence message, final int start, final int end) {
+		final String[] tokens = tokenize(message, start, end);
+		Node node = this.lengthNodes.get(tokens.length);
+		if(node == null) {
+			node = new Node();
+			this.lengthNodes.put(tokens.length, node);
+		}
+		for(int i = 0; i < Math.min(DEPTH - 2, tokens.length); i++) {
+			Node child = node.children.get(tokens[i]);
+			if(child == null) {
+				// a full node sends the unknown tokens to its wildcard child, one slot is kept free for it
+				final boolean full = node.children.size() + (node.children.containsKey(WILDCARD) ? 0 : 1) >= MAX_CHILDREN;
+				final String key = full ? WILDCARD : tokens[i];
+				child = node.children.get(key);
+				if(child == null) {
+					child = new Node();
+					node.children.put(key, child);
+				}
+			}
+			node = child;
+		}
+
+		Template best = null;
+		double bestSimilarity = -1;
+		int bestWildcards = -1;
+		for(final Template template: node.templates) {
+			int equal = 0;
+			int wildcards = 0;
+			for(int i = 0; i < tokens.length; i++) {
+				if(template.tokens[i] == WILDCARD) {
+					wildcards++;
+				} else if(template.tokens[i].equals(tokens[i])) {
+					equal++;
+				}
+			}
+			final double similarity = tokens.length == 0 ? 1 : (double) equal / tokens.length;
+			if(similarity > bestSimilarity || similarity == bestSimilarity && wildcards > bestWildcards) {
+				best = template;
+				bestSimilarity = similarity;
+				bestWildcards = wildcards;
+			}
+		}
+		if(best == null || bestSimilarity < SIMILARITY_THRESHOLD) {
+			best = new Template(tokens);
+			node.templates.add(best);
+			this.templateCount++;
+			return best;
+		}
+		for(int i = 0; i < tokens.length; i++) {
+			if(best.tokens[i] != WILDCARD && !best.tokens[i].equals(tokens[i])) {
+				best.tokens[i] = WILDCARD;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the number of templates found so far
+	 */
+	public synchronized int size() {
+		return this.templateCount;
+	}
+
+	private static String[] tokenize(final CharSequence message, final int start, final int end) {
+		final List<String> tokens = new ArrayList<>();
+		int tokenStart = -1;
+		boolean variable = false;
+		for(int i = start; i <= end; i++) {
+			final char c = i < end ? message.charAt(i) : ' ';
+			if(c <= ' ') {
+				if(tokenStart >= 0) {
+					tokens.add(variable || isHexValue(message, tokenStart, i) ? WILDCARD : message.subSequence(tokenStart, i).toString());
+					tokenStart = -1;
+				}
+			} else {
+				if(tokenStart < 0) {
+					tokenStart = i;
+					variable = false;
+				}
+				variable |= c >= '0' && c <= '9';
+			}
+		}
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	private static boolean isHexValue(final CharSequence message, final int start, final int end) {
+		if(end - start < MIN_HEX_LENGTH) {
+			return false;
+		}
+		for(int i = start; i < end; i++) {
+			final char c = message.charAt(i);
+			if(!(c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == '-')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A group of similar messages. The id is fixed when the template is created, the text gets more wildcards while
+	 * messages join the template.
+	 */
+	public final class Template {
+
+		private final long id;
+		private final String[] tokens;
+
+		private Template(final String[] tokens) {
+			this.tokens = tokens;
+			this.id = XxHash64.hash(String.join(" ", tokens));
+		}
+
+		/**
+		 * @return the id of the template
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * @return the text of the template with {@link TemplateMiner#WILDCARD} for the variable tokens
+		 */
+		public String getText() {
+			synchronized(TemplateMiner.this) {
+				return String.join(" ", this.tokens);
+			}
+		}
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+		private final List<Template> templates = new ArrayList<>(1);
+	}
+}
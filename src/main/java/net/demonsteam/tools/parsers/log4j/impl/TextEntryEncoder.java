@@ -0,0 +1,56 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+
+/**
+ * Writes the entries as they are in the log file, the unique entries preceded by a line with their statistics and the
+ * report by its summary
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TextEntryEncoder extends EntryEncoder {
+
+	public TextEntryEncoder(final AsyncBatchWriter writer, final boolean timelines) {
+		super(writer, timelines);
+	}
+
+	@Override
+	public boolean isText() {
+		return true;
+	}
+
+	@Override
+	public void writeSummary(final String summary) throws IOException {
+		LogLevel.INFO.println(this.writer, "%s", summary);
+	}
+
+	@Override
+	public void writeEntry(final LogEntry entry) throws IOException {
+		entry.writeLogEntryData(this.writer);
+	}
+
+	@Override
+	public void writeGroup(final LogEntry entry) throws IOException {
+		LogLevel.INFO.println(this.writer, entry.formatStats(this.reportBuckets)); // write stats
+		entry.writeLogEntryData(this.writer);
+	}
+}
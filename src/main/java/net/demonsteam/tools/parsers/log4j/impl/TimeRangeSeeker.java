@@ -0,0 +1,430 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Finds the part of a plain text log file written in a time window without reading the whole file. The log entries of
+ * a file are expected in the order of their dates, so the first entry of the window is found by a binary search over
+ * the byte positions: a probe position is moved to the next log entry start and the date of the entry decides in
+ * which half the search continues. Only the last few hundred KB are scanned line by line.
+ * <p>
+ * A sparse index in a sidecar file (<code>&lt;file&gt;.tidx</code>) records the position, the date and the line
+ * number of the first entry after every {@value #POINT_INTERVAL} bytes. With the index the search is a lookup and a
+ * short scan, and the line numbers of the entries are known. The index is created or extended on request and used
+ * whenever it is valid for the file, a file whose head changed is indexed again.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TimeRangeSeeker implements Closeable {
+
+	private static final int MAGIC = 0x4C34_5449;
+	private static final int VERSION = 1;
+	private static final long POINT_INTERVAL = 4L * 1024 * 1024;
+	private static final long LINEAR_SCAN_SIZE = 256 * 1024;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_HEADER_LENGTH = 4 * 1024; // enough bytes of a line to parse the date of a log entry
+	private static final int HEAD_LENGTH = 4096;
+
+	private final File file;
+	private final FileChannel channel;
+	private final HeaderFormat headerFormat;
+	private final TimestampParser timestampParser;
+	private final Charset charset;
+	private final long size;
+	private SparseIndex index;
+
+	/**
+	 * @param file the plain text file
+	 * @param headerFormat the format of the header lines
+	 * @param timestampParser the parser for the dates of the log entries
+	 * @param charset the ASCII compatible charset of the file
+	 * @param updateIndex true to create or extend the sidecar index, otherwise it is only used if it is valid
+	 * @throws IOException
+	 */
+	public TimeRangeSeeker(final File file, final HeaderFormat headerFormat, final TimestampParser timestampParser, final Charset charset, final boolean updateIndex) throws IOException {
+		this.file = file;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.headerFormat = headerFormat;
+		this.timestampParser = timestampParser;
+		this.charset = charset;
+		this.size = this.channel.size();
+		final File indexFile = getIndexFile();
+		this.index = indexFile.isFile() ? loadIndex(indexFile) : null;
+		if(this.index != null && (this.index.indexedSize > this.size || this.index.headHash != hashHead())) {
+			this.index = null; // rotated or replaced
+		}
+		if(updateIndex && (this.index == null || this.index.indexedSize < this.size)) {
+			updateIndex();
+			if(indexFile.getAbsoluteFile().getParentFile().canWrite()) {
+				saveIndex(indexFile);
+			} else {
+				LogLevel.WARN.printlnToConsole("Cannot write the index %s, it is used for this run only", indexFile);
+			}
+		}
+	}
+
+	/**
+	 * @param fromMillis the first date of the window or {@link Long#MIN_VALUE}
+	 * @param toMillis the last date of the window or {@link Long#MAX_VALUE}
+	 * @return the part of the file holding the log entries of the window
+	 * @throws IOException
+	 */
+	public Range seek(final long fromMillis, final long toMillis) throws IOException {
+		final Header start = fromMillis == Long.MIN_VALUE ? new Header(0, 0, 0) : findFirst(fromMillis, 0);
+		if(start == null) {
+			return new Range(this.size, this.size, -1);
+		}
+		final Header end = toMillis == Long.MAX_VALUE ? null : findFirst(toMillis + 1, start.position);
+		return new Range(start.position, end == null ? this.size : end.position, start.lineNumber);
+	}
+
+	/**
+	 * @return true if the line numbers of the sought positions are known
+	 */
+	public boolean isIndexed() {
+		return this.index != null;
+	}
+
+	/**
+	 * @return the first log entry at or after the given position dated at or after the given date, its line number is
+	 *         only known if the file is indexed
+	 */
+	private Header findFirst(final long millis, final long from) throws IOException {
+		if(this.index != null) {
+			// start at the last index point before the date, so the line numbers can be counted from there
+			int point = -1;
+			while(point + 1 < this.index.size && (this.index.timestamps[point + 1] < millis || this.index.positions[point + 1] <= from)) {
+				point++;
+			}
+			return point < 0 ? scan(0, 0, millis, from) : scan(this.index.positions[point], this.index.lineNumbers[point], millis, from);
+		}
+		long low = from;
+		long high = this.size;
+		while(high - low > LINEAR_SCAN_SIZE) {
+			final long middle = low + (high - low) / 2;
+			final Header header = new LineScanner(middle, 0).nextHeader(high);
+			if(header == null || header.timestamp >= millis) {
+				high = middle;
+			} else {
+				low = header.position + 1;
+			}
+		}
+		final Header header = scan(low, 0, millis, from);
+		return header == null ? null : new Header(header.position, header.timestamp, -1);
+	}
+
+	/**
+	 * @return the first log entry at or after the position 'from' dated at or after the given date, scanning from the
+	 *         given position with the given line number
+	 */
+	private Header scan(final long position, final long lineNumber, final long millis, final long from) throws IOException {
+		final LineScanner scanner = new LineScanner(position, lineNumber);
+		Header header;
+		while((header = scanner.nextHeader(this.size)) != null) {
+			if(header.position >= from && header.timestamp >= millis) {
+				return header;
+			}
+		}
+		return null;
+	}
+
+	private void updateIndex() throws IOException {
+		final SparseIndex updated = this.index != null ? this.index : new SparseIndex(hashHead());
+		final LineScanner scanner = new LineScanner(updated.indexedSize, updated.indexedLines);
+		long nextPoint = updated.size == 0 ? 0 : (updated.positions[updated.size - 1] / POINT_INTERVAL + 1) * POINT_INTERVAL;
+		while(scanner.position < this.size) {
+			if(scanner.position >= nextPoint && scanner.atLineStart()) {
+				final Header header = scanner.nextHeader(this.size);
+				if(header == null) {
+					break;
+				}
+				updated.add(header);
+				nextPoint = (header.position / POINT_INTERVAL + 1) * POINT_INTERVAL;
+			} else if(!scanner.skipLine(this.size)) {
+				break;
+			}
+		}
+		// the last line may still be written, it is counted by the next update
+		updated.indexedSize = scanner.lastLineStart;
+		updated.indexedLines = scanner.lastLineNumber;
+		this.index = updated;
+	}
+
+	private long hashHead() throws IOException {
+		final ByteBuffer head = ByteBuffer.allocate((int) Math.min(HEAD_LENGTH, this.size));
+		while(head.hasRemaining() && this.channel.read(head, head.position()) > 0) {
+			// read the whole head
+		}
+		final XxHash64 hash = new XxHash64();
+		for(int i = 0; i < head.position(); i++) {
+			hash.update((char) (head.get(i) & 0xFF));
+		}
+		return hash.digest();
+	}
+
+	private File getIndexFile() {
+		return new File(this.file.getPath() + ".tidx");
+	}
+
+	private static SparseIndex loadIndex(final File indexFile) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			final SparseIndex index = new SparseIndex(in.readLong());
+			index.indexedSize = in.readLong();
+			index.indexedLines = in.readLong();
+			final int size = in.readInt();
+			for(int i = 0; i < size; i++) {
+				index.add(new Header(in.readLong(), in.readLong(), in.readLong()));
+			}
+			return index;
+		} catch(final IOException e) {
+			LogLevel.WARN.printlnToConsole("Cannot read the index %s, it is created again: %s", indexFile, e.getMessage());
+			return null;
+		}
+	}
+
+	private void saveIndex(final File indexFile) throws IOException {
+		final File tmpFile = new File(indexFile.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(this.index.headHash);
+			out.writeLong(this.index.indexedSize);
+			out.writeLong(this.index.indexedLines);
+			out.writeInt(this.index.size);
+			for(int i = 0; i < this.index.size; i++) {
+				out.writeLong(this.index.positions[i]);
+				out.writeLong(this.index.timestamps[i]);
+				out.writeLong(this.index.lineNumbers[i]);
+			}
+		}
+		Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * A part of a file
+	 */
+	public static final class Range {
+
+		private final long start;
+		private final long end;
+		private final long lineOffset;
+
+		private Range(final long start, final long end, final long lineOffset) {
+			this.start = start;
+			this.end = end;
+			this.lineOffset = lineOffset;
+		}
+
+		public long getStart() {
+			return this.start;
+		}
+
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * @return the number of lines before the start or -1 if it is not known
+		 */
+		public long getLineOffset() {
+			return this.lineOffset;
+		}
+	}
+
+	/**
+	 * The start of a log entry
+	 */
+	private static final class Header {
+
+		private final long position;
+		private final long timestamp;
+		private final long lineNumber; // the number of lines before the entry
+
+		private Header(final long position, final long timestamp, final long lineNumber) {
+			this.position = position;
+			this.timestamp = timestamp;
+			this.lineNumber = lineNumber;
+		}
+	}
+
+	private static final class SparseIndex {
+
+		private final long headHash;
+		private long indexedSize;
+		private long indexedLines;
+		private long[] positions = new long[16];
+		private long[] timestamps = new long[16];
+		private long[] lineNumbers = new long[16];
+		private int size;
+
+		private SparseIndex(final long headHash) {
+			this.headHash = headHash;
+		}
+
+		private void add(final Header header) {
+			if(this.size == this.positions.length) {
+				this.positions = Arrays.copyOf(this.positions, this.size * 2);
+				this.timestamps = Arrays.copyOf(this.timestamps, this.size * 2);
+				this.lineNumbers = Arrays.copyOf(this.lineNumbers, this.size * 2);
+			}
+			this.positions[this.size] = header.position;
+			this.timestamps[this.size] = header.timestamp;
+			this.lineNumbers[this.size] = header.lineNumber;
+			this.size++;
+		}
+	}
+
+	/**
+	 * Reads the file line by line from a position, counting the lines. A position in the middle of a line is moved to
+	 * the start of the next line.
+	 */
+	private final class LineScanner {
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private final byte[] line = new byte[MAX_HEADER_LENGTH];
+		private long bufferStart;
+		private long position;
+		private long lineNumber;
+		private long lastLineStart;
+		private long lastLineNumber;
+
+		private LineScanner(final long position, final long lineNumber) throws IOException {
+			this.buffer.limit(0);
+			this.position = position;
+			this.lineNumber = lineNumber;
+			if(position > 0 && byteAt(position - 1) != '\n') {
+				skipLine(TimeRangeSeeker.this.size);
+				this.lineNumber = lineNumber;
+			}
+			this.lastLineStart = this.position;
+			this.lastLineNumber = this.lineNumber;
+		}
+
+		private boolean atLineStart() throws IOException {
+			return this.position == 0 || byteAt(this.position - 1) == '\n';
+		}
+
+		/**
+		 * @return the next log entry start before the limit or null if there is none
+		 */
+		private Header nextHeader(final long limit) throws IOException {
+			while(this.position < limit) {
+				final long lineStart = this.position;
+				final long lineNumber = this.lineNumber;
+				int length = 0;
+				int b;
+				while((b = next()) >= 0 && b != '\n') {
+					if(length < this.line.length) {
+						this.line[length++] = (byte) b;
+					}
+				}
+				if(b == '\n') {
+					this.lineNumber++;
+					this.lastLineStart = this.position;
+					this.lastLineNumber = this.lineNumber;
+				}
+				if(TimeRangeSeeker.this.headerFormat.isHeader(this.line, 0, length)) {
+					final String text = new String(this.line, 0, length, TimeRangeSeeker.this.charset);
+					try {
+						return new Header(lineStart, TimeRangeSeeker.this.headerFormat.parseDate(text, TimeRangeSeeker.this.timestampParser), lineNumber);
+					} catch(final ParseException e) {
+						// not an entry of this date format
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return false if the end of the file was reached without a line feed
+		 */
+		private boolean skipLine(final long limit) throws IOException {
+			while(this.position < limit) {
+				if(!this.buffer.hasRemaining() && !fill()) {
+					return false;
+				}
+				final int from = this.buffer.position();
+				for(int i = from; i < this.buffer.limit(); i++) {
+					if(this.buffer.get(i) == '\n') {
+						this.position += i + 1 - from;
+						this.buffer.position(i + 1);
+						this.lineNumber++;
+						this.lastLineStart = this.position;
+						this.lastLineNumber = this.lineNumber;
+						return true;
+					}
+				}
+				this.position += this.buffer.remaining();
+				this.buffer.position(this.buffer.limit());
+			}
+			return false;
+		}
+
+		private int next() throws IOException {
+			if(!this.buffer.hasRemaining() && !fill()) {
+				return -1;
+			}
+			this.position++;
+			return this.buffer.get() & 0xFF;
+		}
+
+		private boolean fill() throws IOException {
+			this.buffer.clear();
+			final int read = TimeRangeSeeker.this.channel.read(this.buffer, this.position);
+			this.buffer.flip();
+			this.bufferStart = this.position;
+			return read > 0;
+		}
+
+		private int byteAt(final long at) throws IOException {
+			if(at >= this.bufferStart && at < this.bufferStart + this.buffer.limit()) {
+				return this.buffer.get((int) (at - this.bufferStart));
+			}
+			final ByteBuffer single = ByteBuffer.allocate(1);
+			return TimeRangeSeeker.this.channel.read(single, at) > 0 ? single.get(0) : -1;
+		}
+	}
+}
@@ -0,0 +1,417 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts the occurrences of a unique entry in time buckets of a fixed size, e.g. per minute, to tell a burst from steady
+ * background noise. The counts are run length encoded: consecutive buckets with the same count form a run, which is
+ * kept as three variable length numbers (the gap to the previous run, the number of buckets and the count) in a byte
+ * array, so an entry occurring at a steady rate for days takes a few bytes only. The last run and the last bucket,
+ * which is still counted, are kept in fields, so the occurrences of a log read in date order are added without decoding
+ * the array. An occurrence before the last bucket, like one of a log whose dates aren't in order, is buffered and the
+ * buffered occurrences are merged in date order by rewriting the array once the buffer is full or the timeline is
+ * read. The occurrences of another timeline, like the ones of an earlier part of the log, are merged by rewriting the
+ * array at once.
+ * <p>
+ * A timeline is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class Timeline {
+
+	/**
+	 * A peak rate at least this many times the mean rate over the report is a burst
+	 */
+	public static final int BURST_FACTOR = 10;
+	/**
+	 * The least number of occurrences in a bucket which is a burst
+	 */
+	public static final int BURST_MIN_COUNT = 5;
+
+	private static final byte[] NO_RUNS = new byte[0];
+	private static final long[] NO_PENDING = new long[0];
+	private static final int MIN_PENDING = 16;
+	private static final int MAX_PENDING = 4096;
+
+	private final long bucketMillis;
+	private byte[] runs = NO_RUNS;
+	private int runsLength;
+	private long runsEnd; // the bucket after the last encoded run
+	private long runStart;
+	private long runLength; // 0 if there is no open run
+	private long runCount;
+	private long lastBucket;
+	private long lastCount; // 0 if the timeline is empty
+	private long total;
+	private long peakCount;
+	private long peakBucket;
+	private long[] pending = NO_PENDING; // the buckets of the occurrences before the last bucket, not merged yet
+	private int pendingLength;
+
+	/**
+	 * @param bucketMillis the size of the buckets in milliseconds
+	 */
+	public Timeline(final long bucketMillis) {
+		this.bucketMillis = bucketMillis;
+	}
+
+	/**
+	 * @param millis the date of an occurrence in epoch milliseconds
+	 */
+	public void add(final long millis) {
+		final long bucket = Math.floorDiv(millis, this.bucketMillis);
+		if(this.lastCount == 0 || bucket >= this.lastBucket) {
+			add(bucket, 1);
+			return;
+		}
+		if(this.pendingLength == this.pending.length) {
+			// a merge takes the time of reading all buckets, which are at most as many as the occurrences
+			if(this.pendingLength >= Math.min(MAX_PENDING, Math.max(MIN_PENDING, this.total >> 3))) {
+				mergePending();
+			} else {
+				this.pending = Arrays.copyOf(this.pending, Math.max(MIN_PENDING, this.pending.length << 1));
+			}
+		}
+		this.pending[this.pendingLength++] = bucket;
+	}
+
+	/**
+	 * Adds the occurrences of the other timeline, which must have buckets of the same size
+	 *
+	 * @param other the timeline of a duplicate entry
+	 */
+	public void merge(final Timeline other) {
+		mergePending();
+		other.mergePending();
+		if(other.lastCount == 0) {
+			return;
+		}
+		final BucketCursor cursor = other.cursor();
+		cursor.next();
+		if(this.lastCount == 0 || cursor.bucket >= this.lastBucket) {
+			do {
+				add(cursor.bucket, cursor.count);
+			} while(cursor.next());
+			return;
+		}
+		rewrite(cursor);
+	}
+
+	/**
+	 * @return the number of occurrences in the timeline
+	 */
+	public long getTotal() {
+		return this.total + this.pendingLength;
+	}
+
+	/**
+	 * @return the highest number of occurrences in a bucket
+	 */
+	public long getPeakCount() {
+		mergePending();
+		return this.peakCount;
+	}
+
+	/**
+	 * @return the start of the first bucket with the highest number of occurrences in epoch milliseconds
+	 */
+	public long getPeakMillis() {
+		mergePending();
+		return this.peakBucket * this.bucketMillis;
+	}
+
+	/**
+	 * @param reportBuckets the number of buckets from the first to the last date of the report
+	 * @return true if the peak rate is a burst compared with the mean rate over the report
+	 */
+	public boolean isBurst(final long reportBuckets) {
+		mergePending();
+		return isBurst(this.peakCount, this.total, reportBuckets);
+	}
+
+	/**
+	 * @param peakCount the highest number of occurrences in a bucket
+	 * @param total the number of occurrences
+	 * @param reportBuckets the number of buckets from the first to the last date of the report
+	 * @return true if the peak rate is at least {@link #BURST_FACTOR} times the mean rate over the report and at least
+	 *         {@link #BURST_MIN_COUNT}
+	 */
+	public static boolean isBurst(final long peakCount, final long total, final long reportBuckets) {
+		return reportBuckets > 0 && peakCount >= BURST_MIN_COUNT && peakCount * reportBuckets >= BURST_FACTOR * total;
+	}
+
+	/**
+	 * @param entries the unique entries of a report
+	 * @param bucketMillis the size of the buckets in milliseconds
+	 * @return the number of buckets from the first to the last date of the entries, 0 if none has a date
+	 */
+	public static long countBuckets(final List<LogEntry> entries, final long bucketMillis) {
+		long first = Long.MAX_VALUE;
+		long last = TimestampParser.NO_DATE;
+		for(final LogEntry entry: entries) {
+			if(entry.getFirstOccurrenceMillis() != TimestampParser.NO_DATE) {
+				first = Math.min(first, entry.getFirstOccurrenceMillis());
+			}
+			last = Math.max(last, entry.getLastOccurrenceMillis());
+		}
+		if(first == Long.MAX_VALUE) {
+			return 0;
+		}
+		return Math.floorDiv(Math.max(first, last), bucketMillis) - Math.floorDiv(first, bucketMillis) + 1;
+	}
+
+	/**
+	 * @param bucketMillis the size of the buckets in milliseconds
+	 * @return the size in the largest unit it is a multiple of, e.g. 90s or 5m
+	 */
+	public static String formatBucket(final long bucketMillis) {
+		final long[] units = {24 * 3600_000L, 3600_000L, 60_000L, 1000L};
+		final String[] names = {"d", "h", "m", "s"};
+		for(int i = 0; i < units.length; i++) {
+			if(bucketMillis % units[i] == 0) {
+				return bucketMillis / units[i] + names[i];
+			}
+		}
+		return bucketMillis + "ms";
+	}
+
+	/**
+	 * Writes the timeline, so it can be restored by {@link #readFrom(DataInput, long)}
+	 *
+	 * @param out the output
+	 * @throws IOException
+	 */
+	public void writeTo(final DataOutput out) throws IOException {
+		mergePending();
+		out.writeInt(this.runsLength);
+		out.write(this.runs, 0, this.runsLength);
+		out.writeLong(this.runsEnd);
+		out.writeLong(this.runStart);
+		out.writeLong(this.runLength);
+		out.writeLong(this.runCount);
+		out.writeLong(this.lastBucket);
+		out.writeLong(this.lastCount);
+		out.writeLong(this.total);
+		out.writeLong(this.peakCount);
+		out.writeLong(this.peakBucket);
+	}
+
+	/**
+	 * @param in the input
+	 * @param bucketMillis the size of the buckets of the written timeline
+	 * @return the timeline written by {@link #writeTo(DataOutput)}
+	 * @throws IOException
+	 */
+	public static Timeline readFrom(final DataInput in, final long bucketMillis) throws IOException {
+		final Timeline timeline = new Timeline(bucketMillis);
+		timeline.runsLength = in.readInt();
+		timeline.runs = timeline.runsLength == 0 ? NO_RUNS : new byte[timeline.runsLength];
+		in.readFully(timeline.runs, 0, timeline.runsLength);
+		timeline.runsEnd = in.readLong();
+		timeline.runStart = in.readLong();
+		timeline.runLength = in.readLong();
+		timeline.runCount = in.readLong();
+		timeline.lastBucket = in.readLong();
+		timeline.lastCount = in.readLong();
+		timeline.total = in.readLong();
+		timeline.peakCount = in.readLong();
+		timeline.peakBucket = in.readLong();
+		return timeline;
+	}
+
+	/**
+	 * Merges the buffered occurrences before the last bucket in date order
+	 */
+	private void mergePending() {
+		if(this.pendingLength == 0) {
+			return;
+		}
+		Arrays.sort(this.pending, 0, this.pendingLength);
+		final Timeline earlier = new Timeline(this.bucketMillis);
+		for(int i = 0; i < this.pendingLength; i++) {
+			earlier.add(this.pending[i], 1);
+		}
+		this.pendingLength = 0;
+		final BucketCursor cursor = earlier.cursor();
+		cursor.next();
+		rewrite(cursor);
+	}
+
+	/**
+	 * Adds occurrences at or after the last bucket
+	 */
+	private void add(final long bucket, final long count) {
+		if(this.lastCount == 0 || bucket > this.lastBucket) {
+			if(this.lastCount != 0) {
+				closeLastBucket();
+			}
+			this.lastBucket = bucket;
+			this.lastCount = 0;
+		}
+		this.lastCount += count;
+		this.total += count;
+		if(this.lastCount > this.peakCount) {
+			this.peakCount = this.lastCount;
+			this.peakBucket = this.lastBucket;
+		}
+	}
+
+	/**
+	 * Extends the open run by the last bucket or encodes the open run and starts a new one with it
+	 */
+	private void closeLastBucket() {
+		if(this.runLength > 0 && this.lastBucket == this.runStart + this.runLength && this.lastCount == this.runCount) {
+			this.runLength++;
+			return;
+		}
+		encodeRun();
+		this.runStart = this.lastBucket;
+		this.runLength = 1;
+		this.runCount = this.lastCount;
+	}
+
+	private void encodeRun() {
+		if(this.runLength == 0) {
+			return;
+		}
+		if(this.runsLength + 30 > this.runs.length) {
+			this.runs = Arrays.copyOf(this.runs, Math.max(32, this.runs.length + (this.runs.length >> 1) + 30));
+		}
+		final long gap = this.runStart - this.runsEnd;
+		putVarLong(gap << 1 ^ gap >> 63); // zigzag, the first run is relative to bucket 0
+		putVarLong(this.runLength);
+		putVarLong(this.runCount);
+		this.runsEnd = this.runStart + this.runLength;
+	}
+
+	private void putVarLong(final long value) {
+		long rest = value;
+		while((rest & ~0x7fL) != 0) {
+			this.runs[this.runsLength++] = (byte) (rest & 0x7f | 0x80);
+			rest >>>= 7;
+		}
+		this.runs[this.runsLength++] = (byte) rest;
+	}
+
+	/**
+	 * Replaces this timeline by the sum of its buckets and the buckets of the cursor, which is on its first bucket
+	 */
+	private void rewrite(final BucketCursor other) {
+		final BucketCursor own = cursor();
+		boolean hasOwn = own.next();
+		boolean hasOther = true;
+		final Timeline merged = new Timeline(this.bucketMillis);
+		while(hasOwn || hasOther) {
+			if(hasOwn && (!hasOther || own.bucket <= other.bucket)) {
+				merged.add(own.bucket, own.count);
+				hasOwn = own.next();
+			} else {
+				merged.add(other.bucket, other.count);
+				hasOther = other.next();
+			}
+		}
+		this.runs = merged.runs;
+		this.runsLength = merged.runsLength;
+		this.runsEnd = merged.runsEnd;
+		this.runStart = merged.runStart;
+		this.runLength = merged.runLength;
+		this.runCount = merged.runCount;
+		this.lastBucket = merged.lastBucket;
+		this.lastCount = merged.lastCount;
+		this.total = merged.total;
+		this.peakCount = merged.peakCount;
+		this.peakBucket = merged.peakBucket;
+	}
+
+	private BucketCursor cursor() {
+		return new BucketCursor();
+	}
+
+	/**
+	 * Iterates over the buckets with occurrences in their order: the encoded runs, the open run and the last bucket
+	 */
+	private final class BucketCursor {
+
+		private int position;
+		private long previousEnd;
+		private long runStart;
+		private long runRemaining;
+		private long runCount;
+		private boolean openRunRead;
+		private boolean lastBucketRead;
+		private long bucket;
+		private long count;
+
+		/**
+		 * @return false if there are no more buckets
+		 */
+		private boolean next() {
+			if(this.runRemaining == 0 && !nextRun()) {
+				if(this.lastBucketRead || Timeline.this.lastCount == 0) {
+					return false;
+				}
+				this.lastBucketRead = true;
+				this.bucket = Timeline.this.lastBucket;
+				this.count = Timeline.this.lastCount;
+				return true;
+			}
+			this.bucket = this.runStart++;
+			this.count = this.runCount;
+			this.runRemaining--;
+			return true;
+		}
+
+		private boolean nextRun() {
+			if(this.position < Timeline.this.runsLength) {
+				final long zigzag = readVarLong();
+				this.runStart = this.previousEnd + (zigzag >>> 1 ^ -(zigzag & 1));
+				this.runRemaining = readVarLong();
+				this.runCount = readVarLong();
+				this.previousEnd = this.runStart + this.runRemaining;
+				return true;
+			}
+			if(!this.openRunRead && Timeline.this.runLength > 0) {
+				this.openRunRead = true;
+				this.runStart = Timeline.this.runStart;
+				this.runRemaining = Timeline.this.runLength;
+				this.runCount = Timeline.this.runCount;
+				return true;
+			}
+			return false;
+		}
+
+		private long readVarLong() {
+			long value = 0;
+			for(int shift = 0;; shift += 7) {
+				final byte b = Timeline.this.runs[this.position++];
+				value |= (long) (b & 0x7f) << shift;
+				if(b >= 0) {
+					return value;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Parses the dates of the log entries into epoch milliseconds. The date format is compiled once and the parser can be
+ * shared between threads, every thread gets its own formats and cache.
+ * <p>
+ * Date formats ending with a millisecond field after a separator, like the default <code>dd.MM.yyyy HH:mm:ss.SSSS</code>,
+ * are parsed on a fast path: the part up to the separator is looked up in a cache holding the last parsed second and
+ * only on a miss parsed with {@link SimpleDateFormat}, the milliseconds are added as plain digits. The result is the
+ * same as the one of a lenient {@link SimpleDateFormat}, which also adds a millisecond value above 999 to the date.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public final class TimestampParser {
+
+	/**
+	 * Marks an unknown date
+	 */
+	public static final long NO_DATE = Long.MIN_VALUE;
+
+	private final String pattern;
+	private final String secondPattern; // the pattern without the millisecond field or null if there is none
+	private final char millisSeparator;
+	private final ThreadLocal<State> state;
+
+	/**
+	 * @param pattern a {@link SimpleDateFormat} pattern
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	public TimestampParser(final String pattern) {
+		this.pattern = pattern;
+		new SimpleDateFormat(pattern); // fail early on an invalid pattern
+		int millisStart = pattern.length();
+		while(millisStart > 0 && pattern.charAt(millisStart - 1) == 'S') {
+			millisStart--;
+		}
+		final boolean fastPath = millisStart >= 2 && millisStart < pattern.length() && !Character.isLetter(pattern.charAt(millisStart - 1)) && pattern.charAt(millisStart - 1) != '\'' && pattern.indexOf('S') == millisStart;
+		this.secondPattern = fastPath ? pattern.substring(0, millisStart - 1) : null;
+		this.millisSeparator = fastPath ? pattern.charAt(millisStart - 1) : 0;
+		this.state = ThreadLocal.withInitial(() -> new State(this.pattern, this.secondPattern));
+	}
+
+	/**
+	 * @param text the date
+	 * @return the date in epoch milliseconds
+	 * @throws ParseException if the date doesn't match the format
+	 */
+	public long parse(final String text) throws ParseException {
+		return parse(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the date found between the given indexes, ignoring leading and trailing whitespace
+	 *
+	 * @param text a text containing the date
+	 * @param start the index of the first character of the date
+	 * @param end the index after the last character of the date
+	 * @return the date in epoch milliseconds
+	 * @throws ParseException if the date doesn't match the format
+	 */
+	public long parse(final String text, final int start, final int end) throws ParseException {
+		int from = start;
+		int to = end;
+		while(from < to && text.charAt(from) <= ' ') {
+			from++;
+		}
+		while(to > from && text.charAt(to - 1) <= ' ') {
+			to--;
+		}
+		final State current = this.state.get();
+		if(this.secondPattern != null) {
+			final int separator = lastIndexOf(text, this.millisSeparator, from, to);
+			if(separator > from && separator < to - 1) {
+				long millis = 0;
+				int i = separator + 1;
+				while(i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9' && millis < Integer.MAX_VALUE) {
+					millis = millis * 10 + text.charAt(i++) - '0';
+				}
+				if(i == to) {
+					return current.parseSecond(text, from, separator) + millis;
+				}
+			}
+		}
+		return current.parseFull(text, from, to);
+	}
+
+	/**
+	 * @param epochMillis a date in epoch milliseconds
+	 * @return the date formatted with the date format of the log entries
+	 */
+	public String format(final long epochMillis) {
+		return this.state.get().fullFormat.format(new Date(epochMillis));
+	}
+
+	private static int lastIndexOf(final String text, final char c, final int from, final int to) {
+		for(int i = to - 1; i >= from; i--) {
+			if(text.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return this.pattern;
+	}
+
+	/**
+	 * The formats and the cache of a single thread
+	 */
+	private static final class State {
+
+		private final SimpleDateFormat fullFormat;
+		private final SimpleDateFormat secondFormat;
+		private String lastSecond;
+		private long lastSecondMillis;
+		private String lastFull;
+		private long lastFullMillis;
+
+		private State(final String pattern, final String secondPattern) {
+			this.fullFormat = new SimpleDateFormat(pattern);
+			this.secondFormat = secondPattern == null ? null : new SimpleDateFormat(secondPattern);
+		}
+
+		private long parseSecond(final String text, final int from, final int to) throws ParseException {
+			if(this.lastSecond == null || this.lastSecond.length() != to - from || !text.regionMatches(from, this.lastSecond, 0, to - from)) {
+				this.lastSecond = text.substring(from, to);
+				this.lastSecondMillis = this.secondFormat.parse(this.lastSecond).getTime();
+			}
+			return this.lastSecondMillis;
+		}
+
+		private long parseFull(final String text, final int from, final int to) throws ParseException {
+			if(this.lastFull == null || this.lastFull.length() != to - from || !text.regionMatches(from, this.lastFull, 0, to - from)) {
+				this.lastFullMillis = this.fullFormat.parse(text.substring(from, to)).getTime();
+				this.lastFull = text.substring(from, to);
+			}
+			return this.lastFullMillis;
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the most frequent log entries in fixed memory with the Space-Saving algorithm. A fixed number of counters is
+ * kept, when a new entry arrives and all counters are taken the counter with the smallest count is given to the new
+ * entry. An entry without a counter occurred at most as often as the highest count evicted so far, so the count of the
+ * new entry starts at the smaller one of this bound and the estimate of a Count-Min sketch. The starting value is
+ * remembered as the possible overestimate of the count. The number of distinct
+ * entries is estimated with a HyperLogLog.
+ * <p>
+ * The entries are grouped like the {@link UniqueEntryAggregator} groups them: by their header or, at the first
+ * occurrence of a header, by the body of a counted entry, the header is then an alias of the counted one. The first
+ * occurrence of a header is told by the sketch, only the counted entries and their aliases are known, so an entry
+ * sharing the body of an evicted one starts a group of its own. A group has at most 8 aliases, the later headers sharing
+ * its body start groups of their own as well. A group is represented by its occurrence with the lowest line number.
+ * <p>
+ * The reported count of an entry is never lower than the real one and at most its error higher. The first and last
+ * match dates of an entry cover only the occurrences seen while it was counted. The aggregator is safe for concurrent
+ * use, the entries may be merged in any order.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TopEntryAggregator implements EntryAggregator {
+
+	private static final int COUNTERS_PER_ENTRY = 10;
+	private static final int SKETCH_DEPTH = 4;
+	private static final int SKETCH_WIDTH = 1 << 14;
+	private static final int HLL_PRECISION = 14;
+	private static final int MAX_ALIASES_PER_COUNTER = 8;
+	private static final long[] NO_ALIASES = new long[0];
+
+	private final int top;
+	private final Counter[] heap; // a binary min heap by count
+	private final LongObjectMap<Counter> counters; // by the hashes of the headers and their aliases
+	private final LongObjectMap<Counter> bodyCounters; // by the hashes of the bodies of the counted entries
+	private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+	private final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+	private int size;
+	private long maxEvictedCount;
+
+	/**
+	 * @param top the number of entries to report
+	 */
+	public TopEntryAggregator(final int top) {
+		this.top = top;
+		this.heap = new Counter[top * COUNTERS_PER_ENTRY];
+		this.counters = new LongObjectMap<>(this.heap.length);
+		this.bodyCounters = new LongObjectMap<>(this.heap.length);
+	}
+
+	@Override
+	public synchronized void merge(final LogEntry partial) throws IOException {
+		final long occurrences = partial.getCount() + 1;
+		final long estimate = this.sketch.add(partial.getHash(), occurrences);
+		Counter counter = this.counters.get(partial.getHash());
+		// like in unique mode only the first occurrence of a header joins the group of an entry with the same body
+		if(counter == null && partial.hasBody() && estimate == occurrences) {
+			counter = this.bodyCounters.get(partial.getBodyHash());
+			if(counter != null && counter.aliases.length < MAX_ALIASES_PER_COUNTER) {
+				counter.aliases = Arrays.copyOf(counter.aliases, counter.aliases.length + 1);
+				counter.aliases[counter.aliases.length - 1] = partial.getHash();
+				this.counters.put(partial.getHash(), counter);
+			} else {
+				// a header which can't be an alias is counted on its own from its first occurrence on
+				counter = null;
+			}
+		}
+		// a group is counted by the hash of the header it was counted with first
+		final long key = counter != null ? counter.key : partial.getHash();
+		this.distinct.add(key);
+		if(counter != null) {
+			counter.count += occurrences;
+			if(partial.getLineNumber() < counter.entry.getLineNumber()) {
+				partial.mergeUnordered(counter.entry);
+				counter.entry = partial;
+			} else {
+				counter.entry.mergeUnordered(partial);
+			}
+			siftDown(counter.index);
+			return;
+		}
+		if(this.size < this.heap.length) {
+			counter = new Counter(key, partial, occurrences, 0);
+			counter.index = this.size++;
+			this.heap[counter.index] = counter;
+			siftUp(counter.index);
+		} else {
+			// replace the smallest counter, the new entry may have occurred up to the highest evicted count before
+			counter = this.heap[0];
+			evict(counter);
+			this.maxEvictedCount = Math.max(this.maxEvictedCount, counter.count);
+			final long count = Math.min(this.maxEvictedCount + occurrences, estimate);
+			counter.key = key;
+			counter.entry = partial;
+			counter.count = count;
+			counter.error = count - occurrences;
+			siftDown(0);
+		}
+		this.counters.put(key, counter);
+		if(partial.hasBody() && this.bodyCounters.get(partial.getBodyHash()) == null) {
+			this.bodyCounters.put(partial.getBodyHash(), counter);
+			counter.bodyHash = partial.getBodyHash();
+			counter.hasBodyHash = true;
+		}
+	}
+
+	/**
+	 * Forgets the header, the aliases and the body of a counter before it is given to another entry
+	 */
+	private void evict(final Counter counter) {
+		this.counters.remove(counter.key);
+		for(final long alias: counter.aliases) {
+			this.counters.remove(alias);
+		}
+		counter.aliases = NO_ALIASES;
+		if(counter.hasBodyHash) {
+			this.bodyCounters.remove(counter.bodyHash);
+			counter.hasBodyHash = false;
+		}
+	}
+
+	/**
+	 * @return the most frequent entries, at most the requested number, with the highest count first
+	 */
+	@Override
+	public synchronized List<LogEntry> getEntries() {
+		final Counter[] sorted = Arrays.copyOf(this.heap, this.size);
+		Arrays.sort(sorted, Comparator.comparingLong((final Counter counter) -> counter.count).reversed());
+		final List<LogEntry> entries = new ArrayList<>(Math.min(this.top, sorted.length));
+		for(int i = 0; i < Math.min(this.top, sorted.length); i++) {
+			sorted[i].entry.setEstimatedCount(sorted[i].count - 1, sorted[i].error);
+			entries.add(sorted[i].entry);
+		}
+		return entries;
+	}
+
+	/**
+	 * Removes the counters of the most frequent entries, the sketch and the estimate of the distinct entries are kept
+	 */
+	@Override
+	public synchronized List<LogEntry> removeEntries() {
+		final List<LogEntry> removed = getEntries();
+		Arrays.fill(this.heap, 0, this.size, null);
+		this.size = 0;
+		this.counters.clear();
+		this.bodyCounters.clear();
+		return removed;
+	}
+
+	/**
+	 * @return the estimated number of distinct entries
+	 */
+	@Override
+	public synchronized int size() {
+		return (int) Math.min(Integer.MAX_VALUE, this.distinct.estimate());
+	}
+
+	@Override
+	public boolean isApproximate() {
+		return true;
+	}
+
+	/**
+	 * @return a description of the error bounds of the estimates
+	 */
+	@Override
+	public synchronized String getAccuracy() {
+		return String.format("distinct count standard error %.1f%%, counts are overestimated by at most their error, unseen entries occurred at most %d times, sketch error at most %d",
+		                     this.distinct.getStandardError() * 100, this.maxEvictedCount, this.sketch.getErrorBound());
+	}
+
+	private void siftUp(int index) {
+		final Counter counter = this.heap[index];
+		while(index > 0) {
+			final int parent = (index - 1) >>> 1;
+			if(this.heap[parent].count <= counter.count) {
+				break;
+			}
+			this.heap[index] = this.heap[parent];
+			this.heap[index].index = index;
+			index = parent;
+		}
+		this.heap[index] = counter;
+		counter.index = index;
+	}
+
+	private void siftDown(int index) {
+		final Counter counter = this.heap[index];
+		while(true) {
+			int child = 2 * index + 1;
+			if(child >= this.size) {
+				break;
+			}
+			if(child + 1 < this.size && this.heap[child + 1].count < this.heap[child].count) {
+				child++;
+			}
+			if(counter.count <= this.heap[child].count) {
+				break;
+			}
+			this.heap[index] = this.heap[child];
+			this.heap[index].index = index;
+			index = child;
+		}
+		this.heap[index] = counter;
+		counter.index = index;
+	}
+
+	private static final class Counter {
+
+		private long key;
+		private long[] aliases = NO_ALIASES;
+		private long bodyHash;
+		private boolean hasBodyHash;
+		private LogEntry entry;
+		private long count;
+		private long error;
+		private int index;
+
+		private Counter(final long key, final LogEntry entry, final long count, final long error) {
+			this.key = key;
+			this.entry = entry;
+			this.count = count;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups log entries by their header or, if the header is not known yet, by their body. The entries must be merged in
+ * the order they appear in the input, so the result is the same whether the input was read at once or in parts.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class UniqueEntryAggregator implements EntryAggregator {
+
+	private final LongObjectMap<LogEntry> uniqueLogEntries = new LongObjectMap<>();
+	private final LongObjectMap<LogEntry> uniqueLogEntryBodyMap = new LongObjectMap<>();
+	private final List<LogEntry> entries = new ArrayList<>();
+
+	@Override
+	public void merge(final LogEntry partial) throws IOException {
+		LogEntry entry = this.uniqueLogEntries.get(partial.getHash());
+		if(entry == null) {
+			if(partial.hasBody()) {
+				entry = this.uniqueLogEntryBodyMap.get(partial.getBodyHash());
+			}
+			if(entry == null) {
+				this.entries.add(partial);
+				if(partial.hasBody()) {
+					this.uniqueLogEntryBodyMap.put(partial.getBodyHash(), partial);
+				}
+				this.uniqueLogEntries.put(partial.getHash(), partial);
+				for(final long aliasHash: partial.getAliasHashes()) {
+					this.uniqueLogEntries.put(aliasHash, partial);
+				}
+				return;
+			}
+			this.uniqueLogEntries.put(partial.getHash(), entry);
+			entry.addAliasHash(partial.getHash());
+		}
+		entry.merge(partial);
+	}
+
+	/**
+	 * @return the unique entries in order of their first occurrence
+	 */
+	@Override
+	public List<LogEntry> getEntries() {
+		return this.entries;
+	}
+
+	@Override
+	public List<LogEntry> removeEntries() {
+		final List<LogEntry> removed = new ArrayList<>(this.entries);
+		this.entries.clear();
+		this.uniqueLogEntries.clear();
+		this.uniqueLogEntryBodyMap.clear();
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		return this.entries.size();
+	}
+}
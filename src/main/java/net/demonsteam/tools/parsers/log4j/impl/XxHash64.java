@@ -0,0 +1,205 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+/**
+ * The 64 bit xxHash algorithm over the UTF-16 code units of a text, every character is hashed as two little endian
+ * bytes. The hash can be computed at once for a part of a text or incrementally while the text is read. An instance
+ * is not thread safe.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public final class XxHash64 {
+
+	private static final long PRIME1 = 0x9E3779B185EBCA87L;
+	private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long PRIME3 = 0x165667B19E3779F9L;
+	private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+	private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+	private final long[] lanes = new long[4]; // the pending stripe of 32 bytes, four characters per lane
+	private long v1;
+	private long v2;
+	private long v3;
+	private long v4;
+	private long length; // in characters
+	private int pending; // characters in the pending stripe
+
+	public XxHash64() {
+		reset();
+	}
+
+	/**
+	 * Starts a new hash
+	 */
+	public void reset() {
+		this.v1 = PRIME1 + PRIME2;
+		this.v2 = PRIME2;
+		this.v3 = 0;
+		this.v4 = -PRIME1;
+		this.length = 0;
+		this.pending = 0;
+		this.lanes[0] = this.lanes[1] = this.lanes[2] = this.lanes[3] = 0;
+	}
+
+	public void update(final char c) {
+		final int lane = this.pending >>> 2;
+		this.lanes[lane] |= (long) c << ((this.pending & 3) << 4);
+		this.length++;
+		if(++this.pending == 16) {
+			this.v1 = round(this.v1, this.lanes[0]);
+			this.v2 = round(this.v2, this.lanes[1]);
+			this.v3 = round(this.v3, this.lanes[2]);
+			this.v4 = round(this.v4, this.lanes[3]);
+			this.lanes[0] = this.lanes[1] = this.lanes[2] = this.lanes[3] = 0;
+			this.pending = 0;
+		}
+	}
+
+	public void update(final CharSequence text, final int start, final int end) {
+		for(int i = start; i < end; i++) {
+			update(text.charAt(i));
+		}
+	}
+
+	public void update(final CharSequence text) {
+		update(text, 0, text.length());
+	}
+
+	/**
+	 * @return the hash of the characters added since the last reset
+	 */
+	public long digest() {
+		long hash;
+		if(this.length >= 16) {
+			hash = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7) + Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+			hash = mergeRound(hash, this.v1);
+			hash = mergeRound(hash, this.v2);
+			hash = mergeRound(hash, this.v3);
+			hash = mergeRound(hash, this.v4);
+		} else {
+			hash = PRIME5;
+		}
+		hash += this.length * 2;
+		return finish(hash, this.lanes, this.pending);
+	}
+
+	/**
+	 * @param text the text
+	 * @param start the index of the first character to hash
+	 * @param end the index after the last character to hash
+	 * @return the hash of the given characters, the same as the one computed incrementally
+	 */
+	public static long hash(final CharSequence text, final int start, final int end) {
+		final int length = end - start;
+		int i = start;
+		long hash;
+		if(length >= 16) {
+			long a1 = PRIME1 + PRIME2;
+			long a2 = PRIME2;
+			long a3 = 0;
+			long a4 = -PRIME1;
+			for(final int limit = end - 16; i <= limit; i += 16) {
+				a1 = round(a1, lane(text, i));
+				a2 = round(a2, lane(text, i + 4));
+				a3 = round(a3, lane(text, i + 8));
+				a4 = round(a4, lane(text, i + 12));
+			}
+			hash = Long.rotateLeft(a1, 1) + Long.rotateLeft(a2, 7) + Long.rotateLeft(a3, 12) + Long.rotateLeft(a4, 18);
+			hash = mergeRound(hash, a1);
+			hash = mergeRound(hash, a2);
+			hash = mergeRound(hash, a3);
+			hash = mergeRound(hash, a4);
+		} else {
+			hash = PRIME5;
+		}
+		hash += (long) length * 2;
+		for(; i + 4 <= end; i += 4) {
+			hash ^= round(0, lane(text, i));
+			hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+		}
+		if(i + 2 <= end) {
+			hash ^= (text.charAt(i) | (long) text.charAt(i + 1) << 16) * PRIME1;
+			hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+			i += 2;
+		}
+		if(i < end) {
+			hash = finishChar(hash, text.charAt(i));
+		}
+		return avalanche(hash);
+	}
+
+	public static long hash(final CharSequence text) {
+		return hash(text, 0, text.length());
+	}
+
+	private static long lane(final CharSequence text, final int i) {
+		return text.charAt(i) | (long) text.charAt(i + 1) << 16 | (long) text.charAt(i + 2) << 32 | (long) text.charAt(i + 3) << 48;
+	}
+
+	/**
+	 * Processes the remaining characters of the last incomplete stripe and mixes the bits of the hash
+	 */
+	private static long finish(final long start, final long[] lanes, final int chars) {
+		long hash = start;
+		int lane = 0;
+		for(; lane < chars >>> 2; lane++) {
+			hash ^= round(0, lanes[lane]);
+			hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+		}
+		final int rest = chars & 3;
+		if(rest >= 2) { // four bytes
+			hash ^= (lanes[lane] & 0xFFFFFFFFL) * PRIME1;
+			hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+		}
+		if((rest & 1) == 1) {
+			hash = finishChar(hash, (char) (lanes[lane] >>> (rest >= 2 ? 32 : 0)));
+		}
+		return avalanche(hash);
+	}
+
+	/**
+	 * Processes the two bytes of a single remaining character
+	 */
+	private static long finishChar(final long start, final char c) {
+		long hash = start ^ (c & 0xFF) * PRIME5;
+		hash = Long.rotateLeft(hash, 11) * PRIME1;
+		hash ^= (c >>> 8) * PRIME5;
+		return Long.rotateLeft(hash, 11) * PRIME1;
+	}
+
+	private static long avalanche(final long start) {
+		long hash = start;
+		hash ^= hash >>> 33;
+		hash *= PRIME2;
+		hash ^= hash >>> 29;
+		hash *= PRIME3;
+		hash ^= hash >>> 32;
+		return hash;
+	}
+
+	private static long round(final long acc, final long input) {
+		return Long.rotateLeft(acc + input * PRIME2, 31) * PRIME1;
+	}
+
+	private static long mergeRound(final long acc, final long value) {
+		return (acc ^ round(0, value)) * PRIME1 + PRIME4;
+	}
+}
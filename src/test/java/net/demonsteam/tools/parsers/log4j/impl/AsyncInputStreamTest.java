@@ -0,0 +1,101 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class AsyncInputStreamTest extends TestCase {
+
+	private ExecutorService executor;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.executor = Executors.newSingleThreadExecutor();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.executor.shutdownNow();
+	}
+
+	public void testReadsTheSource() throws IOException {
+		final byte[] data = new byte[1024 * 1024 + 17];
+		new Random(1).nextBytes(data);
+		final byte[] read = new byte[data.length];
+		try (InputStream in = new AsyncInputStream(new ByteArrayInputStream(data), this.executor)) {
+			int length = 0;
+			int count;
+			while((count = in.read(read, length, Math.min(1000, read.length - length))) > 0) {
+				length += count;
+			}
+			assertEquals(data.length, length);
+			assertEquals(-1, in.read());
+		}
+		assertTrue(Arrays.equals(data, read));
+	}
+
+	public void testRethrowsAnIOException() {
+		assertFailure(new IOException("disk gone"));
+	}
+
+	/**
+	 * A runtime exception of the source ends the stream as well, the reader must not wait for the end forever
+	 */
+	public void testRethrowsARuntimeException() {
+		assertFailure(new IllegalStateException("corrupt"));
+	}
+
+	private void assertFailure(final Exception failure) {
+		final InputStream source = new InputStream() {
+
+			private int remaining = 100000;
+
+			@Override
+			public int read() throws IOException {
+				if(--this.remaining < 0) {
+					if(failure instanceof IOException) {
+						throw (IOException) failure;
+					}
+					throw (RuntimeException) failure;
+				}
+				return 'x';
+			}
+		};
+		try (InputStream in = new AsyncInputStream(source, this.executor)) {
+			while(in.read() >= 0) {
+				// read until the failure
+			}
+			fail("the failure of the source is rethrown");
+		} catch(final IOException e) {
+			assertSame(failure, e.getCause());
+		}
+	}
+}
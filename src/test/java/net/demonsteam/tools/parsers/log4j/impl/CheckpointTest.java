@@ -0,0 +1,175 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class CheckpointTest extends TestCase {
+
+	private static final String FIRST = "01.01.2019 00:00:00.0001 *ERROR* [main] com.example.Service failed\n";
+	private static final String BODY = "java.lang.IllegalStateException: closed\n\tat com.example.Service.run(Service.java:42)\n";
+	private static final String SECOND = "01.01.2019 00:00:01.0000 *ERROR* [main] com.example.Service timeout\n";
+	private static final String THIRD = "01.01.2019 00:00:02.0000 *ERROR* [main] com.example.Service rejected\n";
+
+	private File directory;
+	private File log;
+	private File checkpointFile;
+	private AppArguments appArgs;
+	private BodyStore bodyStore;
+	private InputSourceWalker walker;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.directory = Files.createTempDirectory("checkpoint").toFile();
+		this.log = new File(this.directory, "app.log");
+		this.checkpointFile = new File(this.directory, "app.checkpoint");
+		this.appArgs = AppArguments.parse("-i", this.log.getPath(), "-l", "ERROR", "-u");
+		this.bodyStore = new BodyStore(1024 * 1024, this.directory);
+		this.walker = new InputSourceWalker(this.directory, 1, RunStatistics.DISABLED);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.walker.close();
+		this.bodyStore.close();
+		for(final File file: this.directory.listFiles()) {
+			file.delete();
+		}
+		this.directory.delete();
+	}
+
+	/**
+	 * A run reads up to the last line feed, the next run resumes there with the entries of the first one
+	 */
+	public void testResumesAfterTheLastCompleteLine() throws IOException {
+		final String partial = SECOND.substring(0, 20);
+		write(FIRST + BODY + FIRST + partial, false);
+		final Checkpoint first = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		final List<LogEntry> entries = run(first, 0, 0);
+		assertEquals(1, entries.size());
+		assertEquals(1, entries.get(0).getCount());
+		assertEquals(BODY, entries.get(0).readBody());
+		first.save(this.checkpointFile);
+
+		write(SECOND.substring(20) + THIRD, true);
+		final Checkpoint second = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		final List<LogEntry> resumed = run(second, (FIRST + BODY + FIRST).length(), 4);
+		assertEquals(3, resumed.size());
+		assertEquals(1, resumed.get(0).getCount());
+		assertEquals(BODY, resumed.get(0).readBody());
+		assertEquals(SECOND.trim(), resumed.get(1).getLine());
+		assertEquals(5, resumed.get(1).getLineNumber());
+		assertEquals(THIRD.trim(), resumed.get(2).getLine());
+		second.save(this.checkpointFile);
+
+		// nothing appended
+		final Checkpoint third = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		assertEquals(3, run(third, (FIRST + BODY + FIRST + SECOND + THIRD).length(), 6).size());
+	}
+
+	public void testRotatedInputIsReadFromTheStart() throws IOException {
+		write(FIRST + SECOND, false);
+		final Checkpoint first = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		run(first, 0, 0);
+		first.save(this.checkpointFile);
+
+		write(THIRD, false);
+		final Checkpoint second = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		final List<LogEntry> entries = run(second, 0, 0);
+		assertEquals(1, entries.size());
+		assertEquals(THIRD.trim(), entries.get(0).getLine());
+	}
+
+	public void testOtherOptionsReadFromTheStart() throws IOException {
+		write(FIRST + SECOND, false);
+		final Checkpoint first = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		run(first, 0, 0);
+		first.save(this.checkpointFile);
+
+		this.appArgs = AppArguments.parse("-i", this.log.getPath(), "-l", "ERROR,WARN", "-u");
+		final Checkpoint second = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		assertEquals(2, run(second, 0, 0).size());
+	}
+
+	/**
+	 * An input whose reading stopped before its end is resumed at the line it stopped at
+	 */
+	public void testResumesAtTheStopPosition() throws IOException {
+		write(FIRST + SECOND + THIRD, false);
+		final Checkpoint first = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		try (Checkpoint.Resumption resumption = first.resume(source())) {
+			// the reading stopped at the second entry, like at the end of a time window
+			resumption.finish(1, FIRST.length(), new ArrayList<>());
+		}
+		first.save(this.checkpointFile);
+		final Checkpoint second = Checkpoint.load(this.checkpointFile, this.appArgs, this.bodyStore);
+		final List<LogEntry> entries = run(second, FIRST.length(), 1);
+		assertEquals(2, entries.size());
+		assertEquals(SECOND.trim(), entries.get(0).getLine());
+		assertEquals(2, entries.get(0).getLineNumber());
+	}
+
+	/**
+	 * Resumes the log, checks the resumed position and returns the unique entries including the ones of the last run
+	 */
+	private List<LogEntry> run(final Checkpoint checkpoint, final long start, final long lineOffset) throws IOException {
+		try (Checkpoint.Resumption resumption = checkpoint.resume(source())) {
+			assertEquals(start, resumption.getStart());
+			assertEquals(lineOffset, resumption.getLineOffset());
+			final UniqueEntryAggregator aggregator = new UniqueEntryAggregator();
+			aggregator.mergeAll(resumption.getEntries());
+			try (LogEntryReader reader = new LogEntryReader(resumption.getInputStream(), this.appArgs, this.bodyStore)) {
+				while(reader.next() != null) {
+					// the entries are pre-aggregated
+				}
+				final List<LogEntry> partials = reader.getUniqueEntries();
+				for(final LogEntry partial: partials) {
+					partial.shiftLineNumber(resumption.getLineOffset());
+				}
+				aggregator.mergeAll(partials);
+				final long stopPosition = reader.getStopPosition() < 0 ? -1 : resumption.getStart() + reader.getStopPosition();
+				resumption.finish(reader.getLineNumber(), stopPosition, aggregator.getEntries());
+			}
+			return aggregator.getEntries();
+		}
+	}
+
+	private InputSourceWalker.InputSource source() throws IOException {
+		return this.walker.walk(this.log).get(0);
+	}
+
+	private void write(final String text, final boolean append) throws IOException {
+		try (OutputStream out = new FileOutputStream(this.log, append)) {
+			out.write(text.getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that the chunks of a file parsed in parallel give the output of a sequential read of the file. Every run
+ * writes the entries, or the unique entries with their counts, as CSV followed by the number of lines read and the
+ * position the reading stopped at.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ChunkedFileParserTest extends TestCase {
+
+	private static final long START = 1_546_300_800_000L; // 1 Jan 2019
+	private static final String[] LEVELS = {"ERROR", "WARN", "INFO"};
+	private static final String[] MESSAGES = {"Connection refused", "Timeout after 5s", "started", "request failed", "cache miss"};
+	private static final String[] BODIES = {"java.lang.IllegalStateException: closed\n\tat com.example.Service.run(Service.java:42)\n",
+	        "java.net.ConnectException: refused\n\tat com.example.Client.connect(Client.java:7)\n\tat com.example.Client.run(Client.java:3)\n"};
+
+	private File directory;
+	private File log;
+	private String to;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.directory = Files.createTempDirectory("chunked").toFile();
+		this.log = new File(this.directory, "app.log");
+		final Random random = new Random(17);
+		final TimestampParser timestampParser = AppArguments.parse("-i", this.log.getPath(), "-l", "ERROR").getTimestampParser();
+		final StringBuilder text = new StringBuilder();
+		long millis = START;
+		for(int i = 0; i < 20000; i++) {
+			millis += random.nextInt(200);
+			if(i == 15000) {
+				this.to = timestampParser.format(millis);
+			}
+			text.append(timestampParser.format(millis)).append(" *").append(LEVELS[random.nextInt(LEVELS.length)]).append("* [main] com.example.Service ")
+			        .append(MESSAGES[random.nextInt(MESSAGES.length)]).append(random.nextInt(4) == 0 ? " " + random.nextInt(50) : "").append('\n');
+			if(random.nextInt(4) == 0) {
+				text.append(BODIES[random.nextInt(BODIES.length)]);
+			}
+		}
+		try (OutputStream out = new FileOutputStream(this.log)) {
+			out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for(final File file: this.directory.listFiles()) {
+			file.delete();
+		}
+		this.directory.delete();
+	}
+
+	public void testEntries() throws Exception {
+		assertSameOutput("-l", "ERROR,WARN");
+	}
+
+	public void testUniqueEntries() throws Exception {
+		assertSameOutput("-l", "ERROR,WARN", "-u");
+	}
+
+	public void testTopEntries() throws Exception {
+		assertSameOutput("-l", "ERROR,INFO", "--top", "4");
+	}
+
+	public void testStopAtTheEndOfTheTimeWindow() throws Exception {
+		assertFalse(assertSameOutput("-l", "ERROR", "-u", "--to", this.to).endsWith("stop -1"));
+		assertFalse(assertSameOutput("-l", "WARN", "--to", this.to).endsWith("stop -1"));
+	}
+
+	/**
+	 * @return the output of the sequential run
+	 */
+	private String assertSameOutput(final String... args) throws Exception {
+		final String sequential = run(false, args);
+		for(final String threads: new String[] {"2", "4", "7"}) {
+			assertEquals("threads " + threads, sequential, run(true, concat(args, "-t", threads)));
+		}
+		return sequential;
+	}
+
+	private String run(final boolean chunked, final String... args) throws Exception {
+		final AppArguments appArgs = AppArguments.parse(concat(new String[] {"-i", this.log.getPath()}, args));
+		final EntryAggregator aggregator = appArgs.getTop() > 0 ? new TopEntryAggregator(appArgs.getTop()) : new UniqueEntryAggregator();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final long lineCount;
+		final long stopPosition;
+		try (BodyStore bodyStore = new BodyStore(1024 * 1024, this.directory);
+		        AsyncBatchWriter writer = new AsyncBatchWriter(Channels.newChannel(bytes), StandardCharsets.UTF_8, true)) {
+			final EntryEncoder encoder = new CsvEntryEncoder(writer, false);
+			if(chunked) {
+				try (ChunkedFileParser parser = new ChunkedFileParser(appArgs, bodyStore)) {
+					final ChunkedFileParser.Progress progress = parser.parse(this.log, 0, -1, 0, aggregator, encoder);
+					lineCount = progress.getLineCount();
+					stopPosition = progress.getStopPosition();
+				}
+			} else {
+				// like a sequential run of the parser
+				try (LogEntryReader reader = new LogEntryReader(new FileInputStream(this.log), appArgs, bodyStore)) {
+					LogEntry logEntry;
+					while((logEntry = reader.next()) != null) {
+						if(appArgs.getTop() > 0) {
+							aggregator.merge(logEntry);
+						} else if(!appArgs.isFlagUnique()) {
+							encoder.writeEntry(logEntry);
+						}
+					}
+					aggregator.mergeAll(reader.getUniqueEntries());
+					lineCount = reader.getLineNumber();
+					stopPosition = reader.getStopPosition();
+				}
+			}
+			for(final LogEntry entry: aggregator.getEntries()) {
+				encoder.writeEntry(entry);
+			}
+			encoder.flush();
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8) + "lines " + lineCount + ", stop " + stopPosition;
+	}
+
+	private static String[] concat(final String[] first, final String... second) {
+		final String[] all = new String[first.length + second.length];
+		System.arraycopy(first, 0, all, 0, first.length);
+		System.arraycopy(second, 0, all, first.length, second.length);
+		return all;
+	}
+}
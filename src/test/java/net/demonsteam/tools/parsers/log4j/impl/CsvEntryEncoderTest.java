@@ -0,0 +1,66 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class CsvEntryEncoderTest extends TestCase {
+
+	private static final String HEADER = "01.01.2019 00:00:00.0002 *INFO* [main] com.example.Service ";
+
+	public void testHeaderRow() throws IOException, ParseException {
+		assertTrue(encode(HEADER + "started", null).startsWith("hash,count,first,last,lineNumber,line,body\n"));
+	}
+
+	public void testQuotesTheLine() throws IOException, ParseException {
+		final String csv = encode(HEADER + "say \"hi\", bye\t\u00e9", null);
+		assertTrue(csv, csv.endsWith(",\"" + HEADER + "say \"\"hi\"\", bye\t\u00e9\",\n"));
+	}
+
+	public void testQuotesTheBody() throws IOException, ParseException {
+		final String csv = encode(HEADER + "failed", "java.lang.IllegalStateException: \"bad\"\n\tat Service.run(Service.java:1)\n");
+		assertTrue(csv, csv.endsWith(",\"" + HEADER + "failed\",\"java.lang.IllegalStateException: \"\"bad\"\"\n\tat Service.run(Service.java:1)\"\n"));
+	}
+
+	private static String encode(final String line, final String body) throws IOException, ParseException {
+		final AppArguments appArgs = AppArguments.parse("-i", "test.log", "-l", "INFO");
+		final LogEntry entry = new LogEntry(line, appArgs);
+		if(body != null) {
+			entry.setBody(body, XxHash64.hash(body));
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (AsyncBatchWriter writer = new AsyncBatchWriter(Channels.newChannel(bytes), StandardCharsets.UTF_8, true)) {
+			final EntryEncoder encoder = new CsvEntryEncoder(writer, false);
+			encoder.writeHeader();
+			encoder.writeEntry(entry);
+			encoder.flush();
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,80 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class JsonLinesEntryEncoderTest extends TestCase {
+
+	private static final String HEADER = "01.01.2019 00:00:00.0002 *INFO* [main] com.example.Service ";
+
+	public void testEscapesTheLine() throws IOException, ParseException {
+		final String json = encode(HEADER + "say \"hi\" to C:\\temp\tnow\u0001\u007f", null, null);
+		assertTrue(json, json.contains(",\"line\":\"" + HEADER + "say \\\"hi\\\" to C:\\\\temp\\tnow\\u0001\\u007f\",\"body\":null}\n"));
+	}
+
+	public void testEncodesNonAsciiInUtf8() throws IOException, ParseException {
+		final String json = encode(HEADER + "caf\u00e9 \u20ac \ud83d\ude00 \ud83d", null, null);
+		assertTrue(json, json.contains(HEADER + "caf\u00e9 \u20ac \ud83d\ude00 ?\""));
+	}
+
+	public void testEscapesTheBody() throws IOException, ParseException {
+		final String body = "java.lang.IllegalStateException: \"bad\"\r\n\tat Service.run(Service.java:1)\n";
+		final String expected = ",\"body\":\"java.lang.IllegalStateException: \\\"bad\\\"\\r\\n\\tat Service.run(Service.java:1)\"}\n";
+		assertTrue(encode(HEADER + "failed", body, null).endsWith(expected));
+		// a stored body is copied as UTF-8 bytes, escaped the same way
+		try (BodyStore store = new BodyStore(1024 * 1024, null)) {
+			assertTrue(encode(HEADER + "failed", body, store).endsWith(expected));
+		}
+	}
+
+	public void testFields() throws IOException, ParseException {
+		final String json = encode(HEADER + "started", null, null);
+		assertTrue(json, json.matches("\\{\"hash\":\"[0-9a-f]{16}\",\"count\":1,\"first\":-?\\d+,\"last\":-?\\d+,\"lineNumber\":3,\"line\":\".*\",\"body\":null\\}\n"));
+	}
+
+	private static String encode(final String line, final String body, final BodyStore store) throws IOException, ParseException {
+		final AppArguments appArgs = AppArguments.parse("-i", "test.log", "-l", "INFO");
+		final LogEntry entry = new LogEntry(line, appArgs);
+		entry.setLineNumber(3);
+		if(body != null) {
+			entry.setBody(body, XxHash64.hash(body));
+			if(store != null) {
+				entry.storeBody(store);
+			}
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (AsyncBatchWriter writer = new AsyncBatchWriter(Channels.newChannel(bytes), StandardCharsets.UTF_8, true)) {
+			final EntryEncoder encoder = new JsonLinesEntryEncoder(writer, false);
+			encoder.writeEntry(entry);
+			encoder.flush();
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
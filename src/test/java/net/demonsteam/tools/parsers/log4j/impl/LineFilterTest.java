@@ -0,0 +1,107 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class LineFilterTest extends TestCase {
+
+	private static final String HEADER = "01.01.2019 00:00:00.0002 *ERROR* ";
+
+	private static final String[] PATTERNS = {".*Connection refused.*", ".*Timeout (in|at) \\d+ms.*", "colou?r.*", ".*(foo|bar)baz.*", ".*a\\.b\\$c.*",
+	        ".*\\Qx.y\\E.*", "(?i).*error.*", ".*ab{2,3}c.*", ".*[xyz]end.*", ".*x+y.*", ".*ERROR.*|.*warn.*", ".*\\d{3} ms.*", ".*caf\u00e9 (au lait)?ok.*",
+	        ".*a*?b.*", "[^q]*q"};
+
+	private static final String[] FRAGMENTS = {"Connection refused", "Connection ", "Timeout in 12ms", "Timeout at ms", "color", "colour", "colr", "foobaz",
+	        "barbaz", "baz", "a.b$c", "aXb$c", "x.y", "xzy", "Error", "ERROR", "warn", "abbc", "abc", "abbbbc", "yend", "end", "xxy", "123 ms", "12 ms",
+	        "caf\u00e9 ok", "caf\u00e9 au lait ok", " ", "q", "b"};
+
+	public void testLiteralsOfPlainText() {
+		assertEquals(Arrays.asList("Connection refused"), LineFilter.extractRequiredLiterals(".*Connection refused.*"));
+		assertEquals(Arrays.asList("a.b$c"), LineFilter.extractRequiredLiterals(".*a\\.b\\$c.*"));
+	}
+
+	public void testLiteralsAroundGroupsAndClasses() {
+		assertEquals(Arrays.asList("Timeout ", " ", "ms"), LineFilter.extractRequiredLiterals(".*Timeout (in|at) \\d+ms.*"));
+		assertEquals(Arrays.asList("foo", "baz"), LineFilter.extractRequiredLiterals("foo(bar)?baz"));
+		assertEquals(Arrays.asList("end"), LineFilter.extractRequiredLiterals(".*[xyz]end.*"));
+		assertEquals(Arrays.asList("x"), LineFilter.extractRequiredLiterals(".*x\\d"));
+	}
+
+	public void testOptionalCharactersEndALiteral() {
+		assertEquals(Arrays.asList("colo", "r"), LineFilter.extractRequiredLiterals("colou?r"));
+		assertEquals(Arrays.asList("a", "c"), LineFilter.extractRequiredLiterals("ab{2,3}c"));
+		assertEquals(Arrays.asList("x", "y"), LineFilter.extractRequiredLiterals("x+y"));
+		assertEquals(Arrays.asList("b"), LineFilter.extractRequiredLiterals("a*?b"));
+	}
+
+	public void testNoLiteralsForAlternationFlagsOrQuotation() {
+		assertEquals(Collections.emptyList(), LineFilter.extractRequiredLiterals(".*ERROR.*|.*warn.*"));
+		assertEquals(Collections.emptyList(), LineFilter.extractRequiredLiterals("(?i).*error.*"));
+		assertEquals(Collections.emptyList(), LineFilter.extractRequiredLiterals(".*\\Qx.y\\E.*"));
+		assertEquals(Collections.emptyList(), LineFilter.extractRequiredLiterals("abc\\"));
+	}
+
+	/**
+	 * The literal stage must never reject a message the regular expression matches, so the filter decides like the
+	 * plain regular expression on the message
+	 */
+	public void testFilterDecidesLikeThePlainRegex() {
+		final Random random = new Random(5);
+		for(final String userPattern: PATTERNS) {
+			final LineFilter filter = new LineFilter(Arrays.asList(LogLevel.ERROR), userPattern, StandardCharsets.UTF_8);
+			final Pattern pattern = Pattern.compile(userPattern);
+			final List<String> literals = LineFilter.extractRequiredLiterals(userPattern);
+			for(int i = 0; i < 2000; i++) {
+				final StringBuilder message = new StringBuilder();
+				for(int fragments = 1 + random.nextInt(4); fragments > 0; fragments--) {
+					message.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+				}
+				final String line = HEADER + message;
+				final boolean expected = pattern.matcher(message).matches();
+				assertEquals(userPattern + " on " + message, expected, filter.matches(line));
+				if(expected) {
+					final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+					assertTrue(userPattern + " on " + message, filter.mayMatch(bytes, 0, bytes.length));
+					for(final String literal: literals) {
+						assertTrue(userPattern + " on " + message, message.indexOf(literal) >= 0);
+					}
+				}
+			}
+		}
+	}
+
+	public void testOtherLevelsAreRejected() {
+		final LineFilter filter = new LineFilter(Arrays.asList(LogLevel.ERROR), ".*refused.*", StandardCharsets.UTF_8);
+		assertTrue(filter.matches(HEADER + "Connection refused"));
+		assertFalse(filter.matches("01.01.2019 00:00:00.0002 *INFO* Connection refused"));
+		assertFalse(filter.matches("\tat Connection refused"));
+	}
+}
@@ -0,0 +1,111 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class LongObjectMapTest extends TestCase {
+
+	public void testPutGetRemove() {
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		assertNull(map.put(42, "a"));
+		assertEquals("a", map.put(42, "b"));
+		assertEquals("b", map.get(42));
+		assertTrue(map.containsKey(42));
+		assertFalse(map.containsKey(43));
+		assertEquals(1, map.size());
+		assertEquals("b", map.remove(42));
+		assertNull(map.remove(42));
+		assertNull(map.get(42));
+		assertEquals(0, map.size());
+	}
+
+	public void testFreeKey() {
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		assertNull(map.get(0));
+		assertNull(map.put(0, "zero"));
+		map.put(1, "one");
+		assertEquals("zero", map.get(0));
+		assertEquals(2, map.size());
+		assertEquals("zero", map.putIfAbsent(0, "other"));
+		assertEquals("zero", map.remove(0));
+		assertNull(map.get(0));
+		assertEquals("one", map.get(1));
+		assertEquals(1, map.size());
+	}
+
+	public void testResize() {
+		final LongObjectMap<Long> map = new LongObjectMap<>(2);
+		for(long key = -5000; key < 5000; key++) {
+			map.put(key * 0x10000L, key);
+		}
+		assertEquals(10000, map.size());
+		for(long key = -5000; key < 5000; key++) {
+			assertEquals(Long.valueOf(key), map.get(key * 0x10000L));
+		}
+		assertNull(map.get(1));
+	}
+
+	public void testClear() {
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		map.put(0, "zero");
+		map.put(7, "seven");
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get(0));
+		assertNull(map.get(7));
+		map.put(7, "again");
+		assertEquals("again", map.get(7));
+	}
+
+	/**
+	 * Compares random operations on few keys with a {@link HashMap}, so the probe sequences collide and the removals
+	 * shift the following keys back
+	 */
+	public void testRandomOperations() {
+		final Random random = new Random(12345);
+		final LongObjectMap<Long> map = new LongObjectMap<>();
+		final Map<Long, Long> expected = new HashMap<>();
+		for(int i = 0; i < 200000; i++) {
+			final long key = random.nextInt(300) - 20;
+			switch(random.nextInt(3)) {
+				case 0:
+					assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+					break;
+				case 1:
+					assertEquals(expected.remove(key), map.remove(key));
+					break;
+				default:
+					assertEquals(expected.get(key), map.get(key));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for(long key = -20; key < 280; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+	}
+}
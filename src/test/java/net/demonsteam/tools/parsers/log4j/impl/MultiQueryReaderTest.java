@@ -0,0 +1,141 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that a single pass over the input gives every query the entries a {@link LogEntryReader} of its own would
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class MultiQueryReaderTest extends TestCase {
+
+	private static final long START = 1_546_300_800_000L; // 1 Jan 2019
+	private static final String[] LEVELS = {"ERROR", "WARN", "INFO", "DEBUG"};
+	private static final String[] MESSAGES = {"Connection refused", "Timeout after 5s", "Timeout after 7s", "started", "request 42 failed",
+	        "caf\u00e9 closed"};
+	private static final String[] BODIES = {"java.lang.IllegalStateException: closed\n\tat com.example.Service.run(Service.java:42)\n",
+	        "java.net.ConnectException: refused\n\tat com.example.Client.connect(Client.java:7)\n"};
+
+	private byte[] log;
+
+	@Override
+	protected void setUp() throws Exception {
+		final Random random = new Random(13);
+		final TimestampParser timestampParser = AppArguments.parse("-i", "test.log", "-l", "ERROR").getTimestampParser();
+		final StringBuilder text = new StringBuilder();
+		long millis = START;
+		for(int i = 0; i < 5000; i++) {
+			millis += random.nextInt(1000);
+			text.append(timestampParser.format(millis)).append(" *").append(LEVELS[random.nextInt(LEVELS.length)]).append("* [main] com.example.Service ")
+			        .append(MESSAGES[random.nextInt(MESSAGES.length)]).append('\n');
+			if(random.nextInt(3) == 0) {
+				text.append(BODIES[random.nextInt(BODIES.length)]);
+			}
+		}
+		this.log = text.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	public void testSameEntriesAsOneReaderPerQuery() throws Exception {
+		assertSameEntries(AppArguments.parse("-i", "test.log", "-l", "ERROR", "-u", "-e", "UTF-8", "--query=-l warn,info -p .*Timeout.* -o q1.log",
+		                                     "--query=-l error,warn -p .*refused.* -u -o q2.log", "--query=-l info,debug,error -u --top 3 -o q3.log",
+		                                     "--query=-l debug -p .*caf\u00e9.* -o q4.log"));
+	}
+
+	public void testSameStopAtTheEndOfTheTimeWindow() throws Exception {
+		final TimestampParser timestampParser = AppArguments.parse("-i", "test.log", "-l", "ERROR").getTimestampParser();
+		final String from = timestampParser.format(START + 600_000L);
+		final String to = timestampParser.format(START + 1_800_000L);
+		assertSameEntries(AppArguments.parse("-i", "test.log", "-l", "ERROR", "-e", "UTF-8", "--from", from, "--to", to, "--query=-l warn -u -o q5.log",
+		                                     "--query=-l info -p .*started.* -o q6.log"));
+	}
+
+	/**
+	 * @param appArgs the arguments of the first query with the further queries, their output files are not written
+	 */
+	private void assertSameEntries(final AppArguments appArgs) throws IOException {
+		final List<AppArguments> queries = new ArrayList<>();
+		queries.add(appArgs);
+		queries.addAll(appArgs.getQueries());
+		final List<List<LogEntry>> handled = new ArrayList<>();
+		for(int query = 0; query < queries.size(); query++) {
+			handled.add(new ArrayList<>());
+		}
+		try (BodyStore bodyStore = new BodyStore(1024 * 1024, null);
+		        MultiQueryReader reader = new MultiQueryReader(new ByteArrayInputStream(this.log), queries, bodyStore)) {
+			reader.read((query, entry) -> handled.get(query).add(entry));
+			// the single pass stops at the first entry after the time window matching any query
+			long firstStop = -1;
+			long firstStopLines = -1;
+			for(int query = 0; query < queries.size(); query++) {
+				final List<LogEntry> expected = new ArrayList<>();
+				final List<LogEntry> expectedUnique;
+				final long expectedLines;
+				final long expectedStop;
+				try (LogEntryReader single = new LogEntryReader(new ByteArrayInputStream(this.log), queries.get(query), bodyStore)) {
+					LogEntry entry;
+					while((entry = single.next()) != null) {
+						expected.add(entry);
+					}
+					expectedUnique = single.getUniqueEntries();
+					expectedLines = single.getLineNumber();
+					expectedStop = single.getStopPosition();
+				}
+				final String name = "query " + query;
+				if(expectedUnique.isEmpty()) {
+					assertFalse(name, expected.isEmpty());
+					assertEntries(name, expected, handled.get(query));
+				} else {
+					assertTrue(name, handled.get(query).isEmpty());
+					assertEntries(name, expectedUnique, reader.getUniqueEntries(query));
+				}
+				if(firstStop < 0 || expectedStop >= 0 && expectedStop < firstStop) {
+					firstStop = expectedStop;
+					firstStopLines = expectedLines;
+				}
+			}
+			assertEquals(firstStopLines, reader.getLineNumber());
+			assertEquals(firstStop, reader.getStopPosition());
+		}
+	}
+
+	private static void assertEntries(final String name, final List<LogEntry> expected, final List<LogEntry> actual) {
+		assertEquals(name, expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			final LogEntry expectedEntry = expected.get(i);
+			final LogEntry actualEntry = actual.get(i);
+			assertEquals(name, expectedEntry.getLine(), actualEntry.getLine());
+			assertEquals(name, expectedEntry.getLineNumber(), actualEntry.getLineNumber());
+			assertEquals(name, expectedEntry.getHash(), actualEntry.getHash());
+			assertEquals(name, expectedEntry.getCount(), actualEntry.getCount());
+			assertEquals(name, expectedEntry.getFirstOccurrenceMillis(), actualEntry.getFirstOccurrenceMillis());
+			assertEquals(name, expectedEntry.getLastOccurrenceMillis(), actualEntry.getLastOccurrenceMillis());
+			assertEquals(name, expectedEntry.readBody(), actualEntry.readBody());
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class ParallelGzipInputStreamTest extends TestCase {
+
+	private ExecutorService executor;
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.file = File.createTempFile("parallel", ".gz");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.executor.shutdownNow();
+		this.file.delete();
+	}
+
+	/**
+	 * A stored member holds the bytes of a complete gzip file, so the candidate inside it is a valid member which must
+	 * be discarded
+	 */
+	public void testFalseCandidateInsideMember() throws IOException {
+		final byte[] inner = gzip("a gzip file inside a log entry\n".getBytes("US-ASCII"), Deflater.DEFAULT_COMPRESSION);
+		final ByteArrayOutputStream first = new ByteArrayOutputStream();
+		first.write("before\n".getBytes("US-ASCII"));
+		first.write(inner);
+		first.write(new byte[] {0x1F, (byte) 0x8B, 8, 0, 0x1F, (byte) 0x8B, 8}); // a broken header and one cut off
+		first.write("after\n".getBytes("US-ASCII"));
+		final byte[] second = "the second member\n".getBytes("US-ASCII");
+
+		try (OutputStream out = new FileOutputStream(this.file)) {
+			out.write(gzip(first.toByteArray(), Deflater.NO_COMPRESSION));
+			out.write(gzip(second, Deflater.DEFAULT_COMPRESSION));
+		}
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(first.toByteArray());
+		expected.write(second);
+		assertTrue(Arrays.equals(expected.toByteArray(), readParallel(1)));
+		assertTrue(Arrays.equals(expected.toByteArray(), readParallel(4)));
+	}
+
+	public void testManyMembersLikeGzipInputStream() throws IOException {
+		final Random random = new Random(5);
+		try (OutputStream out = new FileOutputStream(this.file)) {
+			for(int i = 0; i < 20; i++) {
+				final byte[] data = new byte[random.nextInt(100000)];
+				random.nextBytes(data);
+				// random bytes are stored, so the candidates in them are false ones
+				out.write(gzip(data, i % 2 == 0 ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED));
+			}
+		}
+		final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(new FileInputStream(this.file))) {
+			copy(in, expected);
+		}
+		assertTrue(Arrays.equals(expected.toByteArray(), readParallel(4)));
+	}
+
+	public void testNotGzip() throws IOException {
+		try (OutputStream out = new FileOutputStream(this.file)) {
+			out.write("plain text\n".getBytes("US-ASCII"));
+		}
+		try {
+			readParallel(2);
+			fail("plain text is not in gzip format");
+		} catch(final IOException e) {
+			// expected
+		}
+	}
+
+	private byte[] readParallel(final int parallelism) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputStream in = new ParallelGzipInputStream(this.file.toPath(), this.executor, parallelism)) {
+			copy(in, bytes);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void copy(final InputStream in, final OutputStream out) throws IOException {
+		final byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, read);
+		}
+	}
+
+	private static byte[] gzip(final byte[] data, final int level) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+			{
+				this.def.setLevel(level);
+			}
+		}) {
+			out.write(data);
+		}
+		return bytes.toByteArray();
+	}
+}
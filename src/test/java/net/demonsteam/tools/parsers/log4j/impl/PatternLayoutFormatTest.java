@@ -0,0 +1,160 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class PatternLayoutFormatTest extends TestCase {
+
+	private static final String LAYOUT = "%d{ISO8601} [%t] %-5p %c - %m%n";
+	private static final String LINE = "2019-01-01 10:00:00,123 [main] INFO  com.example.Service - hello [world]";
+
+	public void testCompilesTheDateFormat() {
+		assertEquals("yyyy-MM-dd HH:mm:ss,SSS", new PatternLayoutFormat(LAYOUT).getDateFormat());
+		assertEquals("yyyy-MM-dd HH:mm:ss,SSS", new PatternLayoutFormat("%d %p %m").getDateFormat());
+		assertEquals("HH:mm:ss,SSS", new PatternLayoutFormat("%d{ABSOLUTE} %p %m").getDateFormat());
+		assertEquals("dd.MM.yyyy HH:mm:ss", new PatternLayoutFormat("%d{dd.MM.yyyy HH:mm:ss} %p %m").getDateFormat());
+	}
+
+	public void testFindsTheMessage() {
+		final PatternLayoutFormat format = new PatternLayoutFormat(LAYOUT);
+		assertEquals(LINE.indexOf("hello"), format.findMessageStart(LINE));
+		assertEquals(LINE.indexOf("hello"), format.findMessageStart("2019-01-01 10:00:00,123 [main] ERROR com.example.Service - hello [world]"));
+		assertEquals(-1, format.findMessageStart("2019-01-01 10:00:00,123 [main] NOTE  com.example.Service - hello"));
+		assertEquals(-1, format.findMessageStart("2019-01-01 10:00 [main] INFO  com.example.Service - hello"));
+		assertEquals(-1, format.findMessageStart("\tat com.example.Service.run(Service.java:42)"));
+		assertEquals(-1, format.findMessageStart(""));
+	}
+
+	public void testFindsTheFields() {
+		final int[] bounds = new int[2 * HeaderFormat.Field.values().length];
+		assertTrue(new PatternLayoutFormat(LAYOUT).findFields(LINE, bounds));
+		assertEquals("2019-01-01 10:00:00,123", field(LINE, bounds, HeaderFormat.Field.DATE));
+		assertEquals("main", field(LINE, bounds, HeaderFormat.Field.THREAD));
+		assertEquals("INFO", field(LINE, bounds, HeaderFormat.Field.LEVEL));
+		assertEquals("com.example.Service", field(LINE, bounds, HeaderFormat.Field.LOGGER));
+		assertEquals("hello [world]", field(LINE, bounds, HeaderFormat.Field.MESSAGE));
+
+		final String line = "2019-01-01 10:00:00,123 WARN hello";
+		assertTrue(new PatternLayoutFormat("%d %p %m").findFields(line, bounds));
+		assertEquals(-1, bounds[2 * HeaderFormat.Field.THREAD.ordinal()]);
+		assertEquals(-1, bounds[2 * HeaderFormat.Field.LOGGER.ordinal()]);
+	}
+
+	public void testDateOfVariableWidth() {
+		final PatternLayoutFormat format = new PatternLayoutFormat("%d{d.M.yyyy H:mm:ss} %p %m");
+		final String line = "1.10.2019 9:02:03 WARN disk almost full";
+		assertEquals(line.indexOf("disk"), format.findMessageStart(line));
+		assertEquals(-1, format.findMessageStart(" WARN disk almost full"));
+	}
+
+	public void testBytesLikeChars() {
+		final PatternLayoutFormat format = new PatternLayoutFormat(LAYOUT);
+		final String[] lines = {LINE, "2019-01-01 10:00:00,123 [main] DEBUG c - x", "2019-01-01 10:00:00,123 [main] INFO  c", "no header", "2019-01-01 10:00:00,123 [worker ] one] FATAL c.d - stop"};
+		for(final String line: lines) {
+			final byte[] bytes = ("#" + line + "\n").getBytes(StandardCharsets.US_ASCII);
+			final int charStart = format.findMessageStart(line);
+			final int byteStart = format.findMessageStart(bytes, 1, bytes.length - 1);
+			assertEquals(line, charStart, byteStart < 0 ? -1 : byteStart - 1);
+		}
+	}
+
+	public void testLevelEndsAtAWordBoundary() {
+		final PatternLayoutFormat padded = new PatternLayoutFormat(LAYOUT);
+		final PatternLayoutFormat plain = new PatternLayoutFormat("%d %p %c - %m%n");
+		final PatternLayoutFormat rightAligned = new PatternLayoutFormat("%d %5p %c - %m%n");
+		final String infox = "2019-01-01 10:00:00,123 [main] INFOX com.example.Service - hello";
+		final String errors = "2019-01-01 10:00:00,123 [main] ERRORS com.example.Service - hello";
+		assertEquals(-1, padded.findMessageStart(infox));
+		assertEquals(-1, plain.findMessageStart("2019-01-01 10:00:00,123 INFOX c - hello"));
+		assertEquals(-1, plain.findMessageStart("2019-01-01 10:00:00,123 ERRORS c - hello"));
+		assertEquals(-1, rightAligned.findMessageStart("2019-01-01 10:00:00,123 INFOX c - hello"));
+		assertEquals(-1, rightAligned.findMessageStart("2019-01-01 10:00:00,123 INFOXY c - hello"));
+		assertEquals(-1, padded.findMessageStart(errors));
+		// the padded width ends after ERROR, the S is the start of the logger
+		final PatternLayoutFormat unseparated = new PatternLayoutFormat("%d %-5p%c - %m%n");
+		final String logger = "2019-01-01 10:00:00,123 ERRORService - hello";
+		assertEquals(logger.indexOf("hello"), unseparated.findMessageStart(logger));
+		assertEquals(-1, unseparated.findMessageStart("2019-01-01 10:00:00,123 INFOXService - hello"));
+		assertEquals(LINE.indexOf("hello"), padded.findMessageStart(LINE));
+		final String warn = "2019-01-01 10:00:00,123 WARN c - hello";
+		assertEquals(warn.indexOf("hello"), plain.findMessageStart(warn));
+		assertEquals(warn.indexOf("hello") + 1, rightAligned.findMessageStart(warn.replace(" WARN", "  WARN")));
+		for(final String line: new String[] {infox, errors, LINE}) {
+			final byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(line, padded.findMessageStart(line), padded.findMessageStart(bytes, 0, bytes.length));
+		}
+	}
+
+	public void testForLevels() {
+		final HeaderFormat errors = new PatternLayoutFormat(LAYOUT).forLevels(Arrays.asList(LogLevel.ERROR, LogLevel.FATAL));
+		assertFalse(errors.isHeader(LINE));
+		assertTrue(errors.isHeader("2019-01-01 10:00:00,123 [main] ERROR com.example.Service - failed"));
+	}
+
+	public void testParsesTheDate() throws ParseException {
+		final PatternLayoutFormat format = new PatternLayoutFormat(LAYOUT);
+		final TimestampParser parser = new TimestampParser(format.getDateFormat());
+		assertEquals(parser.parse("2019-01-01 10:00:00,123"), format.parseDate(LINE, parser));
+		try {
+			format.parseDate("no header", parser);
+			fail("a line which is no header has no date");
+		} catch(final ParseException e) {
+			// expected
+		}
+	}
+
+	public void testInvalidLayouts() {
+		assertInvalid("%p %m"); // no date
+		assertInvalid("%d %m"); // no level
+		assertInvalid("%d %p"); // no message
+		assertInvalid("%d %d %p %m");
+		assertInvalid("%d %p %p %m");
+		assertInvalid("%d %p%n%m");
+		assertInvalid("%d %p %m [%t]");
+		assertInvalid("%d %p %t%m");
+		assertInvalid("%d{yyyy %p %m");
+		assertInvalid("%d{HH:mm}{UTC} %p %m");
+		assertInvalid("%d %p % %m");
+		assertInvalid("%d{d.M.yyyy}%p %m"); // a date of variable width followed by no text
+		// a throwable and the line separator may follow the message
+		new PatternLayoutFormat("%d %p %m %throwable%n");
+	}
+
+	private static void assertInvalid(final String layout) {
+		try {
+			new PatternLayoutFormat(layout);
+			fail("invalid layout: " + layout);
+		} catch(final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static String field(final String line, final int[] bounds, final HeaderFormat.Field field) {
+		return line.substring(bounds[2 * field.ordinal()], bounds[2 * field.ordinal() + 1]);
+	}
+}
@@ -0,0 +1,194 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the binary search and the search with the sparse index against a plain scan of the headers of a file
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TimeRangeSeekerTest extends TestCase {
+
+	private static final long START = 1_546_300_800_000L; // 1 Jan 2019
+	private static final String BODY = "java.lang.IllegalStateException: closed\n\tat com.example.Service.run(Service.java:42)\n";
+
+	private File directory;
+	private File log;
+	private AppArguments appArgs;
+	private final List<long[]> headers = new ArrayList<>(); // position, date, lines before
+	private long size;
+	private long lines;
+	private long lastMillis = START;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.directory = Files.createTempDirectory("seeker").toFile();
+		this.log = new File(this.directory, "app.log");
+		this.appArgs = AppArguments.parse("-i", this.log.getPath(), "-l", "ERROR");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for(final File file: this.directory.listFiles()) {
+			file.delete();
+		}
+		this.directory.delete();
+	}
+
+	public void testBinarySearchWithoutIndex() throws IOException {
+		append(new Random(1), 120_000);
+		try (TimeRangeSeeker seeker = open(false)) {
+			assertFalse(seeker.isIndexed());
+			assertRanges(seeker, new Random(2), false);
+		}
+		assertFalse(indexFile().exists());
+	}
+
+	public void testLookupWithIndex() throws IOException {
+		append(new Random(1), 120_000);
+		try (TimeRangeSeeker seeker = open(true)) {
+			assertTrue(seeker.isIndexed());
+			assertRanges(seeker, new Random(2), true);
+		}
+		assertTrue(indexFile().isFile());
+		// a later run uses the saved index without updating it
+		try (TimeRangeSeeker seeker = open(false)) {
+			assertTrue(seeker.isIndexed());
+			assertRanges(seeker, new Random(3), true);
+		}
+	}
+
+	public void testIndexIsExtendedForAnAppendedFile() throws IOException {
+		final Random random = new Random(4);
+		append(random, 60_000);
+		open(true).close();
+		append(random, 60_000);
+		try (TimeRangeSeeker seeker = open(false)) {
+			// the saved index covers the first part only, the rest is scanned
+			assertTrue(seeker.isIndexed());
+			assertRanges(seeker, new Random(5), true);
+		}
+		try (TimeRangeSeeker seeker = open(true)) {
+			assertRanges(seeker, new Random(6), true);
+		}
+	}
+
+	public void testIndexOfAReplacedFileIsIgnored() throws IOException {
+		append(new Random(7), 60_000);
+		open(true).close();
+		this.headers.clear();
+		this.size = 0;
+		this.lines = 0;
+		this.lastMillis = START + 3_600_000L;
+		this.log.delete();
+		append(new Random(8), 60_000);
+		try (TimeRangeSeeker seeker = open(false)) {
+			assertFalse(seeker.isIndexed());
+			assertRanges(seeker, new Random(9), false);
+		}
+	}
+
+	private void assertRanges(final TimeRangeSeeker seeker, final Random random, final boolean indexed) throws IOException {
+		final long first = this.headers.get(0)[1];
+		final long last = this.headers.get(this.headers.size() - 1)[1];
+		assertRange(seeker, Long.MIN_VALUE, Long.MAX_VALUE, indexed);
+		assertRange(seeker, first - 1000, first + 1000, indexed);
+		assertRange(seeker, last, Long.MAX_VALUE, indexed);
+		assertRange(seeker, last + 1, Long.MAX_VALUE, indexed);
+		assertRange(seeker, Long.MIN_VALUE, first - 1, indexed);
+		for(int i = 0; i < 20; i++) {
+			// dates of entries and dates between them
+			final long from = this.headers.get(random.nextInt(this.headers.size()))[1] + random.nextInt(2);
+			final long to = random.nextBoolean() ? Long.MAX_VALUE : from + random.nextInt(600_000);
+			assertRange(seeker, from, to, indexed);
+		}
+	}
+
+	private void assertRange(final TimeRangeSeeker seeker, final long fromMillis, final long toMillis, final boolean indexed) throws IOException {
+		final String window = fromMillis + ".." + toMillis;
+		final TimeRangeSeeker.Range range = seeker.seek(fromMillis, toMillis);
+		final long[] start = fromMillis == Long.MIN_VALUE ? new long[] {0, 0, 0} : firstHeader(fromMillis, 0);
+		if(start == null) {
+			assertEquals(window, this.size, range.getStart());
+			assertEquals(window, this.size, range.getEnd());
+			assertEquals(window, -1, range.getLineOffset());
+			return;
+		}
+		final long[] end = toMillis == Long.MAX_VALUE ? null : firstHeader(toMillis + 1, start[0]);
+		assertEquals(window, start[0], range.getStart());
+		assertEquals(window, end == null ? this.size : end[0], range.getEnd());
+		assertEquals(window, indexed || fromMillis == Long.MIN_VALUE ? start[2] : -1, range.getLineOffset());
+	}
+
+	/**
+	 * @return the first header at or after the position dated at or after the date, by a plain scan
+	 */
+	private long[] firstHeader(final long millis, final long from) {
+		for(final long[] header: this.headers) {
+			if(header[0] >= from && header[1] >= millis) {
+				return header;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Appends entries in the order of their dates, some of the same date, some with a body
+	 */
+	private void append(final Random random, final int entries) throws IOException {
+		final TimestampParser timestampParser = this.appArgs.getTimestampParser();
+		final StringBuilder text = new StringBuilder();
+		for(int i = 0; i < entries; i++) {
+			this.lastMillis += random.nextInt(60);
+			final String header = timestampParser.format(this.lastMillis) + " *ERROR* [main] com.example.Service failed " + i + "\n";
+			this.headers.add(new long[] {this.size + text.length(), this.lastMillis, this.lines});
+			text.append(header);
+			this.lines++;
+			if(random.nextInt(7) == 0) {
+				text.append(BODY);
+				this.lines += 2;
+			}
+		}
+		try (OutputStream out = new FileOutputStream(this.log, true)) {
+			out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+		}
+		this.size += text.length();
+	}
+
+	private TimeRangeSeeker open(final boolean updateIndex) throws IOException {
+		return new TimeRangeSeeker(this.log, this.appArgs.getHeaderFormat(), this.appArgs.getTimestampParser(), this.appArgs.getEncoding(), updateIndex);
+	}
+
+	private File indexFile() {
+		return new File(this.log.getPath() + ".tidx");
+	}
+}
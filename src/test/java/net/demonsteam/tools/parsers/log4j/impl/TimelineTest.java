@@ -0,0 +1,176 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TimelineTest extends TestCase {
+
+	private static final long MINUTE = 60_000L;
+	private static final long START = 1_546_300_800_000L; // 1 Jan 2019
+
+	public void testSteadyRateIsOneRun() throws IOException {
+		final Timeline timeline = new Timeline(MINUTE);
+		for(int minute = 0; minute < 10000; minute++) {
+			timeline.add(START + minute * MINUTE);
+			timeline.add(START + minute * MINUTE + 30_000L);
+		}
+		assertEquals(20000, timeline.getTotal());
+		assertEquals(2, timeline.getPeakCount());
+		assertEquals(START, timeline.getPeakMillis());
+		// no run is encoded yet: the open run and the last bucket are kept in fields
+		assertEquals(0, readRunsLength(serialize(timeline)));
+		// a gap and another bucket close the run of the steady rate, which takes a few bytes
+		timeline.add(START + 20000 * MINUTE);
+		timeline.add(START + 20001 * MINUTE);
+		final int runsLength = readRunsLength(serialize(timeline));
+		assertTrue(runsLength > 0 && runsLength <= 8);
+	}
+
+	public void testPeak() {
+		final Timeline timeline = new Timeline(MINUTE);
+		for(int minute = 0; minute < 100; minute++) {
+			timeline.add(START + minute * MINUTE);
+		}
+		for(int i = 0; i < 50; i++) {
+			timeline.add(START + 100 * MINUTE + i);
+		}
+		timeline.add(START + 200 * MINUTE);
+		assertEquals(151, timeline.getTotal());
+		assertEquals(50, timeline.getPeakCount());
+		assertEquals(START + 100 * MINUTE, timeline.getPeakMillis());
+		assertTrue(timeline.isBurst(201));
+		assertFalse(timeline.isBurst(2));
+	}
+
+	public void testOutOfOrderAddsRewriteToTheInOrderTimeline() throws IOException {
+		final List<Long> dates = randomDates(new Random(7), 5000);
+		final Timeline ordered = new Timeline(MINUTE);
+		final List<Long> sorted = new ArrayList<>(dates);
+		Collections.sort(sorted);
+		for(final long date: sorted) {
+			ordered.add(date);
+		}
+		final Timeline shuffled = new Timeline(MINUTE);
+		for(final long date: dates) {
+			shuffled.add(date);
+		}
+		assertEquals(ordered.getTotal(), shuffled.getTotal());
+		assertEquals(ordered.getPeakCount(), shuffled.getPeakCount());
+		assertEquals(ordered.getPeakMillis(), shuffled.getPeakMillis());
+		assertTrue(Arrays.equals(serialize(ordered), serialize(shuffled)));
+	}
+
+	public void testReverseOrderAddsAreBuffered() throws IOException {
+		final Timeline ordered = new Timeline(MINUTE);
+		final Timeline reversed = new Timeline(MINUTE);
+		final int minutes = 200_000;
+		for(int minute = 0; minute < minutes; minute++) {
+			ordered.add(START + minute * MINUTE);
+			reversed.add(START + (minutes - 1 - minute) * MINUTE);
+		}
+		assertEquals(minutes, reversed.getTotal());
+		assertEquals(ordered.getPeakMillis(), reversed.getPeakMillis());
+		assertTrue(Arrays.equals(serialize(ordered), serialize(reversed)));
+		// an earlier occurrence after the timeline was read
+		ordered.add(START - MINUTE);
+		reversed.add(START - MINUTE);
+		assertTrue(Arrays.equals(serialize(ordered), serialize(reversed)));
+	}
+
+	public void testMergeOfAnEarlierTimeline() throws IOException {
+		final List<Long> dates = randomDates(new Random(11), 4000);
+		Collections.sort(dates);
+		final Timeline all = new Timeline(MINUTE);
+		final Timeline earlier = new Timeline(MINUTE);
+		final Timeline later = new Timeline(MINUTE);
+		for(int i = 0; i < dates.size(); i++) {
+			all.add(dates.get(i));
+			// the halves overlap, as the duplicates of two parts of a log may interleave
+			(i % 3 == 0 || i < dates.size() / 2 ? earlier : later).add(dates.get(i));
+		}
+		later.merge(earlier);
+		assertEquals(all.getTotal(), later.getTotal());
+		assertTrue(Arrays.equals(serialize(all), serialize(later)));
+	}
+
+	public void testWriteAndRead() throws IOException {
+		final Timeline timeline = new Timeline(MINUTE);
+		for(final long date: randomDates(new Random(3), 1000)) {
+			timeline.add(date);
+		}
+		final byte[] bytes = serialize(timeline);
+		final Timeline read = Timeline.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)), MINUTE);
+		assertEquals(timeline.getTotal(), read.getTotal());
+		assertEquals(timeline.getPeakMillis(), read.getPeakMillis());
+		assertTrue(Arrays.equals(bytes, serialize(read)));
+	}
+
+	public void testFormatBucket() {
+		assertEquals("5m", Timeline.formatBucket(5 * MINUTE));
+		assertEquals("90s", Timeline.formatBucket(90_000L));
+		assertEquals("1d", Timeline.formatBucket(24 * 60 * MINUTE));
+		assertEquals("1500ms", Timeline.formatBucket(1500L));
+	}
+
+	/**
+	 * @return dates over a day with runs of buckets of the same count and gaps between them
+	 */
+	private static List<Long> randomDates(final Random random, final int count) {
+		final List<Long> dates = new ArrayList<>(count);
+		while(dates.size() < count) {
+			final long minute = random.nextInt(24 * 60);
+			final int occurrences = 1 + random.nextInt(3);
+			for(int i = 0; i < occurrences && dates.size() < count; i++) {
+				dates.add(START + minute * MINUTE + random.nextInt(60_000));
+			}
+		}
+		return dates;
+	}
+
+	private static byte[] serialize(final Timeline timeline) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			timeline.writeTo(out);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return the length of the encoded runs, written first by {@link Timeline#writeTo(java.io.DataOutput)}
+	 */
+	private static int readRunsLength(final byte[] serialized) throws IOException {
+		return new DataInputStream(new ByteArrayInputStream(serialized)).readInt();
+	}
+}
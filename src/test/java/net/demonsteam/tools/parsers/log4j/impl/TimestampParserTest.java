@@ -0,0 +1,130 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the fast path and the cached second of the parser against a plain {@link SimpleDateFormat}
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TimestampParserTest extends TestCase {
+
+	private static final String PATTERN = "dd.MM.yyyy HH:mm:ss.SSSS";
+
+	public void testSecondAndDayBoundaries() throws ParseException {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		final String[] dates = {"31.12.2019 23:59:58.0999", "31.12.2019 23:59:59.0000", "31.12.2019 23:59:59.0998", "01.01.2020 00:00:00.0000",
+		        "01.01.2020 00:00:00.0001", "31.12.2019 23:59:59.0500", "02.01.2020 00:00:00.0001", "01.01.2020 00:00:00.0001", "28.02.2020 23:59:59.0999",
+		        "29.02.2020 00:00:00.0000", "01.03.2020 00:00:00.0000"};
+		for(final String date: dates) {
+			assertEquals(date, reference(PATTERN, date), parser.parse(date));
+		}
+	}
+
+	public void testRandomWalkOverSeveralDays() throws ParseException {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		final SimpleDateFormat format = new SimpleDateFormat(PATTERN);
+		final Random random = new Random(9);
+		long millis = reference(PATTERN, "30.03.2019 22:00:00.0000");
+		for(int i = 0; i < 20000; i++) {
+			// mostly forward within the second, sometimes across seconds, days or back in time like merged logs
+			final int step = random.nextInt(100);
+			millis += step < 80 ? random.nextInt(50) : step < 95 ? random.nextInt(3_000) : random.nextInt(2 * 86_400_000) - 86_400_000;
+			final String date = format.format(new Date(millis));
+			assertEquals(date, reference(PATTERN, date), parser.parse(date));
+		}
+	}
+
+	public void testMillisAboveTheFieldRangeAreAdded() throws ParseException {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		assertEquals(reference(PATTERN, "01.01.2019 00:00:00.1500"), parser.parse("01.01.2019 00:00:00.1500"));
+		assertEquals(reference(PATTERN, "01.01.2019 00:00:01.0500"), parser.parse("01.01.2019 00:00:00.1500"));
+	}
+
+	public void testWhitespaceAndRange() throws ParseException {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		final String line = "x  01.01.2019 10:20:30.0040 *ERROR* message";
+		assertEquals(reference(PATTERN, "01.01.2019 10:20:30.0040"), parser.parse(line, 1, 28));
+		assertEquals(reference(PATTERN, "01.01.2019 10:20:30.0040"), parser.parse(" 01.01.2019 10:20:30.0040\t"));
+	}
+
+	public void testNonDigitMillisFallBackToTheFormat() throws ParseException {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		parser.parse("01.01.2019 10:20:30.0040"); // fills the cached second
+		assertEquals(reference(PATTERN, "01.01.2019 10:20:30.12x"), parser.parse("01.01.2019 10:20:30.12x"));
+		try {
+			parser.parse("01.01.2019 10:20:x.0040");
+			fail("the date doesn't match the format");
+		} catch(final ParseException e) {
+			// expected
+		}
+	}
+
+	public void testPatternWithoutMillis() throws ParseException {
+		final String pattern = "yyyy-MM-dd HH:mm:ss";
+		final TimestampParser parser = new TimestampParser(pattern);
+		for(final String date: new String[] {"2019-12-31 23:59:59", "2020-01-01 00:00:00", "2020-01-01 00:00:00", "2019-12-31 23:59:59"}) {
+			assertEquals(date, reference(pattern, date), parser.parse(date));
+		}
+		assertEquals("2020-01-01 00:00:00", parser.format(reference(pattern, "2020-01-01 00:00:00")));
+	}
+
+	/**
+	 * Every thread has its own cached second, threads parsing different days don't see the second of each other
+	 */
+	public void testThreadsKeepTheirOwnSecond() throws Exception {
+		final TimestampParser parser = new TimestampParser(PATTERN);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for(int thread = 0; thread < 4; thread++) {
+				final String second = String.format("0%d.01.2019 10:20:30.", thread + 1);
+				futures.add(executor.submit(() -> {
+					for(int millis = 0; millis < 5000; millis++) {
+						final String date = second + String.format("%04d", millis % 1000);
+						assertEquals(date, reference(PATTERN, date), parser.parse(date));
+					}
+					return null;
+				}));
+			}
+			for(final Future<?> future: futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static long reference(final String pattern, final String date) throws ParseException {
+		return new SimpleDateFormat(pattern).parse(date).getTime();
+	}
+}
@@ -0,0 +1,128 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class TopEntryAggregatorTest extends TestCase {
+
+	private static final String HEADER = "01.01.2019 00:00:00.0002 *ERROR* [main] com.example.Service ";
+
+	private AppArguments appArgs;
+	private long lineNumber;
+
+	@Override
+	protected void setUp() throws Exception {
+		this.appArgs = AppArguments.parse("-i", "test.log", "-l", "ERROR");
+	}
+
+	public void testCountsAreExactWhileTheCountersSuffice() throws IOException, ParseException {
+		final TopEntryAggregator aggregator = new TopEntryAggregator(3);
+		add(aggregator, "a", 5);
+		add(aggregator, "b", 3);
+		add(aggregator, "c", 1);
+		add(aggregator, "d", 2);
+		add(aggregator, "a", 1);
+		final List<LogEntry> entries = aggregator.getEntries();
+		assertEquals(3, entries.size());
+		assertEquals(HEADER + "a", entries.get(0).getLine());
+		assertEquals(5, entries.get(0).getCount()); // the duplicates of the first occurrence
+		assertEquals(HEADER + "b", entries.get(1).getLine());
+		assertEquals(2, entries.get(1).getCount());
+		assertEquals(HEADER + "d", entries.get(2).getLine());
+		assertEquals(1, entries.get(2).getCount());
+		assertTrue(entries.get(0).formatStats(0).contains("Count error: 0"));
+		assertEquals(4, aggregator.size());
+	}
+
+	/**
+	 * A frequent entry among many rare ones keeps its counter and is never counted lower than its real count
+	 */
+	public void testEvictionKeepsTheFrequentEntry() throws IOException, ParseException {
+		final TopEntryAggregator aggregator = new TopEntryAggregator(1);
+		for(int i = 0; i < 2000; i++) {
+			add(aggregator, "rare " + i, 1);
+			if(i % 4 == 0) {
+				add(aggregator, "frequent", 1);
+			}
+		}
+		final List<LogEntry> entries = aggregator.getEntries();
+		assertEquals(1, entries.size());
+		assertEquals(HEADER + "frequent", entries.get(0).getLine());
+		final long count = entries.get(0).getCount() + 1;
+		assertTrue(String.valueOf(count), count >= 500);
+		assertTrue(aggregator.getAccuracy().contains("unseen entries occurred at most"));
+		assertTrue(Math.abs(aggregator.size() - 2001) < 2001 * 0.05);
+	}
+
+	public void testEvictionKeepsTheLargerCounts() throws IOException, ParseException {
+		final TopEntryAggregator aggregator = new TopEntryAggregator(1);
+		// fill the 10 counters, then new entries take the counter of the smallest one
+		for(int i = 0; i < 10; i++) {
+			add(aggregator, "entry " + i, 2 + i);
+		}
+		add(aggregator, "new", 1);
+		add(aggregator, "new", 1);
+		final List<LogEntry> entries = aggregator.getEntries();
+		assertEquals(HEADER + "entry 9", entries.get(0).getLine());
+		assertEquals(10, entries.get(0).getCount());
+		assertTrue(entries.get(0).formatStats(0).contains("Count error: 0"));
+	}
+
+	/**
+	 * The headers sharing the body of a group join it as aliases up to the cap, a later one is counted on its own from
+	 * its first occurrence on
+	 */
+	public void testAliasCap() throws IOException, ParseException {
+		final TopEntryAggregator aggregator = new TopEntryAggregator(2);
+		for(int round = 0; round < 2; round++) {
+			for(int i = 0; i < 10; i++) {
+				final LogEntry entry = entry("failed " + i);
+				entry.setBody("java.lang.IllegalStateException\n", XxHash64.hash("java.lang.IllegalStateException\n"));
+				aggregator.merge(entry);
+			}
+		}
+		final List<LogEntry> entries = aggregator.getEntries();
+		assertEquals(2, entries.size());
+		assertEquals(HEADER + "failed 0", entries.get(0).getLine());
+		assertEquals(2 * 9 - 1, entries.get(0).getCount());
+		assertEquals(HEADER + "failed 9", entries.get(1).getLine());
+		assertEquals(1, entries.get(1).getCount());
+	}
+
+	private void add(final TopEntryAggregator aggregator, final String message, final int occurrences) throws IOException, ParseException {
+		for(int i = 0; i < occurrences; i++) {
+			aggregator.merge(entry(message));
+		}
+	}
+
+	private LogEntry entry(final String message) throws IOException, ParseException {
+		final LogEntry entry = new LogEntry(HEADER + message, this.appArgs);
+		entry.setLineNumber(++this.lineNumber);
+		return entry;
+	}
+}
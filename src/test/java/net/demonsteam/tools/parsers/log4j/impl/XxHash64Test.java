@@ -0,0 +1,89 @@
+/* Copyright (C) <2026> <d33t>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE. */
+package net.demonsteam.tools.parsers.log4j.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the hash against the reference values of the xxHash sanity test, which hashes the bytes of a generated
+ * buffer with the seed 0. Every char of the hashed text holds two bytes of the buffer in little endian order.
+ *
+ * @author d33t
+ * @date 18 Oct 2026
+ */
+public class XxHash64Test extends TestCase {
+
+	private static final long PRIME32 = 2654435761L;
+	private static final long PRIME64 = 0x9E3779B185EBCA8DL;
+
+	private static final int[] REFERENCE_LENGTHS = {0, 4, 14, 222};
+	private static final long[] REFERENCE_HASHES = {0xEF46DB3751D8E999L, 0x9136A0DCA57457EEL, 0x8282DCC4994E35C8L, 0xB641AE8CB691C174L};
+
+	public void testReferenceVectors() {
+		for(int i = 0; i < REFERENCE_LENGTHS.length; i++) {
+			final String text = sanityText(REFERENCE_LENGTHS[i]);
+			assertEquals("bytes: " + REFERENCE_LENGTHS[i], REFERENCE_HASHES[i], XxHash64.hash(text));
+		}
+	}
+
+	public void testReferenceVectorsIncremental() {
+		final XxHash64 hash = new XxHash64();
+		for(int i = 0; i < REFERENCE_LENGTHS.length; i++) {
+			hash.reset();
+			hash.update(sanityText(REFERENCE_LENGTHS[i]));
+			assertEquals("bytes: " + REFERENCE_LENGTHS[i], REFERENCE_HASHES[i], hash.digest());
+		}
+	}
+
+	public void testIncrementalEqualsAtOnce() {
+		final String text = sanityText(2 * 300);
+		final XxHash64 hash = new XxHash64();
+		for(int length = 0; length <= text.length(); length++) {
+			hash.reset();
+			for(int i = 0; i < length; i++) {
+				hash.update(text.charAt(i));
+			}
+			assertEquals("chars: " + length, XxHash64.hash(text, 0, length), hash.digest());
+		}
+	}
+
+	public void testRangeOfText() {
+		final String text = sanityText(2 * 100);
+		assertEquals(XxHash64.hash(text.substring(7, 61)), XxHash64.hash(text, 7, 61));
+		assertEquals(XxHash64.hash(""), XxHash64.hash(text, 20, 20));
+	}
+
+	/**
+	 * @param bytes the number of bytes of the sanity buffer, even
+	 * @return the bytes as little endian chars
+	 */
+	private static String sanityText(final int bytes) {
+		final byte[] buffer = new byte[bytes];
+		long generator = PRIME32;
+		for(int i = 0; i < bytes; i++) {
+			buffer[i] = (byte) (generator >>> 56);
+			generator *= PRIME64;
+		}
+		final StringBuilder text = new StringBuilder(bytes / 2);
+		for(int i = 0; i < bytes; i += 2) {
+			text.append((char) (buffer[i] & 0xFF | (buffer[i + 1] & 0xFF) << 8));
+		}
+		return text.toString();
+	}
+}